@@ -6,21 +6,42 @@
 <head>
 <meta charset="ISO-8859-1">
 <title>TMT-TCS Show Data</title>
-<meta http-equiv="refresh" content="1">
 </head>
 <script type="text/javascript">
 	function getData() {
 		<%
-			String mcsAz = TcsDataHandler.mcsAzimuth  + "";
-			String mcsEl = TcsDataHandler.mcsElevation + "";
-			String ecsAz = TcsDataHandler.ecsAzimuth + "";
-			String ecsEl = TcsDataHandler.ecsElevation + "";
-			String m3Rotation = TcsDataHandler.m3Rotation + "";
-			String m3Tilt = TcsDataHandler.m3Tilt + "";
+			TcsDataHandler.PositionSnapshot position = TcsDataHandler.snapshot();
+			String mcsAz = position.mcsAzimuth + "";
+			String mcsEl = position.mcsElevation + "";
+			String ecsAz = position.ecsAzimuth + "";
+			String ecsEl = position.ecsElevation + "";
+			String m3Rotation = position.m3Rotation + "";
+			String m3Tilt = position.m3Tilt + "";
 		%>
 	}
+
+	// Position changes are pushed by TelemetryStreamServlet, each event
+	// carries the changed channels keyed by the id of their cell
+	function streamData() {
+		if (!window.EventSource) {
+			setTimeout(function() {
+				location.reload();
+			}, 1000);
+			return;
+		}
+		var source = new EventSource("telemetryStream?maxRate=10");
+		source.onmessage = function(event) {
+			var changes = JSON.parse(event.data);
+			for ( var channel in changes) {
+				var cell = document.getElementById(channel);
+				if (cell) {
+					cell.textContent = changes[channel];
+				}
+			}
+		};
+	}
 </script>
-<body onload="getData()">
+<body onload="getData(); streamData()">
 
 	<form>
 		<table border="1">
@@ -33,12 +54,12 @@
 				<td>Current M3 Tilt</td>
 			</tr>
 			<tr>
-				<td><%=mcsAz%></td>
-				<td><%=mcsEl%></td>
-				<td><%=ecsAz%></td>
-				<td><%=ecsEl%></td>
-				<td><%=m3Rotation%></td>
-				<td><%=m3Tilt%></td>
+				<td id="mcsAzimuth"><%=mcsAz%></td>
+				<td id="mcsElevation"><%=mcsEl%></td>
+				<td id="ecsAzimuth"><%=ecsAz%></td>
+				<td id="ecsElevation"><%=ecsEl%></td>
+				<td id="m3Rotation"><%=m3Rotation%></td>
+				<td id="m3Tilt"><%=m3Tilt%></td>
 			</tr>
 		</table>
 	</form>
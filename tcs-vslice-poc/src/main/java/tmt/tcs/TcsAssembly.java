@@ -37,6 +37,7 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseAssembly;
+import tmt.tcs.common.ParallelExecutor;
 
 /**
  * Top Level Actor for TCS Assembly
@@ -51,6 +52,15 @@ public class TcsAssembly extends BaseAssembly {
 
 	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
 
+	/**
+	 * A follow needs the sub assemblies initialized, an offset only the target
+	 * it applies to. An offset to the current target thus runs alongside an
+	 * init, and each config drives its sub assemblies in parallel
+	 */
+	private static final ParallelExecutor.Dependencies commandDependencies = ParallelExecutor.Dependencies.none
+			.after(TcsConfig.followPrefix, TcsConfig.initPrefix)
+			.after(TcsConfig.offsetPrefix, TcsConfig.followPrefix);
+
 	private final ActorRef supervisor;
 	private final AssemblyContext assemblyContext;
 	private ActorRef commandHandler;
@@ -234,7 +244,7 @@ public class TcsAssembly extends BaseAssembly {
 		log.debug("Inside TcsAssembly setup: SetupConfigArg is: " + sca);
 		List<Validation.Validation> validations = validateSequenceConfigArg(sca);
 		if (Validation.isAllValid(validations)) {
-			ActorRef executor = newExecutor(commandHandler, sca, commandOriginator);
+			ActorRef executor = newParallelExecutor(commandHandler, sca, commandOriginator, commandDependencies);
 		}
 		return validations;
 	}
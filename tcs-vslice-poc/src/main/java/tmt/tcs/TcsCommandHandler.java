@@ -1,9 +1,10 @@
 package tmt.tcs;
 
 import static akka.pattern.PatternsCS.ask;
-import static javacsw.services.ccs.JCommandStatus.Completed;
 import static scala.compat.java8.OptionConverters.toJava;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -15,7 +16,6 @@ import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import akka.util.Timeout;
-import csw.services.ccs.AssemblyController;
 import csw.services.ccs.CommandStatus.CommandStatus;
 import csw.services.ccs.SequentialExecutor.ExecuteOne;
 import csw.services.loc.LocationService.Location;
@@ -33,6 +33,8 @@ import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.AssemblyStateActor;
 import tmt.tcs.common.BaseCommandHandler;
+import tmt.tcs.common.CommandScatterGather;
+import tmt.tcs.common.TcsLogger.Subsystem;
 import tmt.tcs.ecs.EcsConfig;
 import tmt.tcs.m3.M3Config;
 import tmt.tcs.mcs.McsConfig;
@@ -40,7 +42,9 @@ import tmt.tcs.web.WebEventSubscriber;
 
 /**
  * This is an actor class which receives commands forwarded by TCS Assembly And
- * based upon the command config key send to specific command actor class
+ * based upon the command config key send to specific command actor class.
+ * Configs arriving while a follow or offset command actor is being started
+ * are stashed until it runs
  */
 public class TcsCommandHandler extends BaseCommandHandler {
 
@@ -109,7 +113,6 @@ public class TcsCommandHandler extends BaseCommandHandler {
 		} else if (location instanceof ResolvedTcpLocation) {
 			ResolvedTcpLocation t = (ResolvedTcpLocation) location;
 			log.debug("Inside TcsCommandHandler: Received TCP Location: " + t.connection());
-			System.out.println("*********Inside TcsCommandHandler: Received TCP Location: " + t.connection());
 			if (location.connection().equals(IEventService.eventServiceConnection())) {
 				log.debug("Inside TcsCommandHandler: Assembly received ES connection: " + t);
 				eventService = Optional.of(IEventService.getEventService(t.host(), t.port(), context().system()));
@@ -159,13 +162,13 @@ public class TcsCommandHandler extends BaseCommandHandler {
 
 				log.debug("Inside TcsCommandHandler: Init command: mcsRefActor is: " + mcsRefActor);
 
-				mcsRefActor.tell(new AssemblyController.Submit(mcsSetupConfigArg), self());
-
-				ecsRefActor.tell(new AssemblyController.Submit(ecsSetupConfigArg), self());
-
-				m3RefActor.tell(new AssemblyController.Submit(m3SetupConfigArg), self());
-
-				commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+				// Completed once all three assemblies are initialized
+				List<CommandScatterGather.Target> targets = Arrays.asList(
+						new CommandScatterGather.Target(Subsystem.MCS, mcsRefActor, mcsSetupConfigArg),
+						new CommandScatterGather.Target(Subsystem.ECS, ecsRefActor, ecsSetupConfigArg),
+						new CommandScatterGather.Target(Subsystem.M3, m3RefActor, m3SetupConfigArg));
+				context().actorOf(CommandScatterGather.props("init", targets, TcsConfig.subAssemblyDeadline,
+						commandOriginator.orElse(badActorReference)));
 			} else if (configKey.equals(TcsConfig.followCK)) {
 				log.debug("Inside TcsCommandHandler initReceive: ExecuteOne: followCK Command ");
 				ActorRef followActorRef = context().actorOf(
@@ -174,8 +177,6 @@ public class TcsCommandHandler extends BaseCommandHandler {
 				context().become(actorExecutingReceive(followActorRef, commandOriginator));
 
 				self().tell(JSequentialExecutor.CommandStart(), self());
-
-				commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
 			} else if (configKey.equals(TcsConfig.offsetCK)) {
 				log.debug("Inside TcsCommandHandler initReceive: ExecuteOne: offsetCK Command ");
 				ActorRef offsetActorRef = context().actorOf(
@@ -184,8 +185,6 @@ public class TcsCommandHandler extends BaseCommandHandler {
 				context().become(actorExecutingReceive(offsetActorRef, commandOriginator));
 
 				self().tell(JSequentialExecutor.CommandStart(), self());
-
-				commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
 			}
 
 		}).build();
@@ -213,11 +212,13 @@ public class TcsCommandHandler extends BaseCommandHandler {
 				return null;
 			});
 
+			unstashAll();
 			context().become(initReceive());
 		}).
 
 				match(CommandDone.class, t -> {
 					log.debug("Inside TcsCommandHandler actorExecutingReceive: CommandDone");
+					unstashAll();
 					context().become(initReceive());
 				}).
 
@@ -227,6 +228,9 @@ public class TcsCommandHandler extends BaseCommandHandler {
 
 				match(ExecuteOne.class, t -> {
 					log.debug("Inside TcsCommandHandler actorExecutingReceive: ExecuteOne");
+					// Configs run concurrently by the ParallelExecutor arrive before
+					// the CommandStart, they are handled after it in initReceive
+					stash();
 				})
 				.matchAny(t -> log
 						.warning("Inside TcsCommandHandler actorExecutingReceive: received an unknown message: " + t))
@@ -1,8 +1,12 @@
 package tmt.tcs;
 
+import java.util.concurrent.TimeUnit;
+
 import csw.util.config.Configurations.ConfigKey;
 import csw.util.config.DoubleKey;
+import csw.util.config.IntKey;
 import csw.util.config.StringKey;
+import scala.concurrent.duration.FiniteDuration;
 
 /**
  * This class contains all the configurations specific to TCS Assembly
@@ -45,4 +49,16 @@ public class TcsConfig {
 	public static final DoubleKey dec = new DoubleKey("tcs.dec");
 	public static final StringKey frame = new StringKey("tcs.frame");
 
+	// Optional offset pattern, see TpkConfig.patternType
+	public static final StringKey patternType = new StringKey("tcs.pattern.type");
+	public static final IntKey patternCount = new IntKey("tcs.pattern.count");
+	public static final DoubleKey patternStep = new DoubleKey("tcs.pattern.step");
+	public static final DoubleKey patternDwell = new DoubleKey("tcs.pattern.dwell");
+
+	/**
+	 * Time the MCS, ECS, M3 and TPK assemblies have to complete the commands
+	 * of a follow or offset, below the command handler's 5 second timeout
+	 */
+	public static final FiniteDuration subAssemblyDeadline = FiniteDuration.create(3, TimeUnit.SECONDS);
+
 }
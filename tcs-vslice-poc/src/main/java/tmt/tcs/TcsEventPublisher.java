@@ -5,8 +5,6 @@ import static javacsw.util.config.JItems.jadd;
 import java.util.Optional;
 
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.loc.LocationService;
@@ -20,6 +18,7 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseEventPublisher;
+import tmt.tcs.common.TcsLogger;
 import tmt.tcs.ecs.EcsEventPublisher.EcsStateUpdate;
 import tmt.tcs.m3.M3EventPublisher.M3StateUpdate;
 import tmt.tcs.mcs.McsEventPublisher.McsStateUpdate;
@@ -30,7 +29,7 @@ import tmt.tcs.mcs.McsEventPublisher.McsStateUpdate;
  */
 public class TcsEventPublisher extends BaseEventPublisher {
 
-	LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	@SuppressWarnings("unused")
 	private final AssemblyContext assemblyContext;
@@ -43,8 +42,8 @@ public class TcsEventPublisher extends BaseEventPublisher {
 		subscribeToLocationUpdates();
 		this.assemblyContext = assemblyContext;
 
-		log.debug("Inside TcsEventPublisher Event Service in: " + eventServiceIn);
-		log.debug("Inside TcsEventPublisher Telemetry Service in: " + telemetryServiceIn);
+		log.debug("Inside TcsEventPublisher Event Service in: {}", eventServiceIn);
+		log.debug("Inside TcsEventPublisher Telemetry Service in: {}", telemetryServiceIn);
 
 		receive(publishingEnabled(eventServiceIn, telemetryServiceIn));
 	}
@@ -63,7 +62,7 @@ public class TcsEventPublisher extends BaseEventPublisher {
 						location -> handleLocations(location, eventService, telemetryService))
 				.
 
-				matchAny(t -> log.warning("Inside TcsEventPublisher Unexpected message in publishingEnabled: " + t)).
+				matchAny(t -> log.warning("Inside TcsEventPublisher Unexpected message in publishingEnabled: {}", t)).
 
 				build();
 	}
@@ -75,33 +74,33 @@ public class TcsEventPublisher extends BaseEventPublisher {
 			Optional<ITelemetryService> currentTelemetryService) {
 		if (location instanceof ResolvedTcpLocation) {
 			ResolvedTcpLocation t = (ResolvedTcpLocation) location;
-			log.debug("Inside TcsEventPublisher Received TCP Location: " + t.connection());
+			log.debug("Inside TcsEventPublisher Received TCP Location: {}", t.connection());
 			// Verify that it is the event service
 			if (location.connection().equals(IEventService.eventServiceConnection())) {
-				log.debug("Inside TcsEventPublisher received connection: " + t);
+				log.debug("Inside TcsEventPublisher received connection: {}", t);
 				Optional<IEventService> newEventService = Optional
 						.of(IEventService.getEventService(t.host(), t.port(), context().system()));
-				log.debug("Inside TcsEventPublisherEvent Service at: " + newEventService);
+				log.debug("Inside TcsEventPublisherEvent Service at: {}", newEventService);
 				context().become(publishingEnabled(newEventService, currentTelemetryService));
 			}
 
 			if (location.connection().equals(ITelemetryService.telemetryServiceConnection())) {
-				log.debug("Inside TcsEventPublisher received connection: " + t);
+				log.debug("Inside TcsEventPublisher received connection: {}", t);
 				Optional<ITelemetryService> newTelemetryService = Optional
 						.of(ITelemetryService.getTelemetryService(t.host(), t.port(), context().system()));
-				log.debug("Inside TcsEventPublisher Telemetry Service at: " + newTelemetryService);
+				log.debug("Inside TcsEventPublisher Telemetry Service at: {}", newTelemetryService);
 				context().become(publishingEnabled(currentEventService, newTelemetryService));
 			}
 
 		} else if (location instanceof LocationService.Unresolved) {
-			log.debug("Unresolved: " + location.connection());
+			log.debug("Unresolved: {}", location.connection());
 			if (location.connection().equals(IEventService.eventServiceConnection()))
 				context().become(publishingEnabled(Optional.empty(), currentTelemetryService));
 			else if (location.connection().equals(ITelemetryService.telemetryServiceConnection()))
 				context().become(publishingEnabled(currentEventService, Optional.empty()));
 
 		} else {
-			log.debug("Inside TcsEventPublisher received some other location: " + location);
+			log.debug("Inside TcsEventPublisher received some other location: {}", location);
 		}
 	}
 
@@ -111,9 +110,14 @@ public class TcsEventPublisher extends BaseEventPublisher {
 	private void publishMcsPositionUpdate(Optional<IEventService> eventService, ChoiceItem state, DoubleItem az,
 			DoubleItem el) {
 		SystemEvent se = jadd(new SystemEvent(TcsConfig.mcsPositionPrefix), state, az, el);
-		log.debug("Inside TcsEventPublisher publishMcsPositionUpdate " + TcsConfig.mcsPositionCK + ": " + se);
+		log.debug("Inside TcsEventPublisher publishMcsPositionUpdate {}: {}", TcsConfig.mcsPositionCK, se);
+		long start = System.nanoTime();
 		eventService.ifPresent(e -> e.publish(se).handle((x, ex) -> {
-			log.error("Inside TcsEventPublisher publishMcsPositionUpdate : failed to publish mcs position: " + se, ex);
+			recordPublish(start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside TcsEventPublisher publishMcsPositionUpdate : failed to publish mcs position: {}",
+						se);
+			}
 			return null;
 		}));
 	}
@@ -125,9 +129,13 @@ public class TcsEventPublisher extends BaseEventPublisher {
 	private void publishEcsPositionUpdate(Optional<IEventService> eventService, ChoiceItem state, DoubleItem az,
 			DoubleItem el) {
 		SystemEvent se = jadd(new SystemEvent(TcsConfig.ecsPositionPrefix), state, az, el);
-		log.debug("Inside TcsEventPublisher publishEcsPositionUpdate " + TcsConfig.ecsPositionCK + ": " + se);
+		log.debug("Inside TcsEventPublisher publishEcsPositionUpdate {}: {}", TcsConfig.ecsPositionCK, se);
+		long start = System.nanoTime();
 		eventService.ifPresent(e -> e.publish(se).handle((x, ex) -> {
-			log.error("Inside TcsEventPublisher publishEcsState failed to publish ecs state: " + se, ex);
+			recordPublish(start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside TcsEventPublisher publishEcsState failed to publish ecs state: {}", se);
+			}
 			return null;
 		}));
 	}
@@ -139,9 +147,13 @@ public class TcsEventPublisher extends BaseEventPublisher {
 	private void publishM3PositionUpdate(Optional<IEventService> eventService, ChoiceItem state, DoubleItem rotation,
 			DoubleItem tilt) {
 		SystemEvent se = jadd(new SystemEvent(TcsConfig.m3PositionPrefix), state, rotation, tilt);
-		log.debug("Inside TcsEventPublisher publishM3PositionUpdate " + TcsConfig.m3PositionCK + ": " + se);
+		log.debug("Inside TcsEventPublisher publishM3PositionUpdate {}: {}", TcsConfig.m3PositionCK, se);
+		long start = System.nanoTime();
 		eventService.ifPresent(e -> e.publish(se).handle((x, ex) -> {
-			log.error("Inside TcsEventPublisher publishM3PositionUpdate failed to publish m3 position: " + se, ex);
+			recordPublish(start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside TcsEventPublisher publishM3PositionUpdate failed to publish m3 position: {}", se);
+			}
 			return null;
 		}));
 	}
@@ -1,13 +1,12 @@
 package tmt.tcs;
 
 import static javacsw.util.config.JItems.jitem;
+import static javacsw.util.config.JItems.jvalue;
 
 import java.util.Optional;
 
 import akka.actor.ActorRef;
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.events.EventService;
@@ -20,6 +19,8 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseEventSubscriber;
+import tmt.tcs.common.TcsLogger;
+import tmt.tcs.common.TimeSeriesHistory;
 import tmt.tcs.ecs.EcsConfig;
 import tmt.tcs.ecs.EcsEventPublisher.EcsStateUpdate;
 import tmt.tcs.m3.M3Config;
@@ -36,7 +37,15 @@ import tmt.tcs.mcs.McsEventPublisher.McsStateUpdate;
 @SuppressWarnings("unused")
 public class TcsEventSubscriber extends BaseEventSubscriber {
 
-	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	private TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
+
+	// History channels of the positions the subsystems report to TCS
+	public static final String mcsAzimuthChannel = "tcs.mcsAzimuth";
+	public static final String mcsElevationChannel = "tcs.mcsElevation";
+	public static final String ecsAzimuthChannel = "tcs.ecsAzimuth";
+	public static final String ecsElevationChannel = "tcs.ecsElevation";
+	public static final String m3RotationChannel = "tcs.m3Rotation";
+	public static final String m3TiltChannel = "tcs.m3Tilt";
 
 	private final AssemblyContext assemblyContext;
 	private final Optional<ActorRef> eventPublisher;
@@ -63,8 +72,8 @@ public class TcsEventSubscriber extends BaseEventSubscriber {
 		return ReceiveBuilder.
 
 				match(SystemEvent.class, event -> {
-					log.debug("Inside TcsEventSubscriber subscribeReceive received an SystemEvent: Config Key is: "
-							+ event.info().source());
+					log.debug("Inside TcsEventSubscriber subscribeReceive received an SystemEvent: Config Key is: {}",
+							event.info().source());
 
 					DoubleItem mcsAzItem;
 					DoubleItem mcsElItem;
@@ -83,10 +92,12 @@ public class TcsEventSubscriber extends BaseEventSubscriber {
 						mcsElItem = jitem(event, McsConfig.elPosKey);
 						stateItem = jitem(event, McsConfig.mcsStateKey);
 
-						log.debug("Azimuth is: " + mcsAzItem + ": Elevation is: " + mcsElItem);
+						log.debug("Azimuth is: {}: Elevation is: {}", mcsAzItem, mcsElItem);
 						log.debug(
 								"##############################################################################################");
 
+						TimeSeriesHistory.record(mcsAzimuthChannel, jvalue(mcsAzItem));
+						TimeSeriesHistory.record(mcsElevationChannel, jvalue(mcsElItem));
 						updateMcsPublisher(stateItem, mcsAzItem, mcsElItem);
 					} else if (EcsConfig.currentPosCK.equals(event.info().source())) {
 						log.debug("Inside TcsEventSubscriber subscribeReceive received Ecs Current Position");
@@ -97,10 +108,12 @@ public class TcsEventSubscriber extends BaseEventSubscriber {
 						ecsElItem = jitem(event, EcsConfig.elPosKey);
 						stateItem = jitem(event, EcsConfig.ecsStateKey);
 
-						log.debug("Azimuth is: " + ecsAzItem + ": Elevation is: " + ecsElItem);
+						log.debug("Azimuth is: {}: Elevation is: {}", ecsAzItem, ecsElItem);
 						log.debug(
 								"##############################################################################################");
 
+						TimeSeriesHistory.record(ecsAzimuthChannel, jvalue(ecsAzItem));
+						TimeSeriesHistory.record(ecsElevationChannel, jvalue(ecsElItem));
 						updateEcsPublisher(stateItem, ecsAzItem, ecsElItem);
 					} else if (M3Config.currentPosCK.equals(event.info().source())) {
 						log.debug("Inside TcsEventSubscriber subscribeReceive received M3 Current Position");
@@ -111,17 +124,19 @@ public class TcsEventSubscriber extends BaseEventSubscriber {
 						m3TiltItem = jitem(event, M3Config.tiltPosKey);
 						stateItem = jitem(event, M3Config.m3StateKey);
 
-						log.debug("Rotation is: " + m3RotationItem + ": Tilt is: " + m3TiltItem);
+						log.debug("Rotation is: {}: Tilt is: {}", m3RotationItem, m3TiltItem);
 						log.debug(
 								"##############################################################################################");
 
+						TimeSeriesHistory.record(m3RotationChannel, jvalue(m3RotationItem));
+						TimeSeriesHistory.record(m3TiltChannel, jvalue(m3TiltItem));
 						updateM3Publisher(stateItem, m3RotationItem, m3TiltItem);
 					}
 
 				}).
 
-				matchAny(t -> log.debug("Inside TcsEventSubscriber Unexpected message received:subscribeReceive: " + t))
-				.build();
+				matchAny(t -> log.debug("Inside TcsEventSubscriber Unexpected message received:subscribeReceive: {}",
+						t)).build();
 	}
 
 	/**
@@ -159,7 +174,7 @@ public class TcsEventSubscriber extends BaseEventSubscriber {
 		// Subscribe to Mcs Current Position Event
 		EventMonitor subscribeMonitor = subscribeKeys(eventService, McsConfig.currentPosCK);
 
-		log.debug("Inside TcsEventSubscriber actor: " + subscribeMonitor.actorRef());
+		log.debug("Inside TcsEventSubscriber actor: {}", subscribeMonitor.actorRef());
 
 		// Subscribe to Ecs Current Position Event
 		subscribeKeys(subscribeMonitor, EcsConfig.currentPosCK);
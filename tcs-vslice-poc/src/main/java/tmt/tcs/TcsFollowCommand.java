@@ -5,6 +5,8 @@ import static javacsw.util.config.JItems.jitem;
 import static javacsw.util.config.JItems.jset;
 import static javacsw.util.config.JItems.jvalue;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import akka.actor.ActorRef;
@@ -13,7 +15,6 @@ import akka.event.Logging;
 import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
-import csw.services.ccs.AssemblyController;
 import csw.util.config.Configurations;
 import csw.util.config.Configurations.SetupConfig;
 import csw.util.config.Configurations.SetupConfigArg;
@@ -24,6 +25,8 @@ import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.AssemblyStateActor.AssemblyState;
 import tmt.tcs.common.BaseCommand;
+import tmt.tcs.common.CommandScatterGather;
+import tmt.tcs.common.TcsLogger.Subsystem;
 import tmt.tcs.ecs.EcsConfig;
 import tmt.tcs.m3.M3Config;
 import tmt.tcs.mcs.McsConfig;
@@ -32,7 +35,8 @@ import tmt.tcs.tpk.TpkConfig;
 /**
  * This is an actor class which receives command specific to Follow Operation
  * And after any modifications if required, redirect the same to TPK. This also
- * issue follow command to MCS, ECS and M3 Assemblies
+ * issue follow command to MCS, ECS and M3 Assemblies and replies when all four
+ * completed, see CommandScatterGather
  */
 @SuppressWarnings("unused")
 public class TcsFollowCommand extends BaseCommand {
@@ -95,12 +99,6 @@ public class TcsFollowCommand extends BaseCommand {
 
 			log.debug("Inside TcsFollowCommand: Follow command -- mcsRefActor is: " + mcsRefActor);
 
-			mcsRefActor.tell(new AssemblyController.Submit(mcsSetupConfigArg), self());
-
-			ecsRefActor.tell(new AssemblyController.Submit(ecsSetupConfigArg), self());
-
-			m3RefActor.tell(new AssemblyController.Submit(m3SetupConfigArg), self());
-
 			// Forward below parameters to TPK
 			String target = jvalue(jitem(sc, TcsConfig.target));
 			Double ra = jvalue(jitem(sc, TcsConfig.ra));
@@ -115,7 +113,14 @@ public class TcsFollowCommand extends BaseCommand {
 
 			SetupConfigArg tpkSetupConfigArg = Configurations.createSetupConfigArg("tpkFollowCommand", followSc);
 
-			tpkRefActor.tell(new AssemblyController.Submit(tpkSetupConfigArg), self());
+			// The command is completed when all four assemblies completed
+			List<CommandScatterGather.Target> targets = Arrays.asList(
+					new CommandScatterGather.Target(Subsystem.MCS, mcsRefActor, mcsSetupConfigArg),
+					new CommandScatterGather.Target(Subsystem.ECS, ecsRefActor, ecsSetupConfigArg),
+					new CommandScatterGather.Target(Subsystem.M3, m3RefActor, m3SetupConfigArg),
+					new CommandScatterGather.Target(Subsystem.TPK, tpkRefActor, tpkSetupConfigArg));
+			context().actorOf(
+					CommandScatterGather.props("follow", targets, TcsConfig.subAssemblyDeadline, sender()));
 
 		}).matchEquals(JSequentialExecutor.StopCurrentCommand(), t -> {
 			log.debug("Inside TcsFollowCommand: Follow command -- STOP: " + t);
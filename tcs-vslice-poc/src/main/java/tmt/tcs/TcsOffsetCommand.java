@@ -4,7 +4,10 @@ import static javacsw.util.config.JItems.jadd;
 import static javacsw.util.config.JItems.jitem;
 import static javacsw.util.config.JItems.jset;
 import static javacsw.util.config.JItems.jvalue;
+import static javacsw.util.config.JItems.jvalues;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import akka.actor.ActorRef;
@@ -13,7 +16,6 @@ import akka.event.Logging;
 import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
-import csw.services.ccs.AssemblyController;
 import csw.util.config.Configurations;
 import csw.util.config.Configurations.SetupConfig;
 import csw.util.config.Configurations.SetupConfigArg;
@@ -24,12 +26,17 @@ import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.AssemblyStateActor.AssemblyState;
 import tmt.tcs.common.BaseCommand;
+import tmt.tcs.common.CommandScatterGather;
+import tmt.tcs.common.TcsLogger.Subsystem;
 import tmt.tcs.mcs.McsConfig;
 import tmt.tcs.tpk.TpkConfig;
 
 /**
  * This is an actor class which receives command specific to Offset Operation
- * And after any modifications if required, redirect the same to MCS and TPK
+ * And after any modifications if required, redirect the same to MCS and TPK,
+ * replying when both completed, see CommandScatterGather. When the config
+ * carries a TcsConfig.patternType, TPK receives an offset pattern instead of
+ * a single offset and steps through it on its own
  */
 @SuppressWarnings("unused")
 public class TcsOffsetCommand extends BaseCommand {
@@ -83,13 +90,20 @@ public class TcsOffsetCommand extends BaseCommand {
 			log.debug("Inside TcsOffsetCommand: Offset command -- START: " + t + ": Config Key is: " + sc.configKey());
 
 			// Forward below parameters to TPK
-			Double ra = jvalue(jitem(sc, TcsConfig.ra));
-			Double dec = jvalue(jitem(sc, TcsConfig.dec));
+			SetupConfig offsetSc;
+			if (sc.exists(TcsConfig.patternType)) {
+				offsetSc = tpkPatternConfig(sc);
 
-			log.debug("Inside TcsOffsetCommand: Offset	 command: ra is: " + ra + ": dec is: " + dec);
+				log.debug("Inside TcsOffsetCommand: Offset command: pattern is: " + offsetSc);
+			} else {
+				Double ra = jvalue(jitem(sc, TcsConfig.ra));
+				Double dec = jvalue(jitem(sc, TcsConfig.dec));
 
-			SetupConfig offsetSc = jadd(new SetupConfig(TpkConfig.offsetCK.prefix()), jset(TpkConfig.ra, ra),
-					jset(TpkConfig.dec, dec));
+				log.debug("Inside TcsOffsetCommand: Offset	 command: ra is: " + ra + ": dec is: " + dec);
+
+				offsetSc = jadd(new SetupConfig(TpkConfig.offsetCK.prefix()), jset(TpkConfig.ra, ra),
+						jset(TpkConfig.dec, dec));
+			}
 
 			SetupConfigArg tpkSetupConfigArg = Configurations.createSetupConfigArg("tpkOffsetCommand", offsetSc);
 
@@ -98,15 +112,44 @@ public class TcsOffsetCommand extends BaseCommand {
 
 			log.debug("Inside TcsFollowCommand: Offset command -- mcsRefActor is: " + mcsRefActor);
 
-			mcsRefActor.tell(new AssemblyController.Submit(mcsSetupConfigArg), self());
-
-			tpkRefActor.tell(new AssemblyController.Submit(tpkSetupConfigArg), self());
+			// The command is completed when MCS and TPK completed
+			List<CommandScatterGather.Target> targets = Arrays.asList(
+					new CommandScatterGather.Target(Subsystem.MCS, mcsRefActor, mcsSetupConfigArg),
+					new CommandScatterGather.Target(Subsystem.TPK, tpkRefActor, tpkSetupConfigArg));
+			context().actorOf(
+					CommandScatterGather.props("offset", targets, TcsConfig.subAssemblyDeadline, sender()));
 
 		}).matchEquals(JSequentialExecutor.StopCurrentCommand(), t -> {
 			log.debug("Inside TcsOffsetCommand: Offset command -- STOP: " + t);
 		}).matchAny(t -> log.warning("Inside TcsOffsetCommand: Unknown message received: " + t)).build();
 	}
 
+	/**
+	 * Converts the pattern items of a TCS offset config into a TPK pattern
+	 * config, the ra and dec values are the offsets of a list pattern
+	 * 
+	 * @param sc
+	 * @return
+	 */
+	private static SetupConfig tpkPatternConfig(SetupConfig sc) {
+		SetupConfig patternSc = jadd(new SetupConfig(TpkConfig.patternCK.prefix()),
+				jset(TpkConfig.patternType, jvalue(jitem(sc, TcsConfig.patternType))),
+				jset(TpkConfig.patternDwell, jvalue(jitem(sc, TcsConfig.patternDwell))));
+		if (sc.exists(TcsConfig.patternCount)) {
+			patternSc = jadd(patternSc,
+					jset(TpkConfig.patternCount, jvalues(jitem(sc, TcsConfig.patternCount)).toArray(new Integer[0])));
+		}
+		if (sc.exists(TcsConfig.patternStep)) {
+			patternSc = jadd(patternSc,
+					jset(TpkConfig.patternStep, jvalues(jitem(sc, TcsConfig.patternStep)).toArray(new Double[0])));
+		}
+		if (sc.exists(TcsConfig.ra) && sc.exists(TcsConfig.dec)) {
+			patternSc = jadd(patternSc, jset(TpkConfig.ra, jvalues(jitem(sc, TcsConfig.ra)).toArray(new Double[0])),
+					jset(TpkConfig.dec, jvalues(jitem(sc, TcsConfig.dec)).toArray(new Double[0])));
+		}
+		return patternSc;
+	}
+
 	public static Props props(AssemblyContext ac, SetupConfig sc, ActorRef mcsRefActor, ActorRef ecsRefActor,
 			ActorRef m3RefActor, ActorRef tpkRefActor, AssemblyState tcsState, Optional<ActorRef> stateActor,
 			IEventService eventService, Optional<ActorRef> eventPublisher) {
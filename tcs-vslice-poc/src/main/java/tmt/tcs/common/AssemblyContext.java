@@ -39,4 +39,11 @@ public class AssemblyContext {
 
 	}
 
+	/**
+	 * @return the last part of the prefix, e.g. mcs for tcs.mcs
+	 */
+	public String subsystem() {
+		return componentPrefix.substring(componentPrefix.lastIndexOf('.') + 1);
+	}
+
 }
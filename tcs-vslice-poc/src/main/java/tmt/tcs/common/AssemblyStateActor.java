@@ -1,10 +1,17 @@
 package tmt.tcs.common;
 
+import static akka.pattern.PatternsCS.ask;
 import static javacsw.util.config.JItems.jset;
 import static javacsw.util.config.JItems.jvalue;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
 import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
 import akka.actor.Props;
+import akka.actor.Terminated;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
 import akka.japi.Creator;
@@ -24,6 +31,10 @@ public class AssemblyStateActor extends AbstractActor {
 
 	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
 
+	// Receive every state change directly from this actor, see
+	// AssemblySubscribeState
+	private final Set<ActorRef> stateSubscribers = new HashSet<>();
+
 	private AssemblyStateActor() {
 		receive(stateReceive(new AssemblyState(azDefault, elDefault, rotationDefault, tiltDefault)));
 	}
@@ -42,6 +53,7 @@ public class AssemblyStateActor extends AbstractActor {
 			if (!assemblyState.equals(assemblyCurrentState)) {
 				log.debug("Inside AssemblyStateActor stateReceive : Setting State: " + assemblyState);
 				context().system().eventStream().publish(assemblyState);
+				stateSubscribers.forEach(subscriber -> subscriber.tell(assemblyState, self()));
 				context().become(stateReceive(assemblyState));
 				sender().tell(new AssemblyStateWasSet(true), self());
 			} else {
@@ -50,6 +62,13 @@ public class AssemblyStateActor extends AbstractActor {
 		}).match(AssemblyGetState.class, t -> {
 			log.debug("Inside AssemblyStateActor stateReceive : GetState");
 			sender().tell(assemblyCurrentState, self());
+		}).match(AssemblySubscribeState.class, t -> {
+			log.debug("Inside AssemblyStateActor stateReceive : SubscribeState: " + sender());
+			stateSubscribers.add(sender());
+			context().watch(sender());
+			sender().tell(assemblyCurrentState, self());
+		}).match(Terminated.class, t -> {
+			stateSubscribers.remove(t.actor());
 		}).matchAny(t -> log.warning("Inside AssemblyStateActor stateReceive message is: " + t)).build();
 	}
 
@@ -64,6 +83,20 @@ public class AssemblyStateActor extends AbstractActor {
 		});
 	}
 
+	/**
+	 * Requests a state change without blocking the caller
+	 * 
+	 * @param stateActor
+	 * @param setState
+	 * @param timeoutMillis
+	 * @return completes with the reply of the state actor, or exceptionally if
+	 *         there was none within timeoutMillis
+	 */
+	public static CompletionStage<AssemblyStateWasSet> setState(ActorRef stateActor, AssemblySetState setState,
+			long timeoutMillis) {
+		return ask(stateActor, setState, timeoutMillis).thenApply(reply -> (AssemblyStateWasSet) reply);
+	}
+
 	// States specific to MCS and ECS Az
 	public static final Choice azShutDown = new Choice("shutdown");
 	public static final Choice azDrivePowerOn = new Choice("downpoweron");
@@ -268,6 +301,15 @@ public class AssemblyStateActor extends AbstractActor {
 	public static class AssemblyGetState {
 	}
 
+	/**
+	 * A message that causes the current state and every later state change to
+	 * be sent to the sender, with the state actor as sender. Unlike the event
+	 * stream, which carries the states of all assemblies in the ActorSystem,
+	 * this only delivers the states of one assembly
+	 */
+	public static class AssemblySubscribeState {
+	}
+
 	/**
 	 * Reply to SetState message that indicates if the state was actually set
 	 */
@@ -277,6 +319,10 @@ public class AssemblyStateActor extends AbstractActor {
 		public AssemblyStateWasSet(boolean wasSet) {
 			this.wasSet = wasSet;
 		}
+
+		public boolean wasSet() {
+			return wasSet;
+		}
 	}
 
 }
@@ -25,6 +25,7 @@ import javacsw.services.ccs.JAssemblyController;
 import javacsw.services.cs.akka.JConfigServiceClient;
 import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
+import tmt.tcs.common.TcsLogger.Subsystem;
 
 /**
  * This is the base assembly class being extended by all Top Level Assemblies
@@ -33,6 +34,21 @@ public abstract class BaseAssembly extends JAssemblyController {
 
 	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
 
+	private final TcsMetrics.ActorRecorder metrics = TcsMetrics.recorder(this, self());
+
+	/**
+	 * Records the processing time of every message in TcsMetrics
+	 */
+	@Override
+	public void aroundReceive(PartialFunction<Object, BoxedUnit> receive, Object msg) {
+		long start = metrics.received();
+		try {
+			super.aroundReceive(receive, msg);
+		} finally {
+			metrics.processed(msg, start);
+		}
+	}
+
 	public BaseAssembly(AssemblyInfo info) {
 		super(info);
 	}
@@ -67,6 +83,18 @@ public abstract class BaseAssembly extends JAssemblyController {
 				}).build();
 	}
 
+	/**
+	 * This answers LatencyTracker.GetLatencyReport with the demand latencies
+	 * recorded for the subsystem
+	 *
+	 * @return a partial function
+	 */
+	public PartialFunction<Object, BoxedUnit> latencyReceive(Subsystem subsystem) {
+		return ReceiveBuilder.match(LatencyTracker.GetLatencyReport.class, t -> {
+			sender().tell(LatencyTracker.of(subsystem).report(), self());
+		}).build();
+	}
+
 	/**
 	 * This Catches all unhandled message received
 	 *
@@ -97,6 +125,15 @@ public abstract class BaseAssembly extends JAssemblyController {
 		return context().actorOf(SequentialExecutor.props(commandHandler, sca, commandOriginator));
 	}
 
+	/**
+	 * This is a convenience method to create a new ParallelExecutor, which
+	 * runs configs concurrently unless ordered by dependencies
+	 */
+	public ActorRef newParallelExecutor(ActorRef commandHandler, SetupConfigArg sca,
+			Optional<ActorRef> commandOriginator, ParallelExecutor.Dependencies dependencies) {
+		return context().actorOf(ParallelExecutor.props(commandHandler, sca, commandOriginator, dependencies));
+	}
+
 	/**
 	 * The message is used within the Assembly to update actors when the HCD
 	 * goes up and down and up again
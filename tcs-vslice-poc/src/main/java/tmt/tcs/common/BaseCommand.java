@@ -1,8 +1,10 @@
 package tmt.tcs.common;
 
-import static akka.pattern.PatternsCS.ask;
+import static akka.pattern.PatternsCS.pipe;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import akka.actor.AbstractActor;
 import akka.actor.ActorRef;
@@ -20,17 +22,47 @@ public abstract class BaseCommand extends AbstractActor {
 	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
 
 	/**
-	 * This helps in updating assembly state while command execution
+	 * This helps in updating assembly state while command execution, without
+	 * waiting for the state actor
 	 * 
 	 * @param mcsSetState
 	 */
 	public void sendState(Optional<ActorRef> mcsStateActor, AssemblySetState mcsSetState) {
-		mcsStateActor.ifPresent(actorRef -> {
-			try {
-				ask(actorRef, mcsSetState, 5000).toCompletableFuture().get();
-			} catch (Exception e) {
-				log.error(e, "Inside McsMoveCommand: sendState: Error setting state");
-			}
-		});
+		mcsStateActor.ifPresent(actorRef -> AssemblyStateActor
+				.setState(actorRef, mcsSetState, BaseCommandHandler.stateTransitionTimeoutMillis)
+				.whenComplete((wasSet, ex) -> {
+					if (ex != null) {
+						log.error(ex, "Inside " + getClass().getSimpleName() + " sendState: Error setting state");
+					}
+				}));
+	}
+
+	/**
+	 * This updates assembly state like sendState, and once the state actor has
+	 * set it sends a StateSet carrying next back to this command, so the
+	 * command can go on only after the state is set
+	 * 
+	 * @param stateActor
+	 * @param setState
+	 * @param next
+	 */
+	public void sendState(Optional<ActorRef> stateActor, AssemblySetState setState, Object next) {
+		CompletionStage<?> wasSet = stateActor.isPresent() ? AssemblyStateActor.setState(stateActor.get(), setState,
+				BaseCommandHandler.stateTransitionTimeoutMillis) : CompletableFuture.completedFuture(true);
+		pipe(wasSet.handle((t, ex) -> new StateSet(next, Optional.ofNullable(ex))), context().dispatcher()).to(self());
+	}
+
+	/**
+	 * Sent to a command once the state actor has set the state, failure is
+	 * present if it could not be set
+	 */
+	public static class StateSet {
+		public final Object next;
+		public final Optional<Throwable> failure;
+
+		public StateSet(Object next, Optional<Throwable> failure) {
+			this.next = next;
+			this.failure = failure;
+		}
 	}
 }
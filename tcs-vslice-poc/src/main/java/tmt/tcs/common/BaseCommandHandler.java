@@ -1,31 +1,87 @@
 package tmt.tcs.common;
 
 import static akka.pattern.PatternsCS.ask;
+import static akka.pattern.PatternsCS.pipe;
 
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 
-import akka.actor.AbstractActor;
+import akka.actor.AbstractActorWithStash;
 import akka.actor.ActorContext;
 import akka.actor.ActorRef;
+import akka.japi.pf.ReceiveBuilder;
 import akka.util.Timeout;
 import csw.services.ccs.CommandStatus.CommandStatus;
 import csw.services.ccs.MultiStateMatcherActor;
 import csw.services.ccs.StateMatcher;
 import javacsw.services.pkg.ILocationSubscriberClient;
+import scala.PartialFunction;
+import scala.concurrent.ExecutionContext;
+import scala.runtime.BoxedUnit;
+import tmt.tcs.common.AssemblyStateActor.AssemblySetState;
 
 /**
- * This is base class for all command handler classes
+ * This is base class for all command handler classes. Command handlers can
+ * stash configs which arrive while they are busy with a command
  * 
  */
-public abstract class BaseCommandHandler extends AbstractActor
+public abstract class BaseCommandHandler extends AbstractActorWithStash
 		implements AssemblyStateClient, ILocationSubscriberClient {
 
+	private TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
+
+	private final TcsMetrics.ActorRecorder metrics = TcsMetrics.recorder(this, self());
+
+	/**
+	 * Records the processing time of every message in TcsMetrics
+	 */
+	@Override
+	public void aroundReceive(PartialFunction<Object, BoxedUnit> receive, Object msg) {
+		long start = metrics.received();
+		try {
+			super.aroundReceive(receive, msg);
+		} finally {
+			metrics.processed(msg, start);
+		}
+	}
+
 	private AssemblyStateActor.AssemblyState internalState = AssemblyStateActor.defaultAssemblyState;
 
+	// Captured once so transitions can also be started from future callbacks
+	private final ExecutionContext dispatcher = getContext().dispatcher();
+
+	public static final long stateTransitionTimeoutMillis = 5000;
+
 	public static class CommandDone {
 	}
 
+	/**
+	 * Sent by a command handler to itself once a state transition started with
+	 * transitionState has been answered by the state actor, or has failed
+	 */
+	public static class StateTransitionDone {
+		public final AssemblySetState requested;
+		public final boolean wasSet;
+		public final Optional<Throwable> failure;
+		private final Optional<ActorRef> replyTo;
+		private final Object reply;
+
+		public StateTransitionDone(AssemblySetState requested, boolean wasSet, Optional<Throwable> failure,
+				Optional<ActorRef> replyTo, Object reply) {
+			this.requested = requested;
+			this.wasSet = wasSet;
+			this.failure = failure;
+			this.replyTo = replyTo;
+			this.reply = reply;
+		}
+
+		@Override
+		public String toString() {
+			return "StateTransitionDone [requested=" + requested + ", wasSet=" + wasSet + ", failure=" + failure + "]";
+		}
+	}
+
 	@Override
 	public void setCurrentState(AssemblyStateActor.AssemblyState state) {
 		internalState = state;
@@ -38,6 +94,50 @@ public abstract class BaseCommandHandler extends AbstractActor
 		return internalState;
 	}
 
+	/**
+	 * This starts a state transition without blocking the handler
+	 * 
+	 * @param stateActor
+	 * @param setState
+	 */
+	public void transitionState(ActorRef stateActor, AssemblySetState setState) {
+		transitionState(stateActor, setState, Optional.empty(), null);
+	}
+
+	/**
+	 * This starts a state transition without blocking the handler. The result
+	 * is piped back to the handler as StateTransitionDone, after which reply is
+	 * sent to replyTo, so a command is only reported done once its state is in
+	 * place. May also be called from future callbacks
+	 * 
+	 * @param stateActor
+	 * @param setState
+	 * @param replyTo
+	 * @param reply
+	 */
+	public void transitionState(ActorRef stateActor, AssemblySetState setState, Optional<ActorRef> replyTo,
+			Object reply) {
+		CompletionStage<StateTransitionDone> done = AssemblyStateActor
+				.setState(stateActor, setState, stateTransitionTimeoutMillis)
+				.handle((wasSet, ex) -> new StateTransitionDone(setState, wasSet != null && wasSet.wasSet(),
+						Optional.ofNullable(ex), replyTo, reply));
+		pipe(done, dispatcher).to(self());
+	}
+
+	/**
+	 * This handles completion of state transitions, it is to be chained in
+	 * front of every receive of the handler
+	 * 
+	 * @return
+	 */
+	public PartialFunction<Object, BoxedUnit> transitionReceive() {
+		return ReceiveBuilder.match(StateTransitionDone.class, t -> {
+			t.failure.ifPresent(ex -> log.error(ex, "Inside " + getClass().getSimpleName()
+					+ " transitionReceive: Error setting state: " + t.requested));
+			t.replyTo.ifPresent(actorRef -> actorRef.tell(t.reply, self()));
+		}).build();
+	}
+
 	/**
 	 * This method helps in demand matching for marking command execution as
 	 * failed or success
@@ -52,20 +152,17 @@ public abstract class BaseCommandHandler extends AbstractActor
 	public static void executeMatch(ActorContext context, StateMatcher stateMatcher, ActorRef currentStateSource,
 			Optional<ActorRef> replyTo, Timeout timeout, Consumer<CommandStatus> codeBlock) {
 
-		System.out.println("Inside BaseCommandHandler executeMatch: Starts");
+		TcsLogger log = TcsLogger.getLogger(context.system(), context.self(),
+				TcsLogger.Subsystem.of(context.props().actorClass()));
 
 		ActorRef matcher = context.actorOf(MultiStateMatcherActor.props(currentStateSource, timeout));
 
-		System.out.println("Inside BaseCommandHandler executeMatch: matcher is: " + matcher);
-		System.out.println("Inside BaseCommandHandler executeMatch: stateMatcher is: " + stateMatcher);
-		System.out.println("Inside BaseCommandHandler executeMatch: context is: " + context);
-		System.out.println("Inside BaseCommandHandler executeMatch: currentStateSource is: " + currentStateSource);
-		System.out.println("Inside BaseCommandHandler executeMatch: replyTo is: " + replyTo);
+		log.debug("Inside BaseCommandHandler executeMatch: matcher is: {}: stateMatcher is: {}: source is: {}",
+				matcher, stateMatcher, currentStateSource);
 
 		ask(matcher, MultiStateMatcherActor.createStartMatch(stateMatcher), timeout).thenApply(reply -> {
-			System.out.println("Inside BaseCommandHandler executeMatch: reply: " + reply);
 			CommandStatus cmdStatus = (CommandStatus) reply;
-			System.out.println("Inside BaseCommandHandler executeMatch: cmdStatus: " + cmdStatus);
+			log.debug("Inside BaseCommandHandler executeMatch: cmdStatus is: {}: replyTo is: {}", cmdStatus, replyTo);
 			codeBlock.accept(cmdStatus);
 			replyTo.ifPresent(actorRef -> actorRef.tell(cmdStatus, context.self()));
 			return null;
@@ -0,0 +1,116 @@
+package tmt.tcs.common;
+
+import java.util.concurrent.TimeUnit;
+
+import akka.actor.AbstractActor;
+import akka.actor.Cancellable;
+import akka.japi.pf.ReceiveBuilder;
+import scala.PartialFunction;
+import scala.concurrent.duration.FiniteDuration;
+import scala.runtime.BoxedUnit;
+import tmt.tcs.common.DemandFilter.FilterStats;
+import tmt.tcs.common.DemandFilter.GetFilterStats;
+
+/**
+ * This is base class for all Control classes. Interpolated tracking demands
+ * pass a DemandFilter before they are submitted to the HCD, the filter
+ * settings are read from the assembly's config file in resources/assembly.
+ * Explicit setpoints, e.g. from setAzimuth, are always submitted
+ */
+public abstract class BaseControl extends AbstractActor {
+
+	private final DemandFilter<Runnable> demandFilter;
+
+	private Cancellable flushTask;
+
+	/**
+	 * @param assemblyContext
+	 *            the subsystem is the last part of its prefix, e.g. mcs for
+	 *            tcs.mcs
+	 */
+	public BaseControl(AssemblyContext assemblyContext) {
+		this(assemblyContext == null ? DemandFilter.Settings.disabled
+				: DemandFilter.Settings.load(assemblyContext.subsystem()));
+	}
+
+	public BaseControl(DemandFilter.Settings settings) {
+		this.demandFilter = new DemandFilter<>(settings);
+	}
+
+	/**
+	 * Sent to itself when a deferred demand may be submitted
+	 */
+	public static final class FlushDemand {
+		public static final FlushDemand instance = new FlushDemand();
+
+		private FlushDemand() {
+		}
+	}
+
+	/**
+	 * Runs submit now, later or not at all, depending on the filter. Demands
+	 * which are not tracking are submitted now
+	 *
+	 * @param first
+	 *            value of the first axis of the demand
+	 * @param second
+	 *            value of the second axis of the demand
+	 * @param tracking
+	 *            true for interpolated tracking demands
+	 * @param submit
+	 *            sends the demand to the HCD
+	 */
+	protected void filterDemand(double first, double second, boolean tracking, Runnable submit) {
+		long now = System.nanoTime();
+		if (!tracking) {
+			demandFilter.bypass(first, second, now);
+			submit.run();
+			return;
+		}
+		switch (demandFilter.offer(first, second, submit, now)) {
+		case SEND:
+			submit.run();
+			break;
+		case DEFER:
+			if (flushTask == null) {
+				flushTask = context().system().scheduler().scheduleOnce(
+						FiniteDuration.create(demandFilter.deferNanos(now), TimeUnit.NANOSECONDS), self(),
+						FlushDemand.instance, context().dispatcher(), self());
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Drops a deferred demand, it would be submitted to the previous HCD
+	 */
+	protected void hcdChanged() {
+		demandFilter.dropDeferred();
+	}
+
+	/**
+	 * This submits deferred demands and replies to GetFilterStats
+	 */
+	public PartialFunction<Object, BoxedUnit> demandFilterReceive() {
+		return ReceiveBuilder.match(FlushDemand.class, t -> {
+			flushTask = null;
+			Runnable submit = demandFilter.takeDeferred(System.nanoTime());
+			if (submit != null) {
+				submit.run();
+			}
+		}).match(GetFilterStats.class, t -> {
+			sender().tell(new FilterStats(demandFilter.forwarded(), demandFilter.suppressedByDeadband(),
+					demandFilter.suppressedByRate()), self());
+		}).build();
+	}
+
+	@Override
+	public void postStop() {
+		if (flushTask != null) {
+			flushTask.cancel();
+		}
+	}
+
+}
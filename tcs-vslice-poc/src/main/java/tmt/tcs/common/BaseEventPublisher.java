@@ -18,6 +18,34 @@ public abstract class BaseEventPublisher extends AbstractActor
 
 	private AssemblyStateActor.AssemblyState internalState = AssemblyStateActor.defaultAssemblyState;
 
+	private final TcsMetrics.ActorRecorder metrics = TcsMetrics.recorder(this, self());
+
+	/**
+	 * Records the processing time of every message in TcsMetrics
+	 */
+	@Override
+	public void aroundReceive(PartialFunction<Object, BoxedUnit> receive, Object msg) {
+		long start = metrics.received();
+		try {
+			super.aroundReceive(receive, msg);
+		} finally {
+			metrics.processed(msg, start);
+		}
+	}
+
+	/**
+	 * Records the latency and outcome of a publish in TcsMetrics, to be called
+	 * from the handle block of the publish
+	 *
+	 * @param start
+	 *            System.nanoTime() taken before publishing
+	 * @param failure
+	 *            the exception the publish failed with, or null
+	 */
+	public void recordPublish(long start, Throwable failure) {
+		metrics.published(start, failure);
+	}
+
 	public static class CommandDone {
 	}
 
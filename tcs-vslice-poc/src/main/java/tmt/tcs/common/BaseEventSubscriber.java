@@ -1,14 +1,23 @@
 package tmt.tcs.common;
 
+import static javacsw.util.config.JItems.jitem;
+import static javacsw.util.config.JItems.jvalue;
+
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import akka.actor.AbstractActor;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import csw.services.events.EventService.EventMonitor;
 import csw.util.config.Configurations.ConfigKey;
+import csw.util.config.DoubleKey;
+import csw.util.config.Events.SystemEvent;
 import javacsw.services.events.IEventService;
 import javacsw.services.pkg.ILocationSubscriberClient;
+import scala.PartialFunction;
+import scala.runtime.BoxedUnit;
 
 /**
  * This is the base Event Subscriber class being extended by all Event
@@ -16,7 +25,84 @@ import javacsw.services.pkg.ILocationSubscriberClient;
  */
 public abstract class BaseEventSubscriber extends AbstractActor implements ILocationSubscriberClient {
 
-	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	private TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
+
+	private final TcsMetrics.ActorRecorder metrics = TcsMetrics.recorder(this, self());
+
+	/**
+	 * Event service copies of a locally subscribed prefix are ignored for this
+	 * long after the last event of the prefix received over the LocalEventBus
+	 */
+	public static final long localTimeoutNanos = TimeUnit.SECONDS.toNanos(1);
+
+	// Event prefix -> last frame sequence number, each demand stream is
+	// numbered separately
+	private final Map<String, Long> lastFrameSeq = new HashMap<>();
+	private long missedFrames = 0;
+	private long tornFrames = 0;
+
+	// Locally subscribed prefix -> time its local delivery times out
+	private final Map<String, Long> localActiveUntilNanos = new HashMap<>();
+	private long remoteDuplicates = 0;
+
+	/**
+	 * Records the processing time of every message in TcsMetrics. Events
+	 * received over the LocalEventBus are unwrapped, so subclasses handle them
+	 * like events from the event service, and the event service copies of
+	 * these events are dropped
+	 */
+	@Override
+	public void aroundReceive(PartialFunction<Object, BoxedUnit> receive, Object msg) {
+		long start = metrics.received();
+		try {
+			Object message = msg;
+			if (msg instanceof LocalEventBus.LocalEvent) {
+				SystemEvent event = ((LocalEventBus.LocalEvent) msg).event;
+				localActiveUntilNanos.put(event.info().source().prefix(), System.nanoTime() + localTimeoutNanos);
+				message = event;
+			} else if (msg instanceof SystemEvent && receivedLocally((SystemEvent) msg)) {
+				remoteDuplicates++;
+				return;
+			}
+			super.aroundReceive(receive, message);
+		} finally {
+			metrics.processed(msg, start);
+		}
+	}
+
+	private boolean receivedLocally(SystemEvent event) {
+		Long activeUntil = localActiveUntilNanos.get(event.info().source().prefix());
+		return activeUntil != null && System.nanoTime() - activeUntil < 0;
+	}
+
+	/**
+	 * This subscribes to events published in this JVM over the
+	 * LocalEventBus, in addition to the event service subscription of the
+	 * same keys
+	 *
+	 * @param configKeys
+	 */
+	public void subscribeLocal(ConfigKey... configKeys) {
+		String[] prefixes = new String[configKeys.length];
+		for (int i = 0; i < configKeys.length; i++) {
+			prefixes[i] = configKeys[i].prefix();
+		}
+		LocalEventBus.subscribe(self(), prefixes);
+	}
+
+	/**
+	 * @return number of event service events dropped as they were received
+	 *         over the LocalEventBus
+	 */
+	public long remoteDuplicates() {
+		return remoteDuplicates;
+	}
+
+	@Override
+	public void postStop() throws Exception {
+		LocalEventBus.unsubscribe(self());
+		super.postStop();
+	}
 
 	/**
 	 * This helps unsubscribe Event Monitor from specific Config Key
@@ -25,7 +111,7 @@ public abstract class BaseEventSubscriber extends AbstractActor implements ILoca
 	 * @param configKeys
 	 */
 	public void unsubscribeKeys(EventMonitor monitor, ConfigKey... configKeys) {
-		log.debug("Inside BaseEventSubscriber Unsubscribing to: " + Arrays.toString(configKeys));
+		log.debug("Inside BaseEventSubscriber Unsubscribing to: {}", Arrays.toString(configKeys));
 		for (ConfigKey configKey : configKeys) {
 			monitor.unsubscribeFrom(configKey.prefix());
 		}
@@ -39,7 +125,7 @@ public abstract class BaseEventSubscriber extends AbstractActor implements ILoca
 	 * @return
 	 */
 	public EventMonitor subscribeKeys(IEventService eventService, ConfigKey... configKeys) {
-		log.debug("Inside BaseEventSubscriber Subscribing to: " + Arrays.toString(configKeys));
+		log.debug("Inside BaseEventSubscriber Subscribing to: {}", Arrays.toString(configKeys));
 		String[] prefixes = new String[configKeys.length];
 		for (int i = 0; i < configKeys.length; i++) {
 			prefixes[i] = configKeys[i].prefix();
@@ -51,9 +137,88 @@ public abstract class BaseEventSubscriber extends AbstractActor implements ILoca
 	 * This helps in adding more Config Key for subscription to Event Monitor
 	 */
 	public void subscribeKeys(EventMonitor monitor, ConfigKey... configKeys) {
-		log.debug("Inside BaseEventSubscriber Subscribing to: " + Arrays.toString(configKeys));
+		log.debug("Inside BaseEventSubscriber Subscribing to: {}", Arrays.toString(configKeys));
 		for (ConfigKey configKey : configKeys) {
 			monitor.subscribeTo(configKey.prefix());
 		}
 	}
+
+	/**
+	 * This checks the TPK frame sequence number carried by a demand event and
+	 * returns the number of frames missed since the previous event of the same
+	 * prefix. Events without a sequence number, or arriving after a TPK
+	 * restart, report 0
+	 * 
+	 * @param event
+	 * @return
+	 */
+	public long checkFrameSequence(SystemEvent event) {
+		if (!event.exists(DemandFrame.frameSeqKey)) {
+			return 0;
+		}
+		long seq = jvalue(jitem(event, DemandFrame.frameSeqKey));
+		Long last = lastFrameSeq.put(event.info().source().prefix(), seq);
+		long missed = (last != null && seq > last) ? seq - last - 1 : 0;
+		if (missed > 0) {
+			missedFrames += missed;
+			log.debug("Inside BaseEventSubscriber missed {} demand frame(s) before frame {}, total missed: {}",
+					missed, seq, missedFrames);
+		}
+		return missed;
+	}
+
+	/**
+	 * This checks that a demand event carries every demand key of the
+	 * subsystem. A torn event, e.g. a demand frame built from an incomplete
+	 * TPK tick, is counted and is to be skipped by the caller
+	 * 
+	 * @param event
+	 * @param demandKeys
+	 *            the subsystem's demand keys, e.g. McsConfig.azDemandKey
+	 * @return false if the event is torn
+	 */
+	public boolean checkFrameComplete(SystemEvent event, DoubleKey... demandKeys) {
+		for (DoubleKey key : demandKeys) {
+			if (!event.exists(key)) {
+				tornFrames++;
+				log.warning("Inside BaseEventSubscriber skipped torn demand event without {}: {}", key, event);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param event
+	 * @return the demand trace carried by the event marked as subscribed, empty
+	 *         for events without a trace
+	 */
+	public static Optional<DemandTrace> subscribedTrace(SystemEvent event) {
+		return DemandTrace.fromEvent(event).map(trace -> trace.mark(DemandTrace.Stage.SUBSCRIBE));
+	}
+
+	/**
+	 * @param event
+	 * @param timeDemandKey
+	 *            the subsystem's time demand key, e.g. McsConfig.timeDemandKey
+	 * @return time the demand was generated by TPK in seconds since the epoch,
+	 *         NaN for demands which are not time tagged
+	 */
+	public static double demandTime(SystemEvent event, DoubleKey timeDemandKey) {
+		return event.exists(timeDemandKey) ? jvalue(jitem(event, timeDemandKey)) : Double.NaN;
+	}
+
+	/**
+	 * @return total number of TPK demand frames this subscriber did not receive
+	 */
+	public long missedFrames() {
+		return missedFrames;
+	}
+
+	/**
+	 * @return total number of torn demand events this subscriber skipped
+	 */
+	public long tornFrames() {
+		return tornFrames;
+	}
 }
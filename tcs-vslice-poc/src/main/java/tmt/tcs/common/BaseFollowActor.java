@@ -1,7 +1,19 @@
 package tmt.tcs.common;
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
 import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Cancellable;
+import akka.japi.pf.ReceiveBuilder;
 import javacsw.services.pkg.ILocationSubscriberClient;
+import scala.PartialFunction;
+import scala.concurrent.duration.FiniteDuration;
+import scala.runtime.BoxedUnit;
 
 /**
  * This is base class for all Follow Actor classes
@@ -11,12 +23,204 @@ public abstract class BaseFollowActor extends AbstractActor implements AssemblyS
 
 	private AssemblyStateActor.AssemblyState internalState = AssemblyStateActor.defaultAssemblyState;
 
+	// Derived from internalState whenever it changes, so the follow path does
+	// not need to look into the state or ask the state actor
+	private boolean followingAllowed = false;
+
+	private Optional<ActorRef> stateActor = Optional.empty();
+
+	private Cancellable demandTask;
+
+	private TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
+
+	// Puts the time tags of TPK demands on this JVM's demandClock
+	private final DemandClockOffset clockOffset = new DemandClockOffset(clockOffsetWindow);
+
+	// Ticks without a demand sent as the newest demand was stale
+	private long staleTicks = 0;
+	private boolean stale = false;
+
 	public static class CommandDone {
 	}
 
+	/**
+	 * Tick at which a follower sends its interpolated demand to the Control,
+	 * only the newest tick waiting in the mailbox is processed
+	 */
+	public static final class SendDemand implements ConflatingMailbox.Conflatable {
+		public static final SendDemand instance = new SendDemand();
+
+		private SendDemand() {
+		}
+
+		@Override
+		public Object conflationKey() {
+			return SendDemand.class;
+		}
+	}
+
+	/**
+	 * Demands per second sent to the Control when the assembly config file
+	 * does not set follow.demand-rate
+	 */
+	public static final double defaultDemandRate = 100;
+
+	/**
+	 * Reads the rate at which a follower sends demands to its Control from the
+	 * follow block of the subsystem's assembly config file in
+	 * resources/assembly, e.g. assembly/mcsAssembly.conf for mcs
+	 *
+	 * @param subsystem
+	 *            e.g. mcs
+	 * @return time between two SendDemand ticks
+	 */
+	public static FiniteDuration demandInterval(String subsystem) {
+		double rate = followSetting(subsystem, "demand-rate", defaultDemandRate);
+		return FiniteDuration.create((long) (1e9 / rate), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @param assemblyContext
+	 * @return time between two SendDemand ticks of the assembly's follower
+	 */
+	public static FiniteDuration demandInterval(AssemblyContext assemblyContext) {
+		return assemblyContext == null ? FiniteDuration.create((long) (1e9 / defaultDemandRate), TimeUnit.NANOSECONDS)
+				: demandInterval(assemblyContext.subsystem());
+	}
+
+	/**
+	 * Seconds past the newest demand for which demands are extrapolated when
+	 * the assembly config file does not set follow.max-extrapolation
+	 */
+	public static final double defaultMaxExtrapolation = 0.1;
+
+	/**
+	 * Number of demands over which the clock offset to TPK is estimated
+	 */
+	public static final int clockOffsetWindow = 1000;
+
+	/**
+	 * Reads the time for which a follower extrapolates past the newest demand
+	 * from the follow block of the subsystem's assembly config file, after it
+	 * the demand is stale and nothing is sent to the Control
+	 *
+	 * @param subsystem
+	 *            e.g. mcs
+	 * @return seconds past the newest demand
+	 */
+	public static double maxExtrapolation(String subsystem) {
+		return followSetting(subsystem, "max-extrapolation", defaultMaxExtrapolation);
+	}
+
+	/**
+	 * @param assemblyContext
+	 * @return seconds past the newest demand the assembly's follower
+	 *         extrapolates
+	 */
+	public static double maxExtrapolation(AssemblyContext assemblyContext) {
+		return assemblyContext == null ? defaultMaxExtrapolation : maxExtrapolation(assemblyContext.subsystem());
+	}
+
+	private static double followSetting(String subsystem, String name, double defaultValue) {
+		Config config = ConfigFactory.parseResources("assembly/" + subsystem + "Assembly.conf");
+		String path = "follow." + name;
+		return config.hasPath(path) ? config.getDouble(path) : defaultValue;
+	}
+
+	/**
+	 * Starts sending SendDemand to this follower every interval, until it is
+	 * stopped
+	 *
+	 * @param interval
+	 *            the rate at which the HCD takes demands
+	 */
+	protected void scheduleDemands(FiniteDuration interval) {
+		demandTask = context().system().scheduler().schedule(interval, interval, self(), SendDemand.instance,
+				context().dispatcher(), self());
+	}
+
+	@Override
+	public void postStop() {
+		if (demandTask != null) {
+			demandTask.cancel();
+		}
+	}
+
+	/**
+	 * @return the current time on the time scale of TPK demands, in seconds
+	 *         since the epoch
+	 */
+	public static double demandClock() {
+		return DemandTrace.now() / 1e9;
+	}
+
+	/**
+	 * @param demandTime
+	 *            time tag of a demand just received, set by the TPK's clock
+	 * @return the time tag on this JVM's demandClock
+	 */
+	protected double localDemandTime(double demandTime) {
+		return clockOffset.toLocal(demandTime, demandClock());
+	}
+
+	/**
+	 * Checks whether the interpolator may be evaluated now. A tick at which
+	 * the newest demand is stale is counted, and the first one after current
+	 * demands is logged
+	 *
+	 * @param interpolator
+	 * @param now
+	 * @return true if a demand is to be sent
+	 */
+	protected boolean isCurrent(DemandInterpolator interpolator, double now) {
+		if (interpolator.isCurrent(now)) {
+			stale = false;
+			return true;
+		}
+		if (!Double.isNaN(interpolator.latestTime())) {
+			staleTicks++;
+			if (!stale) {
+				stale = true;
+				log.warning("Inside BaseFollowActor demand of {} is stale at {}, clock offset: {}, stale ticks: {}",
+						interpolator.latestTime(), now, clockOffset.offset(), staleTicks);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Subscribes to the state of this follower's own assembly, its state actor
+	 * sends the current state and then pushes every change
+	 *
+	 * @param stateActor
+	 */
+	protected void subscribeToState(Optional<ActorRef> stateActor) {
+		this.stateActor = stateActor;
+		stateActor.ifPresent(actorRef -> actorRef.tell(new AssemblyStateActor.AssemblySubscribeState(), self()));
+	}
+
+	/**
+	 * Only states sent by the follower's own state actor are taken, states of
+	 * other assemblies, e.g. published on the event stream, are ignored
+	 */
 	@Override
 	public void setCurrentState(AssemblyStateActor.AssemblyState state) {
-		internalState = state;
+		if (stateActor.isPresent() && stateActor.get().equals(sender())) {
+			internalState = state;
+			followingAllowed = allowsFollowing(state);
+		}
+	}
+
+	/**
+	 * @return true if demands may be forwarded while in this state
+	 */
+	protected abstract boolean allowsFollowing(AssemblyStateActor.AssemblyState state);
+
+	/**
+	 * @return cached result of allowsFollowing for the current state
+	 */
+	public boolean followingAllowed() {
+		return followingAllowed;
 	}
 
 	/**
@@ -26,4 +230,44 @@ public abstract class BaseFollowActor extends AbstractActor implements AssemblyS
 		return internalState;
 	}
 
+	/**
+	 * @return number of demands replaced in the mailbox by a newer demand
+	 *         before this follower processed them
+	 */
+	public long coalescedDemands() {
+		return ConflatingMailbox.coalescedCount(self());
+	}
+
+	/**
+	 * This replies to GetFollowStats with the follower's counters
+	 */
+	public PartialFunction<Object, BoxedUnit> followStatsReceive() {
+		return ReceiveBuilder.match(GetFollowStats.class, t -> {
+			sender().tell(new FollowStats(coalescedDemands(), staleTicks, clockOffset.offset()), self());
+		}).build();
+	}
+
+	public static class GetFollowStats {
+	}
+
+	public static class FollowStats {
+		public final long coalescedDemands;
+		// Ticks at which no demand was sent as the newest one was stale
+		public final long staleTicks;
+		// Seconds the follower's clock is ahead of the TPK demand tags
+		public final double clockOffset;
+
+		public FollowStats(long coalescedDemands, long staleTicks, double clockOffset) {
+			this.coalescedDemands = coalescedDemands;
+			this.staleTicks = staleTicks;
+			this.clockOffset = clockOffset;
+		}
+
+		@Override
+		public String toString() {
+			return "FollowStats [coalescedDemands=" + coalescedDemands + ", staleTicks=" + staleTicks
+					+ ", clockOffset=" + clockOffset + "]";
+		}
+	}
+
 }
@@ -10,6 +10,21 @@ import scala.runtime.BoxedUnit;
  */
 public abstract class BaseHcd extends JHcdController {
 
+	private final TcsMetrics.ActorRecorder metrics = TcsMetrics.recorder(this, self());
+
+	/**
+	 * Records the processing time of every message in TcsMetrics
+	 */
+	@Override
+	public void aroundReceive(PartialFunction<Object, BoxedUnit> receive, Object msg) {
+		long start = metrics.received();
+		try {
+			super.aroundReceive(receive, msg);
+		} finally {
+			metrics.processed(msg, start);
+		}
+	}
+
 	/**
 	 * HDC's initializing receive method receives HCD messages
 	 * 
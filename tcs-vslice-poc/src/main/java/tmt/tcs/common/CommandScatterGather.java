@@ -0,0 +1,173 @@
+package tmt.tcs.common;
+
+import static javacsw.services.ccs.JCommandStatus.Accepted;
+import static javacsw.services.ccs.JCommandStatus.AllCompleted;
+import static javacsw.services.ccs.JCommandStatus.Completed;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Cancellable;
+import akka.actor.Props;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import akka.japi.Creator;
+import akka.japi.pf.ReceiveBuilder;
+import csw.services.ccs.AssemblyController;
+import csw.services.ccs.CommandStatus.CommandResult;
+import csw.services.ccs.CommandStatus.CommandStatus;
+import csw.services.ccs.CommandStatus.Error;
+import csw.util.config.Configurations.SetupConfigArg;
+import scala.concurrent.duration.FiniteDuration;
+import tmt.tcs.common.TcsLogger.Subsystem;
+
+/**
+ * This submits a command to several assemblies at once and gathers their
+ * results under one deadline. The assemblies reply with an Accepted
+ * CommandResult first and a final CommandResult when done, replies are
+ * matched to the assemblies by the run id of their SetupConfigArg.
+ *
+ * When every assembly is done or the deadline passed, replyTo receives one
+ * CommandStatus: Completed if all assemblies completed, otherwise an Error
+ * naming the assemblies which failed or did not finish in time. The
+ * completion latency of every assembly is recorded in the LatencyTracker of
+ * its subsystem
+ */
+public class CommandScatterGather extends AbstractActor {
+
+	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+
+	/**
+	 * One assembly and the command submitted to it
+	 */
+	public static final class Target {
+		public final Subsystem subsystem;
+		public final ActorRef assembly;
+		public final SetupConfigArg sca;
+
+		public Target(Subsystem subsystem, ActorRef assembly, SetupConfigArg sca) {
+			this.subsystem = subsystem;
+			this.assembly = assembly;
+			this.sca = sca;
+		}
+	}
+
+	private static final class DeadlinePassed {
+		static final DeadlinePassed instance = new DeadlinePassed();
+	}
+
+	private final String command;
+	private final List<Target> targets;
+	private final FiniteDuration deadline;
+	private final ActorRef replyTo;
+
+	private final long startNanos = System.nanoTime();
+	private final CommandResult[] results;
+	private final long[] latencies;
+	private int pending;
+
+	private final Cancellable deadlineTask;
+
+	/**
+	 * @param command
+	 *            name the latencies are recorded under, e.g. follow
+	 * @param targets
+	 * @param deadline
+	 *            time all assemblies have to complete
+	 * @param replyTo
+	 *            receives the aggregate CommandStatus
+	 */
+	public CommandScatterGather(String command, List<Target> targets, FiniteDuration deadline, ActorRef replyTo) {
+		this.command = command;
+		this.targets = new ArrayList<>(targets);
+		this.deadline = deadline;
+		this.replyTo = replyTo;
+		this.results = new CommandResult[targets.size()];
+		this.latencies = new long[targets.size()];
+		this.pending = targets.size();
+
+		for (Target target : this.targets) {
+			target.assembly.tell(new AssemblyController.Submit(target.sca), self());
+		}
+		deadlineTask = context().system().scheduler().scheduleOnce(deadline, self(), DeadlinePassed.instance,
+				context().dispatcher(), self());
+
+		receive(ReceiveBuilder.match(CommandResult.class, this::handleResult)
+				.matchEquals(DeadlinePassed.instance, t -> finish())
+				.matchAny(t -> log.warning("Inside CommandScatterGather: Unknown message received: " + t)).build());
+
+		if (pending == 0) {
+			finish();
+		}
+	}
+
+	private void handleResult(CommandResult result) {
+		if (Accepted.equals(result.overall())) {
+			return;
+		}
+		for (int i = 0; i < targets.size(); i++) {
+			if (results[i] == null && targets.get(i).sca.info().runId().equals(result.runId())) {
+				results[i] = result;
+				latencies[i] = System.nanoTime() - startNanos;
+				if (AllCompleted.equals(result.overall())) {
+					LatencyTracker.of(targets.get(i).subsystem).recordCommand(command, latencies[i]);
+				}
+				if (--pending == 0) {
+					finish();
+				}
+				return;
+			}
+		}
+		log.warning("Inside CommandScatterGather: CommandResult of an unknown command: " + result);
+	}
+
+	/**
+	 * Replies the aggregate status and stops, late results go to dead letters
+	 */
+	private void finish() {
+		StringBuilder failures = new StringBuilder();
+		StringBuilder summary = new StringBuilder();
+		for (int i = 0; i < targets.size(); i++) {
+			Subsystem subsystem = targets.get(i).subsystem;
+			if (results[i] == null) {
+				append(failures, subsystem + " " + command + ": not done within " + deadline);
+				append(summary, subsystem + "=timeout");
+			} else {
+				if (!AllCompleted.equals(results[i].overall())) {
+					append(failures, subsystem + " " + command + ": " + results[i].overall());
+				}
+				append(summary, subsystem + "=" + latencies[i] / 1000000 + "ms");
+			}
+		}
+		CommandStatus status = failures.length() == 0 ? Completed : new Error(failures.toString());
+		log.info("Inside CommandScatterGather: " + command + " is " + status + ": " + summary);
+		replyTo.tell(status, self());
+		context().stop(self());
+	}
+
+	private static void append(StringBuilder sb, String text) {
+		if (sb.length() > 0) {
+			sb.append(", ");
+		}
+		sb.append(text);
+	}
+
+	@Override
+	public void postStop() {
+		deadlineTask.cancel();
+	}
+
+	public static Props props(String command, List<Target> targets, FiniteDuration deadline, ActorRef replyTo) {
+		return Props.create(new Creator<CommandScatterGather>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public CommandScatterGather create() throws Exception {
+				return new CommandScatterGather(command, targets, deadline, replyTo);
+			}
+		});
+	}
+
+}
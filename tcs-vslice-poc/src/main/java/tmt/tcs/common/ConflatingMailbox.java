@@ -0,0 +1,132 @@
+package tmt.tcs.common;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.typesafe.config.Config;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.dispatch.Envelope;
+import akka.dispatch.MailboxType;
+import akka.dispatch.MessageQueue;
+import akka.dispatch.ProducesMessageQueue;
+import scala.Option;
+
+/**
+ * This is a latest-value-wins mailbox for Follow Actors. Messages implementing
+ * Conflatable are kept only once per conflation key: a newer message replaces
+ * the one still waiting in the mailbox, keeping its place in the queue. All
+ * other messages are delivered in order as usual.
+ *
+ * For a tracking loop only the latest demand matters, so when the HCD or event
+ * service stalls the follower does not chase a backlog of stale positions.
+ * Number of replaced messages is available per actor through coalescedCount
+ */
+public class ConflatingMailbox implements MailboxType, ProducesMessageQueue<ConflatingMailbox.ConflatingMessageQueue> {
+
+	/**
+	 * Mailbox id as configured in application.conf
+	 */
+	public static final String mailboxId = "tcs-conflating-mailbox";
+
+	/**
+	 * Marker for messages of which only the newest needs to be processed
+	 */
+	public interface Conflatable {
+		Object conflationKey();
+	}
+
+	private static final Map<ActorRef, AtomicLong> coalescedCounters = new ConcurrentHashMap<>();
+
+	public ConflatingMailbox(ActorSystem.Settings settings, Config config) {
+	}
+
+	@Override
+	public MessageQueue create(Option<ActorRef> owner, Option<ActorSystem> system) {
+		AtomicLong coalesced = new AtomicLong();
+		if (owner.isDefined()) {
+			coalescedCounters.put(owner.get(), coalesced);
+		}
+		return new ConflatingMessageQueue(coalesced);
+	}
+
+	/**
+	 * @param actorRef
+	 *            an actor running with this mailbox
+	 * @return number of messages replaced by a newer one before being processed
+	 */
+	public static long coalescedCount(ActorRef actorRef) {
+		AtomicLong coalesced = coalescedCounters.get(actorRef);
+		return coalesced == null ? 0 : coalesced.get();
+	}
+
+	public static class ConflatingMessageQueue implements MessageQueue {
+
+		// Holds Envelopes, or the conflation key standing for the newest
+		// Conflatable envelope of that key
+		private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+		private final Map<Object, AtomicReference<Envelope>> latest = new ConcurrentHashMap<>();
+		private final AtomicLong coalesced;
+
+		ConflatingMessageQueue(AtomicLong coalesced) {
+			this.coalesced = coalesced;
+		}
+
+		@Override
+		public void enqueue(ActorRef receiver, Envelope handle) {
+			if (handle.message() instanceof Conflatable) {
+				Object key = ((Conflatable) handle.message()).conflationKey();
+				AtomicReference<Envelope> slot = latest.computeIfAbsent(key, k -> new AtomicReference<>());
+				if (slot.getAndSet(handle) == null) {
+					queue.offer(key);
+				} else {
+					coalesced.incrementAndGet();
+				}
+			} else {
+				queue.offer(handle);
+			}
+		}
+
+		@Override
+		public Envelope dequeue() {
+			for (;;) {
+				Object next = queue.poll();
+				if (next == null) {
+					return null;
+				}
+				if (next instanceof Envelope) {
+					return (Envelope) next;
+				}
+				Envelope envelope = latest.get(next).getAndSet(null);
+				if (envelope != null) {
+					return envelope;
+				}
+			}
+		}
+
+		@Override
+		public int numberOfMessages() {
+			return queue.size();
+		}
+
+		@Override
+		public boolean hasMessages() {
+			return !queue.isEmpty();
+		}
+
+		@Override
+		public void cleanUp(ActorRef owner, MessageQueue deadLetters) {
+			coalescedCounters.remove(owner);
+			Envelope envelope;
+			while ((envelope = dequeue()) != null) {
+				deadLetters.enqueue(owner, envelope);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,66 @@
+package tmt.tcs.common;
+
+/**
+ * This estimates the offset between the clock which tags TPK demands, in the
+ * JVM running TPK, and the clock of the follower receiving them, so tags can
+ * be compared with the follower's demandClock.
+ *
+ * The offset is the smallest receive time minus tag seen recently, i.e. the
+ * clock skew plus the fastest delivery. Demands are put on the local clock as
+ * if every demand was delivered that fast, so a skew in either direction or a
+ * constant event service delay neither makes demands stale nor interpolates
+ * into the past. The minimum is taken over the current and the previous
+ * window of demands, so a drifting or stepped clock is followed within two
+ * windows.
+ *
+ * Instances are owned by a single actor and are not thread safe
+ */
+public final class DemandClockOffset {
+
+	private final int window;
+
+	private double currentMin = Double.POSITIVE_INFINITY;
+	private double previousMin = Double.POSITIVE_INFINITY;
+	private int count = 0;
+
+	/**
+	 * @param window
+	 *            number of demands after which the oldest samples are dropped
+	 */
+	public DemandClockOffset(int window) {
+		if (window <= 0) {
+			throw new IllegalArgumentException("window must be positive: " + window);
+		}
+		this.window = window;
+	}
+
+	/**
+	 * Takes the receive time of a demand into the estimate and returns its tag
+	 * on the local clock
+	 *
+	 * @param tag
+	 *            time tag of the demand in seconds since the epoch
+	 * @param receiveTime
+	 *            local time the demand was received
+	 * @return tag plus the current offset
+	 */
+	public double toLocal(double tag, double receiveTime) {
+		currentMin = Math.min(currentMin, receiveTime - tag);
+		if (++count == window) {
+			previousMin = currentMin;
+			currentMin = Double.POSITIVE_INFINITY;
+			count = 0;
+		}
+		return tag + offset();
+	}
+
+	/**
+	 * @return local clock minus tag clock in seconds, 0 before the first
+	 *         demand
+	 */
+	public double offset() {
+		double offset = Math.min(currentMin, previousMin);
+		return Double.isInfinite(offset) ? 0 : offset;
+	}
+
+}
@@ -0,0 +1,74 @@
+package tmt.tcs.common;
+
+import static javacsw.util.config.JConfigDSL.sc;
+import static javacsw.util.config.JItems.jadd;
+import static javacsw.util.config.JItems.jset;
+
+import java.util.Optional;
+
+import csw.services.ccs.HcdController.Submit;
+import csw.util.config.Configurations.SetupConfig;
+import csw.util.config.DoubleItem;
+import csw.util.config.DoubleKey;
+import tmt.tcs.common.DemandTrace.Stage;
+
+/**
+ * This is the precompiled follow command a Control actor submits to its HCD
+ * for every demand, e.g. tcs.mcs.follow with az and el. The config key and the
+ * empty SetupConfig are resolved once when the Control is created, so a demand
+ * only adds its two items to it.
+ *
+ * CSW configs and items are immutable, so they can not be refilled in place.
+ * The template therefore shares everything which is the same for every demand
+ * and builds only what differs. Instances are immutable and may be shared
+ */
+public final class DemandCommandTemplate {
+
+	private final DoubleKey firstKey;
+	private final DoubleKey secondKey;
+	private final SetupConfig empty;
+
+	/**
+	 * @param prefix
+	 *            prefix of the command, e.g. McsConfig.followPrefix
+	 * @param firstKey
+	 *            key of the first axis, e.g. McsConfig.az
+	 * @param secondKey
+	 *            key of the second axis, e.g. McsConfig.el
+	 */
+	public DemandCommandTemplate(String prefix, DoubleKey firstKey, DoubleKey secondKey) {
+		this.firstKey = firstKey;
+		this.secondKey = secondKey;
+		this.empty = sc(prefix);
+	}
+
+	/**
+	 * @param first
+	 * @param second
+	 * @return the command holding both items
+	 */
+	public SetupConfig command(DoubleItem first, DoubleItem second) {
+		return jadd(empty, first, second);
+	}
+
+	/**
+	 * @param first
+	 * @param second
+	 * @return the command holding both values under the template's keys
+	 */
+	public SetupConfig command(double first, double second) {
+		return command(jset(firstKey, first), jset(secondKey, second));
+	}
+
+	/**
+	 * @param first
+	 * @param second
+	 * @param trace
+	 *            latency trace of the demand, marked CONTROL when present
+	 * @return the Submit which is sent to the HCD
+	 */
+	public Submit submit(DoubleItem first, DoubleItem second, Optional<DemandTrace> trace) {
+		return new Submit(DemandTrace.addMarked(command(first, second), trace, Stage.CONTROL));
+	}
+
+}
@@ -0,0 +1,236 @@
+package tmt.tcs.common;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+/**
+ * This decides which two axis demands a Control actor forwards to its HCD. A
+ * demand is suppressed when no axis moved by at least its deadband since the
+ * last forwarded demand, e.g. during slow tracking below encoder resolution.
+ * Demands arriving faster than the maximum rate are deferred: only the newest
+ * deferred demand is kept and is forwarded once the interval has passed, so
+ * the last demand of a move is never lost.
+ *
+ * Instances are owned by a single actor and are not thread safe
+ *
+ * @param <T>
+ *            what is forwarded for a demand, e.g. the send action
+ */
+public final class DemandFilter<T> {
+
+	/**
+	 * Deadbands and maximum rate of one Control
+	 */
+	public static final class Settings {
+
+		/**
+		 * Forwards every demand
+		 */
+		public static final Settings disabled = new Settings(0, 0, 0);
+
+		public final double firstDeadband;
+		public final double secondDeadband;
+
+		/**
+		 * Maximum demands per second forwarded, 0 for no limit
+		 */
+		public final double maxRate;
+
+		public Settings(double firstDeadband, double secondDeadband, double maxRate) {
+			this.firstDeadband = firstDeadband;
+			this.secondDeadband = secondDeadband;
+			this.maxRate = maxRate;
+		}
+
+		/**
+		 * Reads the demand-filter block of a subsystem's assembly config file
+		 * in resources/assembly, e.g. assembly/mcsAssembly.conf for mcs.
+		 * Missing settings disable filtering
+		 *
+		 * @param subsystem
+		 *            e.g. mcs
+		 * @return
+		 */
+		public static Settings load(String subsystem) {
+			Config config = ConfigFactory.parseResources("assembly/" + subsystem + "Assembly.conf");
+			String path = "demand-filter";
+			if (!config.hasPath(path)) {
+				return disabled;
+			}
+			Config filter = config.getConfig(path);
+			double firstDeadband = 0;
+			double secondDeadband = 0;
+			if (filter.hasPath("deadband")) {
+				firstDeadband = filter.getDoubleList("deadband").get(0);
+				secondDeadband = filter.getDoubleList("deadband").get(1);
+			}
+			double maxRate = filter.hasPath("max-rate") ? filter.getDouble("max-rate") : 0;
+			return new Settings(firstDeadband, secondDeadband, maxRate);
+		}
+
+		@Override
+		public String toString() {
+			return "Settings [firstDeadband=" + firstDeadband + ", secondDeadband=" + secondDeadband + ", maxRate="
+					+ maxRate + "]";
+		}
+	}
+
+	public enum Decision {
+		/**
+		 * Forward the demand now
+		 */
+		SEND,
+
+		/**
+		 * Within the deadband, drop the demand
+		 */
+		SUPPRESS,
+
+		/**
+		 * Too early, the demand is kept until takeDeferred
+		 */
+		DEFER
+	}
+
+	private final Settings settings;
+	private final long minIntervalNanos;
+
+	private boolean sentAny = false;
+	private double lastFirst;
+	private double lastSecond;
+	private long lastSentNanos;
+
+	private T deferred;
+	private double deferredFirst;
+	private double deferredSecond;
+
+	private long forwarded = 0;
+	private long suppressedByDeadband = 0;
+	private long suppressedByRate = 0;
+
+	public DemandFilter(Settings settings) {
+		this.settings = settings;
+		this.minIntervalNanos = settings.maxRate > 0 ? (long) (1e9 / settings.maxRate) : 0;
+	}
+
+	public Settings settings() {
+		return settings;
+	}
+
+	/**
+	 * @param first
+	 * @param second
+	 * @param demand
+	 *            kept if the demand is deferred
+	 * @param nowNanos
+	 *            System.nanoTime()
+	 * @return what to do with the demand, SEND counts it as forwarded
+	 */
+	public Decision offer(double first, double second, T demand, long nowNanos) {
+		if (sentAny && Math.abs(first - lastFirst) < settings.firstDeadband
+				&& Math.abs(second - lastSecond) < settings.secondDeadband) {
+			suppressedByDeadband++;
+			// The newest demand is back near the last forwarded one
+			dropDeferred();
+			return Decision.SUPPRESS;
+		}
+		if (sentAny && nowNanos - lastSentNanos < minIntervalNanos) {
+			dropDeferred();
+			deferred = demand;
+			deferredFirst = first;
+			deferredSecond = second;
+			return Decision.DEFER;
+		}
+		dropDeferred();
+		sent(first, second, nowNanos);
+		return Decision.SEND;
+	}
+
+	/**
+	 * Counts a demand forwarded without filtering, e.g. an explicit setpoint
+	 * which has to reach the HCD. It replaces a deferred demand, and later
+	 * demands are filtered against it
+	 *
+	 * @param first
+	 * @param second
+	 * @param nowNanos
+	 */
+	public void bypass(double first, double second, long nowNanos) {
+		dropDeferred();
+		sent(first, second, nowNanos);
+	}
+
+	/**
+	 * @param nowNanos
+	 * @return nanoseconds until a deferred demand may be forwarded
+	 */
+	public long deferNanos(long nowNanos) {
+		return Math.max(0, lastSentNanos + minIntervalNanos - nowNanos);
+	}
+
+	/**
+	 * @param nowNanos
+	 * @return the deferred demand, counted as forwarded, or null if there is
+	 *         none
+	 */
+	public T takeDeferred(long nowNanos) {
+		T demand = deferred;
+		if (demand != null) {
+			deferred = null;
+			sent(deferredFirst, deferredSecond, nowNanos);
+		}
+		return demand;
+	}
+
+	/**
+	 * Drops the deferred demand, e.g. when the HCD changed
+	 */
+	public void dropDeferred() {
+		if (deferred != null) {
+			deferred = null;
+			suppressedByRate++;
+		}
+	}
+
+	private void sent(double first, double second, long nowNanos) {
+		sentAny = true;
+		lastFirst = first;
+		lastSecond = second;
+		lastSentNanos = nowNanos;
+		forwarded++;
+	}
+
+	public long forwarded() {
+		return forwarded;
+	}
+
+	public long suppressedByDeadband() {
+		return suppressedByDeadband;
+	}
+
+	public long suppressedByRate() {
+		return suppressedByRate;
+	}
+
+	public static class GetFilterStats {
+	}
+
+	public static class FilterStats {
+		public final long forwarded;
+		public final long suppressedByDeadband;
+		public final long suppressedByRate;
+
+		public FilterStats(long forwarded, long suppressedByDeadband, long suppressedByRate) {
+			this.forwarded = forwarded;
+			this.suppressedByDeadband = suppressedByDeadband;
+			this.suppressedByRate = suppressedByRate;
+		}
+
+		@Override
+		public String toString() {
+			return "FilterStats [forwarded=" + forwarded + ", suppressedByDeadband=" + suppressedByDeadband
+					+ ", suppressedByRate=" + suppressedByRate + "]";
+		}
+	}
+
+}
@@ -0,0 +1,23 @@
+package tmt.tcs.common;
+
+import csw.util.config.Configurations.ConfigKey;
+import csw.util.config.LongKey;
+
+/**
+ * This class contains the keys of the demand frame, the event carrying the
+ * MCS, ECS and M3 demands of one TPK tick. They are shared by the TPK
+ * publisher and the subsystem subscribers, see TpkConfig
+ */
+public final class DemandFrame {
+
+	public static final String demandFramePrefix = "tcs.str.demandframe";
+
+	public static final ConfigKey demandFrameCK = new ConfigKey(demandFramePrefix);
+
+	// Sequence number of the TPK tick a demand event belongs to
+	public static final LongKey frameSeqKey = new LongKey("tcs.str.frame.seq");
+
+	private DemandFrame() {
+	}
+
+}
@@ -0,0 +1,114 @@
+package tmt.tcs.common;
+
+/**
+ * This keeps the last two time tagged demands of one or more axes, e.g. MCS
+ * azimuth and elevation, and evaluates the straight line through them at any
+ * time. It lets a Follow Actor send demands to its HCD at the HCD's own rate,
+ * independent of the rate at which TPK publishes them.
+ *
+ * Between the two demands the values are interpolated. After the newest
+ * demand they are extrapolated for at most maxExtrapolation seconds, after
+ * which the demand is considered stale and nothing should be sent until the
+ * next demand arrives. Times are seconds since the epoch.
+ *
+ * Instances are owned by a single actor and are not thread safe
+ */
+public final class DemandInterpolator {
+
+	private final int axes;
+	private final double maxExtrapolation;
+
+	// Previous and newest demand, count is the number of demands held (0 to 2)
+	private double previousTime;
+	private final double[] previousValues;
+	private double latestTime;
+	private final double[] latestValues;
+	private int count = 0;
+
+	/**
+	 * @param axes
+	 *            number of values in each demand
+	 * @param maxExtrapolation
+	 *            seconds past the newest demand for which values are still
+	 *            extrapolated
+	 */
+	public DemandInterpolator(int axes, double maxExtrapolation) {
+		if (axes <= 0) {
+			throw new IllegalArgumentException("axes must be positive: " + axes);
+		}
+		this.axes = axes;
+		this.maxExtrapolation = maxExtrapolation;
+		this.previousValues = new double[axes];
+		this.latestValues = new double[axes];
+	}
+
+	/**
+	 * Adds a demand. Demands which are not newer than the newest one held,
+	 * e.g. duplicates, are ignored
+	 *
+	 * @param time
+	 *            time tag of the demand
+	 * @param values
+	 *            one value per axis
+	 * @return true if the demand was added
+	 */
+	public boolean add(double time, double... values) {
+		if (values.length != axes) {
+			throw new IllegalArgumentException("expected " + axes + " values but got " + values.length);
+		}
+		if (count > 0 && !(time > latestTime)) {
+			return false;
+		}
+		previousTime = latestTime;
+		System.arraycopy(latestValues, 0, previousValues, 0, axes);
+		latestTime = time;
+		System.arraycopy(values, 0, latestValues, 0, axes);
+		count = Math.min(2, count + 1);
+		return true;
+	}
+
+	/**
+	 * Forgets all demands, e.g. when a demand without time tag takes over
+	 */
+	public void clear() {
+		count = 0;
+	}
+
+	/**
+	 * @param time
+	 * @return true if a value may be sent for the time, i.e. a demand is held
+	 *         and the time is not more than maxExtrapolation past it
+	 */
+	public boolean isCurrent(double time) {
+		return count > 0 && time - latestTime <= maxExtrapolation;
+	}
+
+	/**
+	 * @return time tag of the newest demand, NaN if none is held
+	 */
+	public double latestTime() {
+		return count > 0 ? latestTime : Double.NaN;
+	}
+
+	/**
+	 * Evaluates an axis at a time. With a single demand held its value is
+	 * returned, times before the previous demand are clamped to it and times
+	 * after the newest demand are clamped to maxExtrapolation past it
+	 *
+	 * @param time
+	 * @param axis
+	 * @return the value, NaN if no demand is held
+	 */
+	public double valueAt(double time, int axis) {
+		if (count == 0) {
+			return Double.NaN;
+		}
+		if (count == 1) {
+			return latestValues[axis];
+		}
+		double t = Math.max(previousTime, Math.min(time, latestTime + maxExtrapolation));
+		double slope = (latestValues[axis] - previousValues[axis]) / (latestTime - previousTime);
+		return latestValues[axis] + slope * (t - latestTime);
+	}
+
+}
@@ -0,0 +1,216 @@
+package tmt.tcs.common;
+
+import static javacsw.util.config.JItems.jadd;
+import static javacsw.util.config.JItems.jitem;
+import static javacsw.util.config.JItems.jset;
+import static javacsw.util.config.JItems.jvalue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import csw.util.config.Configurations.SetupConfig;
+import csw.util.config.Events.SystemEvent;
+import csw.util.config.LongItem;
+import csw.util.config.LongKey;
+import csw.util.config.StateVariable.CurrentState;
+
+/**
+ * This class carries the trace of one TPK demand through the pipeline. The
+ * trace ID is the TPK frame sequence number, which increases with every TPK
+ * tick. Each stage the demand passes records a timestamp; between actors the
+ * trace travels inside the messages, between components it travels as items
+ * of the demand event, the SetupConfig sent to the HCD and the CurrentState
+ * sent back.
+ *
+ * Timestamps are nanoseconds since the epoch, derived from System.nanoTime, so
+ * they are monotonic within a JVM. Stages in different JVMs are only as
+ * comparable as the clocks of their hosts.
+ *
+ * A trace is immutable, mark returns a new one
+ */
+public final class DemandTrace {
+
+	/**
+	 * Stages in the order a demand passes them
+	 */
+	public enum Stage {
+		/**
+		 * Demand received from the TPK callback
+		 */
+		TPK,
+
+		/**
+		 * Demand event handed to the event service
+		 */
+		PUBLISH,
+
+		/**
+		 * Demand event received by the subsystem event subscriber
+		 */
+		SUBSCRIBE,
+
+		FOLLOW,
+
+		CONTROL,
+
+		/**
+		 * SetupConfig received by the HCD
+		 */
+		HCD,
+
+		/**
+		 * CurrentState for the demand received back by the assembly
+		 */
+		CURRENT_STATE;
+
+		final LongKey key = new LongKey("tcs.trace." + name().toLowerCase());
+	}
+
+	public static final LongKey traceIdKey = DemandFrame.frameSeqKey;
+
+	private static final Stage[] stages = Stage.values();
+
+	private static final long epochOffsetNanos = System.currentTimeMillis() * 1000000L - System.nanoTime();
+
+	public final long traceId;
+	private final long[] timestamps;
+
+	private DemandTrace(long traceId, long[] timestamps) {
+		this.traceId = traceId;
+		this.timestamps = timestamps;
+	}
+
+	/**
+	 * @return the current time in trace timestamp units
+	 */
+	public static long now() {
+		return System.nanoTime() + epochOffsetNanos;
+	}
+
+	/**
+	 * @param nanoTime
+	 *            a System.nanoTime() value taken in this JVM
+	 * @return the same time in trace timestamp units
+	 */
+	public static long fromNanoTime(long nanoTime) {
+		return nanoTime + epochOffsetNanos;
+	}
+
+	public static DemandTrace start(long traceId, Stage stage, long timestamp) {
+		long[] timestamps = new long[stages.length];
+		timestamps[stage.ordinal()] = timestamp;
+		return new DemandTrace(traceId, timestamps);
+	}
+
+	/**
+	 * @param stage
+	 * @return a copy of this trace with stage set to now
+	 */
+	public DemandTrace mark(Stage stage) {
+		long[] copy = Arrays.copyOf(timestamps, timestamps.length);
+		copy[stage.ordinal()] = now();
+		return new DemandTrace(traceId, copy);
+	}
+
+	public boolean has(Stage stage) {
+		return timestamps[stage.ordinal()] != 0;
+	}
+
+	/**
+	 * @param stage
+	 * @return the timestamp of the stage, 0 if the stage was not recorded
+	 */
+	public long timestamp(Stage stage) {
+		return timestamps[stage.ordinal()];
+	}
+
+	/**
+	 * @return the trace ID and the recorded timestamps as items
+	 */
+	public LongItem[] items() {
+		List<LongItem> items = new ArrayList<>(stages.length + 1);
+		items.add(jset(traceIdKey, traceId));
+		for (Stage stage : stages) {
+			if (has(stage)) {
+				items.add(jset(stage.key, timestamps[stage.ordinal()]));
+			}
+		}
+		return items.toArray(new LongItem[items.size()]);
+	}
+
+	/**
+	 * Marks a trace at a stage and adds it to the SetupConfig sent to an HCD
+	 *
+	 * @param sc
+	 * @param trace
+	 * @param stage
+	 * @return sc with the trace items added, sc unchanged without a trace
+	 */
+	public static SetupConfig addMarked(SetupConfig sc, Optional<DemandTrace> trace, Stage stage) {
+		return trace.map(t -> jadd(sc, t.mark(stage).items())).orElse(sc);
+	}
+
+	/**
+	 * Adds a trace to the CurrentState an HCD publishes for a demand
+	 *
+	 * @param cs
+	 * @param trace
+	 * @return cs with the trace items added, cs unchanged without a trace
+	 */
+	public static CurrentState addTo(CurrentState cs, Optional<DemandTrace> trace) {
+		return trace.map(t -> jadd(cs, t.items())).orElse(cs);
+	}
+
+	public static Optional<DemandTrace> fromEvent(SystemEvent event) {
+		if (!event.exists(traceIdKey)) {
+			return Optional.empty();
+		}
+		long[] timestamps = new long[stages.length];
+		for (Stage stage : stages) {
+			if (event.exists(stage.key)) {
+				timestamps[stage.ordinal()] = jvalue(jitem(event, stage.key));
+			}
+		}
+		return Optional.of(new DemandTrace(jvalue(jitem(event, traceIdKey)), timestamps));
+	}
+
+	public static Optional<DemandTrace> fromSetupConfig(SetupConfig sc) {
+		if (!sc.exists(traceIdKey)) {
+			return Optional.empty();
+		}
+		long[] timestamps = new long[stages.length];
+		for (Stage stage : stages) {
+			if (sc.exists(stage.key)) {
+				timestamps[stage.ordinal()] = jvalue(jitem(sc, stage.key));
+			}
+		}
+		return Optional.of(new DemandTrace(jvalue(jitem(sc, traceIdKey)), timestamps));
+	}
+
+	public static Optional<DemandTrace> fromCurrentState(CurrentState cs) {
+		if (!cs.exists(traceIdKey)) {
+			return Optional.empty();
+		}
+		long[] timestamps = new long[stages.length];
+		for (Stage stage : stages) {
+			if (cs.exists(stage.key)) {
+				timestamps[stage.ordinal()] = jvalue(jitem(cs, stage.key));
+			}
+		}
+		return Optional.of(new DemandTrace(jvalue(jitem(cs, traceIdKey)), timestamps));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("DemandTrace [traceId=").append(traceId);
+		for (Stage stage : stages) {
+			if (has(stage)) {
+				sb.append(", ").append(stage).append('=').append(timestamps[stage.ordinal()]);
+			}
+		}
+		return sb.append(']').toString();
+	}
+
+}
@@ -0,0 +1,126 @@
+package tmt.tcs.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is a lock free latency histogram with logarithmic buckets. Every power
+ * of two is split into 8 linear sub buckets, so a recorded value is off by at
+ * most 12.5%, with a fixed footprint of a few KB for any range of values.
+ *
+ * Values can be recorded from any thread. A snapshot reads the buckets one by
+ * one without stopping writers, so it is only weakly consistent while values
+ * are recorded concurrently
+ */
+public final class LatencyHistogram {
+
+	private static final int subBucketBits = 3;
+	private static final int subBuckets = 1 << subBucketBits;
+	private static final int bucketCount = (63 - subBucketBits + 1) * subBuckets;
+
+	private final AtomicLongArray counts = new AtomicLongArray(bucketCount);
+	private final LongAdder total = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records one value, negative values (e.g. from clock differences between
+	 * hosts) are recorded as 0
+	 *
+	 * @param value
+	 */
+	public void record(long value) {
+		long v = Math.max(0, value);
+		counts.incrementAndGet(index(v));
+		total.add(v);
+		max.accumulateAndGet(v, Math::max);
+	}
+
+	public void reset() {
+		for (int i = 0; i < bucketCount; i++) {
+			counts.set(i, 0);
+		}
+		total.reset();
+		max.set(0);
+	}
+
+	static int index(long value) {
+		if (value < subBuckets) {
+			return (int) value;
+		}
+		int msb = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (msb - subBucketBits)) & (subBuckets - 1);
+		return (msb - subBucketBits + 1) * subBuckets + sub;
+	}
+
+	/**
+	 * @param index
+	 * @return the highest value recorded into the bucket
+	 */
+	static long highestValue(int index) {
+		if (index < subBuckets) {
+			return index;
+		}
+		int shift = index / subBuckets - 1;
+		long lowest = (long) (subBuckets + index % subBuckets) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	public Snapshot snapshot() {
+		long[] copy = new long[bucketCount];
+		long count = 0;
+		for (int i = 0; i < bucketCount; i++) {
+			copy[i] = counts.get(i);
+			count += copy[i];
+		}
+		long maxValue = max.get();
+		return new Snapshot(count, count == 0 ? 0 : total.sum() / count, percentile(copy, count, 0.5, maxValue),
+				percentile(copy, count, 0.9, maxValue), percentile(copy, count, 0.99, maxValue),
+				percentile(copy, count, 0.999, maxValue), maxValue);
+	}
+
+	private static long percentile(long[] copy, long count, double fraction, long maxValue) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(fraction * count));
+		long seen = 0;
+		for (int i = 0; i < copy.length; i++) {
+			seen += copy[i];
+			if (seen >= rank) {
+				return Math.min(highestValue(i), maxValue);
+			}
+		}
+		return maxValue;
+	}
+
+	/**
+	 * Immutable summary of a histogram, all values in the unit recorded
+	 */
+	public static class Snapshot {
+		public final long count;
+		public final long mean;
+		public final long p50;
+		public final long p90;
+		public final long p99;
+		public final long p999;
+		public final long max;
+
+		public Snapshot(long count, long mean, long p50, long p90, long p99, long p999, long max) {
+			this.count = count;
+			this.mean = mean;
+			this.p50 = p50;
+			this.p90 = p90;
+			this.p99 = p99;
+			this.p999 = p999;
+			this.max = max;
+		}
+
+		@Override
+		public String toString() {
+			return "Snapshot [count=" + count + ", mean=" + mean + ", p50=" + p50 + ", p90=" + p90 + ", p99=" + p99
+					+ ", p999=" + p999 + ", max=" + max + "]";
+		}
+	}
+
+}
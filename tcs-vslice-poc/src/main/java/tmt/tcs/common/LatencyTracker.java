@@ -0,0 +1,163 @@
+package tmt.tcs.common;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tmt.tcs.common.DemandTrace.Stage;
+import tmt.tcs.common.TcsLogger.Subsystem;
+
+/**
+ * This class collects the latencies of demand traces for one subsystem. For
+ * every trace it records the time between each pair of consecutive recorded
+ * stages, and the end to end time from TPK to CURRENT_STATE if the trace got
+ * that far. It also records how long the subsystem took to complete commands,
+ * as measured by the TCS command which sent them.
+ *
+ * There is one tracker per subsystem in a JVM, shared by the actors of that
+ * subsystem. Recording is lock free, see LatencyHistogram
+ */
+public final class LatencyTracker {
+
+	/**
+	 * Hop name of the end to end latency
+	 */
+	public static final String endToEnd = Stage.TPK + "->" + Stage.CURRENT_STATE;
+
+	/**
+	 * Prefix of the names of command completion latencies, e.g. command:follow
+	 */
+	public static final String commandPrefix = "command:";
+
+	private static final Map<Subsystem, LatencyTracker> trackers = new EnumMap<>(Subsystem.class);
+
+	static {
+		for (Subsystem subsystem : Subsystem.values()) {
+			trackers.put(subsystem, new LatencyTracker(subsystem));
+		}
+	}
+
+	private final Subsystem subsystem;
+	// One histogram for each hop between stages, indexed [from][to]
+	private final LatencyHistogram[][] hops;
+	private final LatencyHistogram total = new LatencyHistogram();
+	private final Map<String, LatencyHistogram> commands = new ConcurrentHashMap<>();
+
+	private LatencyTracker(Subsystem subsystem) {
+		this.subsystem = subsystem;
+		int stages = Stage.values().length;
+		hops = new LatencyHistogram[stages][stages];
+		for (int from = 0; from < stages; from++) {
+			for (int to = from + 1; to < stages; to++) {
+				hops[from][to] = new LatencyHistogram();
+			}
+		}
+	}
+
+	public static LatencyTracker of(Subsystem subsystem) {
+		return trackers.get(subsystem);
+	}
+
+	/**
+	 * Records the hops of a trace, should be called once per trace by the
+	 * last stage handling it
+	 *
+	 * @param trace
+	 */
+	public void record(DemandTrace trace) {
+		Stage previous = null;
+		for (Stage stage : Stage.values()) {
+			if (trace.has(stage)) {
+				if (previous != null) {
+					hops[previous.ordinal()][stage.ordinal()]
+							.record(trace.timestamp(stage) - trace.timestamp(previous));
+				}
+				previous = stage;
+			}
+		}
+		if (trace.has(Stage.TPK) && trace.has(Stage.CURRENT_STATE)) {
+			total.record(trace.timestamp(Stage.CURRENT_STATE) - trace.timestamp(Stage.TPK));
+		}
+	}
+
+	/**
+	 * Records the time from submitting a command to the subsystem to its
+	 * completion
+	 *
+	 * @param command
+	 *            name of the command, e.g. follow
+	 * @param nanos
+	 */
+	public void recordCommand(String command, long nanos) {
+		commands.computeIfAbsent(command, c -> new LatencyHistogram()).record(nanos);
+	}
+
+	public void reset() {
+		for (LatencyHistogram[] from : hops) {
+			for (LatencyHistogram hop : from) {
+				if (hop != null) {
+					hop.reset();
+				}
+			}
+		}
+		total.reset();
+		for (LatencyHistogram command : commands.values()) {
+			command.reset();
+		}
+	}
+
+	/**
+	 * @return the latencies of all hops seen so far, in nanoseconds
+	 */
+	public LatencyReport report() {
+		Map<String, LatencyHistogram.Snapshot> snapshots = new LinkedHashMap<>();
+		Stage[] stages = Stage.values();
+		for (int from = 0; from < stages.length; from++) {
+			for (int to = from + 1; to < stages.length; to++) {
+				LatencyHistogram.Snapshot snapshot = hops[from][to].snapshot();
+				if (snapshot.count > 0) {
+					snapshots.put(stages[from] + "->" + stages[to], snapshot);
+				}
+			}
+		}
+		LatencyHistogram.Snapshot endToEndSnapshot = total.snapshot();
+		if (endToEndSnapshot.count > 0) {
+			snapshots.put(endToEnd, endToEndSnapshot);
+		}
+		for (Map.Entry<String, LatencyHistogram> command : new TreeMap<>(commands).entrySet()) {
+			snapshots.put(commandPrefix + command.getKey(), command.getValue().snapshot());
+		}
+		return new LatencyReport(subsystem, snapshots);
+	}
+
+	/**
+	 * Admin message understood by the assemblies, replied to with a
+	 * LatencyReport
+	 */
+	public static class GetLatencyReport {
+	}
+
+	public static class LatencyReport {
+		public final Subsystem subsystem;
+
+		/**
+		 * Latency per hop in nanoseconds, keyed by "FROM->TO", in stage order,
+		 * followed by the command completion latencies
+		 */
+		public final Map<String, LatencyHistogram.Snapshot> hops;
+
+		public LatencyReport(Subsystem subsystem, Map<String, LatencyHistogram.Snapshot> hops) {
+			this.subsystem = subsystem;
+			this.hops = Collections.unmodifiableMap(hops);
+		}
+
+		@Override
+		public String toString() {
+			return "LatencyReport [subsystem=" + subsystem + ", hops=" + hops + "]";
+		}
+	}
+
+}
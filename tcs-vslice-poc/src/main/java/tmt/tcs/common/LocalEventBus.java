@@ -0,0 +1,107 @@
+package tmt.tcs.common;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import akka.actor.ActorRef;
+import csw.util.config.Events.SystemEvent;
+
+/**
+ * This is an in-JVM publish/subscribe bus for demand events. When TPK and a
+ * subsystem assembly run in the same JVM, e.g. in the web deployment, the TPK
+ * publisher hands its events directly to the subscriber actors, without the
+ * event service hop and serialization.
+ *
+ * The bus is JVM wide instead of per ActorSystem, as every container creates
+ * its own ActorSystem. Publishers still publish to the event service, so
+ * remote subscribers are not affected. Subscribers ignore the event service
+ * copies of events they receive locally, see BaseEventSubscriber. Without a
+ * local subscriber publishing to the bus does nothing, so subscribers fall
+ * back to the event service transparently.
+ *
+ * Can be switched off with -Dtcs.localEventBus.disabled=true
+ */
+public final class LocalEventBus {
+
+	public static final boolean enabled = !Boolean.getBoolean("tcs.localEventBus.disabled");
+
+	private static final Map<String, List<ActorRef>> subscribers = new ConcurrentHashMap<>();
+
+	private LocalEventBus() {
+	}
+
+	/**
+	 * Message delivering an event published in this JVM
+	 */
+	public static final class LocalEvent {
+		public final SystemEvent event;
+
+		public LocalEvent(SystemEvent event) {
+			this.event = event;
+		}
+
+		@Override
+		public String toString() {
+			return "LocalEvent [event=" + event + "]";
+		}
+	}
+
+	/**
+	 * @param subscriber
+	 *            receives LocalEvent messages
+	 * @param prefixes
+	 *            event prefixes, e.g. TpkConfig.demandFramePrefix
+	 */
+	public static void subscribe(ActorRef subscriber, String... prefixes) {
+		if (!enabled) {
+			return;
+		}
+		for (String prefix : prefixes) {
+			List<ActorRef> refs = subscribers.computeIfAbsent(prefix, p -> new CopyOnWriteArrayList<>());
+			if (!refs.contains(subscriber)) {
+				refs.add(subscriber);
+			}
+		}
+	}
+
+	/**
+	 * Removes the subscriber from all prefixes
+	 *
+	 * @param subscriber
+	 */
+	public static void unsubscribe(ActorRef subscriber) {
+		for (List<ActorRef> refs : subscribers.values()) {
+			refs.remove(subscriber);
+		}
+	}
+
+	/**
+	 * @param prefix
+	 * @return true if an actor in this JVM subscribed to the prefix
+	 */
+	public static boolean hasSubscribers(String prefix) {
+		List<ActorRef> refs = subscribers.get(prefix);
+		return refs != null && !refs.isEmpty();
+	}
+
+	/**
+	 * Delivers an event to the local subscribers of its prefix
+	 *
+	 * @param event
+	 * @return number of subscribers the event was delivered to
+	 */
+	public static int publish(SystemEvent event) {
+		List<ActorRef> refs = subscribers.get(event.info().source().prefix());
+		if (refs == null || refs.isEmpty()) {
+			return 0;
+		}
+		LocalEvent message = new LocalEvent(event);
+		for (ActorRef ref : refs) {
+			ref.tell(message, ActorRef.noSender());
+		}
+		return refs.size();
+	}
+
+}
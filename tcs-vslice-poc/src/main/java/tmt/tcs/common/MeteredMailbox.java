@@ -0,0 +1,115 @@
+package tmt.tcs.common;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.typesafe.config.Config;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.dispatch.Envelope;
+import akka.dispatch.MailboxType;
+import akka.dispatch.MessageQueue;
+import akka.dispatch.ProducesMessageQueue;
+import akka.dispatch.UnboundedDequeBasedMessageQueueSemantics;
+import scala.Option;
+
+/**
+ * This is an unbounded mailbox which keeps count of the messages waiting in
+ * it, so the depth can be read in constant time. It is configured as the
+ * default mailbox in application.conf; TcsMetrics samples the depth every time
+ * an actor derived from one of the base classes processes a message. The queue
+ * is deque based, so it is also used for actors which stash messages
+ */
+public class MeteredMailbox implements MailboxType, ProducesMessageQueue<MeteredMailbox.MeteredMessageQueue> {
+
+	private static final Map<ActorRef, AtomicInteger> depthCounters = new ConcurrentHashMap<>();
+
+	public MeteredMailbox(ActorSystem.Settings settings, Config config) {
+	}
+
+	@Override
+	public MessageQueue create(Option<ActorRef> owner, Option<ActorSystem> system) {
+		AtomicInteger depth = new AtomicInteger();
+		if (owner.isDefined()) {
+			depthCounters.put(owner.get(), depth);
+		}
+		return new MeteredMessageQueue(depth);
+	}
+
+	/**
+	 * @param actorRef
+	 * @return the live depth counter of the actor, null if the actor does not
+	 *         run with this mailbox
+	 */
+	static AtomicInteger depthCounter(ActorRef actorRef) {
+		return depthCounters.get(actorRef);
+	}
+
+	/**
+	 * @param actorRef
+	 *            an actor running with this mailbox
+	 * @return number of messages waiting in the mailbox of the actor
+	 */
+	public static int depth(ActorRef actorRef) {
+		AtomicInteger depth = depthCounters.get(actorRef);
+		return depth == null ? 0 : depth.get();
+	}
+
+	public static class MeteredMessageQueue implements MessageQueue, UnboundedDequeBasedMessageQueueSemantics {
+
+		private final Deque<Envelope> queue = new ConcurrentLinkedDeque<>();
+		private final AtomicInteger depth;
+
+		MeteredMessageQueue(AtomicInteger depth) {
+			this.depth = depth;
+		}
+
+		@Override
+		public void enqueue(ActorRef receiver, Envelope handle) {
+			queue.offer(handle);
+			depth.incrementAndGet();
+		}
+
+		/**
+		 * Used by unstash, puts a stashed message back in front
+		 */
+		@Override
+		public void enqueueFirst(ActorRef receiver, Envelope handle) {
+			queue.offerFirst(handle);
+			depth.incrementAndGet();
+		}
+
+		@Override
+		public Envelope dequeue() {
+			Envelope envelope = queue.poll();
+			if (envelope != null) {
+				depth.decrementAndGet();
+			}
+			return envelope;
+		}
+
+		@Override
+		public int numberOfMessages() {
+			return depth.get();
+		}
+
+		@Override
+		public boolean hasMessages() {
+			return !queue.isEmpty();
+		}
+
+		@Override
+		public void cleanUp(ActorRef owner, MessageQueue deadLetters) {
+			depthCounters.remove(owner);
+			Envelope envelope;
+			while ((envelope = dequeue()) != null) {
+				deadLetters.enqueue(owner, envelope);
+			}
+		}
+	}
+
+}
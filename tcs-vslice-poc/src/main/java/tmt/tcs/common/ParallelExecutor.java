@@ -0,0 +1,290 @@
+package tmt.tcs.common;
+
+import static javacsw.services.ccs.JCommandStatus.AllCompleted;
+import static javacsw.services.ccs.JCommandStatus.Completed;
+import static javacsw.services.ccs.JCommandStatus.Incomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Cancellable;
+import akka.actor.Props;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import akka.japi.Creator;
+import akka.japi.pf.ReceiveBuilder;
+import csw.services.ccs.CommandStatus.CommandResult;
+import csw.services.ccs.CommandStatus.CommandResultPair;
+import csw.services.ccs.CommandStatus.CommandResults;
+import csw.services.ccs.CommandStatus.CommandStatus;
+import csw.services.ccs.CommandStatus.Error;
+import csw.services.ccs.SequentialExecutor.ExecuteOne;
+import csw.util.config.Configurations.SetupConfig;
+import csw.util.config.Configurations.SetupConfigArg;
+import javacsw.services.ccs.JSequentialExecutor;
+import scala.Option;
+import scala.PartialFunction;
+import scala.collection.JavaConverters;
+import scala.concurrent.duration.FiniteDuration;
+import scala.runtime.BoxedUnit;
+
+/**
+ * This executes the configs of a SetupConfigArg like the CSW
+ * SequentialExecutor, but does not wait for the previous config to complete.
+ * Every config is started as soon as the earlier configs it depends on have
+ * completed, so independent configs run concurrently. A config depends on the
+ * earlier configs with the same prefix and on the earlier configs with a
+ * prefix declared in Dependencies, e.g. tcs.tpk.offset after tcs.tpk.follow.
+ *
+ * When all configs are done, the command originator receives one
+ * CommandResult with the status of every config in the order of the
+ * SetupConfigArg. After a config failed, the configs depending on it are not
+ * started and are left out of the result, like the configs after a failed
+ * config in the SequentialExecutor. A config the command handler does not
+ * answer within the config timeout fails with an Error status
+ */
+public class ParallelExecutor extends AbstractActor {
+
+	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+
+	/**
+	 * Time the command handler has to answer a config, above the 5 second
+	 * timeout of the command handlers
+	 */
+	public static final FiniteDuration defaultConfigTimeout = FiniteDuration.create(10, TimeUnit.SECONDS);
+
+	/**
+	 * Declares which config prefixes have to complete before a config prefix
+	 * is started. Instances are immutable and may be shared
+	 */
+	public static final class Dependencies {
+
+		/**
+		 * Only configs with the same prefix are ordered
+		 */
+		public static final Dependencies none = new Dependencies(Collections.emptyMap());
+
+		private final Map<String, Set<String>> prerequisites;
+
+		private Dependencies(Map<String, Set<String>> prerequisites) {
+			this.prerequisites = prerequisites;
+		}
+
+		/**
+		 * @param prefix
+		 *            prefix of the dependent config
+		 * @param prerequisitePrefixes
+		 *            prefixes of the configs which have to complete first
+		 * @return a copy with the added dependency
+		 */
+		public Dependencies after(String prefix, String... prerequisitePrefixes) {
+			Map<String, Set<String>> copy = new HashMap<>(prerequisites);
+			Set<String> prefixes = new HashSet<>(copy.getOrDefault(prefix, Collections.emptySet()));
+			prefixes.addAll(Arrays.asList(prerequisitePrefixes));
+			copy.put(prefix, Collections.unmodifiableSet(prefixes));
+			return new Dependencies(Collections.unmodifiableMap(copy));
+		}
+
+		/**
+		 * @param config
+		 * @param earlierConfig
+		 *            a config before config in the SetupConfigArg
+		 * @return true if config has to wait for earlierConfig
+		 */
+		public boolean dependsOn(SetupConfig config, SetupConfig earlierConfig) {
+			String prefix = config.configKey().prefix();
+			String earlierPrefix = earlierConfig.configKey().prefix();
+			return prefix.equals(earlierPrefix)
+					|| prerequisites.getOrDefault(prefix, Collections.emptySet()).contains(earlierPrefix);
+		}
+	}
+
+	/**
+	 * Sent by a ConfigRunner with the status of its config
+	 */
+	private static final class ConfigDone {
+		final int index;
+		final CommandStatus status;
+
+		ConfigDone(int index, CommandStatus status) {
+			this.index = index;
+			this.status = status;
+		}
+	}
+
+	private final ActorRef commandHandler;
+	private final SetupConfigArg sca;
+	private final Optional<ActorRef> commandOriginator;
+	private final FiniteDuration configTimeout;
+
+	private final List<SetupConfig> configs;
+	private final List<List<Integer>> prerequisites = new ArrayList<>();
+	private final boolean[] started;
+	private final CommandStatus[] results;
+	private int running = 0;
+	private boolean failed = false;
+
+	public ParallelExecutor(ActorRef commandHandler, SetupConfigArg sca, Optional<ActorRef> commandOriginator,
+			Dependencies dependencies, FiniteDuration configTimeout) {
+		this.commandHandler = commandHandler;
+		this.sca = sca;
+		this.commandOriginator = commandOriginator;
+		this.configTimeout = configTimeout;
+		this.configs = sca.getConfigs();
+		this.started = new boolean[configs.size()];
+		this.results = new CommandStatus[configs.size()];
+
+		for (int i = 0; i < configs.size(); i++) {
+			List<Integer> waitsFor = new ArrayList<>();
+			for (int j = 0; j < i; j++) {
+				if (dependencies.dependsOn(configs.get(i), configs.get(j))) {
+					waitsFor.add(j);
+				}
+			}
+			prerequisites.add(waitsFor);
+		}
+
+		receive(executingReceive());
+
+		startReadyConfigs();
+		finishIfDone();
+	}
+
+	private PartialFunction<Object, BoxedUnit> executingReceive() {
+		return ReceiveBuilder.match(ConfigDone.class, t -> {
+			log.debug("Inside ParallelExecutor: " + configs.get(t.index).configKey() + " is done: " + t.status);
+			running--;
+			results[t.index] = t.status;
+			if (!Completed.equals(t.status)) {
+				failed = true;
+			}
+			startReadyConfigs();
+			finishIfDone();
+		}).matchEquals(JSequentialExecutor.StopCurrentCommand(), t -> {
+			commandHandler.tell(t, self());
+		}).matchAny(t -> log.warning("Inside ParallelExecutor: received an unknown message: " + t)).build();
+	}
+
+	/**
+	 * Starts every config whose prerequisites completed, none after a failure
+	 */
+	private void startReadyConfigs() {
+		if (failed) {
+			return;
+		}
+		for (int i = 0; i < configs.size(); i++) {
+			if (!started[i] && prerequisitesCompleted(i)) {
+				started[i] = true;
+				running++;
+				context().actorOf(ConfigRunner.props(commandHandler, configs.get(i), i, configTimeout));
+			}
+		}
+	}
+
+	private boolean prerequisitesCompleted(int index) {
+		for (int prerequisite : prerequisites.get(index)) {
+			if (!Completed.equals(results[prerequisite])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Replies to the command originator once no config is running and no
+	 * further config can be started
+	 */
+	private void finishIfDone() {
+		if (running > 0) {
+			return;
+		}
+		List<CommandResultPair> pairs = new ArrayList<>();
+		boolean allCompleted = true;
+		for (int i = 0; i < configs.size(); i++) {
+			if (results[i] != null) {
+				pairs.add(new CommandResultPair(results[i], configs.get(i)));
+			}
+			allCompleted &= Completed.equals(results[i]);
+		}
+		CommandResults details = new CommandResults(JavaConverters.asScalaBufferConverter(pairs).asScala().toList());
+		CommandResult result = new CommandResult(sca.info().runId(), allCompleted ? AllCompleted : Incomplete,
+				details);
+		log.debug("Inside ParallelExecutor: CommandResult is: " + result);
+		commandOriginator.ifPresent(actorRef -> actorRef.tell(result, self()));
+		context().stop(self());
+	}
+
+	public static Props props(ActorRef commandHandler, SetupConfigArg sca, Optional<ActorRef> commandOriginator,
+			Dependencies dependencies) {
+		return props(commandHandler, sca, commandOriginator, dependencies, defaultConfigTimeout);
+	}
+
+	public static Props props(ActorRef commandHandler, SetupConfigArg sca, Optional<ActorRef> commandOriginator,
+			Dependencies dependencies, FiniteDuration configTimeout) {
+		return Props.create(new Creator<ParallelExecutor>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public ParallelExecutor create() throws Exception {
+				return new ParallelExecutor(commandHandler, sca, commandOriginator, dependencies, configTimeout);
+			}
+		});
+	}
+
+	/**
+	 * Submits one config to the command handler. It is the command originator
+	 * of the config, so the parent can tell which config a CommandStatus
+	 * belongs to. The first status is the result of the config, without a
+	 * status within the timeout the result is an Error
+	 */
+	private static class ConfigRunner extends AbstractActor {
+
+		private static final class TimedOut {
+			static final TimedOut instance = new TimedOut();
+		}
+
+		private final Cancellable timeoutTask;
+
+		private ConfigRunner(ActorRef commandHandler, SetupConfig sc, int index, FiniteDuration timeout) {
+			commandHandler.tell(new ExecuteOne(sc, Option.apply(self())), self());
+			timeoutTask = context().system().scheduler().scheduleOnce(timeout, self(), TimedOut.instance,
+					context().dispatcher(), self());
+
+			receive(ReceiveBuilder.match(CommandStatus.class, status -> {
+				context().parent().tell(new ConfigDone(index, status), self());
+				context().stop(self());
+			}).matchEquals(TimedOut.instance, t -> {
+				Error error = new Error(sc.configKey().prefix() + " did not complete within " + timeout);
+				context().parent().tell(new ConfigDone(index, error), self());
+				context().stop(self());
+			}).build());
+		}
+
+		@Override
+		public void postStop() {
+			timeoutTask.cancel();
+		}
+
+		static Props props(ActorRef commandHandler, SetupConfig sc, int index, FiniteDuration timeout) {
+			return Props.create(new Creator<ConfigRunner>() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public ConfigRunner create() throws Exception {
+					return new ConfigRunner(commandHandler, sc, index, timeout);
+				}
+			});
+		}
+	}
+
+}
@@ -0,0 +1,246 @@
+package tmt.tcs.common;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.typesafe.config.Config;
+
+import akka.actor.ActorSystem;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+
+/**
+ * This is the logging facade used by TCS actors. It wraps an Akka
+ * LoggingAdapter and adds a level per subsystem which can be changed at
+ * runtime.
+ *
+ * Messages are templates with {} placeholders, the arguments are only
+ * formatted (and their toString called) if the message is actually logged.
+ * Callers on the demand path should therefore pass items and events as
+ * arguments instead of concatenating them into the message. Arguments which
+ * are expensive to compute should be guarded with isDebugEnabled.
+ *
+ * Initial levels are read once from the tcs.log-level block of the actor
+ * system config, a subsystem without an entry logs everything the Akka log
+ * level allows
+ */
+public final class TcsLogger {
+
+	public enum Level {
+		OFF, ERROR, WARNING, INFO, DEBUG
+	}
+
+	public enum Subsystem {
+		TCS, MCS, ECS, M3, TPK, WEB;
+
+		private volatile Level level = Level.DEBUG;
+
+		public Level level() {
+			return level;
+		}
+
+		public void setLevel(Level level) {
+			this.level = level;
+		}
+
+		/**
+		 * @param type
+		 *            a class from the tmt.tcs packages
+		 * @return the subsystem owning the package of the class, TCS for
+		 *         anything outside the subsystem packages
+		 */
+		public static Subsystem of(Class<?> type) {
+			String name = type.getName();
+			if (name.startsWith("tmt.tcs.mcs.")) {
+				return MCS;
+			} else if (name.startsWith("tmt.tcs.ecs.")) {
+				return ECS;
+			} else if (name.startsWith("tmt.tcs.m3.")) {
+				return M3;
+			} else if (name.startsWith("tmt.tcs.tpk.")) {
+				return TPK;
+			} else if (name.startsWith("tmt.tcs.web.")) {
+				return WEB;
+			}
+			return TCS;
+		}
+	}
+
+	public static final String levelConfigPath = "tcs.log-level";
+
+	private static final AtomicBoolean configured = new AtomicBoolean();
+
+	private final LoggingAdapter adapter;
+	private final Subsystem subsystem;
+
+	private TcsLogger(LoggingAdapter adapter, Subsystem subsystem) {
+		this.adapter = adapter;
+		this.subsystem = subsystem;
+	}
+
+	/**
+	 * Creates a logger for an actor, the subsystem is derived from the package
+	 * of the actor class
+	 *
+	 * @param system
+	 * @param logSource
+	 * @return
+	 */
+	public static TcsLogger getLogger(ActorSystem system, Object logSource) {
+		return getLogger(system, logSource, Subsystem.of(logSource.getClass()));
+	}
+
+	public static TcsLogger getLogger(ActorSystem system, Object logSource, Subsystem subsystem) {
+		if (configured.compareAndSet(false, true)) {
+			configure(system.settings().config());
+		}
+		return new TcsLogger(Logging.getLogger(system, logSource), subsystem);
+	}
+
+	/**
+	 * Sets subsystem levels from config entries like tcs.log-level.mcs = info
+	 *
+	 * @param config
+	 */
+	public static void configure(Config config) {
+		if (!config.hasPath(levelConfigPath)) {
+			return;
+		}
+		Config levels = config.getConfig(levelConfigPath);
+		for (Subsystem subsystem : Subsystem.values()) {
+			String key = subsystem.name().toLowerCase();
+			if (levels.hasPath(key)) {
+				subsystem.setLevel(Level.valueOf(levels.getString(key).toUpperCase()));
+			}
+		}
+	}
+
+	public Subsystem subsystem() {
+		return subsystem;
+	}
+
+	private boolean enabled(Level level) {
+		return subsystem.level.compareTo(level) >= 0;
+	}
+
+	public boolean isDebugEnabled() {
+		return enabled(Level.DEBUG) && adapter.isDebugEnabled();
+	}
+
+	public boolean isInfoEnabled() {
+		return enabled(Level.INFO) && adapter.isInfoEnabled();
+	}
+
+	public boolean isWarningEnabled() {
+		return enabled(Level.WARNING) && adapter.isWarningEnabled();
+	}
+
+	public boolean isErrorEnabled() {
+		return enabled(Level.ERROR) && adapter.isErrorEnabled();
+	}
+
+	public void debug(String message) {
+		if (isDebugEnabled())
+			adapter.debug(message);
+	}
+
+	public void debug(String template, Object arg1) {
+		if (isDebugEnabled())
+			adapter.debug(template, arg1);
+	}
+
+	public void debug(String template, Object arg1, Object arg2) {
+		if (isDebugEnabled())
+			adapter.debug(template, arg1, arg2);
+	}
+
+	public void debug(String template, Object arg1, Object arg2, Object arg3) {
+		if (isDebugEnabled())
+			adapter.debug(template, arg1, arg2, arg3);
+	}
+
+	public void debug(String template, Object arg1, Object arg2, Object arg3, Object arg4) {
+		if (isDebugEnabled())
+			adapter.debug(template, arg1, arg2, arg3, arg4);
+	}
+
+	public void info(String message) {
+		if (isInfoEnabled())
+			adapter.info(message);
+	}
+
+	public void info(String template, Object arg1) {
+		if (isInfoEnabled())
+			adapter.info(template, arg1);
+	}
+
+	public void info(String template, Object arg1, Object arg2) {
+		if (isInfoEnabled())
+			adapter.info(template, arg1, arg2);
+	}
+
+	public void info(String template, Object arg1, Object arg2, Object arg3) {
+		if (isInfoEnabled())
+			adapter.info(template, arg1, arg2, arg3);
+	}
+
+	public void info(String template, Object arg1, Object arg2, Object arg3, Object arg4) {
+		if (isInfoEnabled())
+			adapter.info(template, arg1, arg2, arg3, arg4);
+	}
+
+	public void warning(String message) {
+		if (isWarningEnabled())
+			adapter.warning(message);
+	}
+
+	public void warning(String template, Object arg1) {
+		if (isWarningEnabled())
+			adapter.warning(template, arg1);
+	}
+
+	public void warning(String template, Object arg1, Object arg2) {
+		if (isWarningEnabled())
+			adapter.warning(template, arg1, arg2);
+	}
+
+	public void warning(String template, Object arg1, Object arg2, Object arg3) {
+		if (isWarningEnabled())
+			adapter.warning(template, arg1, arg2, arg3);
+	}
+
+	public void error(String message) {
+		if (isErrorEnabled())
+			adapter.error(message);
+	}
+
+	public void error(String template, Object arg1) {
+		if (isErrorEnabled())
+			adapter.error(template, arg1);
+	}
+
+	public void error(String template, Object arg1, Object arg2) {
+		if (isErrorEnabled())
+			adapter.error(template, arg1, arg2);
+	}
+
+	public void error(String template, Object arg1, Object arg2, Object arg3) {
+		if (isErrorEnabled())
+			adapter.error(template, arg1, arg2, arg3);
+	}
+
+	public void error(Throwable cause, String message) {
+		if (isErrorEnabled())
+			adapter.error(cause, message);
+	}
+
+	public void error(Throwable cause, String template, Object arg1) {
+		if (isErrorEnabled())
+			adapter.error(cause, template, arg1);
+	}
+
+	public void error(Throwable cause, String template, Object arg1, Object arg2) {
+		if (isErrorEnabled())
+			adapter.error(cause, template, arg1, arg2);
+	}
+
+}
@@ -0,0 +1,191 @@
+package tmt.tcs.common;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import akka.actor.ActorRef;
+
+/**
+ * This is the metrics registry shared by all components in a JVM. The base
+ * actor classes register into it when they are created, one entry per
+ * component class, e.g. McsHcd or McsEventPublisher. Instances of the same
+ * class share their entry.
+ *
+ * For each component it tracks the processing time per message type, the
+ * mailbox depth seen when a message is processed (actors running with
+ * MeteredMailbox only) and the latency and failures of event and telemetry
+ * publishing. Everything is recorded with LongAdders and LatencyHistograms, so
+ * neither recording nor taking a snapshot takes a lock
+ */
+public final class TcsMetrics {
+
+	private static final Map<String, ComponentMetrics> components = new ConcurrentHashMap<>();
+
+	private TcsMetrics() {
+	}
+
+	/**
+	 * @param name
+	 *            component name, by convention the simple class name
+	 * @return the metrics of the component, created on first use
+	 */
+	public static ComponentMetrics of(String name) {
+		return components.computeIfAbsent(name, ComponentMetrics::new);
+	}
+
+	/**
+	 * Creates the recorder of one actor, called by the base actor classes
+	 *
+	 * @param actor
+	 * @param self
+	 * @return
+	 */
+	public static ActorRecorder recorder(Object actor, ActorRef self) {
+		return new ActorRecorder(of(actor.getClass().getSimpleName()), MeteredMailbox.depthCounter(self));
+	}
+
+	/**
+	 * @return snapshots of all registered components, by name
+	 */
+	public static Map<String, ComponentSnapshot> snapshot() {
+		Map<String, ComponentSnapshot> snapshots = new TreeMap<>();
+		components.forEach((name, metrics) -> snapshots.put(name, metrics.snapshot()));
+		return Collections.unmodifiableMap(snapshots);
+	}
+
+	public static void reset() {
+		components.values().forEach(ComponentMetrics::reset);
+	}
+
+	/**
+	 * Metrics of one component
+	 */
+	public static final class ComponentMetrics {
+		public final String name;
+
+		private final LongAdder messages = new LongAdder();
+		private final Map<Class<?>, LatencyHistogram> processing = new ConcurrentHashMap<>();
+		private final LatencyHistogram mailboxDepth = new LatencyHistogram();
+		private final LatencyHistogram publishLatency = new LatencyHistogram();
+		private final LongAdder publishFailures = new LongAdder();
+
+		private ComponentMetrics(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @param message
+		 * @param nanos
+		 *            time taken to process the message
+		 */
+		public void processed(Object message, long nanos) {
+			messages.increment();
+			processing.computeIfAbsent(message.getClass(), c -> new LatencyHistogram()).record(nanos);
+		}
+
+		public void mailboxDepth(int depth) {
+			mailboxDepth.record(depth);
+		}
+
+		/**
+		 * Records the outcome of a publish, to be called from its completion
+		 *
+		 * @param nanos
+		 *            time from publish to completion
+		 * @param failure
+		 *            the exception the publish failed with, or null
+		 */
+		public void published(long nanos, Throwable failure) {
+			publishLatency.record(nanos);
+			if (failure != null) {
+				publishFailures.increment();
+			}
+		}
+
+		public void reset() {
+			messages.reset();
+			processing.values().forEach(LatencyHistogram::reset);
+			mailboxDepth.reset();
+			publishLatency.reset();
+			publishFailures.reset();
+		}
+
+		public ComponentSnapshot snapshot() {
+			Map<String, LatencyHistogram.Snapshot> byType = new TreeMap<>();
+			processing.forEach((type, histogram) -> byType.put(type.getSimpleName(), histogram.snapshot()));
+			return new ComponentSnapshot(name, messages.sum(), byType, mailboxDepth.snapshot(),
+					publishLatency.snapshot(), publishFailures.sum());
+		}
+	}
+
+	/**
+	 * Records the messages of one actor into the metrics of its component
+	 */
+	public static final class ActorRecorder {
+		private final ComponentMetrics metrics;
+		// Null unless the actor runs with MeteredMailbox
+		private final AtomicInteger depth;
+
+		private ActorRecorder(ComponentMetrics metrics, AtomicInteger depth) {
+			this.metrics = metrics;
+			this.depth = depth;
+		}
+
+		/**
+		 * @return a System.nanoTime() start stamp, sampling the mailbox depth
+		 */
+		public long received() {
+			if (depth != null) {
+				metrics.mailboxDepth(depth.get());
+			}
+			return System.nanoTime();
+		}
+
+		public void processed(Object message, long start) {
+			metrics.processed(message, System.nanoTime() - start);
+		}
+
+		public void published(long start, Throwable failure) {
+			metrics.published(System.nanoTime() - start, failure);
+		}
+
+		public ComponentMetrics metrics() {
+			return metrics;
+		}
+	}
+
+	/**
+	 * Immutable metrics of one component, times in nanoseconds
+	 */
+	public static class ComponentSnapshot {
+		public final String name;
+		public final long messages;
+		public final Map<String, LatencyHistogram.Snapshot> processing;
+		public final LatencyHistogram.Snapshot mailboxDepth;
+		public final LatencyHistogram.Snapshot publishLatency;
+		public final long publishFailures;
+
+		public ComponentSnapshot(String name, long messages, Map<String, LatencyHistogram.Snapshot> processing,
+				LatencyHistogram.Snapshot mailboxDepth, LatencyHistogram.Snapshot publishLatency,
+				long publishFailures) {
+			this.name = name;
+			this.messages = messages;
+			this.processing = Collections.unmodifiableMap(processing);
+			this.mailboxDepth = mailboxDepth;
+			this.publishLatency = publishLatency;
+			this.publishFailures = publishFailures;
+		}
+
+		@Override
+		public String toString() {
+			return "ComponentSnapshot [name=" + name + ", messages=" + messages + ", processing=" + processing
+					+ ", mailboxDepth=" + mailboxDepth + ", publishLatency=" + publishLatency + ", publishFailures="
+					+ publishFailures + "]";
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package tmt.tcs.common;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This holds one TimeSeriesRing per channel for plotting recent positions,
+ * e.g. in the web UI. Every ring keeps the last capacity samples of its
+ * channel, by default 65536 samples, i.e. about 11 minutes at 100 Hz in 1 MB.
+ * The capacity can be set with -Dtcs.history.capacity
+ */
+public final class TimeSeriesHistory {
+
+	public static final int capacity = Integer.getInteger("tcs.history.capacity", 65536);
+
+	private static final Map<String, TimeSeriesRing> rings = new ConcurrentHashMap<>();
+
+	private TimeSeriesHistory() {
+	}
+
+	/**
+	 * Adds a sample taken now to a channel
+	 *
+	 * @param channel
+	 * @param value
+	 */
+	public static void record(String channel, double value) {
+		record(channel, System.currentTimeMillis(), value);
+	}
+
+	public static void record(String channel, long timeMillis, double value) {
+		rings.computeIfAbsent(channel, c -> new TimeSeriesRing(capacity)).add(timeMillis, value);
+	}
+
+	/**
+	 * @param channel
+	 * @return the ring of the channel, null if nothing was recorded for it
+	 */
+	public static TimeSeriesRing ring(String channel) {
+		return rings.get(channel);
+	}
+
+	/**
+	 * @return names of all channels recorded so far, sorted
+	 */
+	public static Set<String> channels() {
+		return new TreeSet<>(rings.keySet());
+	}
+
+}
@@ -0,0 +1,161 @@
+package tmt.tcs.common;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicLong;
+
+import sun.misc.Unsafe;
+
+/**
+ * This is a fixed size history of one channel, e.g. MCS azimuth, backed by a
+ * long[] of timestamps and a double[] of values. Once full, every new sample
+ * overwrites the oldest one, so memory stays the same however long the system
+ * runs.
+ *
+ * A channel has a single writer, usually the subscriber actor receiving its
+ * events, and any number of readers. Readers do not lock: they copy the
+ * samples and drop the ones the writer may have overwritten while copying
+ */
+public final class TimeSeriesRing {
+
+	// For the load fence between copying the samples and re-reading head,
+	// Java 8 has no public fence API
+	private static final Unsafe unsafe;
+
+	static {
+		try {
+			Field field = Unsafe.class.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = (Unsafe) field.get(null);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final int capacity;
+	private final long[] times;
+	private final double[] values;
+	// Number of samples ever written, published after each sample
+	private final AtomicLong head = new AtomicLong();
+
+	public TimeSeriesRing(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		this.times = new long[capacity];
+		this.values = new double[capacity];
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Adds a sample, timestamps are expected not to go backwards
+	 *
+	 * @param timeMillis
+	 * @param value
+	 */
+	public void add(long timeMillis, double value) {
+		long next = head.get();
+		int slot = (int) (next % capacity);
+		times[slot] = timeMillis;
+		values[slot] = value;
+		head.lazySet(next + 1);
+	}
+
+	/**
+	 * Samples of a time window reduced to at most the given number of buckets
+	 * of equal duration. Each bucket holds the min, max and mean of its
+	 * samples, buckets without samples are left out
+	 */
+	public static class Window {
+		public final long fromMillis;
+		public final long toMillis;
+		public final int size;
+		public final long[] bucketMillis;
+		public final double[] min;
+		public final double[] max;
+		public final double[] mean;
+		public final int[] count;
+
+		Window(long fromMillis, long toMillis, int size, long[] bucketMillis, double[] min, double[] max,
+				double[] mean, int[] count) {
+			this.fromMillis = fromMillis;
+			this.toMillis = toMillis;
+			this.size = size;
+			this.bucketMillis = bucketMillis;
+			this.min = min;
+			this.max = max;
+			this.mean = mean;
+			this.count = count;
+		}
+	}
+
+	/**
+	 * @param fromMillis
+	 *            start of the window, inclusive
+	 * @param toMillis
+	 *            end of the window, exclusive
+	 * @param buckets
+	 *            maximum number of points returned
+	 * @return the downsampled window
+	 */
+	public Window window(long fromMillis, long toMillis, int buckets) {
+		int bucketCount = Math.max(1, buckets);
+		long span = Math.max(1, toMillis - fromMillis);
+		long[] bucketMillis = new long[bucketCount];
+		double[] min = new double[bucketCount];
+		double[] max = new double[bucketCount];
+		double[] sum = new double[bucketCount];
+		int[] count = new int[bucketCount];
+
+		long end = head.get();
+		long start = Math.max(0, end - capacity);
+		long[] copiedTimes = new long[(int) (end - start)];
+		double[] copiedValues = new double[copiedTimes.length];
+		for (long i = start; i < end; i++) {
+			int slot = (int) (i % capacity);
+			copiedTimes[(int) (i - start)] = times[slot];
+			copiedValues[(int) (i - start)] = values[slot];
+		}
+		// The copies must not be read after head is read again
+		unsafe.loadFence();
+		// Samples before this were possibly overwritten while being copied,
+		// including the one in the slot the writer may be storing into now
+		long valid = Math.max(start, head.get() + 1 - capacity);
+
+		for (long i = valid; i < end; i++) {
+			long time = copiedTimes[(int) (i - start)];
+			if (time < fromMillis || time >= toMillis) {
+				continue;
+			}
+			int bucket = (int) ((time - fromMillis) * bucketCount / span);
+			double value = copiedValues[(int) (i - start)];
+			if (count[bucket] == 0) {
+				min[bucket] = value;
+				max[bucket] = value;
+			} else {
+				min[bucket] = Math.min(min[bucket], value);
+				max[bucket] = Math.max(max[bucket], value);
+			}
+			sum[bucket] += value;
+			count[bucket]++;
+		}
+
+		// Compact to the buckets holding samples
+		int size = 0;
+		for (int b = 0; b < bucketCount; b++) {
+			if (count[b] > 0) {
+				bucketMillis[size] = fromMillis + b * span / bucketCount;
+				min[size] = min[b];
+				max[size] = max[b];
+				sum[size] = sum[b] / count[b];
+				count[size] = count[b];
+				size++;
+			}
+		}
+		return new Window(fromMillis, toMillis, size, bucketMillis, min, max, sum, count);
+	}
+
+}
@@ -48,6 +48,7 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseAssembly;
+import tmt.tcs.common.TcsLogger.Subsystem;
 import tmt.tcs.mcs.McsEventDelegator;
 
 /**
@@ -201,8 +202,8 @@ public class EcsAssembly extends BaseAssembly {
 	 * @return a partial function
 	 */
 	private PartialFunction<Object, BoxedUnit> runningReceive() {
-		return locationReceive().orElse(diagnosticReceive()).orElse(controllerReceive()).orElse(lifecycleReceivePF(supervisor))
-				.orElse(unhandledPF());
+		return locationReceive().orElse(diagnosticReceive()).orElse(latencyReceive(Subsystem.ECS))
+				.orElse(controllerReceive()).orElse(lifecycleReceivePF(supervisor)).orElse(unhandledPF());
 	}
 	
 	/**
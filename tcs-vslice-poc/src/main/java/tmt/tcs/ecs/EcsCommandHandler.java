@@ -25,7 +25,6 @@ import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import akka.actor.ActorRef;
-import akka.actor.PoisonPill;
 import akka.actor.Props;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
@@ -80,6 +79,11 @@ public class EcsCommandHandler extends BaseCommandHandler {
 	private Optional<IEventService> badEventService = Optional.empty();
 	private Optional<IEventService> eventService = badEventService;
 
+	// Created by the first follow and offset, see followCommand() and
+	// offsetCommand()
+	private ActorRef followCommand;
+	private ActorRef offsetCommand;
+
 	public EcsCommandHandler(AssemblyContext ac, Optional<ActorRef> ecsHcd, Optional<ActorRef> allEventPublisher) {
 
 		log.debug("Inside EcsCommandHandler");
@@ -110,7 +114,6 @@ public class EcsCommandHandler extends BaseCommandHandler {
 		} else if (location instanceof ResolvedTcpLocation) {
 			ResolvedTcpLocation t = (ResolvedTcpLocation) location;
 			log.debug("Inside EcsCommandHandler: Received TCP Location: " + t.connection());
-			System.out.println("*********Inside EcsCommandHandler: Received TCP Location: " + t.connection());
 			if (location.connection().equals(IEventService.eventServiceConnection())) {
 				log.debug("Inside EcsCommandHandler: Assembly received ES connection: " + t);
 				eventService = Optional.of(IEventService.getEventService(t.host(), t.port(), context().system()));
@@ -137,7 +140,7 @@ public class EcsCommandHandler extends BaseCommandHandler {
 	 * @return
 	 */
 	private PartialFunction<Object, BoxedUnit> initReceive() {
-		return stateReceive()
+		return transitionReceive().orElse(stateReceive())
 				.orElse(ReceiveBuilder.match(Location.class, this::handleLocations).match(ExecuteOne.class, t -> {
 
 					SetupConfig sc = t.sc();
@@ -150,15 +153,10 @@ public class EcsCommandHandler extends BaseCommandHandler {
 					if (configKey.equals(EcsConfig.initCK)) {
 						log.info(
 								"Inside EcsCommandHandler initReceive: Init not fully implemented -- only sets state ready!");
-						try {
-							ask(ecsStateActor,
-									new AssemblySetState(azItem(azDrivePowerOn), elItem(elDrivePowerOn), null, null),
-									5000).toCompletableFuture().get();
-						} catch (Exception e) {
-							log.error(e, "Inside EcsCommandHandler Error setting state");
-						}
 						ecsHcd.tell(GetEcsDefaultUpdate, self());
-						commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+						transitionState(ecsStateActor,
+								new AssemblySetState(azItem(azDrivePowerOn), elItem(elDrivePowerOn), null, null),
+								commandOriginator, Completed);
 
 					} else if (configKey.equals(EcsConfig.followCK)) {
 						if (!(az(currentState()).equals(azDatumed) || az(currentState()).equals(azDrivePowerOn))
@@ -171,32 +169,19 @@ public class EcsCommandHandler extends BaseCommandHandler {
 						} else {
 							log.debug("Inside EcsCommandHandler initReceive: Follow command -- START: " + t);
 
-							Double initialAz = 0.0;
-							Double initialEl = 0.0;
-
-							// The event publisher may be passed in
-							Props props = EcsFollowCommand.props(assemblyContext, jset(EcsConfig.az, initialAz),
-									jset(EcsConfig.el, initialEl), Optional.of(ecsHcd), allEventPublisher,
-									eventService.get(), Optional.of(ecsStateActor));
-
-							ActorRef followCommandActor = context().actorOf(props);
+							ActorRef followCommandActor = followCommand();
 							log.info("Inside EcsCommandHandler initReceive: Going to followReceive");
 							context().become(followReceive(followCommandActor));
 
-							try {
-								ask(ecsStateActor,
-										new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null),
-										5000).toCompletableFuture().get();
-							} catch (Exception e) {
-								log.error(e, "Inside EcsCommandHandler initReceive: Error setting state");
-							}
-							commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+							transitionState(ecsStateActor,
+									new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null),
+									commandOriginator, Completed);
 
 						}
 					} else if (configKey.equals(EcsConfig.offsetDemandCK)) {
 						log.debug("Inside EcsCommandHandler initReceive: ExecuteOne: offsetCK Command ");
-						ActorRef offsetActorRef = context().actorOf(EcsOffsetCommand.props(assemblyContext, sc, ecsHcd,
-								currentState(), Optional.of(ecsStateActor)));
+						ActorRef offsetActorRef = offsetCommand();
+						offsetActorRef.tell(new EcsOffsetCommand.Offset(sc, ecsHcd, currentState()), self());
 						context().become(actorExecutingReceive(offsetActorRef, commandOriginator));
 						self().tell(JSequentialExecutor.CommandStart(), self());
 					} else {
@@ -213,6 +198,40 @@ public class EcsCommandHandler extends BaseCommandHandler {
 				}).build());
 	}
 
+	/**
+	 * The follow command, with its control, follow actor and event subscriber,
+	 * is created once and reused by every later follow, which only retargets
+	 * it to the current HCD
+	 *
+	 * @return the follow command actor
+	 */
+	private ActorRef followCommand() {
+		if (followCommand == null) {
+			Double initialAz = 0.0;
+			Double initialEl = 0.0;
+
+			// The event publisher may be passed in
+			Props props = EcsFollowCommand.props(assemblyContext, jset(EcsConfig.az, initialAz),
+					jset(EcsConfig.el, initialEl), Optional.of(ecsHcd), allEventPublisher, eventService.get(),
+					Optional.of(ecsStateActor));
+			followCommand = context().actorOf(props, "ecsfollowcommand");
+		} else {
+			followCommand.tell(new EcsAssembly.UpdateHcd(Optional.of(ecsHcd)), self());
+		}
+		return followCommand;
+	}
+
+	/**
+	 * @return the offset command, created by the first offset
+	 */
+	private ActorRef offsetCommand() {
+		if (offsetCommand == null) {
+			offsetCommand = context().actorOf(EcsOffsetCommand.props(assemblyContext, Optional.of(ecsStateActor)),
+					"ecsoffsetcommand");
+		}
+		return offsetCommand;
+	}
+
 	/**
 	 * This responds to Command Originator in case HCD is not available
 	 * 
@@ -225,7 +244,7 @@ public class EcsCommandHandler extends BaseCommandHandler {
 	}
 
 	private PartialFunction<Object, BoxedUnit> followReceive(ActorRef followActor) {
-		return stateReceive().orElse(ReceiveBuilder.match(ExecuteOne.class, t -> {
+		return transitionReceive().orElse(stateReceive()).orElse(ReceiveBuilder.match(ExecuteOne.class, t -> {
 			SetupConfig sc = t.sc();
 			log.debug("Inside EcsCommandHandler followReceive: ExecuteOne: SetupConfig is: " + sc);
 			Optional<ActorRef> commandOriginator = toJava(t.commandOriginator());
@@ -234,12 +253,8 @@ public class EcsCommandHandler extends BaseCommandHandler {
 
 			if (configKey.equals(EcsConfig.setAzimuthCK)) {
 				log.debug("Inside EcsCommandHandler followReceive: Started for: " + configKey);
-				try {
-					ask(ecsStateActor, new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null), 5000)
-							.toCompletableFuture().get();
-				} catch (Exception e) {
-					log.error(e, "Inside EcsCommandHandler followReceive: Error setting state");
-				}
+				transitionState(ecsStateActor,
+						new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null));
 
 				DoubleItem azItem = jitem(sc, EcsConfig.azDemandKey);
 
@@ -249,26 +264,17 @@ public class EcsCommandHandler extends BaseCommandHandler {
 				Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
 				executeMatch(context(), azPosMatcher(az), ecsHcd, commandOriginator, timeout, status -> {
 					if (status == Completed) {
-						try {
-							log.debug("Inside EcsCommandHandler followReceive: Command Completed for: " + configKey);
-							ask(ecsStateActor,
-									new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null), 5000)
-											.toCompletableFuture().get();
-						} catch (Exception e) {
-							log.error(e, "Inside EcsCommandHandler followReceive: Error setting state");
-						}
+						log.debug("Inside EcsCommandHandler followReceive: Command Completed for: " + configKey);
+						transitionState(ecsStateActor,
+								new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null));
 					} else if (status instanceof Error)
 						log.error("Inside EcsCommandHandler followReceive: command failed with message: "
 								+ ((Error) status).message());
 				});
 			} else if (configKey.equals(EcsConfig.setElevationCK)) {
 				log.debug("Inside EcsCommandHandler followReceive: Started for: " + configKey);
-				try {
-					ask(ecsStateActor, new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null), 5000)
-							.toCompletableFuture().get();
-				} catch (Exception e) {
-					log.error(e, "Inside EcsCommandHandler followReceive: Error setting state");
-				}
+				transitionState(ecsStateActor,
+						new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null));
 
 				DoubleItem elItem = jitem(sc, EcsConfig.elDemandKey);
 
@@ -278,14 +284,9 @@ public class EcsCommandHandler extends BaseCommandHandler {
 				Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
 				executeMatch(context(), elPosMatcher(el), ecsHcd, commandOriginator, timeout, status -> {
 					if (status == Completed) {
-						try {
-							log.debug("Inside EcsCommandHandler followReceive: Command Completed for: " + configKey);
-							ask(ecsStateActor,
-									new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null), 5000)
-											.toCompletableFuture().get();
-						} catch (Exception e) {
-							log.error(e, "Inside EcsCommandHandler followReceive: Error setting state");
-						}
+						log.debug("Inside EcsCommandHandler followReceive: Command Completed for: " + configKey);
+						transitionState(ecsStateActor,
+								new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null));
 					} else if (status instanceof Error)
 						log.error("Inside EcsCommandHandler followReceive: command failed with message: "
 								+ ((Error) status).message());
@@ -306,14 +307,15 @@ public class EcsCommandHandler extends BaseCommandHandler {
 			Optional<ActorRef> commandOriginator) {
 		Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
 
-		return ReceiveBuilder.matchEquals(JSequentialExecutor.CommandStart(), t -> {
+		return transitionReceive().orElse(ReceiveBuilder.matchEquals(JSequentialExecutor.CommandStart(), t -> {
 			log.debug("Inside EcsCommandHandler actorExecutingReceive: JSequentialExecutor.CommandStart");
 
 			ask(currentCommand, JSequentialExecutor.CommandStart(), timeout.duration().toMillis()).thenApply(reply -> {
 				CommandStatus cs = (CommandStatus) reply;
 				log.debug("Inside EcsCommandHandler actorExecutingReceive: CommandStatus is: " + cs);
 				commandOriginator.ifPresent(actorRef -> actorRef.tell(cs, self()));
-				currentCommand.tell(PoisonPill.getInstance(), self());
+				// The command actor is reused by the next command
+				self().tell(new CommandDone(), self());
 				return null;
 			});
 		}).
@@ -332,7 +334,7 @@ public class EcsCommandHandler extends BaseCommandHandler {
 				})
 				.matchAny(t -> log
 						.warning("Inside EcsCommandHandler actorExecutingReceive: received an unknown message: " + t))
-				.build();
+				.build());
 	}
 
 	public static Props props(AssemblyContext ac, Optional<ActorRef> ecsHcd, Optional<ActorRef> allEventPublisher) {
@@ -356,8 +358,6 @@ public class EcsCommandHandler extends BaseCommandHandler {
 	 * @return DemandMatcher
 	 */
 	public static DemandMatcher posMatcher(double az, double el) {
-		System.out.println("Inside EcsCommandHandler posMatcher Offset: Starts");
-
 		DemandState ds = jadd(new DemandState(EcsConfig.currentPosPrefix), jset(ecsStateKey, ECS_IDLE),
 				jset(EcsConfig.azPosKey, az), jset(EcsConfig.elPosKey, el));
 		return new DemandMatcher(ds, false);
@@ -372,8 +372,6 @@ public class EcsCommandHandler extends BaseCommandHandler {
 	 * @return DemandMatcher
 	 */
 	public static DemandMatcher azPosMatcher(double az) {
-		System.out.println("Inside EcsCommandHandler azPosMatcher : Starts");
-
 		DemandState ds = jadd(new DemandState(EcsConfig.currentPosPrefix), jset(ecsStateKey, ECS_IDLE),
 				jset(EcsConfig.azPosKey, az));
 		return new DemandMatcher(ds, false);
@@ -388,8 +386,6 @@ public class EcsCommandHandler extends BaseCommandHandler {
 	 * @return DemandMatcher
 	 */
 	public static DemandMatcher elPosMatcher(double el) {
-		System.out.println("Inside EcsCommandHandler elPosMatcher : Starts");
-
 		DemandState ds = jadd(new DemandState(EcsConfig.currentPosPrefix), jset(ecsStateKey, ECS_IDLE),
 				jset(EcsConfig.elPosKey, el));
 		return new DemandMatcher(ds, false);
@@ -1,58 +1,61 @@
 package tmt.tcs.ecs;
 
-import static javacsw.util.config.JConfigDSL.sc;
-import static javacsw.util.config.JItems.jadd;
+import static javacsw.util.config.JItems.jvalue;
 
 import java.util.Optional;
 
-import akka.actor.AbstractActor;
 import akka.actor.ActorRef;
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.ccs.HcdController.Submit;
-import csw.util.config.Configurations.SetupConfig;
 import csw.util.config.DoubleItem;
 import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
+import tmt.tcs.common.BaseControl;
+import tmt.tcs.common.DemandCommandTemplate;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.TcsLogger;
 
 /**
  * This Class will receive Position parameters from Follow Actor and forward the
  * same to HCD Class and also publish Telemetry Message for positions being sent
  *
  */
-public class EcsControl extends AbstractActor {
+public class EcsControl extends BaseControl {
 
-	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	private TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	@SuppressWarnings("unused")
 	private final AssemblyContext assemblyContext;
 
+	private static final DemandCommandTemplate followCommand = new DemandCommandTemplate(EcsConfig.followPrefix,
+			EcsConfig.az, EcsConfig.el);
+
 	private EcsControl(AssemblyContext assemblyContext, Optional<ActorRef> ecsHcd) {
+		super(assemblyContext);
 		this.assemblyContext = assemblyContext;
-		log.info("Inside EcsControl: Hcd ref is: " + ecsHcd);
+		log.info("Inside EcsControl: Hcd ref is: {}", ecsHcd);
 
 		// Initial receive - start with initial values
 		receive(controlReceive(ecsHcd));
 	}
 
 	private PartialFunction<Object, BoxedUnit> controlReceive(Optional<ActorRef> ecsHcd) {
-		return ReceiveBuilder.match(GoToPosition.class, t -> {
+		return demandFilterReceive().orElse(ReceiveBuilder.match(GoToPosition.class, t -> {
 			log.info("Inside EcsControl controlReceive: Got GoToPosition");
-			DoubleItem az = t.azimuth;
-			DoubleItem el = t.elevation;
-
-			SetupConfig scOut = jadd(sc(EcsConfig.followPrefix), az, el);
+			filterDemand(jvalue(t.azimuth), jvalue(t.elevation), t.tracking, () -> {
+				Submit submit = followCommand.submit(t.azimuth, t.elevation, t.trace);
 
-			// Send command to HCD here
-			ecsHcd.ifPresent(actorRef -> actorRef.tell(new Submit(scOut), self()));
+				// Send command to HCD here
+				ecsHcd.ifPresent(actorRef -> actorRef.tell(submit, self()));
+			});
 		}).match(EcsAssembly.UpdateHcd.class, t -> {
 			log.info("Inside EcsControl controlReceive: Got UpdateHcd");
+			hcdChanged();
 			context().become(controlReceive(t.hcdActorRef));
-		}).matchAny(t -> log.warning("Inside EcsControl: controlReceive Unexpected message received : " + t)).build();
+		}).matchAny(t -> log.warning("Inside EcsControl: controlReceive Unexpected message received : {}", t)).build());
 	}
 
 	// Props for creating the EcsControl actor
@@ -71,10 +74,25 @@ public class EcsControl extends AbstractActor {
 	static class GoToPosition {
 		final DoubleItem azimuth;
 		final DoubleItem elevation;
+		// Latency trace of the demand, not part of equality
+		final Optional<DemandTrace> trace;
+		// Interpolated tracking demand, only these pass the demand filter. Not
+		// part of equality
+		final boolean tracking;
 
 		GoToPosition(DoubleItem azimuth, DoubleItem elevation) {
+			this(azimuth, elevation, Optional.empty());
+		}
+
+		GoToPosition(DoubleItem azimuth, DoubleItem elevation, Optional<DemandTrace> trace) {
+			this(azimuth, elevation, trace, false);
+		}
+
+		GoToPosition(DoubleItem azimuth, DoubleItem elevation, Optional<DemandTrace> trace, boolean tracking) {
 			this.azimuth = azimuth;
 			this.elevation = elevation;
+			this.trace = trace;
+			this.tracking = tracking;
 		}
 
 		@Override
@@ -21,6 +21,10 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseEventDelegator;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.DemandTrace.Stage;
+import tmt.tcs.common.LatencyTracker;
+import tmt.tcs.common.TcsLogger.Subsystem;
 import tmt.tcs.ecs.EcsEventPublisher.EcsStateUpdate;
 
 /**
@@ -34,6 +38,7 @@ public class EcsEventDelegator extends BaseEventDelegator {
 
 	private final Optional<ActorRef> eventPublisher;
 	private final String hcdName;
+	private final LatencyTracker latency = LatencyTracker.of(Subsystem.ECS);
 
 	private EcsEventDelegator(AssemblyContext assemblyContext, Optional<ActorRef> ecsHcd,
 			Optional<ActorRef> eventPublisher) {
@@ -128,6 +133,7 @@ public class EcsEventDelegator extends BaseEventDelegator {
 	 */
 	public void publishEcsPosUpdate(CurrentState cs, Optional<ActorRef> eventPublisher) {
 		log.debug("Inside EcsEventDelegator publish state: " + cs);
+		DemandTrace.fromCurrentState(cs).ifPresent(trace -> latency.record(trace.mark(Stage.CURRENT_STATE)));
 		eventPublisher.ifPresent(actorRef -> actorRef.tell(new EcsStateUpdate(jitem(cs, EcsConfig.ecsStateKey),
 				jitem(cs, EcsConfig.azPosKey), jitem(cs, EcsConfig.elPosKey)), self()));
 	}
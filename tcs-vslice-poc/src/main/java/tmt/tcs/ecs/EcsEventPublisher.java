@@ -5,8 +5,6 @@ import static javacsw.util.config.JItems.jadd;
 import java.util.Optional;
 
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.loc.LocationService;
@@ -22,6 +20,7 @@ import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.AssemblyStateActor.AssemblyState;
 import tmt.tcs.common.BaseEventPublisher;
+import tmt.tcs.common.TcsLogger;
 
 /**
  * This is an actor class that provides the publishing interface specific to ECS
@@ -29,7 +28,7 @@ import tmt.tcs.common.BaseEventPublisher;
  */
 public class EcsEventPublisher extends BaseEventPublisher {
 
-	LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	@SuppressWarnings("unused")
 	private final AssemblyContext assemblyContext;
@@ -43,8 +42,8 @@ public class EcsEventPublisher extends BaseEventPublisher {
 		context().system().eventStream().subscribe(self(), AssemblyState.class);
 		this.assemblyContext = assemblyContext;
 
-		log.debug("Inside EcsEventPublisher Event Service in: " + eventServiceIn);
-		log.debug("Inside EcsEventPublisher Telemetry Service in: " + telemetryServiceIn);
+		log.debug("Inside EcsEventPublisher Event Service in: {}", eventServiceIn);
+		log.debug("Inside EcsEventPublisher Telemetry Service in: {}", telemetryServiceIn);
 
 		receive(publishingEnabled(eventServiceIn, telemetryServiceIn));
 	}
@@ -61,7 +60,7 @@ public class EcsEventPublisher extends BaseEventPublisher {
 						location -> handleLocations(location, eventService, telemetryService))
 				.
 
-				matchAny(t -> log.warning("Inside EcsEventPublisher Unexpected message in publishingEnabled: " + t)).
+				matchAny(t -> log.warning("Inside EcsEventPublisher Unexpected message in publishingEnabled: {}", t)).
 
 				build();
 	}
@@ -73,33 +72,33 @@ public class EcsEventPublisher extends BaseEventPublisher {
 			Optional<ITelemetryService> currentTelemetryService) {
 		if (location instanceof ResolvedTcpLocation) {
 			ResolvedTcpLocation t = (ResolvedTcpLocation) location;
-			log.debug("Inside EcsEventPublisher Received TCP Location: " + t.connection());
+			log.debug("Inside EcsEventPublisher Received TCP Location: {}", t.connection());
 			// Verify that it is the event service
 			if (location.connection().equals(IEventService.eventServiceConnection())) {
-				log.debug("Inside EcsEventPublisher received connection: " + t);
+				log.debug("Inside EcsEventPublisher received connection: {}", t);
 				Optional<IEventService> newEventService = Optional
 						.of(IEventService.getEventService(t.host(), t.port(), context().system()));
-				log.debug("Inside EcsEventPublisherEvent Service at: " + newEventService);
+				log.debug("Inside EcsEventPublisherEvent Service at: {}", newEventService);
 				context().become(publishingEnabled(newEventService, currentTelemetryService));
 			}
 
 			if (location.connection().equals(ITelemetryService.telemetryServiceConnection())) {
-				log.debug("Inside EcsEventPublisher received connection: " + t);
+				log.debug("Inside EcsEventPublisher received connection: {}", t);
 				Optional<ITelemetryService> newTelemetryService = Optional
 						.of(ITelemetryService.getTelemetryService(t.host(), t.port(), context().system()));
-				log.debug("Inside EcsEventPublisher Telemetry Service at: " + newTelemetryService);
+				log.debug("Inside EcsEventPublisher Telemetry Service at: {}", newTelemetryService);
 				context().become(publishingEnabled(currentEventService, newTelemetryService));
 			}
 
 		} else if (location instanceof LocationService.Unresolved) {
-			log.debug("Unresolved: " + location.connection());
+			log.debug("Unresolved: {}", location.connection());
 			if (location.connection().equals(IEventService.eventServiceConnection()))
 				context().become(publishingEnabled(Optional.empty(), currentTelemetryService));
 			else if (location.connection().equals(ITelemetryService.telemetryServiceConnection()))
 				context().become(publishingEnabled(currentEventService, Optional.empty()));
 
 		} else {
-			log.debug("Inside EcsEventPublisher received some other location: " + location);
+			log.debug("Inside EcsEventPublisher received some other location: {}", location);
 		}
 	}
 
@@ -109,11 +108,15 @@ public class EcsEventPublisher extends BaseEventPublisher {
 	 */
 	private void publishTelemetryUpdate(Optional<ITelemetryService> telemetryService, DoubleItem az, DoubleItem el) {
 		StatusEvent ste = jadd(new StatusEvent(EcsConfig.telemetryEventPrefix), az, el);
-		log.info("Inside EcsEventPublisher publishTelemetryUpdate: Status publish of " + EcsConfig.telemetryEventPrefix + ": "
-				+ ste);
+		log.info("Inside EcsEventPublisher publishTelemetryUpdate: Status publish of {}: {}",
+				EcsConfig.telemetryEventPrefix, ste);
 
+		long start = System.nanoTime();
 		telemetryService.ifPresent(e -> e.publish(ste).handle((x, ex) -> {
-			log.error("Inside EcsEventPublisher publishTelemetryUpdate: Failed to publish telemetry: " + ste, ex);
+			recordPublish(start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside EcsEventPublisher publishTelemetryUpdate: Failed to publish telemetry: {}", ste);
+			}
 			return null;
 		}));
 	}
@@ -125,9 +128,13 @@ public class EcsEventPublisher extends BaseEventPublisher {
 	private void publishEcsPositionUpdate(Optional<IEventService> eventService, ChoiceItem state, DoubleItem az,
 			DoubleItem el) {
 		SystemEvent se = jadd(new SystemEvent(EcsConfig.currentPosPrefix), state, az, el);
-		log.debug("Inside EcsEventPublisher publishEcsPositionUpdate " + EcsConfig.currentPosPrefix + ": " + se);
+		log.debug("Inside EcsEventPublisher publishEcsPositionUpdate {}: {}", EcsConfig.currentPosPrefix, se);
+		long start = System.nanoTime();
 		eventService.ifPresent(e -> e.publish(se).handle((x, ex) -> {
-			log.error("Inside EcsEventPublisher publishEcsState failed to publish ecs state: " + se, ex);
+			recordPublish(start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside EcsEventPublisher publishEcsState failed to publish ecs state: {}", se);
+			}
 			return null;
 		}));
 	}
@@ -138,9 +145,13 @@ public class EcsEventPublisher extends BaseEventPublisher {
 	 */
 	private void publishAssemblyState(Optional<ITelemetryService> telemetryService, AssemblyState ts) {
 		StatusEvent ste = jadd(new StatusEvent(EcsConfig.ecsStateEventPrefix), ts.az, ts.el);
-		log.debug("Inside EcsEventPublisher publishAssemblyState: " + EcsConfig.ecsStateEventPrefix + ": " + ste);
+		log.debug("Inside EcsEventPublisher publishAssemblyState: {}: {}", EcsConfig.ecsStateEventPrefix, ste);
+		long start = System.nanoTime();
 		telemetryService.ifPresent(e -> e.publish(ste).handle((x, ex) -> {
-			log.error("Inside EcsEventPublisher publishAssemblyState: failed to publish state: " + ste, ex);
+			recordPublish(start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside EcsEventPublisher publishAssemblyState: failed to publish state: {}", ste);
+			}
 			return null;
 		}));
 	}
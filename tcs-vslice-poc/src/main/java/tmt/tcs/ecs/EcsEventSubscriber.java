@@ -8,8 +8,6 @@ import java.util.Optional;
 
 import akka.actor.ActorRef;
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.events.EventService;
@@ -22,6 +20,9 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseEventSubscriber;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.TcsLogger;
+import tmt.tcs.tpk.TpkConfig;
 
 /**
  * This Class provides Event Subscription functionality for ECS It extends
@@ -30,7 +31,7 @@ import tmt.tcs.common.BaseEventSubscriber;
 @SuppressWarnings("unused")
 public class EcsEventSubscriber extends BaseEventSubscriber {
 
-	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	private TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	private final AssemblyContext assemblyContext;
 	private final Optional<ActorRef> followActor;
@@ -66,18 +67,24 @@ public class EcsEventSubscriber extends BaseEventSubscriber {
 		return ReceiveBuilder.
 
 				match(SystemEvent.class, event -> {
-					log.debug("Inside EcsEventSubscriber subscribeReceive received SystemEvent: Config Key is: "
-							+ event.info().source());
+					log.debug("Inside EcsEventSubscriber subscribeReceive received SystemEvent: Config Key is: {}",
+							event.info().source());
 
 					if (event.info().source().equals(EcsConfig.positionDemandCK)
-							|| event.info().source().equals(EcsConfig.offsetDemandCK)) {
+							|| event.info().source().equals(EcsConfig.offsetDemandCK)
+							|| event.info().source().equals(TpkConfig.demandFrameCK)) {
+						checkFrameSequence(event);
+						if (!checkFrameComplete(event, EcsConfig.azDemandKey, EcsConfig.elDemandKey)) {
+							return;
+						}
 						Double azValue = jvalue(jitem(event, EcsConfig.azDemandKey));
 						Double elValue = jvalue(jitem(event, EcsConfig.elDemandKey));
 						DoubleItem azItem = jset(EcsConfig.az, azValue);
 						DoubleItem elItem = jset(EcsConfig.el, elValue);
-						log.debug("Inside EcsEventSubscriber subscribeReceive received: " + event.info().source()
-								+ ": azItem is: " + azItem + ": eItem is: " + elItem);
-						updateFollowActor(azItem, elItem, event.info().eventTime());
+						log.debug("Inside EcsEventSubscriber subscribeReceive received: {}: azItem is: {}: eItem is: {}",
+								event.info().source(), azItem, elItem);
+						updateFollowActor(azItem, elItem, event.info().eventTime(),
+								demandTime(event, EcsConfig.timeDemandKey), subscribedTrace(event));
 
 						context().become(subscribeReceive(azItem, elItem));
 					}
@@ -89,17 +96,18 @@ public class EcsEventSubscriber extends BaseEventSubscriber {
 					context().stop(self());
 				}).
 
-				matchAny(t -> log.debug("Inside EcsEventSubscriber Unexpected message received:subscribeReceive: " + t))
-				.build();
+				matchAny(t -> log.debug("Inside EcsEventSubscriber Unexpected message received:subscribeReceive: {}",
+						t)).build();
 	}
 
 	/**
 	 * This message propagates event to Follow Actor
 	 */
-	private void updateFollowActor(DoubleItem az, DoubleItem el, EventTime eventTime) {
+	private void updateFollowActor(DoubleItem az, DoubleItem el, EventTime eventTime, double demandTime,
+			Optional<DemandTrace> trace) {
 		log.debug("Inside EcsEventSubscriber updateRefActor: Sending Message to Follow Actor");
-		followActor
-				.ifPresent(actorRef -> actorRef.tell(new EcsFollowActor.UpdatedEventData(az, el, eventTime), self()));
+		followActor.ifPresent(actorRef -> actorRef
+				.tell(new EcsFollowActor.UpdatedEventData(az, el, eventTime, demandTime, trace), self()));
 	}
 
 	/**
@@ -112,9 +120,12 @@ public class EcsEventSubscriber extends BaseEventSubscriber {
 
 		EventMonitor subscribeMonitor = subscribeKeys(eventService, EcsConfig.positionDemandCK);
 
-		log.debug("Inside EcsEventSubscriber actor: " + subscribeMonitor.actorRef());
+		log.debug("Inside EcsEventSubscriber actor: {}", subscribeMonitor.actorRef());
 
-		subscribeKeys(subscribeMonitor, EcsConfig.offsetDemandCK);
+		subscribeKeys(subscribeMonitor, EcsConfig.offsetDemandCK, TpkConfig.demandFrameCK);
+
+		// Demands published by TPK in this JVM skip the event service
+		subscribeLocal(EcsConfig.positionDemandCK, EcsConfig.offsetDemandCK, TpkConfig.demandFrameCK);
 
 		return subscribeMonitor;
 	}
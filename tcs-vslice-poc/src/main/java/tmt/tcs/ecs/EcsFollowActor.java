@@ -1,5 +1,6 @@
 package tmt.tcs.ecs;
 
+import static javacsw.util.config.JItems.jvalue;
 import static tmt.tcs.common.AssemblyStateActor.az;
 import static tmt.tcs.common.AssemblyStateActor.azFollowing;
 import static tmt.tcs.common.AssemblyStateActor.el;
@@ -10,8 +11,6 @@ import java.util.Optional;
 
 import akka.actor.ActorRef;
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.util.config.DoubleItem;
@@ -19,9 +18,13 @@ import csw.util.config.Events.EventTime;
 import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
-import tmt.tcs.common.AssemblyStateActor.AssemblyGetState;
 import tmt.tcs.common.AssemblyStateActor.AssemblyState;
 import tmt.tcs.common.BaseFollowActor;
+import tmt.tcs.common.ConflatingMailbox;
+import tmt.tcs.common.DemandInterpolator;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.DemandTrace.Stage;
+import tmt.tcs.common.TcsLogger;
 import tmt.tcs.ecs.EcsEventPublisher.TelemetryUpdate;
 
 /**
@@ -30,7 +33,7 @@ import tmt.tcs.ecs.EcsEventPublisher.TelemetryUpdate;
  */
 public class EcsFollowActor extends BaseFollowActor {
 
-	LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	@SuppressWarnings("unused")
 	private final AssemblyContext assemblyContext;
@@ -41,6 +44,11 @@ public class EcsFollowActor extends BaseFollowActor {
 	public final DoubleItem initialAzimuth;
 	public final DoubleItem initialElevation;
 
+	// Time tagged demands are interpolated and sent at the HCD's rate
+	private final DemandInterpolator interpolator;
+	// Trace of the newest time tagged demand, only sent with the next tick
+	private Optional<DemandTrace> pendingTrace = Optional.empty();
+
 	private EcsFollowActor(AssemblyContext assemblyContext, DoubleItem initialAzimuth, DoubleItem initialElevation,
 			Optional<ActorRef> ecsControl, Optional<ActorRef> eventPublisher, Optional<ActorRef> ecsStateActor) {
 		log.info("Inside EcsFollowActor");
@@ -53,56 +61,94 @@ public class EcsFollowActor extends BaseFollowActor {
 		this.ecsStateActor = ecsStateActor;
 
 		subscribeToLocationUpdates();
-		context().system().eventStream().subscribe(self(), AssemblyState.class);
+		// The state actor sends the current state, afterwards every state
+		// change is pushed to this actor
+		subscribeToState(ecsStateActor);
+
+		interpolator = new DemandInterpolator(2, maxExtrapolation(assemblyContext));
+		scheduleDemands(demandInterval(assemblyContext));
 
 		// Initial receive - start with initial values
 		receive(followingReceive(initialAzimuth, initialElevation));
 	}
 
+	@Override
+	protected boolean allowsFollowing(AssemblyState state) {
+		return az(state).equals(azFollowing) && el(state).equals(elFollowing);
+	}
+
 	private PartialFunction<Object, BoxedUnit> followingReceive(DoubleItem initialAzimuth,
 			DoubleItem initialElevation) {
-		return stateReceive().orElse(ReceiveBuilder.match(StopFollowing.class, t -> {
+		return stateReceive().orElse(followStatsReceive()).orElse(ReceiveBuilder
+				.match(StopFollowing.class, t -> {
 			// do nothing
+		}).match(SendDemand.class, t -> {
+			sendInterpolatedPosition();
 		}).match(UpdatedEventData.class, t -> {
-			ecsStateActor.ifPresent(actorRef -> actorRef.tell(new AssemblyGetState(), self()));
-
-			log.info("Inside EcsFollowActor followingReceive: az state is: " + az(currentState()) + ": el state is: "
-					+ el(currentState()));
-
-			if (az(currentState()).equals(azFollowing) && el(currentState()).equals(elFollowing)) {
-				log.info("Inside EcsFollowActor followingReceive: Got an Update Event: " + t);
+			updatePosition(t);
+		}).match(SetElevation.class, t -> {
+			log.info("Inside EcsFollowActor followingReceive: Got elevation: {}", t.elevation);
 
-				sendEcsPosition(t.azimuth, t.elevation);
+			updatePosition(new UpdatedEventData(initialAzimuth, t.elevation, new EventTime(Instant.now())));
+		}).match(SetAzimuth.class, t -> {
+			log.info("Inside EcsFollowActor followingReceive: Got azimuth: {}", t.azimuth);
 
-				// Post a StatusEvent for telemetry updates
-				sendTelemetryUpdate(t.azimuth, t.elevation);
+			updatePosition(new UpdatedEventData(t.azimuth, initialElevation, new EventTime(Instant.now())));
+		}).matchAny(t -> log.warning("Inside EcsFollowActor followingReceive: Unexpected message is: {}", t)).build());
+	}
 
-				context().become(followingReceive(t.azimuth, t.elevation));
+	/**
+	 * This handles a demand from the Event Subscriber or a setpoint. Time
+	 * tagged demands are interpolated, others are sent to the Control as is.
+	 * Setpoints are handled directly, as sent to self they would be conflated
+	 * with the demands waiting in the mailbox
+	 */
+	private void updatePosition(UpdatedEventData t) {
+		if (followingAllowed()) {
+			log.info("Inside EcsFollowActor updatePosition: Got an Update Event: {}", t);
+
+			if (t.isTimeTagged()) {
+				// Sent to the Control on the next SendDemand tick
+				interpolator.add(localDemandTime(t.demandTime), jvalue(t.azimuth), jvalue(t.elevation));
+				pendingTrace = t.trace;
 			} else {
-				String errorMessage = "Assembly State " + az(currentState()) + "/" + el(currentState())
-						+ " does not allow moving Ecs";
-				log.error("Inside EcsFollowActor followingReceive: Error Message is: " + errorMessage);
+				interpolator.clear();
+				sendEcsPosition(t.azimuth, t.elevation, t.trace, false);
 			}
-		}).match(SetElevation.class, t -> {
-			log.info("Inside EcsFollowActor followingReceive: Got elevation: " + t.elevation);
 
-			self().tell(new UpdatedEventData(initialAzimuth, t.elevation, new EventTime(Instant.now())), self());
-			context().become(followingReceive(initialAzimuth, t.elevation));
-		}).match(SetAzimuth.class, t -> {
-			log.info("Inside EcsFollowActor followingReceive: Got azimuth: " + t.azimuth);
+			// Post a StatusEvent for telemetry updates
+			sendTelemetryUpdate(t.azimuth, t.elevation);
 
-			self().tell(new UpdatedEventData(t.azimuth, initialElevation, new EventTime(Instant.now())), self());
-			context().become(followingReceive(t.azimuth, initialElevation));
-		}).matchAny(t -> log.warning("Inside EcsFollowActor followingReceive: Unexpected message is: " + t)).build());
+			context().become(followingReceive(t.azimuth, t.elevation));
+		} else {
+			String errorMessage = "Assembly State " + az(currentState()) + "/" + el(currentState())
+					+ " does not allow moving Ecs";
+			log.error("Inside EcsFollowActor updatePosition: Error Message is: {}", errorMessage);
+		}
 	}
 
-	private void sendEcsPosition(DoubleItem az, DoubleItem el) {
-		log.debug("Inside EcsFollowActor sendEcsPosition: az is: " + az + ": el is: " + el);
-		ecsControl.ifPresent(actorRef -> actorRef.tell(new EcsControl.GoToPosition(az, el), self()));
+	/**
+	 * This sends the time tagged demands interpolated to now, as long as
+	 * following is allowed and the newest demand is not stale
+	 */
+	private void sendInterpolatedPosition() {
+		double now = demandClock();
+		if (followingAllowed() && isCurrent(interpolator, now)) {
+			sendEcsPosition(EcsConfig.az(interpolator.valueAt(now, 0)), EcsConfig.el(interpolator.valueAt(now, 1)),
+					pendingTrace, true);
+			pendingTrace = Optional.empty();
+		}
+	}
+
+	private void sendEcsPosition(DoubleItem az, DoubleItem el, Optional<DemandTrace> trace, boolean tracking) {
+		log.debug("Inside EcsFollowActor sendEcsPosition: az is: {}: el is: {}", az, el);
+		Optional<DemandTrace> followed = trace.map(t -> t.mark(Stage.FOLLOW));
+		EcsControl.GoToPosition position = new EcsControl.GoToPosition(az, el, followed, tracking);
+		ecsControl.ifPresent(actorRef -> actorRef.tell(position, self()));
 	}
 
 	private void sendTelemetryUpdate(DoubleItem az, DoubleItem el) {
-		log.debug("Inside EcsFollowActor sendTelemetryUpdate publish Telemetry Update: " + eventPublisher);
+		log.debug("Inside EcsFollowActor sendTelemetryUpdate publish Telemetry Update: {}", eventPublisher);
 		eventPublisher.ifPresent(actorRef -> actorRef.tell(new TelemetryUpdate(az, el), self()));
 	}
 
@@ -135,15 +181,52 @@ public class EcsFollowActor extends BaseFollowActor {
 	interface FollowActorMessages {
 	}
 
-	public static class UpdatedEventData implements FollowActorMessages {
+	public static class UpdatedEventData implements FollowActorMessages, ConflatingMailbox.Conflatable {
 		public final DoubleItem azimuth;
 		public final DoubleItem elevation;
 		public final EventTime time;
 
+		/**
+		 * Latency trace of the TPK demand, not part of equality
+		 */
+		public final Optional<DemandTrace> trace;
+
+		/**
+		 * Target time of the demand in seconds since the epoch, NaN if the
+		 * demand is not time tagged
+		 */
+		public final double demandTime;
+
 		public UpdatedEventData(DoubleItem azimuth, DoubleItem elevation, EventTime time) {
+			this(azimuth, elevation, time, Optional.empty());
+		}
+
+		public UpdatedEventData(DoubleItem azimuth, DoubleItem elevation, EventTime time, Optional<DemandTrace> trace) {
+			this(azimuth, elevation, time, Double.NaN, trace);
+		}
+
+		public UpdatedEventData(DoubleItem azimuth, DoubleItem elevation, EventTime time, double demandTime,
+				Optional<DemandTrace> trace) {
 			this.azimuth = azimuth;
 			this.elevation = elevation;
 			this.time = time;
+			this.demandTime = demandTime;
+			this.trace = trace;
+		}
+
+		/**
+		 * @return true if the demand is interpolated instead of sent as is
+		 */
+		public boolean isTimeTagged() {
+			return !Double.isNaN(demandTime);
+		}
+
+		/**
+		 * Only the newest demand waiting in the mailbox is processed
+		 */
+		@Override
+		public Object conflationKey() {
+			return UpdatedEventData.class;
 		}
 	}
 
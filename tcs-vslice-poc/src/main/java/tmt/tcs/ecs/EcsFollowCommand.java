@@ -16,6 +16,7 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseCommand;
+import tmt.tcs.common.ConflatingMailbox;
 import tmt.tcs.ecs.EcsFollowActor.SetAzimuth;
 import tmt.tcs.ecs.EcsFollowActor.SetElevation;
 import tmt.tcs.ecs.EcsFollowActor.UpdatedEventData;
@@ -101,8 +102,10 @@ public class EcsFollowCommand extends BaseCommand {
 			Optional<ActorRef> eventPublisher, Optional<ActorRef> telemetryPublisher,
 			Optional<ActorRef> ecsStateActor) {
 		log.debug("Inside EcsFollowCommand createFollower: Creating Follower ");
-		return context().actorOf(EcsFollowActor.props(assemblyContext, initialAzimuth, initialElevation,
-				Optional.of(ecsControl), eventPublisher, ecsStateActor), "follower");
+		Props props = EcsFollowActor.props(assemblyContext, initialAzimuth, initialElevation,
+				Optional.of(ecsControl), eventPublisher, ecsStateActor);
+		// Only the newest demand matters to a follower, see ConflatingMailbox
+		return context().actorOf(props.withMailbox(ConflatingMailbox.mailboxId), "follower");
 	}
 
 	private ActorRef createEventSubscriber(ActorRef followActor, IEventService eventService) {
@@ -42,7 +42,9 @@ import tmt.tcs.common.BaseCommand;
 
 /**
  * This is an actor class which receives command specific to Offset Operation
- * And after any modifications if required, redirect the same to ECS HCD
+ * And after any modifications if required, redirect the same to ECS HCD.
+ * The command handler creates it once and retargets it with an Offset message
+ * before each CommandStart, so offset sequences do not create actors
  */
 public class EcsOffsetCommand extends BaseCommand {
 
@@ -57,16 +59,30 @@ public class EcsOffsetCommand extends BaseCommand {
 	 * response and Demand Matching
 	 * 
 	 * @param ac
-	 * @param sc
-	 * @param ecsHcd
-	 * @param ecsStartState
 	 * @param stateActor
 	 */
-	public EcsOffsetCommand(AssemblyContext ac, SetupConfig sc, ActorRef ecsHcd, AssemblyState ecsStartState,
-			Optional<ActorRef> stateActor) {
+	public EcsOffsetCommand(AssemblyContext ac, Optional<ActorRef> stateActor) {
 		this.ecsStateActor = stateActor;
 
-		receive(processCommand(sc, ecsHcd, ecsStartState));
+		receive(idleReceive());
+	}
+
+	/**
+	 * This waits for the next Offset, a CommandStart without one is ignored
+	 */
+	private PartialFunction<Object, BoxedUnit> idleReceive() {
+		return offsetReceive().orElse(ReceiveBuilder
+				.matchAny(t -> log.warning("Inside EcsOffsetCommand: Unknown message received: " + t)).build());
+	}
+
+	/**
+	 * This sets the offset executed by the next CommandStart
+	 */
+	private PartialFunction<Object, BoxedUnit> offsetReceive() {
+		return ReceiveBuilder.match(Offset.class, t -> {
+			log.debug("Inside EcsOffsetCommand: Offset is: " + t.sc);
+			context().become(offsetReceive().orElse(processCommand(t.sc, t.ecsHcd, t.ecsStartState)));
+		}).build();
 	}
 
 	public PartialFunction<Object, BoxedUnit> processCommand(SetupConfig sc, ActorRef ecsHcd,
@@ -78,6 +94,7 @@ public class EcsOffsetCommand extends BaseCommand {
 						+ " does not allow move";
 				log.debug("Inside EcsOffsetCommand: Error Message is: " + errorMessage);
 				sender().tell(new NoLongerValid(new WrongInternalStateIssue(errorMessage)), self());
+				context().become(idleReceive());
 			} else {
 				log.debug("Inside EcsOffsetCommand: Move command -- START: " + t);
 
@@ -92,23 +109,38 @@ public class EcsOffsetCommand extends BaseCommand {
 				DemandMatcher stateMatcher = EcsCommandHandler.posMatcher(x, y);
 				SetupConfig scOut = jadd(sc(EcsConfig.offsetPrefix), jset(EcsConfig.az, x), jset(EcsConfig.el, y));
 
-				sendState(ecsStateActor, new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null));
-
-				ecsHcd.tell(new HcdController.Submit(scOut), self());
-
-				Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
-				EcsCommandHandler.executeMatch(context(), stateMatcher, ecsHcd, Optional.of(sender()), timeout,
-						status -> {
-							if (status == Completed) {
-								log.debug("Inside EcsOffsetCommand: Move Command Completed");
-								sendState(ecsStateActor,
-										new AssemblySetState(azItem(azPointing), elItem(elPointing), null, null));
-							} else if (status instanceof Error) {
-								log.error("Inside EcsOffsetCommand: Offset command match failed with message: "
-										+ ((Error) status).message());
-							}
-						});
+				// The HCD is sent the offset once the followers are in Following
+				sendState(ecsStateActor, new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null),
+						new SubmitOffset(scOut, stateMatcher, sender()));
+			}
+		}).match(StateSet.class, t -> {
+			SubmitOffset submit = (SubmitOffset) t.next;
+			if (t.failure.isPresent()) {
+				log.error("Inside EcsOffsetCommand: Error setting state: " + t.failure.get());
+				submit.replyTo.tell(new Error("Could not set Ecs Assembly state to Following"), self());
+				context().become(idleReceive());
+				return;
 			}
+
+			ecsHcd.tell(new HcdController.Submit(submit.scOut), self());
+
+			Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
+			EcsCommandHandler.executeMatch(context(), submit.stateMatcher, ecsHcd, Optional.of(submit.replyTo),
+					timeout, status -> {
+						// Queued ahead of the reply, so a later CommandStart finds the offset done
+						self().tell(new OffsetDone(), self());
+						if (status == Completed) {
+							log.debug("Inside EcsOffsetCommand: Move Command Completed");
+							sendState(ecsStateActor,
+									new AssemblySetState(azItem(azPointing), elItem(elPointing), null, null));
+						} else if (status instanceof Error) {
+							log.error("Inside EcsOffsetCommand: Offset command match failed with message: "
+									+ ((Error) status).message());
+						}
+					});
+		}).match(OffsetDone.class, t -> {
+			log.debug("Inside EcsOffsetCommand: Offset command done");
+			context().become(idleReceive());
 		}).matchEquals(JSequentialExecutor.StopCurrentCommand(), t -> {
 			log.debug("Inside EcsOffsetCommand: Offset command -- STOP: " + t);
 			ecsHcd.tell(new HcdController.Submit(jadd(sc("tcs.ecs.stop"))), self());
@@ -116,15 +148,58 @@ public class EcsOffsetCommand extends BaseCommand {
 
 	}
 
-	public static Props props(AssemblyContext ac, SetupConfig sc, ActorRef ecsHcd, AssemblyState ecsState,
-			Optional<ActorRef> stateActor) {
+	public static Props props(AssemblyContext ac, Optional<ActorRef> stateActor) {
 		return Props.create(new Creator<EcsOffsetCommand>() {
 			private static final long serialVersionUID = 1L;
 
 			@Override
 			public EcsOffsetCommand create() throws Exception {
-				return new EcsOffsetCommand(ac, sc, ecsHcd, ecsState, stateActor);
+				return new EcsOffsetCommand(ac, stateActor);
 			}
 		});
 	}
+
+	/**
+	 * Retargets the offset command to the next offset
+	 */
+	public static class Offset {
+		public final SetupConfig sc;
+		public final ActorRef ecsHcd;
+		public final AssemblyState ecsStartState;
+
+		/**
+		 * @param sc
+		 *            the offset SetupConfig
+		 * @param ecsHcd
+		 * @param ecsStartState
+		 *            assembly state when the offset was received
+		 */
+		public Offset(SetupConfig sc, ActorRef ecsHcd, AssemblyState ecsStartState) {
+			this.sc = sc;
+			this.ecsHcd = ecsHcd;
+			this.ecsStartState = ecsStartState;
+		}
+	}
+
+	/**
+	 * The offset sent to the HCD once the state is set
+	 */
+	private static class SubmitOffset {
+		final SetupConfig scOut;
+		final DemandMatcher stateMatcher;
+		final ActorRef replyTo;
+
+		SubmitOffset(SetupConfig scOut, DemandMatcher stateMatcher, ActorRef replyTo) {
+			this.scOut = scOut;
+			this.stateMatcher = stateMatcher;
+			this.replyTo = replyTo;
+		}
+	}
+
+	/**
+	 * Sent to self once the offset command has replied, to wait for the next
+	 * Offset
+	 */
+	private static class OffsetDone {
+	}
 }
@@ -17,6 +17,7 @@ import java.io.File;
 import java.util.Optional;
 
 import akka.actor.ActorRef;
+import akka.actor.Cancellable;
 import akka.actor.Props;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
@@ -28,8 +29,11 @@ import csw.util.config.Configurations.ConfigKey;
 import csw.util.config.Configurations.SetupConfig;
 import csw.util.config.StateVariable.CurrentState;
 import scala.PartialFunction;
+import scala.concurrent.duration.FiniteDuration;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.BaseHcd;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.DemandTrace.Stage;
 import tmt.tcs.ecs.EcsConfig;
 import tmt.tcs.ecs.EcsConfig.EcsState;
 import tmt.tcs.ecs.hcd.EcsSimulator.EcsPosUpdate;
@@ -47,7 +51,13 @@ public class EcsHcd extends BaseHcd {
 
 	ActorRef ecsSimulator;
 	EcsPosUpdate current;
-	private static boolean publishDefaultEvent = true;
+	private boolean publishDefaultEvent = true;
+	// Trace of the last demand, sent back with the next CurrentState
+	private Optional<DemandTrace> pendingTrace = Optional.empty();
+
+	// The default CurrentState is published every rate until the first move
+	private final FiniteDuration defaultUpdateRate;
+	private Cancellable defaultUpdateTask;
 
 	public static File ecsConfigFile = new File("ecs/hcd/ecsHcd.conf");
 	public static File resource = new File("ecsHcd.conf");
@@ -56,6 +66,7 @@ public class EcsHcd extends BaseHcd {
 		log.debug("Inside EcsHcd");
 
 		this.supervisor = supervisor;
+		this.defaultUpdateRate = info.rate();
 		this.ecsSimulator = getSimulator();
 		this.current = new EcsPosUpdate(EcsState.ECS_IDLE, EcsConfig.defaultAzValue, EcsConfig.defaultElValue);
 
@@ -103,31 +114,53 @@ public class EcsHcd extends BaseHcd {
 			sender().tell(current, self());
 		}).matchEquals(EcsMessage.GetEcsDefaultUpdate, e -> {
 			log.debug("Inside EcsHcd Received GetEcsDefaultUpdate: publishDefaultEvent is: " + publishDefaultEvent);
-			Thread.sleep(1000);
+			if (defaultUpdateTask == null) {
+				defaultUpdateTask = context().system().scheduler().schedule(defaultUpdateRate, defaultUpdateRate,
+						self(), EcsMessage.PublishEcsDefaultUpdate, context().dispatcher(), self());
+			}
+		}).matchEquals(EcsMessage.PublishEcsDefaultUpdate, e -> {
 			CurrentState ecsState = cs(EcsConfig.currentPosPrefix, jset(ecsStateKey, Choice(current.state.toString())),
 					jset(EcsConfig.azPosKey, current.azPosition), jset(EcsConfig.elPosKey, current.elPosition));
 			notifySubscribers(ecsState);
 			if (publishDefaultEvent) {
 				current.azPosition += EcsConfig.defaultAzIncrementer;
 				current.elPosition += EcsConfig.defaultElIncrementer;
-				self().tell(EcsMessage.GetEcsDefaultUpdate, self());
+			} else {
+				stopDefaultUpdates();
 			}
 		}).match(EcsPosUpdate.class, e -> {
 			log.debug("Inside EcsHcd Received EcsUpdate: " + e);
 			current = e;
 			CurrentState ecsState = cs(EcsConfig.currentPosPrefix, jset(ecsStateKey, Choice(e.state.toString())),
 					jset(EcsConfig.azPosKey, e.azPosition), jset(EcsConfig.elPosKey, e.elPosition));
+			ecsState = DemandTrace.addTo(ecsState, pendingTrace);
+			pendingTrace = Optional.empty();
 			log.debug("Inside EcsHcd Sending CurrentState: " + ecsState);
 			notifySubscribers(ecsState);
 		}).matchAny(x -> log.warning("Inside EcsHcd Unexpected message :unhandledPF: " + x)).build());
 	}
 
+	@Override
+	public void postStop() throws Exception {
+		stopDefaultUpdates();
+		super.postStop();
+	}
+
+	private void stopDefaultUpdates() {
+		if (defaultUpdateTask != null) {
+			defaultUpdateTask.cancel();
+			defaultUpdateTask = null;
+		}
+	}
+
 	@Override
 	public void process(SetupConfig sc) {
 		log.debug("Inside EcsHcd process received sc: " + sc);
 
 		ConfigKey configKey = sc.configKey();
 
+		pendingTrace = DemandTrace.fromSetupConfig(sc).map(trace -> trace.mark(Stage.HCD));
+
 		if (configKey.equals(EcsConfig.followCK)) {
 			log.debug("Inside EcsHcd process received move command");
 			publishDefaultEvent = false;
@@ -157,8 +190,17 @@ public class EcsHcd extends BaseHcd {
 	}
 
 	public enum EcsMessage {
+		/**
+		 * Starts publishing the default CurrentState every rate until the
+		 * first move
+		 */
 		GetEcsDefaultUpdate,
 
+		/**
+		 * Sent by the scheduler, publishes the default CurrentState once
+		 */
+		PublishEcsDefaultUpdate,
+
 		/**
 		 * Directly returns an EcsPosUpdate to sender
 		 */
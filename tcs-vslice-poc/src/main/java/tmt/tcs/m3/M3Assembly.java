@@ -37,6 +37,7 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseAssembly;
+import tmt.tcs.common.TcsLogger.Subsystem;
 
 /**
  * Top Level Actor for M3 Assembly
@@ -189,8 +190,8 @@ public class M3Assembly extends BaseAssembly {
 	 * @return a partial function
 	 */
 	private PartialFunction<Object, BoxedUnit> runningReceive() {
-		return locationReceive().orElse(diagnosticReceive()).orElse(controllerReceive())
-				.orElse(lifecycleReceivePF(supervisor)).orElse(unhandledPF());
+		return locationReceive().orElse(diagnosticReceive()).orElse(latencyReceive(Subsystem.M3))
+				.orElse(controllerReceive()).orElse(lifecycleReceivePF(supervisor)).orElse(unhandledPF());
 	}
 
 	/**
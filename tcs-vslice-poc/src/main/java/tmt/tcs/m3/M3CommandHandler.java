@@ -25,7 +25,6 @@ import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import akka.actor.ActorRef;
-import akka.actor.PoisonPill;
 import akka.actor.Props;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
@@ -80,6 +79,11 @@ public class M3CommandHandler extends BaseCommandHandler {
 	private Optional<IEventService> badEventService = Optional.empty();
 	private Optional<IEventService> eventService = badEventService;
 
+	// Created by the first follow and offset, see followCommand() and
+	// offsetCommand()
+	private ActorRef followCommand;
+	private ActorRef offsetCommand;
+
 	public M3CommandHandler(AssemblyContext ac, Optional<ActorRef> m3Hcd, Optional<ActorRef> allEventPublisher) {
 
 		log.debug("Inside M3CommandHandler");
@@ -110,7 +114,6 @@ public class M3CommandHandler extends BaseCommandHandler {
 		} else if (location instanceof ResolvedTcpLocation) {
 			ResolvedTcpLocation t = (ResolvedTcpLocation) location;
 			log.debug("Inside M3CommandHandler: Received TCP Location: " + t.connection());
-			System.out.println("*********Inside M3CommandHandler: Received TCP Location: " + t.connection());
 			if (location.connection().equals(IEventService.eventServiceConnection())) {
 				log.debug("Inside M3CommandHandler: Assembly received ES connection: " + t);
 				eventService = Optional.of(IEventService.getEventService(t.host(), t.port(), context().system()));
@@ -137,7 +140,7 @@ public class M3CommandHandler extends BaseCommandHandler {
 	 * @return
 	 */
 	private PartialFunction<Object, BoxedUnit> initReceive() {
-		return stateReceive()
+		return transitionReceive().orElse(stateReceive())
 				.orElse(ReceiveBuilder.match(Location.class, this::handleLocations).match(ExecuteOne.class, t -> {
 
 					SetupConfig sc = t.sc();
@@ -150,14 +153,11 @@ public class M3CommandHandler extends BaseCommandHandler {
 					if (configKey.equals(M3Config.initCK)) {
 						log.info(
 								"Inside M3CommandHandler initReceive: Init not fully implemented -- only sets state ready!");
-						try {
-							ask(m3StateActor, new AssemblySetState(null, null, rotationItem(rotationDrivePowerOn),
-									tiltItem(tiltDrivePowerOn)), 5000).toCompletableFuture().get();
-						} catch (Exception e) {
-							log.error(e, "Inside M3CommandHandler Error setting state");
-						}
 						m3Hcd.tell(GetM3DefaultUpdate, self());
-						commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+						transitionState(m3StateActor,
+								new AssemblySetState(null, null, rotationItem(rotationDrivePowerOn),
+										tiltItem(tiltDrivePowerOn)),
+								commandOriginator, Completed);
 
 					} else if (configKey.equals(M3Config.followCK)) {
 						if (!(rotation(currentState()).equals(rotationDatumed)
@@ -171,32 +171,20 @@ public class M3CommandHandler extends BaseCommandHandler {
 						} else {
 							log.debug("Inside M3CommandHandler initReceive: Follow command -- START: " + t);
 
-							Double initialRotation = 0.0;
-							Double initialTilt = 0.0;
-
-							// The event publisher may be passed in
-							Props props = M3FollowCommand.props(assemblyContext,
-									jset(M3Config.rotation, initialRotation), jset(M3Config.tilt, initialTilt),
-									Optional.of(m3Hcd), allEventPublisher, eventService.get(),
-									Optional.of(m3StateActor));
-
-							ActorRef followCommandActor = context().actorOf(props);
+							ActorRef followCommandActor = followCommand();
 							log.info("Inside M3CommandHandler initReceive: Going to followReceive");
 							context().become(followReceive(followCommandActor));
 
-							try {
-								ask(m3StateActor, new AssemblySetState(null, null, rotationItem(rotationFollowing),
-										tiltItem(tiltFollowing)), 5000).toCompletableFuture().get();
-							} catch (Exception e) {
-								log.error(e, "Inside M3CommandHandler initReceive: Error setting state");
-							}
-							commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+							transitionState(m3StateActor,
+									new AssemblySetState(null, null, rotationItem(rotationFollowing),
+											tiltItem(tiltFollowing)),
+									commandOriginator, Completed);
 
 						}
 					} else if (configKey.equals(M3Config.offsetDemandCK)) {
 						log.debug("Inside M3CommandHandler initReceive: ExecuteOne: offsetCK Command ");
-						ActorRef offsetActorRef = context().actorOf(M3OffsetCommand.props(assemblyContext, sc, m3Hcd,
-								currentState(), Optional.of(m3StateActor)));
+						ActorRef offsetActorRef = offsetCommand();
+						offsetActorRef.tell(new M3OffsetCommand.Offset(sc, m3Hcd, currentState()), self());
 						context().become(actorExecutingReceive(offsetActorRef, commandOriginator));
 						self().tell(JSequentialExecutor.CommandStart(), self());
 					} else {
@@ -211,6 +199,40 @@ public class M3CommandHandler extends BaseCommandHandler {
 				}).build());
 	}
 
+	/**
+	 * The follow command, with its control, follow actor and event subscriber,
+	 * is created once and reused by every later follow, which only retargets
+	 * it to the current HCD
+	 *
+	 * @return the follow command actor
+	 */
+	private ActorRef followCommand() {
+		if (followCommand == null) {
+			Double initialRotation = 0.0;
+			Double initialTilt = 0.0;
+
+			// The event publisher may be passed in
+			Props props = M3FollowCommand.props(assemblyContext, jset(M3Config.rotation, initialRotation),
+					jset(M3Config.tilt, initialTilt), Optional.of(m3Hcd), allEventPublisher, eventService.get(),
+					Optional.of(m3StateActor));
+			followCommand = context().actorOf(props, "m3followcommand");
+		} else {
+			followCommand.tell(new M3Assembly.UpdateHcd(Optional.of(m3Hcd)), self());
+		}
+		return followCommand;
+	}
+
+	/**
+	 * @return the offset command, created by the first offset
+	 */
+	private ActorRef offsetCommand() {
+		if (offsetCommand == null) {
+			offsetCommand = context().actorOf(M3OffsetCommand.props(assemblyContext, Optional.of(m3StateActor)),
+					"m3offsetcommand");
+		}
+		return offsetCommand;
+	}
+
 	/**
 	 * This responds to Command Originator in case HCD is not available
 	 * 
@@ -223,7 +245,7 @@ public class M3CommandHandler extends BaseCommandHandler {
 	}
 
 	private PartialFunction<Object, BoxedUnit> followReceive(ActorRef followActor) {
-		return stateReceive().orElse(ReceiveBuilder.match(ExecuteOne.class, t -> {
+		return transitionReceive().orElse(stateReceive()).orElse(ReceiveBuilder.match(ExecuteOne.class, t -> {
 			SetupConfig sc = t.sc();
 			log.debug("Inside M3CommandHandler followReceive: ExecuteOne: SetupConfig is: " + sc);
 			Optional<ActorRef> commandOriginator = toJava(t.commandOriginator());
@@ -232,13 +254,8 @@ public class M3CommandHandler extends BaseCommandHandler {
 
 			if (configKey.equals(M3Config.setRotationCK)) {
 				log.debug("Inside M3CommandHandler followReceive: Started for: " + configKey);
-				try {
-					ask(m3StateActor,
-							new AssemblySetState(null, null, rotationItem(rotationFollowing), tiltItem(tiltFollowing)),
-							5000).toCompletableFuture().get();
-				} catch (Exception e) {
-					log.error(e, "Inside M3CommandHandler followReceive: Error setting state");
-				}
+				transitionState(m3StateActor,
+						new AssemblySetState(null, null, rotationItem(rotationFollowing), tiltItem(tiltFollowing)));
 
 				DoubleItem rotationItem = jitem(sc, M3Config.rotationDemandKey);
 
@@ -248,26 +265,18 @@ public class M3CommandHandler extends BaseCommandHandler {
 				Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
 				executeMatch(context(), rotationPosMatcher(rotation), m3Hcd, commandOriginator, timeout, status -> {
 					if (status == Completed) {
-						try {
-							log.debug("Inside M3CommandHandler followReceive: Command Completed for: " + configKey);
-							ask(m3StateActor, new AssemblySetState(null, null, rotationItem(rotationFollowing),
-									tiltItem(tiltFollowing)), 5000).toCompletableFuture().get();
-						} catch (Exception e) {
-							log.error(e, "Inside M3CommandHandler followReceive: Error setting state");
-						}
+						log.debug("Inside M3CommandHandler followReceive: Command Completed for: " + configKey);
+						transitionState(m3StateActor,
+								new AssemblySetState(null, null, rotationItem(rotationFollowing),
+										tiltItem(tiltFollowing)));
 					} else if (status instanceof Error)
 						log.error("Inside M3CommandHandler followReceive: command failed with message: "
 								+ ((Error) status).message());
 				});
 			} else if (configKey.equals(M3Config.setTiltCK)) {
 				log.debug("Inside M3CommandHandler followReceive: Started for: " + configKey);
-				try {
-					ask(m3StateActor,
-							new AssemblySetState(null, null, rotationItem(rotationFollowing), tiltItem(tiltFollowing)),
-							5000).toCompletableFuture().get();
-				} catch (Exception e) {
-					log.error(e, "Inside M3CommandHandler followReceive: Error setting state");
-				}
+				transitionState(m3StateActor,
+						new AssemblySetState(null, null, rotationItem(rotationFollowing), tiltItem(tiltFollowing)));
 
 				DoubleItem tiltItem = jitem(sc, M3Config.tiltDemandKey);
 
@@ -277,13 +286,10 @@ public class M3CommandHandler extends BaseCommandHandler {
 				Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
 				executeMatch(context(), tiltPosMatcher(tilt), m3Hcd, commandOriginator, timeout, status -> {
 					if (status == Completed) {
-						try {
-							log.debug("Inside M3CommandHandler followReceive: Command Completed for: " + configKey);
-							ask(m3StateActor, new AssemblySetState(null, null, rotationItem(rotationFollowing),
-									tiltItem(tiltFollowing)), 5000).toCompletableFuture().get();
-						} catch (Exception e) {
-							log.error(e, "Inside M3CommandHandler followReceive: Error setting state");
-						}
+						log.debug("Inside M3CommandHandler followReceive: Command Completed for: " + configKey);
+						transitionState(m3StateActor,
+								new AssemblySetState(null, null, rotationItem(rotationFollowing),
+										tiltItem(tiltFollowing)));
 					} else if (status instanceof Error)
 						log.error("Inside M3CommandHandler followReceive: command failed with message: "
 								+ ((Error) status).message());
@@ -304,14 +310,15 @@ public class M3CommandHandler extends BaseCommandHandler {
 			Optional<ActorRef> commandOriginator) {
 		Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
 
-		return ReceiveBuilder.matchEquals(JSequentialExecutor.CommandStart(), t -> {
+		return transitionReceive().orElse(ReceiveBuilder.matchEquals(JSequentialExecutor.CommandStart(), t -> {
 			log.debug("Inside M3CommandHandler actorExecutingReceive: JSequentialExecutor.CommandStart");
 
 			ask(currentCommand, JSequentialExecutor.CommandStart(), timeout.duration().toMillis()).thenApply(reply -> {
 				CommandStatus cs = (CommandStatus) reply;
 				log.debug("Inside M3CommandHandler actorExecutingReceive: CommandStatus is: " + cs);
 				commandOriginator.ifPresent(actorRef -> actorRef.tell(cs, self()));
-				currentCommand.tell(PoisonPill.getInstance(), self());
+				// The command actor is reused by the next command
+				self().tell(new CommandDone(), self());
 				return null;
 			});
 		}).
@@ -330,7 +337,7 @@ public class M3CommandHandler extends BaseCommandHandler {
 				})
 				.matchAny(t -> log
 						.warning("Inside M3CommandHandler actorExecutingReceive: received an unknown message: " + t))
-				.build();
+				.build());
 	}
 
 	public static Props props(AssemblyContext ac, Optional<ActorRef> m3Hcd, Optional<ActorRef> allEventPublisher) {
@@ -354,12 +361,8 @@ public class M3CommandHandler extends BaseCommandHandler {
 	 * @return DemandMatcher
 	 */
 	public static DemandMatcher posMatcher(double rotation, double tilt) {
-		System.out.println("Inside M3CommandHandler posMatcher Move: Starts");
-
 		DemandState ds = jadd(new DemandState(M3Config.currentPosPrefix), jset(m3StateKey, M3_IDLE),
 				jset(M3Config.rotationPosKey, rotation), jset(M3Config.tiltPosKey, tilt));
-
-		System.out.println("Inside M3CommandHandler posMatcher Move: DemandState is: " + tilt);
 		return new DemandMatcher(ds, false);
 	}
 
@@ -372,8 +375,6 @@ public class M3CommandHandler extends BaseCommandHandler {
 	 * @return DemandMatcher
 	 */
 	public static DemandMatcher rotationPosMatcher(double rotation) {
-		System.out.println("Inside EcsCommandHandler rotationPosMatcher : Starts");
-
 		DemandState ds = jadd(new DemandState(M3Config.currentPosPrefix), jset(m3StateKey, M3_IDLE),
 				jset(M3Config.rotationPosKey, rotation));
 		return new DemandMatcher(ds, false);
@@ -388,8 +389,6 @@ public class M3CommandHandler extends BaseCommandHandler {
 	 * @return DemandMatcher
 	 */
 	public static DemandMatcher tiltPosMatcher(double tilt) {
-		System.out.println("Inside EcsCommandHandler tiltPosMatcher : Starts");
-
 		DemandState ds = jadd(new DemandState(M3Config.currentPosPrefix), jset(m3StateKey, M3_IDLE),
 				jset(M3Config.tiltPosKey, tilt));
 		return new DemandMatcher(ds, false);
@@ -1,58 +1,61 @@
 package tmt.tcs.m3;
 
-import static javacsw.util.config.JConfigDSL.sc;
-import static javacsw.util.config.JItems.jadd;
+import static javacsw.util.config.JItems.jvalue;
 
 import java.util.Optional;
 
-import akka.actor.AbstractActor;
 import akka.actor.ActorRef;
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.ccs.HcdController.Submit;
-import csw.util.config.Configurations.SetupConfig;
 import csw.util.config.DoubleItem;
 import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
+import tmt.tcs.common.BaseControl;
+import tmt.tcs.common.DemandCommandTemplate;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.TcsLogger;
 
 /**
  * This Class will receive Position parameters from Follow Actor and forward the
  * same to HCD Class and also publish Telemetry Message for positions being sent
  *
  */
-public class M3Control extends AbstractActor {
+public class M3Control extends BaseControl {
 
-	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	private TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	@SuppressWarnings("unused")
 	private final AssemblyContext assemblyContext;
 
+	private static final DemandCommandTemplate followCommand = new DemandCommandTemplate(M3Config.followPrefix,
+			M3Config.rotation, M3Config.tilt);
+
 	private M3Control(AssemblyContext assemblyContext, Optional<ActorRef> m3Hcd) {
+		super(assemblyContext);
 		this.assemblyContext = assemblyContext;
-		log.info("Inside M3Control: Hcd ref is: " + m3Hcd);
+		log.info("Inside M3Control: Hcd ref is: {}", m3Hcd);
 
 		// Initial receive - start with initial values
 		receive(controlReceive(m3Hcd));
 	}
 
 	private PartialFunction<Object, BoxedUnit> controlReceive(Optional<ActorRef> m3Hcd) {
-		return ReceiveBuilder.match(GoToPosition.class, t -> {
+		return demandFilterReceive().orElse(ReceiveBuilder.match(GoToPosition.class, t -> {
 			log.info("Inside M3Control controlReceive: Got GoToPosition");
-			DoubleItem rotation = t.rotation;
-			DoubleItem tilt = t.tilt;
-
-			SetupConfig scOut = jadd(sc(M3Config.followPrefix), rotation, tilt);
+			filterDemand(jvalue(t.rotation), jvalue(t.tilt), t.tracking, () -> {
+				Submit submit = followCommand.submit(t.rotation, t.tilt, t.trace);
 
-			// Send command to HCD here
-			m3Hcd.ifPresent(actorRef -> actorRef.tell(new Submit(scOut), self()));
+				// Send command to HCD here
+				m3Hcd.ifPresent(actorRef -> actorRef.tell(submit, self()));
+			});
 		}).match(M3Assembly.UpdateHcd.class, t -> {
 			log.info("Inside M3Control controlReceive: Got UpdateHcd");
+			hcdChanged();
 			context().become(controlReceive(t.hcdActorRef));
-		}).matchAny(t -> log.warning("Inside M3Control: controlReceive Unexpected message received : " + t)).build();
+		}).matchAny(t -> log.warning("Inside M3Control: controlReceive Unexpected message received : {}", t)).build());
 	}
 
 	// Props for creating the M3Control actor
@@ -71,10 +74,25 @@ public class M3Control extends AbstractActor {
 	static class GoToPosition {
 		final DoubleItem rotation;
 		final DoubleItem tilt;
+		// Latency trace of the demand, not part of equality
+		final Optional<DemandTrace> trace;
+		// Interpolated tracking demand, only these pass the demand filter. Not
+		// part of equality
+		final boolean tracking;
 
 		GoToPosition(DoubleItem rotation, DoubleItem tilt) {
+			this(rotation, tilt, Optional.empty());
+		}
+
+		GoToPosition(DoubleItem rotation, DoubleItem tilt, Optional<DemandTrace> trace) {
+			this(rotation, tilt, trace, false);
+		}
+
+		GoToPosition(DoubleItem rotation, DoubleItem tilt, Optional<DemandTrace> trace, boolean tracking) {
 			this.rotation = rotation;
 			this.tilt = tilt;
+			this.trace = trace;
+			this.tracking = tracking;
 		}
 
 		@Override
@@ -21,6 +21,10 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseEventDelegator;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.DemandTrace.Stage;
+import tmt.tcs.common.LatencyTracker;
+import tmt.tcs.common.TcsLogger.Subsystem;
 import tmt.tcs.m3.M3EventPublisher.M3StateUpdate;
 
 /**
@@ -34,6 +38,7 @@ public class M3EventDelegator extends BaseEventDelegator {
 
 	private final Optional<ActorRef> eventPublisher;
 	private final String hcdName;
+	private final LatencyTracker latency = LatencyTracker.of(Subsystem.M3);
 
 	private M3EventDelegator(AssemblyContext assemblyContext, Optional<ActorRef> m3Hcd,
 			Optional<ActorRef> eventPublisher) {
@@ -128,6 +133,7 @@ public class M3EventDelegator extends BaseEventDelegator {
 	 */
 	public void publishM3PosUpdate(CurrentState cs, Optional<ActorRef> eventPublisher) {
 		log.debug("Inside M3EventDelegator publish state: " + cs);
+		DemandTrace.fromCurrentState(cs).ifPresent(trace -> latency.record(trace.mark(Stage.CURRENT_STATE)));
 		eventPublisher.ifPresent(actorRef -> actorRef.tell(new M3StateUpdate(jitem(cs, M3Config.m3StateKey),
 				jitem(cs, M3Config.rotationPosKey), jitem(cs, M3Config.tiltPosKey)), self()));
 	}
@@ -5,8 +5,6 @@ import static javacsw.util.config.JItems.jadd;
 import java.util.Optional;
 
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.loc.LocationService;
@@ -22,6 +20,7 @@ import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.AssemblyStateActor.AssemblyState;
 import tmt.tcs.common.BaseEventPublisher;
+import tmt.tcs.common.TcsLogger;
 
 /**
  * This is an actor class that provides the publishing interface specific to M3
@@ -29,7 +28,7 @@ import tmt.tcs.common.BaseEventPublisher;
  */
 public class M3EventPublisher extends BaseEventPublisher {
 
-	LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	@SuppressWarnings("unused")
 	private final AssemblyContext assemblyContext;
@@ -43,8 +42,8 @@ public class M3EventPublisher extends BaseEventPublisher {
 		context().system().eventStream().subscribe(self(), AssemblyState.class);
 		this.assemblyContext = assemblyContext;
 
-		log.debug("Inside M3EventPublisher Event Service in: " + eventServiceIn);
-		log.debug("Inside M3EventPublisher Telemetry Service in: " + telemetryServiceIn);
+		log.debug("Inside M3EventPublisher Event Service in: {}", eventServiceIn);
+		log.debug("Inside M3EventPublisher Telemetry Service in: {}", telemetryServiceIn);
 
 		receive(publishingEnabled(eventServiceIn, telemetryServiceIn));
 	}
@@ -62,7 +61,7 @@ public class M3EventPublisher extends BaseEventPublisher {
 						location -> handleLocations(location, eventService, telemetryService))
 				.
 
-				matchAny(t -> log.warning("Inside M3EventPublisher Unexpected message in publishingEnabled: " + t)).
+				matchAny(t -> log.warning("Inside M3EventPublisher Unexpected message in publishingEnabled: {}", t)).
 
 				build();
 	}
@@ -74,33 +73,33 @@ public class M3EventPublisher extends BaseEventPublisher {
 			Optional<ITelemetryService> currentTelemetryService) {
 		if (location instanceof ResolvedTcpLocation) {
 			ResolvedTcpLocation t = (ResolvedTcpLocation) location;
-			log.debug("Inside M3EventPublisher Received TCP Location: " + t.connection());
+			log.debug("Inside M3EventPublisher Received TCP Location: {}", t.connection());
 			// Verify that it is the event service
 			if (location.connection().equals(IEventService.eventServiceConnection())) {
-				log.debug("Inside M3EventPublisher received connection: " + t);
+				log.debug("Inside M3EventPublisher received connection: {}", t);
 				Optional<IEventService> newEventService = Optional
 						.of(IEventService.getEventService(t.host(), t.port(), context().system()));
-				log.debug("Inside M3EventPublisherEvent Service at: " + newEventService);
+				log.debug("Inside M3EventPublisherEvent Service at: {}", newEventService);
 				context().become(publishingEnabled(newEventService, currentTelemetryService));
 			}
 
 			if (location.connection().equals(ITelemetryService.telemetryServiceConnection())) {
-				log.debug("Inside M3EventPublisher received connection: " + t);
+				log.debug("Inside M3EventPublisher received connection: {}", t);
 				Optional<ITelemetryService> newTelemetryService = Optional
 						.of(ITelemetryService.getTelemetryService(t.host(), t.port(), context().system()));
-				log.debug("Inside M3EventPublisher Telemetry Service at: " + newTelemetryService);
+				log.debug("Inside M3EventPublisher Telemetry Service at: {}", newTelemetryService);
 				context().become(publishingEnabled(currentEventService, newTelemetryService));
 			}
 
 		} else if (location instanceof LocationService.Unresolved) {
-			log.debug("Unresolved: " + location.connection());
+			log.debug("Unresolved: {}", location.connection());
 			if (location.connection().equals(IEventService.eventServiceConnection()))
 				context().become(publishingEnabled(Optional.empty(), currentTelemetryService));
 			else if (location.connection().equals(ITelemetryService.telemetryServiceConnection()))
 				context().become(publishingEnabled(currentEventService, Optional.empty()));
 
 		} else {
-			log.debug("Inside M3EventPublisher received some other location: " + location);
+			log.debug("Inside M3EventPublisher received some other location: {}", location);
 		}
 	}
 
@@ -111,11 +110,15 @@ public class M3EventPublisher extends BaseEventPublisher {
 	private void publishTelemetryUpdate(Optional<ITelemetryService> telemetryService, DoubleItem rotation,
 			DoubleItem tilt) {
 		StatusEvent ste = jadd(new StatusEvent(M3Config.telemetryEventPrefix), rotation, tilt);
-		log.info("Inside M3EventPublisher publishTelemetryUpdate: Status publish of " + M3Config.telemetryEventPrefix
-				+ ": " + ste);
+		log.info("Inside M3EventPublisher publishTelemetryUpdate: Status publish of {}: {}",
+				M3Config.telemetryEventPrefix, ste);
 
+		long start = System.nanoTime();
 		telemetryService.ifPresent(e -> e.publish(ste).handle((x, ex) -> {
-			log.error("Inside M3EventPublisher publishTelemetryUpdate: Failed to publish telemetry: " + ste, ex);
+			recordPublish(start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside M3EventPublisher publishTelemetryUpdate: Failed to publish telemetry: {}", ste);
+			}
 			return null;
 		}));
 	}
@@ -127,9 +130,13 @@ public class M3EventPublisher extends BaseEventPublisher {
 	private void publishM3PositionUpdate(Optional<IEventService> eventService, ChoiceItem state, DoubleItem rotation,
 			DoubleItem tilt) {
 		SystemEvent se = jadd(new SystemEvent(M3Config.currentPosPrefix), state, rotation, tilt);
-		log.debug("Inside M3EventPublisher publishM3PositionUpdate " + M3Config.currentPosPrefix + ": " + se);
+		log.debug("Inside M3EventPublisher publishM3PositionUpdate {}: {}", M3Config.currentPosPrefix, se);
+		long start = System.nanoTime();
 		eventService.ifPresent(e -> e.publish(se).handle((x, ex) -> {
-			log.error("Inside M3EventPublisher publishM3PositionUpdate failed to publish m3 position: " + se, ex);
+			recordPublish(start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside M3EventPublisher publishM3PositionUpdate failed to publish m3 position: {}", se);
+			}
 			return null;
 		}));
 	}
@@ -8,8 +8,6 @@ import java.util.Optional;
 
 import akka.actor.ActorRef;
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.events.EventService;
@@ -22,6 +20,9 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseEventSubscriber;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.TcsLogger;
+import tmt.tcs.tpk.TpkConfig;
 
 /**
  * This Class provides Event Subscription functionality for M3 It extends
@@ -30,7 +31,7 @@ import tmt.tcs.common.BaseEventSubscriber;
 @SuppressWarnings("unused")
 public class M3EventSubscriber extends BaseEventSubscriber {
 
-	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	private TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	private final AssemblyContext assemblyContext;
 	private final Optional<ActorRef> followActor;
@@ -66,18 +67,25 @@ public class M3EventSubscriber extends BaseEventSubscriber {
 		return ReceiveBuilder.
 
 				match(SystemEvent.class, event -> {
-					log.debug("Inside M3EventSubscriber subscribeReceive received SystemEvent: Config Key is: "
-							+ event.info().source());
+					log.debug("Inside M3EventSubscriber subscribeReceive received SystemEvent: Config Key is: {}",
+							event.info().source());
 
 					if (event.info().source().equals(M3Config.positionDemandCK)
-							|| event.info().source().equals(M3Config.offsetDemandCK)) {
+							|| event.info().source().equals(M3Config.offsetDemandCK)
+							|| event.info().source().equals(TpkConfig.demandFrameCK)) {
+						checkFrameSequence(event);
+						if (!checkFrameComplete(event, M3Config.rotationDemandKey, M3Config.tiltDemandKey)) {
+							return;
+						}
 						Double rotationValue = jvalue(jitem(event, M3Config.rotationDemandKey));
 						Double tiltValue = jvalue(jitem(event, M3Config.tiltDemandKey));
 						DoubleItem rotationItem = jset(M3Config.rotation, rotationValue);
 						DoubleItem tiltItem = jset(M3Config.tilt, tiltValue);
-						log.debug("Inside M3EventSubscriber subscribeReceive received: " + event.info().source()
-								+ ": rotationItem is: " + rotationItem + ": tiltItem is: " + tiltItem);
-						updateFollowActor(rotationItem, tiltItem, event.info().eventTime());
+						log.debug(
+								"Inside M3EventSubscriber subscribeReceive received: {}: rotationItem is: {}: tiltItem is: {}",
+								event.info().source(), rotationItem, tiltItem);
+						updateFollowActor(rotationItem, tiltItem, event.info().eventTime(),
+								demandTime(event, M3Config.timeDemandKey), subscribedTrace(event));
 
 						context().become(subscribeReceive(rotationItem, tiltItem));
 					}
@@ -89,17 +97,18 @@ public class M3EventSubscriber extends BaseEventSubscriber {
 					context().stop(self());
 				}).
 
-				matchAny(t -> log.debug("Inside M3EventSubscriber Unexpected message received:subscribeReceive: " + t))
+				matchAny(t -> log.debug("Inside M3EventSubscriber Unexpected message received:subscribeReceive: {}", t))
 				.build();
 	}
 
 	/**
 	 * This message propagates event to Follow Actor
 	 */
-	private void updateFollowActor(DoubleItem rotation, DoubleItem tilt, EventTime eventTime) {
+	private void updateFollowActor(DoubleItem rotation, DoubleItem tilt, EventTime eventTime, double demandTime,
+			Optional<DemandTrace> trace) {
 		log.debug("Inside M3EventSubscriber updateRefActor: Sending Message to Follow Actor");
-		followActor.ifPresent(
-				actorRef -> actorRef.tell(new M3FollowActor.UpdatedEventData(rotation, tilt, eventTime), self()));
+		followActor.ifPresent(actorRef -> actorRef
+				.tell(new M3FollowActor.UpdatedEventData(rotation, tilt, eventTime, demandTime, trace), self()));
 	}
 
 	/**
@@ -112,9 +121,12 @@ public class M3EventSubscriber extends BaseEventSubscriber {
 
 		EventMonitor subscribeMonitor = subscribeKeys(eventService, M3Config.positionDemandCK);
 
-		log.debug("Inside M3EventSubscriber actor: " + subscribeMonitor.actorRef());
+		log.debug("Inside M3EventSubscriber actor: {}", subscribeMonitor.actorRef());
 
-		subscribeKeys(subscribeMonitor, M3Config.offsetDemandCK);
+		subscribeKeys(subscribeMonitor, M3Config.offsetDemandCK, TpkConfig.demandFrameCK);
+
+		// Demands published by TPK in this JVM skip the event service
+		subscribeLocal(M3Config.positionDemandCK, M3Config.offsetDemandCK, TpkConfig.demandFrameCK);
 
 		return subscribeMonitor;
 	}
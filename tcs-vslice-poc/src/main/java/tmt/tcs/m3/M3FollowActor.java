@@ -1,5 +1,6 @@
 package tmt.tcs.m3;
 
+import static javacsw.util.config.JItems.jvalue;
 import static tmt.tcs.common.AssemblyStateActor.rotation;
 import static tmt.tcs.common.AssemblyStateActor.rotationFollowing;
 import static tmt.tcs.common.AssemblyStateActor.tilt;
@@ -10,8 +11,6 @@ import java.util.Optional;
 
 import akka.actor.ActorRef;
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.util.config.DoubleItem;
@@ -19,9 +18,13 @@ import csw.util.config.Events.EventTime;
 import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
-import tmt.tcs.common.AssemblyStateActor.AssemblyGetState;
 import tmt.tcs.common.AssemblyStateActor.AssemblyState;
 import tmt.tcs.common.BaseFollowActor;
+import tmt.tcs.common.ConflatingMailbox;
+import tmt.tcs.common.DemandInterpolator;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.DemandTrace.Stage;
+import tmt.tcs.common.TcsLogger;
 import tmt.tcs.m3.M3EventPublisher.TelemetryUpdate;
 
 /**
@@ -30,7 +33,7 @@ import tmt.tcs.m3.M3EventPublisher.TelemetryUpdate;
  */
 public class M3FollowActor extends BaseFollowActor {
 
-	LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	@SuppressWarnings("unused")
 	private final AssemblyContext assemblyContext;
@@ -41,6 +44,11 @@ public class M3FollowActor extends BaseFollowActor {
 	public final DoubleItem initialRotation;
 	public final DoubleItem initialTilt;
 
+	// Time tagged demands are interpolated and sent at the HCD's rate
+	private final DemandInterpolator interpolator;
+	// Trace of the newest time tagged demand, only sent with the next tick
+	private Optional<DemandTrace> pendingTrace = Optional.empty();
+
 	private M3FollowActor(AssemblyContext assemblyContext, DoubleItem initialRotation, DoubleItem initialTilt,
 			Optional<ActorRef> m3Control, Optional<ActorRef> eventPublisher, Optional<ActorRef> m3StateActor) {
 		log.info("Inside M3FollowActor");
@@ -53,55 +61,93 @@ public class M3FollowActor extends BaseFollowActor {
 		this.m3StateActor = m3StateActor;
 
 		subscribeToLocationUpdates();
-		context().system().eventStream().subscribe(self(), AssemblyState.class);
+		// The state actor sends the current state, afterwards every state
+		// change is pushed to this actor
+		subscribeToState(m3StateActor);
+
+		interpolator = new DemandInterpolator(2, maxExtrapolation(assemblyContext));
+		scheduleDemands(demandInterval(assemblyContext));
 
 		// Initial receive - start with initial values
 		receive(followingReceive(initialRotation, initialTilt));
 	}
 
+	@Override
+	protected boolean allowsFollowing(AssemblyState state) {
+		return rotation(state).equals(rotationFollowing) && tilt(state).equals(tiltFollowing);
+	}
+
 	private PartialFunction<Object, BoxedUnit> followingReceive(DoubleItem initialRotation, DoubleItem initialTilt) {
-		return stateReceive().orElse(ReceiveBuilder.match(StopFollowing.class, t -> {
+		return stateReceive().orElse(followStatsReceive()).orElse(ReceiveBuilder
+				.match(StopFollowing.class, t -> {
 			// do nothing
+		}).match(SendDemand.class, t -> {
+			sendInterpolatedPosition();
 		}).match(UpdatedEventData.class, t -> {
-			m3StateActor.ifPresent(actorRef -> actorRef.tell(new AssemblyGetState(), self()));
-
-			log.info("Inside M3FollowActor followingReceive: Rotation state is: " + rotation(currentState())
-					+ ": Tilt state is: " + tilt(currentState()));
-
-			if (rotation(currentState()).equals(rotationFollowing) && tilt(currentState()).equals(tiltFollowing)) {
-				log.info("Inside M3FollowActor followingReceive: Got an Update Event: " + t);
+			updatePosition(t);
+		}).match(SetRotation.class, t -> {
+			log.info("Inside M3FollowActor followingReceive: Got Rotation: {}", t.rotation);
 
-				sendM3Position(t.rotation, t.tilt);
+			updatePosition(new UpdatedEventData(t.rotation, initialTilt, new EventTime(Instant.now())));
+		}).match(SetTilt.class, t -> {
+			log.info("Inside M3FollowActor followingReceive: Got Tilt: {}", t.tilt);
 
-				// Post a StatusEvent for telemetry updates
-				sendTelemetryUpdate(t.rotation, t.tilt);
+			updatePosition(new UpdatedEventData(initialRotation, t.tilt, new EventTime(Instant.now())));
+		}).matchAny(t -> log.warning("Inside M3FollowActor followingReceive: Unexpected message is: {}", t)).build());
+	}
 
-				context().become(followingReceive(t.rotation, t.tilt));
+	/**
+	 * This handles a demand from the Event Subscriber or a setpoint. Time
+	 * tagged demands are interpolated, others are sent to the Control as is.
+	 * Setpoints are handled directly, as sent to self they would be conflated
+	 * with the demands waiting in the mailbox
+	 */
+	private void updatePosition(UpdatedEventData t) {
+		if (followingAllowed()) {
+			log.info("Inside M3FollowActor updatePosition: Got an Update Event: {}", t);
+
+			if (t.isTimeTagged()) {
+				// Sent to the Control on the next SendDemand tick
+				interpolator.add(localDemandTime(t.demandTime), jvalue(t.rotation), jvalue(t.tilt));
+				pendingTrace = t.trace;
 			} else {
-				String errorMessage = "Assembly State " + rotation(currentState()) + "/" + tilt(currentState())
-						+ " does not allow moving M3";
-				log.error("Inside M3FollowActor followingReceive: Error Message is: " + errorMessage);
+				interpolator.clear();
+				sendM3Position(t.rotation, t.tilt, t.trace, false);
 			}
-		}).match(SetRotation.class, t -> {
-			log.info("Inside M3FollowActor followingReceive: Got Rotation: " + t.rotation);
 
-			self().tell(new UpdatedEventData(t.rotation, initialTilt, new EventTime(Instant.now())), self());
-			context().become(followingReceive(t.rotation, initialTilt));
-		}).match(SetTilt.class, t -> {
-			log.info("Inside M3FollowActor followingReceive: Got Tilt: " + t.tilt);
+			// Post a StatusEvent for telemetry updates
+			sendTelemetryUpdate(t.rotation, t.tilt);
 
-			self().tell(new UpdatedEventData(initialRotation, t.tilt, new EventTime(Instant.now())), self());
-			context().become(followingReceive(initialRotation, t.tilt));
-		}).matchAny(t -> log.warning("Inside M3FollowActor followingReceive: Unexpected message is: " + t)).build());
+			context().become(followingReceive(t.rotation, t.tilt));
+		} else {
+			String errorMessage = "Assembly State " + rotation(currentState()) + "/" + tilt(currentState())
+					+ " does not allow moving M3";
+			log.error("Inside M3FollowActor updatePosition: Error Message is: {}", errorMessage);
+		}
 	}
 
-	private void sendM3Position(DoubleItem rotation, DoubleItem tilt) {
-		log.debug("Inside M3FollowActor sendM3Position: rotation is: " + rotation + ": tilt is: " + tilt);
-		m3Control.ifPresent(actorRef -> actorRef.tell(new M3Control.GoToPosition(rotation, tilt), self()));
+	/**
+	 * This sends the time tagged demands interpolated to now, as long as
+	 * following is allowed and the newest demand is not stale
+	 */
+	private void sendInterpolatedPosition() {
+		double now = demandClock();
+		if (followingAllowed() && isCurrent(interpolator, now)) {
+			sendM3Position(M3Config.rotation(interpolator.valueAt(now, 0)), M3Config.tilt(interpolator.valueAt(now, 1)),
+					pendingTrace, true);
+			pendingTrace = Optional.empty();
+		}
+	}
+
+	private void sendM3Position(DoubleItem rotation, DoubleItem tilt, Optional<DemandTrace> trace, boolean tracking) {
+		log.debug("Inside M3FollowActor sendM3Position: rotation is: {}: tilt is: {}", rotation, tilt);
+		Optional<DemandTrace> followed = trace.map(t -> t.mark(Stage.FOLLOW));
+		M3Control.GoToPosition position = new M3Control.GoToPosition(rotation, tilt, followed, tracking);
+		m3Control.ifPresent(actorRef -> actorRef.tell(position, self()));
 	}
 
 	private void sendTelemetryUpdate(DoubleItem rotation, DoubleItem tilt) {
-		log.debug("Inside M3FollowActor sendTelemetryUpdate: " + eventPublisher);
+		log.debug("Inside M3FollowActor sendTelemetryUpdate: {}", eventPublisher);
 		eventPublisher.ifPresent(actorRef -> actorRef.tell(new TelemetryUpdate(rotation, tilt), self()));
 	}
 
@@ -134,15 +180,52 @@ public class M3FollowActor extends BaseFollowActor {
 	interface FollowActorMessages {
 	}
 
-	public static class UpdatedEventData implements FollowActorMessages {
+	public static class UpdatedEventData implements FollowActorMessages, ConflatingMailbox.Conflatable {
 		public final DoubleItem rotation;
 		public final DoubleItem tilt;
 		public final EventTime time;
 
+		/**
+		 * Latency trace of the TPK demand, not part of equality
+		 */
+		public final Optional<DemandTrace> trace;
+
+		/**
+		 * Target time of the demand in seconds since the epoch, NaN if the
+		 * demand is not time tagged
+		 */
+		public final double demandTime;
+
 		public UpdatedEventData(DoubleItem rotation, DoubleItem tilt, EventTime time) {
+			this(rotation, tilt, time, Optional.empty());
+		}
+
+		public UpdatedEventData(DoubleItem rotation, DoubleItem tilt, EventTime time, Optional<DemandTrace> trace) {
+			this(rotation, tilt, time, Double.NaN, trace);
+		}
+
+		public UpdatedEventData(DoubleItem rotation, DoubleItem tilt, EventTime time, double demandTime,
+				Optional<DemandTrace> trace) {
 			this.rotation = rotation;
 			this.tilt = tilt;
 			this.time = time;
+			this.demandTime = demandTime;
+			this.trace = trace;
+		}
+
+		/**
+		 * @return true if the demand is interpolated instead of sent as is
+		 */
+		public boolean isTimeTagged() {
+			return !Double.isNaN(demandTime);
+		}
+
+		/**
+		 * Only the newest demand waiting in the mailbox is processed
+		 */
+		@Override
+		public Object conflationKey() {
+			return UpdatedEventData.class;
 		}
 	}
 
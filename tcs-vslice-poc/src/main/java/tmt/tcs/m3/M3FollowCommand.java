@@ -16,6 +16,7 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseCommand;
+import tmt.tcs.common.ConflatingMailbox;
 import tmt.tcs.m3.M3FollowActor.SetRotation;
 import tmt.tcs.m3.M3FollowActor.SetTilt;
 import tmt.tcs.m3.M3FollowActor.UpdatedEventData;
@@ -100,8 +101,10 @@ public class M3FollowCommand extends BaseCommand {
 	private ActorRef createFollower(DoubleItem initialRotation, DoubleItem initialTilt, ActorRef m3Control,
 			Optional<ActorRef> eventPublisher, Optional<ActorRef> telemetryPublisher, Optional<ActorRef> m3StateActor) {
 		log.debug("Inside M3FollowCommand createFollower: Creating Follower ");
-		return context().actorOf(M3FollowActor.props(assemblyContext, initialRotation, initialTilt,
-				Optional.of(m3Control), eventPublisher, m3StateActor), "follower");
+		Props props = M3FollowActor.props(assemblyContext, initialRotation, initialTilt,
+				Optional.of(m3Control), eventPublisher, m3StateActor);
+		// Only the newest demand matters to a follower, see ConflatingMailbox
+		return context().actorOf(props.withMailbox(ConflatingMailbox.mailboxId), "follower");
 	}
 
 	private ActorRef createEventSubscriber(ActorRef followActor, IEventService eventService) {
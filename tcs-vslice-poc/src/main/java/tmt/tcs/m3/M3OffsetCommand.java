@@ -42,7 +42,9 @@ import tmt.tcs.common.BaseCommand;
 
 /**
  * This is an actor class which receives command specific to Offset Operation
- * And after any modifications if required, redirect the same to M3 HCD
+ * And after any modifications if required, redirect the same to M3 HCD.
+ * The command handler creates it once and retargets it with an Offset message
+ * before each CommandStart, so offset sequences do not create actors
  */
 public class M3OffsetCommand extends BaseCommand {
 
@@ -57,16 +59,30 @@ public class M3OffsetCommand extends BaseCommand {
 	 * response and Demand Matching
 	 * 
 	 * @param ac
-	 * @param sc
-	 * @param m3Hcd
-	 * @param m3StartState
 	 * @param stateActor
 	 */
-	public M3OffsetCommand(AssemblyContext ac, SetupConfig sc, ActorRef m3Hcd, AssemblyState m3StartState,
-			Optional<ActorRef> stateActor) {
+	public M3OffsetCommand(AssemblyContext ac, Optional<ActorRef> stateActor) {
 		this.m3StateActor = stateActor;
 
-		receive(processCommand(sc, m3Hcd, m3StartState));
+		receive(idleReceive());
+	}
+
+	/**
+	 * This waits for the next Offset, a CommandStart without one is ignored
+	 */
+	private PartialFunction<Object, BoxedUnit> idleReceive() {
+		return offsetReceive().orElse(ReceiveBuilder
+				.matchAny(t -> log.warning("Inside M3OffsetCommand: Unknown message received: " + t)).build());
+	}
+
+	/**
+	 * This sets the offset executed by the next CommandStart
+	 */
+	private PartialFunction<Object, BoxedUnit> offsetReceive() {
+		return ReceiveBuilder.match(Offset.class, t -> {
+			log.debug("Inside M3OffsetCommand: Offset is: " + t.sc);
+			context().become(offsetReceive().orElse(processCommand(t.sc, t.m3Hcd, t.m3StartState)));
+		}).build();
 	}
 
 	public PartialFunction<Object, BoxedUnit> processCommand(SetupConfig sc, ActorRef m3Hcd,
@@ -78,6 +94,7 @@ public class M3OffsetCommand extends BaseCommand {
 						+ " does not allow move";
 				log.debug("Inside M3OffsetCommand: Error Message is: " + errorMessage);
 				sender().tell(new NoLongerValid(new WrongInternalStateIssue(errorMessage)), self());
+				context().become(idleReceive());
 			} else {
 				log.debug("Inside M3OffsetCommand: Move command -- START: " + t);
 
@@ -92,39 +109,97 @@ public class M3OffsetCommand extends BaseCommand {
 				DemandMatcher stateMatcher = M3CommandHandler.posMatcher(x, y);
 				SetupConfig scOut = jadd(sc(M3Config.offsetPrefix), jset(M3Config.rotation, x), jset(M3Config.tilt, y));
 
+				// The HCD is sent the offset once the followers are in Following
 				sendState(m3StateActor,
-						new AssemblySetState(null, null, rotationItem(rotationFollowing), tiltItem(tiltFollowing)));
-
-				m3Hcd.tell(new HcdController.Submit(scOut), self());
-
-				Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
-				M3CommandHandler.executeMatch(context(), stateMatcher, m3Hcd, Optional.of(sender()), timeout,
-						status -> {
-							if (status == Completed) {
-								log.debug("Inside M3OffsetCommand: Move Command Completed");
-								sendState(m3StateActor, new AssemblySetState(null, null, rotationItem(rotationPointing),
-										tiltItem(tiltPointing)));
-							} else if (status instanceof Error) {
-								log.error("Inside M3OffsetCommand: Offset command match failed with message: "
-										+ ((Error) status).message());
-							}
-						});
+						new AssemblySetState(null, null, rotationItem(rotationFollowing), tiltItem(tiltFollowing)),
+						new SubmitOffset(scOut, stateMatcher, sender()));
+			}
+		}).match(StateSet.class, t -> {
+			SubmitOffset submit = (SubmitOffset) t.next;
+			if (t.failure.isPresent()) {
+				log.error("Inside M3OffsetCommand: Error setting state: " + t.failure.get());
+				submit.replyTo.tell(new Error("Could not set M3 Assembly state to Following"), self());
+				context().become(idleReceive());
+				return;
 			}
+
+			m3Hcd.tell(new HcdController.Submit(submit.scOut), self());
+
+			Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
+			M3CommandHandler.executeMatch(context(), submit.stateMatcher, m3Hcd, Optional.of(submit.replyTo),
+					timeout, status -> {
+						// Queued ahead of the reply, so a later CommandStart finds the offset done
+						self().tell(new OffsetDone(), self());
+						if (status == Completed) {
+							log.debug("Inside M3OffsetCommand: Move Command Completed");
+							sendState(m3StateActor, new AssemblySetState(null, null, rotationItem(rotationPointing),
+									tiltItem(tiltPointing)));
+						} else if (status instanceof Error) {
+							log.error("Inside M3OffsetCommand: Offset command match failed with message: "
+									+ ((Error) status).message());
+						}
+					});
+		}).match(OffsetDone.class, t -> {
+			log.debug("Inside M3OffsetCommand: Offset command done");
+			context().become(idleReceive());
 		}).matchEquals(JSequentialExecutor.StopCurrentCommand(), t -> {
 			log.debug("Inside M3OffsetCommand: Offset command -- STOP: " + t);
 			m3Hcd.tell(new HcdController.Submit(jadd(sc("tcs.m3.stop"))), self());
 		}).matchAny(t -> log.warning("Inside M3OffsetCommand: Unknown message received: " + t)).build();
 	}
 
-	public static Props props(AssemblyContext ac, SetupConfig sc, ActorRef m3Hcd, AssemblyState m3State,
-			Optional<ActorRef> stateActor) {
+	public static Props props(AssemblyContext ac, Optional<ActorRef> stateActor) {
 		return Props.create(new Creator<M3OffsetCommand>() {
 			private static final long serialVersionUID = 1L;
 
 			@Override
 			public M3OffsetCommand create() throws Exception {
-				return new M3OffsetCommand(ac, sc, m3Hcd, m3State, stateActor);
+				return new M3OffsetCommand(ac, stateActor);
 			}
 		});
 	}
+
+	/**
+	 * Retargets the offset command to the next offset
+	 */
+	public static class Offset {
+		public final SetupConfig sc;
+		public final ActorRef m3Hcd;
+		public final AssemblyState m3StartState;
+
+		/**
+		 * @param sc
+		 *            the offset SetupConfig
+		 * @param m3Hcd
+		 * @param m3StartState
+		 *            assembly state when the offset was received
+		 */
+		public Offset(SetupConfig sc, ActorRef m3Hcd, AssemblyState m3StartState) {
+			this.sc = sc;
+			this.m3Hcd = m3Hcd;
+			this.m3StartState = m3StartState;
+		}
+	}
+
+	/**
+	 * The offset sent to the HCD once the state is set
+	 */
+	private static class SubmitOffset {
+		final SetupConfig scOut;
+		final DemandMatcher stateMatcher;
+		final ActorRef replyTo;
+
+		SubmitOffset(SetupConfig scOut, DemandMatcher stateMatcher, ActorRef replyTo) {
+			this.scOut = scOut;
+			this.stateMatcher = stateMatcher;
+			this.replyTo = replyTo;
+		}
+	}
+
+	/**
+	 * Sent to self once the offset command has replied, to wait for the next
+	 * Offset
+	 */
+	private static class OffsetDone {
+	}
 }
@@ -17,6 +17,7 @@ import java.io.File;
 import java.util.Optional;
 
 import akka.actor.ActorRef;
+import akka.actor.Cancellable;
 import akka.actor.Props;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
@@ -28,8 +29,11 @@ import csw.util.config.Configurations.ConfigKey;
 import csw.util.config.Configurations.SetupConfig;
 import csw.util.config.StateVariable.CurrentState;
 import scala.PartialFunction;
+import scala.concurrent.duration.FiniteDuration;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.BaseHcd;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.DemandTrace.Stage;
 import tmt.tcs.m3.M3Config;
 import tmt.tcs.m3.M3Config.M3State;
 import tmt.tcs.m3.hcd.M3Simulator.M3PosUpdate;
@@ -47,7 +51,13 @@ public class M3Hcd extends BaseHcd {
 
 	ActorRef m3Simulator;
 	M3PosUpdate current;
-	private static boolean publishDefaultEvent = true;
+	private boolean publishDefaultEvent = true;
+	// Trace of the last demand, sent back with the next CurrentState
+	private Optional<DemandTrace> pendingTrace = Optional.empty();
+
+	// The default CurrentState is published every rate until the first move
+	private final FiniteDuration defaultUpdateRate;
+	private Cancellable defaultUpdateTask;
 
 	public static File m3ConfigFile = new File("m3/hcd/m3Hcd.conf");
 	public static File resource = new File("m3Hcd.conf");
@@ -56,6 +66,7 @@ public class M3Hcd extends BaseHcd {
 		log.debug("Inside M3Hcd");
 
 		this.supervisor = supervisor;
+		this.defaultUpdateRate = info.rate();
 		this.m3Simulator = getSimulator();
 		this.current = new M3PosUpdate(M3State.M3_IDLE, M3Config.defaultRotationValue, M3Config.defaultTiltValue);
 
@@ -103,7 +114,11 @@ public class M3Hcd extends BaseHcd {
 			sender().tell(current, self());
 		}).matchEquals(M3Message.GetM3DefaultUpdate, e -> {
 			log.debug("Inside M3Hcd Received GetM3DefaultUpdate: publishDefaultEvent is: " + publishDefaultEvent);
-			Thread.sleep(1000);
+			if (defaultUpdateTask == null) {
+				defaultUpdateTask = context().system().scheduler().schedule(defaultUpdateRate, defaultUpdateRate,
+						self(), M3Message.PublishM3DefaultUpdate, context().dispatcher(), self());
+			}
+		}).matchEquals(M3Message.PublishM3DefaultUpdate, e -> {
 			CurrentState m3State = cs(M3Config.currentPosPrefix, jset(m3StateKey, Choice(current.state.toString())),
 					jset(M3Config.rotationPosKey, current.rotationPosition),
 					jset(M3Config.tiltPosKey, current.tiltPosition));
@@ -111,24 +126,42 @@ public class M3Hcd extends BaseHcd {
 			if (publishDefaultEvent) {
 				current.rotationPosition += M3Config.defaultRotationIncrementer;
 				current.tiltPosition += M3Config.defaultTiltIncrementer;
-				self().tell(M3Message.GetM3DefaultUpdate, self());
+			} else {
+				stopDefaultUpdates();
 			}
 		}).match(M3PosUpdate.class, e -> {
 			log.debug("Inside M3Hcd Received M3Update: " + e);
 			current = e;
 			CurrentState m3State = cs(M3Config.currentPosPrefix, jset(m3StateKey, Choice(e.state.toString())),
 					jset(M3Config.rotationPosKey, e.rotationPosition), jset(M3Config.tiltPosKey, e.tiltPosition));
+			m3State = DemandTrace.addTo(m3State, pendingTrace);
+			pendingTrace = Optional.empty();
 			log.debug("Inside M3Hcd Sending CurrentState: " + m3State);
 			notifySubscribers(m3State);
 		}).matchAny(x -> log.warning("Inside M3Hcd Unexpected message :unhandledPF: " + x)).build());
 	}
 
+	@Override
+	public void postStop() throws Exception {
+		stopDefaultUpdates();
+		super.postStop();
+	}
+
+	private void stopDefaultUpdates() {
+		if (defaultUpdateTask != null) {
+			defaultUpdateTask.cancel();
+			defaultUpdateTask = null;
+		}
+	}
+
 	@Override
 	public void process(SetupConfig sc) {
 		log.debug("Inside M3Hcd process received sc: " + sc);
 
 		ConfigKey configKey = sc.configKey();
 
+		pendingTrace = DemandTrace.fromSetupConfig(sc).map(trace -> trace.mark(Stage.HCD));
+
 		if (configKey.equals(M3Config.followCK)) {
 			log.debug("Inside M3Hcd process received move command");
 			publishDefaultEvent = false;
@@ -160,8 +193,17 @@ public class M3Hcd extends BaseHcd {
 	}
 
 	public enum M3Message {
+		/**
+		 * Starts publishing the default CurrentState every rate until the
+		 * first move
+		 */
 		GetM3DefaultUpdate,
 
+		/**
+		 * Sent by the scheduler, publishes the default CurrentState once
+		 */
+		PublishM3DefaultUpdate,
+
 		/**
 		 * Directly returns an M3PosUpdate to sender
 		 */
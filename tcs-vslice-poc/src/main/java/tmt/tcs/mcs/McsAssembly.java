@@ -37,6 +37,7 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseAssembly;
+import tmt.tcs.common.TcsLogger.Subsystem;
 
 /**
  * Top Level Actor for MCS Assembly
@@ -194,8 +195,8 @@ public class McsAssembly extends BaseAssembly {
 	 * @return a partial function
 	 */
 	private PartialFunction<Object, BoxedUnit> runningReceive() {
-		return locationReceive().orElse(diagnosticReceive()).orElse(controllerReceive())
-				.orElse(lifecycleReceivePF(supervisor)).orElse(unhandledPF());
+		return locationReceive().orElse(diagnosticReceive()).orElse(latencyReceive(Subsystem.MCS))
+				.orElse(controllerReceive()).orElse(lifecycleReceivePF(supervisor)).orElse(unhandledPF());
 	}
 	
 	/**
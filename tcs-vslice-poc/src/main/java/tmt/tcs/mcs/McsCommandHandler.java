@@ -1,6 +1,5 @@
 package tmt.tcs.mcs;
 
-import static akka.pattern.PatternsCS.ask;
 import static javacsw.services.ccs.JCommandStatus.Completed;
 import static javacsw.util.config.JItems.jadd;
 import static javacsw.util.config.JItems.jitem;
@@ -25,14 +24,12 @@ import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import akka.actor.ActorRef;
-import akka.actor.PoisonPill;
 import akka.actor.Props;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import akka.util.Timeout;
-import csw.services.ccs.CommandStatus.CommandStatus;
 import csw.services.ccs.CommandStatus.Error;
 import csw.services.ccs.CommandStatus.Invalid;
 import csw.services.ccs.CommandStatus.NoLongerValid;
@@ -49,7 +46,6 @@ import csw.util.config.Configurations.ConfigKey;
 import csw.util.config.Configurations.SetupConfig;
 import csw.util.config.DoubleItem;
 import csw.util.config.StateVariable.DemandState;
-import javacsw.services.ccs.JSequentialExecutor;
 import javacsw.services.events.IEventService;
 import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
@@ -81,6 +77,9 @@ public class McsCommandHandler extends BaseCommandHandler {
 	private Optional<IEventService> badEventService = Optional.empty();
 	private Optional<IEventService> eventService = badEventService;
 
+	// Created by the first follow or offset, see followCommand()
+	private ActorRef followCommand;
+
 	public McsCommandHandler(AssemblyContext ac, Optional<ActorRef> mcsHcd, Optional<ActorRef> allEventPublisher) {
 
 		log.debug("Inside McsCommandHandler");
@@ -111,7 +110,6 @@ public class McsCommandHandler extends BaseCommandHandler {
 		} else if (location instanceof ResolvedTcpLocation) {
 			ResolvedTcpLocation t = (ResolvedTcpLocation) location;
 			log.debug("Inside McsCommandHandler: Received TCP Location: " + t.connection());
-			System.out.println("*********Inside McsCommandHandler: Received TCP Location: " + t.connection());
 			if (location.connection().equals(IEventService.eventServiceConnection())) {
 				log.debug("Inside McsCommandHandler: Assembly received ES connection: " + t);
 				eventService = Optional.of(IEventService.getEventService(t.host(), t.port(), context().system()));
@@ -138,32 +136,23 @@ public class McsCommandHandler extends BaseCommandHandler {
 	 * @return
 	 */
 	private PartialFunction<Object, BoxedUnit> initReceive() {
-		return stateReceive()
+		return transitionReceive().orElse(stateReceive())
 				.orElse(ReceiveBuilder.match(Location.class, this::handleLocations).match(ExecuteOne.class, t -> {
 
 					SetupConfig sc = t.sc();
 					Optional<ActorRef> commandOriginator = toJava(t.commandOriginator());
 					ConfigKey configKey = sc.configKey();
 
-					Double initialAz = 0.0;
-					Double initialEl = 0.0;
-
 					log.debug("Inside McsCommandHandler initReceive: ExecuteOne: SetupConfig is: " + sc
 							+ ": configKey is: " + configKey);
 
 					if (configKey.equals(McsConfig.initCK)) {
 						log.info(
 								"Inside McsCommandHandler initReceive: Init not fully implemented -- only sets state ready!");
-						try {
-							ask(mcsStateActor,
-									new AssemblySetState(azItem(azDrivePowerOn), elItem(elDrivePowerOn), null, null),
-									5000).toCompletableFuture().get();
-						} catch (Exception e) {
-							log.error(e, "Inside McsCommandHandler initReceive: Error setting state");
-						}
-
 						mcsHcd.tell(GetMcsDefaultUpdate, self());
-						commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+						transitionState(mcsStateActor,
+								new AssemblySetState(azItem(azDrivePowerOn), elItem(elDrivePowerOn), null, null),
+								commandOriginator, Completed);
 
 					} else if (configKey.equals(McsConfig.followCK)) {
 						if (!(az(currentState()).equals(azDatumed) || az(currentState()).equals(azDrivePowerOn))
@@ -176,23 +165,13 @@ public class McsCommandHandler extends BaseCommandHandler {
 						} else {
 							log.debug("Inside McsCommandHandler initReceive: Follow command -- START: " + t);
 
-							// The event publisher may be passed in
-							Props props = McsFollowCommand.props(assemblyContext, jset(McsConfig.az, initialAz),
-									jset(McsConfig.el, initialEl), Optional.of(mcsHcd), allEventPublisher,
-									eventService.get(), Optional.of(mcsStateActor));
-
-							ActorRef followCommandActor = context().actorOf(props);
+							ActorRef followCommandActor = followCommand();
 							log.info("Inside McsCommandHandler initReceive: Going to followReceive");
 							context().become(followReceive(followCommandActor));
 
-							try {
-								ask(mcsStateActor,
-										new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null),
-										5000).toCompletableFuture().get();
-							} catch (Exception e) {
-								log.error(e, "Inside McsCommandHandler initReceive: Error setting state");
-							}
-							commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+							transitionState(mcsStateActor,
+									new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null),
+									commandOriginator, Completed);
 
 						}
 					} else if (configKey.equals(McsConfig.offsetCK)) {
@@ -206,21 +185,11 @@ public class McsCommandHandler extends BaseCommandHandler {
 						} else {
 							if (isHcdAvailable()) {
 								log.debug("Inside McsCommandHandler initReceive: ExecuteOne: offsetCK Command ");
-								Props props = McsOffsetCommand.props(assemblyContext, jset(McsConfig.az, initialAz),
-										jset(McsConfig.el, initialEl), Optional.of(mcsHcd), allEventPublisher,
-										eventService.get(), Optional.of(mcsStateActor));
-
-								ActorRef offsetActorRef = context().actorOf(props);
-
-								context().become(actorExecutingReceive(offsetActorRef, commandOriginator));
-								try {
-									ask(mcsStateActor,
-											new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null),
-											5000).toCompletableFuture().get();
-								} catch (Exception e) {
-									log.error(e, "Inside McsCommandHandler initReceive: Error setting state");
-								}
-								commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+								// Offset demands are followed by the same actors as position demands
+								context().become(followReceive(followCommand()));
+								transitionState(mcsStateActor,
+										new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null),
+										commandOriginator, Completed);
 							} else {
 								hcdNotAvailableResponse(commandOriginator);
 							}
@@ -239,6 +208,30 @@ public class McsCommandHandler extends BaseCommandHandler {
 				}).build());
 	}
 
+	/**
+	 * The follow command, with its control, follow actor and event subscriber,
+	 * is created once and reused by every later follow and offset, which only
+	 * retarget it to the current HCD. Offsets in a dither or raster sequence
+	 * then cost a message instead of new actors and event subscriptions
+	 *
+	 * @return the follow command actor
+	 */
+	private ActorRef followCommand() {
+		if (followCommand == null) {
+			Double initialAz = 0.0;
+			Double initialEl = 0.0;
+
+			// The event publisher may be passed in
+			Props props = McsFollowCommand.props(assemblyContext, jset(McsConfig.az, initialAz),
+					jset(McsConfig.el, initialEl), Optional.of(mcsHcd), allEventPublisher, eventService.get(),
+					Optional.of(mcsStateActor));
+			followCommand = context().actorOf(props, "mcsfollowcommand");
+		} else {
+			followCommand.tell(new McsAssembly.UpdateHcd(Optional.of(mcsHcd)), self());
+		}
+		return followCommand;
+	}
+
 	/**
 	 * This responds to Command Originator in case HCD is not available
 	 * 
@@ -258,7 +251,7 @@ public class McsCommandHandler extends BaseCommandHandler {
 	 * @return
 	 */
 	private PartialFunction<Object, BoxedUnit> followReceive(ActorRef followActor) {
-		return stateReceive().orElse(ReceiveBuilder.match(ExecuteOne.class, t -> {
+		return transitionReceive().orElse(stateReceive()).orElse(ReceiveBuilder.match(ExecuteOne.class, t -> {
 			SetupConfig sc = t.sc();
 			log.debug("Inside McsCommandHandler followReceive: ExecuteOne: SetupConfig is: " + sc);
 			Optional<ActorRef> commandOriginator = toJava(t.commandOriginator());
@@ -267,12 +260,8 @@ public class McsCommandHandler extends BaseCommandHandler {
 
 			if (configKey.equals(McsConfig.setAzimuthCK)) {
 				log.debug("Inside McsCommandHandler followReceive: Started for: " + configKey);
-				try {
-					ask(mcsStateActor, new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null), 5000)
-							.toCompletableFuture().get();
-				} catch (Exception e) {
-					log.error(e, "Inside McsCommandHandler followReceive: Error setting state");
-				}
+				transitionState(mcsStateActor,
+						new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null));
 
 				DoubleItem azItem = jitem(sc, McsConfig.azDemandKey);
 
@@ -282,26 +271,17 @@ public class McsCommandHandler extends BaseCommandHandler {
 				Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
 				executeMatch(context(), azPosMatcher(az), mcsHcd, commandOriginator, timeout, status -> {
 					if (status == Completed) {
-						try {
-							log.debug("Inside McsCommandHandler followReceive: Command Completed for: " + configKey);
-							ask(mcsStateActor,
-									new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null), 5000)
-											.toCompletableFuture().get();
-						} catch (Exception e) {
-							log.error(e, "Inside McsCommandHandler followReceive: Error setting state");
-						}
+						log.debug("Inside McsCommandHandler followReceive: Command Completed for: " + configKey);
+						transitionState(mcsStateActor,
+								new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null));
 					} else if (status instanceof Error)
 						log.error("Inside McsCommandHandler followReceive: command failed with message: "
 								+ ((Error) status).message());
 				});
 			} else if (configKey.equals(McsConfig.setElevationCK)) {
 				log.debug("Inside McsCommandHandler followReceive: Started for: " + configKey);
-				try {
-					ask(mcsStateActor, new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null), 5000)
-							.toCompletableFuture().get();
-				} catch (Exception e) {
-					log.error(e, "Inside McsCommandHandler followReceive: Error setting state");
-				}
+				transitionState(mcsStateActor,
+						new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null));
 
 				DoubleItem elItem = jitem(sc, McsConfig.elDemandKey);
 
@@ -311,14 +291,9 @@ public class McsCommandHandler extends BaseCommandHandler {
 				Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
 				executeMatch(context(), elPosMatcher(el), mcsHcd, commandOriginator, timeout, status -> {
 					if (status == Completed) {
-						try {
-							log.debug("Inside McsCommandHandler followReceive: Command Completed for: " + configKey);
-							ask(mcsStateActor,
-									new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null), 5000)
-											.toCompletableFuture().get();
-						} catch (Exception e) {
-							log.error(e, "Inside McsCommandHandler followReceive: Error setting state");
-						}
+						log.debug("Inside McsCommandHandler followReceive: Command Completed for: " + configKey);
+						transitionState(mcsStateActor,
+								new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null));
 					} else if (status instanceof Error)
 						log.error("Inside McsCommandHandler followReceive: command failed with message: "
 								+ ((Error) status).message());
@@ -331,26 +306,13 @@ public class McsCommandHandler extends BaseCommandHandler {
 					log.debug("Inside McsCommandHandler followReceive: Error Message is: " + errorMessage);
 					sender().tell(new NoLongerValid(new WrongInternalStateIssue(errorMessage)), self());
 				} else {
-					Double initialAz = 0.0;
-					Double initialEl = 0.0;
-
 					if (isHcdAvailable()) {
 						log.debug("Inside McsCommandHandler followReceive: ExecuteOne: offsetCK Command ");
-						Props props = McsOffsetCommand.props(assemblyContext, jset(McsConfig.az, initialAz),
-								jset(McsConfig.el, initialEl), Optional.of(mcsHcd), allEventPublisher,
-								eventService.get(), Optional.of(mcsStateActor));
-
-						ActorRef offsetActorRef = context().actorOf(props);
-
-						context().become(actorExecutingReceive(offsetActorRef, commandOriginator));
-						try {
-							ask(mcsStateActor,
-									new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null), 5000)
-											.toCompletableFuture().get();
-						} catch (Exception e) {
-							log.error(e, "Inside McsCommandHandler followReceive: Error setting state");
-						}
-						commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+						// The follow command is already running, it is only retargeted
+						context().become(followReceive(followCommand()));
+						transitionState(mcsStateActor,
+								new AssemblySetState(azItem(azFollowing), elItem(elFollowing), null, null),
+								commandOriginator, Completed);
 					} else {
 						hcdNotAvailableResponse(commandOriginator);
 					}
@@ -360,47 +322,6 @@ public class McsCommandHandler extends BaseCommandHandler {
 				.build());
 	}
 
-	/**
-	 * This method helps in executing command and forwarding the same to Command
-	 * Class
-	 * 
-	 * @param currentCommand
-	 * @param commandOriginator
-	 * @return
-	 */
-	private PartialFunction<Object, BoxedUnit> actorExecutingReceive(ActorRef currentCommand,
-			Optional<ActorRef> commandOriginator) {
-		Timeout timeout = new Timeout(5, TimeUnit.SECONDS);
-
-		return ReceiveBuilder.matchEquals(JSequentialExecutor.CommandStart(), t -> {
-			log.debug("Inside McsCommandHandler actorExecutingReceive: JSequentialExecutor.CommandStart");
-
-			ask(currentCommand, JSequentialExecutor.CommandStart(), timeout.duration().toMillis()).thenApply(reply -> {
-				CommandStatus cs = (CommandStatus) reply;
-				log.debug("Inside McsCommandHandler actorExecutingReceive: CommandStatus is: " + cs);
-				commandOriginator.ifPresent(actorRef -> actorRef.tell(cs, self()));
-				currentCommand.tell(PoisonPill.getInstance(), self());
-				return null;
-			});
-		}).
-
-				match(CommandDone.class, t -> {
-					log.debug("Inside McsCommandHandler actorExecutingReceive: CommandDone");
-					context().become(initReceive());
-				}).
-
-				match(SetupConfig.class, t -> {
-					log.debug("Inside McsCommandHandler actorExecutingReceive: SetupConfig");
-				}).
-
-				match(ExecuteOne.class, t -> {
-					log.debug("Inside McsCommandHandler actorExecutingReceive: ExecuteOne");
-				})
-				.matchAny(t -> log
-						.warning("Inside McsCommandHandler actorExecutingReceive: received an unknown message: " + t))
-				.build();
-	}
-
 	public static Props props(AssemblyContext ac, Optional<ActorRef> mcsHcd, Optional<ActorRef> allEventPublisher) {
 		return Props.create(new Creator<McsCommandHandler>() {
 			private static final long serialVersionUID = 1L;
@@ -422,8 +343,6 @@ public class McsCommandHandler extends BaseCommandHandler {
 	 * @return DemandMatcher
 	 */
 	public static DemandMatcher posMatcher(double az, double el) {
-		System.out.println("Inside McsCommandHandler posMatcher Offset: Starts");
-
 		DemandState ds = jadd(new DemandState(McsConfig.currentPosPrefix), jset(mcsStateKey, MCS_IDLE),
 				jset(McsConfig.azPosKey, az), jset(McsConfig.elPosKey, el));
 		return new DemandMatcher(ds, false);
@@ -438,8 +357,6 @@ public class McsCommandHandler extends BaseCommandHandler {
 	 * @return DemandMatcher
 	 */
 	public static DemandMatcher azPosMatcher(double az) {
-		System.out.println("Inside McsCommandHandler azPosMatcher : Starts");
-
 		DemandState ds = jadd(new DemandState(McsConfig.currentPosPrefix), jset(mcsStateKey, MCS_IDLE),
 				jset(McsConfig.azPosKey, az));
 		return new DemandMatcher(ds, false);
@@ -454,8 +371,6 @@ public class McsCommandHandler extends BaseCommandHandler {
 	 * @return DemandMatcher
 	 */
 	public static DemandMatcher elPosMatcher(double el) {
-		System.out.println("Inside McsCommandHandler elPosMatcher : Starts");
-
 		DemandState ds = jadd(new DemandState(McsConfig.currentPosPrefix), jset(mcsStateKey, MCS_IDLE),
 				jset(McsConfig.elPosKey, el));
 		return new DemandMatcher(ds, false);
@@ -1,44 +1,57 @@
 package tmt.tcs.mcs;
 
-import static javacsw.util.config.JConfigDSL.sc;
-import static javacsw.util.config.JItems.jadd;
+import static javacsw.util.config.JItems.jvalue;
 
 import java.util.Optional;
 
-import akka.actor.AbstractActor;
 import akka.actor.ActorRef;
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.ccs.HcdController.Submit;
-import csw.util.config.Configurations.SetupConfig;
 import csw.util.config.DoubleItem;
 import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
+import tmt.tcs.common.BaseControl;
+import tmt.tcs.common.DemandCommandTemplate;
+import tmt.tcs.common.DemandFilter;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.TcsLogger;
 
 /**
  * This Class will receive Position parameters from Follow Actor and forward the
  * same to HCD Class and also publish Telemetry Message for positions being sent
  *
  */
-public class McsControl extends AbstractActor {
+public class McsControl extends BaseControl {
 
-	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	private TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	@SuppressWarnings("unused")
 	private final AssemblyContext assemblyContext;
 
+	private static final DemandCommandTemplate followCommand = new DemandCommandTemplate(McsConfig.followPrefix,
+			McsConfig.az, McsConfig.el);
+
 	private McsControl(AssemblyContext assemblyContext, Optional<ActorRef> mcsHcd) {
+		super(assemblyContext);
 		this.assemblyContext = assemblyContext;
-		log.info("Inside McsControl: Hcd ref is: " + mcsHcd);
+		log.info("Inside McsControl: Hcd ref is: {}", mcsHcd);
 
 		// Initial receive - start with initial values
 		receive(controlReceive(mcsHcd));
 	}
 
+	private McsControl(AssemblyContext assemblyContext, Optional<ActorRef> mcsHcd,
+			DemandFilter.Settings filterSettings) {
+		super(filterSettings);
+		this.assemblyContext = assemblyContext;
+		log.info("Inside McsControl: Hcd ref is: {}", mcsHcd);
+
+		receive(controlReceive(mcsHcd));
+	}
+
 	/**
 	 * This helps in receiving the position parameters from follow actor and
 	 * sends the same to MCS HCD and publish Telemetry
@@ -47,19 +60,19 @@ public class McsControl extends AbstractActor {
 	 * @return
 	 */
 	private PartialFunction<Object, BoxedUnit> controlReceive(Optional<ActorRef> mcsHcd) {
-		return ReceiveBuilder.match(GoToPosition.class, t -> {
+		return demandFilterReceive().orElse(ReceiveBuilder.match(GoToPosition.class, t -> {
 			log.info("Inside McsControl controlReceive: Got GoToPosition");
-			DoubleItem az = t.azimuth;
-			DoubleItem el = t.elevation;
+			filterDemand(jvalue(t.azimuth), jvalue(t.elevation), t.tracking, () -> {
+				Submit submit = followCommand.submit(t.azimuth, t.elevation, t.trace);
 
-			SetupConfig scOut = jadd(sc(McsConfig.followPrefix), az, el);
-
-			// Send command to HCD here
-			mcsHcd.ifPresent(actorRef -> actorRef.tell(new Submit(scOut), self()));
+				// Send command to HCD here
+				mcsHcd.ifPresent(actorRef -> actorRef.tell(submit, self()));
+			});
 		}).match(McsAssembly.UpdateHcd.class, t -> {
 			log.info("Inside McsControl controlReceive: Got UpdateHcd");
+			hcdChanged();
 			context().become(controlReceive(t.hcdActorRef));
-		}).matchAny(t -> log.warning("Inside McsControl: controlReceive Unexpected message received : " + t)).build();
+		}).matchAny(t -> log.warning("Inside McsControl: controlReceive Unexpected message received : {}", t)).build());
 	}
 
 	/**
@@ -80,16 +93,46 @@ public class McsControl extends AbstractActor {
 		});
 	}
 
+	/**
+	 * Props for creating the McsControl actor with other demand filter
+	 * settings than those of the assembly config, e.g. for benchmarks
+	 */
+	public static Props props(AssemblyContext ac, Optional<ActorRef> mcsHcd, DemandFilter.Settings filterSettings) {
+		return Props.create(new Creator<McsControl>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public McsControl create() throws Exception {
+				return new McsControl(ac, mcsHcd, filterSettings);
+			}
+		});
+	}
+
 	/**
 	 * Used to send a position that requires transformation from
 	 */
 	static class GoToPosition {
 		final DoubleItem azimuth;
 		final DoubleItem elevation;
+		// Latency trace of the demand, not part of equality
+		final Optional<DemandTrace> trace;
+		// Interpolated tracking demand, only these pass the demand filter. Not
+		// part of equality
+		final boolean tracking;
 
 		GoToPosition(DoubleItem azimuth, DoubleItem elevation) {
+			this(azimuth, elevation, Optional.empty());
+		}
+
+		GoToPosition(DoubleItem azimuth, DoubleItem elevation, Optional<DemandTrace> trace) {
+			this(azimuth, elevation, trace, false);
+		}
+
+		GoToPosition(DoubleItem azimuth, DoubleItem elevation, Optional<DemandTrace> trace, boolean tracking) {
 			this.azimuth = azimuth;
 			this.elevation = elevation;
+			this.trace = trace;
+			this.tracking = tracking;
 		}
 
 		@Override
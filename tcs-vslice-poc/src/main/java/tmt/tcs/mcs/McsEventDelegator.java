@@ -21,6 +21,10 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseEventDelegator;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.DemandTrace.Stage;
+import tmt.tcs.common.LatencyTracker;
+import tmt.tcs.common.TcsLogger.Subsystem;
 import tmt.tcs.mcs.McsEventPublisher.McsStateUpdate;
 
 /**
@@ -34,6 +38,7 @@ public class McsEventDelegator extends BaseEventDelegator {
 
 	private final Optional<ActorRef> eventPublisher;
 	private final String hcdName;
+	private final LatencyTracker latency = LatencyTracker.of(Subsystem.MCS);
 
 	private McsEventDelegator(AssemblyContext assemblyContext, Optional<ActorRef> mcsHcd,
 			Optional<ActorRef> eventPublisher) {
@@ -130,6 +135,7 @@ public class McsEventDelegator extends BaseEventDelegator {
 	 */
 	public void publishMcsPosUpdate(CurrentState cs, Optional<ActorRef> eventPublisher) {
 		log.debug("Inside McsEventDelegator publish state: " + cs);
+		DemandTrace.fromCurrentState(cs).ifPresent(trace -> latency.record(trace.mark(Stage.CURRENT_STATE)));
 		eventPublisher.ifPresent(actorRef -> actorRef.tell(new McsStateUpdate(jitem(cs, McsConfig.mcsStateKey),
 				jitem(cs, McsConfig.azPosKey), jitem(cs, McsConfig.elPosKey)), self()));
 	}
@@ -5,8 +5,6 @@ import static javacsw.util.config.JItems.jadd;
 import java.util.Optional;
 
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.loc.LocationService;
@@ -22,6 +20,7 @@ import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.AssemblyStateActor.AssemblyState;
 import tmt.tcs.common.BaseEventPublisher;
+import tmt.tcs.common.TcsLogger;
 
 /**
  * This is an actor class that provides the publishing interface specific to MCS
@@ -29,7 +28,7 @@ import tmt.tcs.common.BaseEventPublisher;
  */
 public class McsEventPublisher extends BaseEventPublisher {
 
-	LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	@SuppressWarnings("unused")
 	private final AssemblyContext assemblyContext;
@@ -43,8 +42,8 @@ public class McsEventPublisher extends BaseEventPublisher {
 		context().system().eventStream().subscribe(self(), AssemblyState.class);
 		this.assemblyContext = assemblyContext;
 
-		log.debug("Inside McsEventPublisher Event Service in: " + eventServiceIn);
-		log.debug("Inside McsEventPublisher Telemetry Service in: " + telemetryServiceIn);
+		log.debug("Inside McsEventPublisher Event Service in: {}", eventServiceIn);
+		log.debug("Inside McsEventPublisher Telemetry Service in: {}", telemetryServiceIn);
 
 		receive(publishingEnabled(eventServiceIn, telemetryServiceIn));
 	}
@@ -61,7 +60,7 @@ public class McsEventPublisher extends BaseEventPublisher {
 						location -> handleLocations(location, eventService, telemetryService))
 				.
 
-				matchAny(t -> log.warning("Inside McsEventPublisher Unexpected message in publishingEnabled: " + t)).
+				matchAny(t -> log.warning("Inside McsEventPublisher Unexpected message in publishingEnabled: {}", t)).
 
 				build();
 	}
@@ -73,33 +72,33 @@ public class McsEventPublisher extends BaseEventPublisher {
 			Optional<ITelemetryService> currentTelemetryService) {
 		if (location instanceof ResolvedTcpLocation) {
 			ResolvedTcpLocation t = (ResolvedTcpLocation) location;
-			log.debug("Inside McsEventPublisher Received TCP Location: " + t.connection());
+			log.debug("Inside McsEventPublisher Received TCP Location: {}", t.connection());
 			// Verify that it is the event service
 			if (location.connection().equals(IEventService.eventServiceConnection())) {
-				log.debug("Inside McsEventPublisher received connection: " + t);
+				log.debug("Inside McsEventPublisher received connection: {}", t);
 				Optional<IEventService> newEventService = Optional
 						.of(IEventService.getEventService(t.host(), t.port(), context().system()));
-				log.debug("Inside McsEventPublisherEvent Service at: " + newEventService);
+				log.debug("Inside McsEventPublisherEvent Service at: {}", newEventService);
 				context().become(publishingEnabled(newEventService, currentTelemetryService));
 			}
 
 			if (location.connection().equals(ITelemetryService.telemetryServiceConnection())) {
-				log.debug("Inside McsEventPublisher received connection: " + t);
+				log.debug("Inside McsEventPublisher received connection: {}", t);
 				Optional<ITelemetryService> newTelemetryService = Optional
 						.of(ITelemetryService.getTelemetryService(t.host(), t.port(), context().system()));
-				log.debug("Inside McsEventPublisher Telemetry Service at: " + newTelemetryService);
+				log.debug("Inside McsEventPublisher Telemetry Service at: {}", newTelemetryService);
 				context().become(publishingEnabled(currentEventService, newTelemetryService));
 			}
 
 		} else if (location instanceof LocationService.Unresolved) {
-			log.debug("Unresolved: " + location.connection());
+			log.debug("Unresolved: {}", location.connection());
 			if (location.connection().equals(IEventService.eventServiceConnection()))
 				context().become(publishingEnabled(Optional.empty(), currentTelemetryService));
 			else if (location.connection().equals(ITelemetryService.telemetryServiceConnection()))
 				context().become(publishingEnabled(currentEventService, Optional.empty()));
 
 		} else {
-			log.debug("Inside McsEventPublisher received some other location: " + location);
+			log.debug("Inside McsEventPublisher received some other location: {}", location);
 		}
 	}
 
@@ -109,11 +108,15 @@ public class McsEventPublisher extends BaseEventPublisher {
 	 */
 	private void publishTelemetryUpdate(Optional<ITelemetryService> telemetryService, DoubleItem az, DoubleItem el) {
 		StatusEvent ste = jadd(new StatusEvent(McsConfig.telemetryEventPrefix), az, el);
-		log.info("Inside McsEventPublisher publishTelemetryUpdate: Status publish of " + McsConfig.telemetryEventPrefix
-				+ ": " + ste);
+		log.info("Inside McsEventPublisher publishTelemetryUpdate: Status publish of {}: {}",
+				McsConfig.telemetryEventPrefix, ste);
 
+		long start = System.nanoTime();
 		telemetryService.ifPresent(e -> e.publish(ste).handle((x, ex) -> {
-			log.error("Inside McsEventPublisher publishEngr: Failed to publish engr: " + ste, ex);
+			recordPublish(start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside McsEventPublisher publishEngr: Failed to publish engr: {}", ste);
+			}
 			return null;
 		}));
 	}
@@ -124,9 +127,14 @@ public class McsEventPublisher extends BaseEventPublisher {
 	private void publishMcsPositionUpdate(Optional<IEventService> eventService, ChoiceItem state, DoubleItem az,
 			DoubleItem el) {
 		SystemEvent se = jadd(new SystemEvent(McsConfig.currentPosPrefix), state, az, el);
-		log.debug("Inside McsEventPublisher publishMcsPositionUpdate " + McsConfig.currentPosPrefix + ": " + se);
+		log.debug("Inside McsEventPublisher publishMcsPositionUpdate {}: {}", McsConfig.currentPosPrefix, se);
+		long start = System.nanoTime();
 		eventService.ifPresent(e -> e.publish(se).handle((x, ex) -> {
-			log.error("Inside McsEventPublisher publishMcsPositionUpdate : failed to publish mcs position: " + se, ex);
+			recordPublish(start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside McsEventPublisher publishMcsPositionUpdate : failed to publish mcs position: {}",
+						se);
+			}
 			return null;
 		}));
 	}
@@ -137,9 +145,13 @@ public class McsEventPublisher extends BaseEventPublisher {
 	 */
 	private void publishAssemblyState(Optional<ITelemetryService> telemetryService, AssemblyState ts) {
 		StatusEvent ste = jadd(new StatusEvent(McsConfig.mcsStateEventPrefix), ts.az, ts.el);
-		log.debug("Inside McsEventPublisher publishAssemblyState: " + McsConfig.mcsStateEventPrefix + ": " + ste);
+		log.debug("Inside McsEventPublisher publishAssemblyState: {}: {}", McsConfig.mcsStateEventPrefix, ste);
+		long start = System.nanoTime();
 		telemetryService.ifPresent(e -> e.publish(ste).handle((x, ex) -> {
-			log.error("Inside McsEventPublisher publishAssemblyState: failed to publish state: " + ste, ex);
+			recordPublish(start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside McsEventPublisher publishAssemblyState: failed to publish state: {}", ste);
+			}
 			return null;
 		}));
 	}
@@ -8,20 +8,19 @@ import java.util.Optional;
 
 import akka.actor.ActorRef;
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.events.EventService;
 import csw.services.events.EventService.EventMonitor;
 import csw.util.config.DoubleItem;
-import csw.util.config.Events.EventTime;
 import csw.util.config.Events.SystemEvent;
 import javacsw.services.events.IEventService;
 import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseEventSubscriber;
+import tmt.tcs.common.TcsLogger;
+import tmt.tcs.tpk.TpkConfig;
 
 /**
  * This Class provides Event Subscription functionality for MCS. It extends
@@ -32,7 +31,7 @@ import tmt.tcs.common.BaseEventSubscriber;
 @SuppressWarnings("unused")
 public class McsEventSubscriber extends BaseEventSubscriber {
 
-	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	private TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	private final AssemblyContext assemblyContext;
 	private final Optional<ActorRef> followActor;
@@ -68,20 +67,22 @@ public class McsEventSubscriber extends BaseEventSubscriber {
 		return ReceiveBuilder.
 
 				match(SystemEvent.class, event -> {
-					log.debug("Inside McsEventSubscriber subscribeReceive received SystemEvent: Config Key is: "
-							+ event.info().source());
+					log.debug("Inside McsEventSubscriber subscribeReceive received SystemEvent: Config Key is: {}",
+							event.info().source());
 
 					if (event.info().source().equals(McsConfig.positionDemandCK)
-							|| event.info().source().equals(McsConfig.offsetDemandCK)) {
-						Double azValue = jvalue(jitem(event, McsConfig.azDemandKey));
-						Double elValue = jvalue(jitem(event, McsConfig.elDemandKey));
-						DoubleItem azItem = jset(McsConfig.az, azValue);
-						DoubleItem elItem = jset(McsConfig.el, elValue);
-						log.debug("Inside McsEventSubscriber subscribeReceive received : " + event.info().source()
-								+ ": azItem is: " + azItem + ": eItem is: " + elItem);
-						updateFollowActor(azItem, elItem, event.info().eventTime());
-
-						context().become(subscribeReceive(azItem, elItem));
+							|| event.info().source().equals(McsConfig.offsetDemandCK)
+							|| event.info().source().equals(TpkConfig.demandFrameCK)) {
+						checkFrameSequence(event);
+						if (!checkFrameComplete(event, McsConfig.azDemandKey, McsConfig.elDemandKey)) {
+							return;
+						}
+						McsFollowActor.UpdatedEventData demand = updatedEventData(event);
+						log.debug("Inside McsEventSubscriber subscribeReceive received : {}: azItem is: {}: eItem is: {}",
+								event.info().source(), demand.azimuth, demand.elevation);
+						updateFollowActor(demand);
+
+						context().become(subscribeReceive(demand.azimuth, demand.elevation));
 					}
 				}).
 
@@ -91,17 +92,29 @@ public class McsEventSubscriber extends BaseEventSubscriber {
 					context().stop(self());
 				}).
 
-				matchAny(t -> log.debug("Inside McsEventSubscriber Unexpected message received:subscribeReceive: " + t))
-				.build();
+				matchAny(t -> log.debug("Inside McsEventSubscriber Unexpected message received:subscribeReceive: {}",
+						t)).build();
+	}
+
+	/**
+	 * Picks the MCS demand out of a position, offset or demand frame event
+	 *
+	 * @param event
+	 * @return the demand as it is sent to the Follow Actor
+	 */
+	public static McsFollowActor.UpdatedEventData updatedEventData(SystemEvent event) {
+		Double azValue = jvalue(jitem(event, McsConfig.azDemandKey));
+		Double elValue = jvalue(jitem(event, McsConfig.elDemandKey));
+		return new McsFollowActor.UpdatedEventData(jset(McsConfig.az, azValue), jset(McsConfig.el, elValue),
+				event.info().eventTime(), demandTime(event, McsConfig.timeDemandKey), subscribedTrace(event));
 	}
 
 	/**
 	 * This message propagates event to Follow Actor
 	 */
-	private void updateFollowActor(DoubleItem az, DoubleItem el, EventTime eventTime) {
+	private void updateFollowActor(McsFollowActor.UpdatedEventData demand) {
 		log.debug("Inside McsEventSubscriber updateRefActor: Sending Message to Follow Actor");
-		followActor
-				.ifPresent(actorRef -> actorRef.tell(new McsFollowActor.UpdatedEventData(az, el, eventTime), self()));
+		followActor.ifPresent(actorRef -> actorRef.tell(demand, self()));
 	}
 
 	/**
@@ -114,9 +127,12 @@ public class McsEventSubscriber extends BaseEventSubscriber {
 
 		EventMonitor subscribeMonitor = subscribeKeys(eventService, McsConfig.positionDemandCK);
 
-		log.debug("Inside McsEventSubscriber actor: " + subscribeMonitor.actorRef());
+		log.debug("Inside McsEventSubscriber actor: {}", subscribeMonitor.actorRef());
+
+		subscribeKeys(subscribeMonitor, McsConfig.offsetDemandCK, TpkConfig.demandFrameCK);
 
-		subscribeKeys(subscribeMonitor, McsConfig.offsetDemandCK);
+		// Demands published by TPK in this JVM skip the event service
+		subscribeLocal(McsConfig.positionDemandCK, McsConfig.offsetDemandCK, TpkConfig.demandFrameCK);
 
 		return subscribeMonitor;
 	}
@@ -1,5 +1,6 @@
 package tmt.tcs.mcs;
 
+import static javacsw.util.config.JItems.jvalue;
 import static tmt.tcs.common.AssemblyStateActor.az;
 import static tmt.tcs.common.AssemblyStateActor.azFollowing;
 import static tmt.tcs.common.AssemblyStateActor.el;
@@ -10,8 +11,6 @@ import java.util.Optional;
 
 import akka.actor.ActorRef;
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.util.config.DoubleItem;
@@ -19,9 +18,13 @@ import csw.util.config.Events.EventTime;
 import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
-import tmt.tcs.common.AssemblyStateActor.AssemblyGetState;
 import tmt.tcs.common.AssemblyStateActor.AssemblyState;
 import tmt.tcs.common.BaseFollowActor;
+import tmt.tcs.common.ConflatingMailbox;
+import tmt.tcs.common.DemandInterpolator;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.DemandTrace.Stage;
+import tmt.tcs.common.TcsLogger;
 import tmt.tcs.mcs.McsEventPublisher.TelemetryUpdate;
 
 /**
@@ -30,7 +33,7 @@ import tmt.tcs.mcs.McsEventPublisher.TelemetryUpdate;
  */
 public class McsFollowActor extends BaseFollowActor {
 
-	LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
 	@SuppressWarnings("unused")
 	private final AssemblyContext assemblyContext;
@@ -41,6 +44,11 @@ public class McsFollowActor extends BaseFollowActor {
 	public final DoubleItem initialAzimuth;
 	public final DoubleItem initialElevation;
 
+	// Time tagged demands are interpolated and sent at the HCD's rate
+	private final DemandInterpolator interpolator;
+	// Trace of the newest time tagged demand, only sent with the next tick
+	private Optional<DemandTrace> pendingTrace = Optional.empty();
+
 	private McsFollowActor(AssemblyContext assemblyContext, DoubleItem initialAzimuth, DoubleItem initialElevation,
 			Optional<ActorRef> mcsControl, Optional<ActorRef> eventPublisher, Optional<ActorRef> mcsStateActor) {
 		log.info("Inside McsFollowActor");
@@ -53,12 +61,22 @@ public class McsFollowActor extends BaseFollowActor {
 		this.mcsStateActor = mcsStateActor;
 
 		subscribeToLocationUpdates();
-		context().system().eventStream().subscribe(self(), AssemblyState.class);
+		// The state actor sends the current state, afterwards every state
+		// change is pushed to this actor
+		subscribeToState(mcsStateActor);
+
+		interpolator = new DemandInterpolator(2, maxExtrapolation(assemblyContext));
+		scheduleDemands(demandInterval(assemblyContext));
 
 		// Initial receive - start with initial values
 		receive(followingReceive(initialAzimuth, initialElevation));
 	}
 
+	@Override
+	protected boolean allowsFollowing(AssemblyState state) {
+		return az(state).equals(azFollowing) && el(state).equals(elFollowing);
+	}
+
 	/**
 	 * This receives demand data being redirected by Event Subscriber once in
 	 * following state
@@ -69,38 +87,65 @@ public class McsFollowActor extends BaseFollowActor {
 	 */
 	private PartialFunction<Object, BoxedUnit> followingReceive(DoubleItem initialAzimuth,
 			DoubleItem initialElevation) {
-		return stateReceive().orElse(ReceiveBuilder.match(StopFollowing.class, t -> {
+		return stateReceive().orElse(followStatsReceive()).orElse(ReceiveBuilder
+				.match(StopFollowing.class, t -> {
 			// do nothing
+		}).match(SendDemand.class, t -> {
+			sendInterpolatedPosition();
 		}).match(UpdatedEventData.class, t -> {
-			mcsStateActor.ifPresent(actorRef -> actorRef.tell(new AssemblyGetState(), self()));
-
-			log.info("Inside McsFollowActor followingReceive: az state is: " + az(currentState()) + ": el state is: "
-					+ el(currentState()));
-			if (az(currentState()).equals(azFollowing) && el(currentState()).equals(elFollowing)) {
-				log.info("Inside McsFollowActor followingReceive: Got an Update Event: " + t);
+			updatePosition(t);
+		}).match(SetElevation.class, t -> {
+			log.info("Inside McsFollowActor followingReceive: Got elevation: {}", t.elevation);
 
-				sendMcsPosition(t.azimuth, t.elevation);
+			updatePosition(new UpdatedEventData(initialAzimuth, t.elevation, new EventTime(Instant.now())));
+		}).match(SetAzimuth.class, t -> {
+			log.info("Inside McsFollowActor followingReceive: Got azimuth: {}", t.azimuth);
 
-				// Post a StatusEvent for telemetry updates
-				sendTelemetryUpdate(t.azimuth, t.elevation);
+			updatePosition(new UpdatedEventData(t.azimuth, initialElevation, new EventTime(Instant.now())));
+		}).matchAny(t -> log.warning("Inside McsFollowActor followingReceive: Unexpected message is: {}", t)).build());
+	}
 
-				context().become(followingReceive(t.azimuth, t.elevation));
+	/**
+	 * This handles a demand from the Event Subscriber or a setpoint. Time
+	 * tagged demands are interpolated, others are sent to the Control as is.
+	 * Setpoints are handled directly, as sent to self they would be conflated
+	 * with the demands waiting in the mailbox
+	 */
+	private void updatePosition(UpdatedEventData t) {
+		if (followingAllowed()) {
+			log.info("Inside McsFollowActor updatePosition: Got an Update Event: {}", t);
+
+			if (t.isTimeTagged()) {
+				// Sent to the Control on the next SendDemand tick
+				interpolator.add(localDemandTime(t.demandTime), jvalue(t.azimuth), jvalue(t.elevation));
+				pendingTrace = t.trace;
 			} else {
-				String errorMessage = "Assembly State " + az(currentState()) + "/" + el(currentState())
-						+ " does not allow moving Mcs";
-				log.error("Inside McsFollowActor followingReceive: Error Message is: " + errorMessage);
+				interpolator.clear();
+				sendMcsPosition(t.azimuth, t.elevation, t.trace, false);
 			}
-		}).match(SetElevation.class, t -> {
-			log.info("Inside McsFollowActor followingReceive: Got elevation: " + t.elevation);
 
-			self().tell(new UpdatedEventData(initialAzimuth, t.elevation, new EventTime(Instant.now())), self());
-			context().become(followingReceive(initialAzimuth, t.elevation));
-		}).match(SetAzimuth.class, t -> {
-			log.info("Inside McsFollowActor followingReceive: Got azimuth: " + t.azimuth);
+			// Post a StatusEvent for telemetry updates
+			sendTelemetryUpdate(t.azimuth, t.elevation);
 
-			self().tell(new UpdatedEventData(t.azimuth, initialElevation, new EventTime(Instant.now())), self());
-			context().become(followingReceive(t.azimuth, initialElevation));
-		}).matchAny(t -> log.warning("Inside McsFollowActor followingReceive: Unexpected message is: " + t)).build());
+			context().become(followingReceive(t.azimuth, t.elevation));
+		} else {
+			String errorMessage = "Assembly State " + az(currentState()) + "/" + el(currentState())
+					+ " does not allow moving Mcs";
+			log.error("Inside McsFollowActor updatePosition: Error Message is: {}", errorMessage);
+		}
+	}
+
+	/**
+	 * This sends the time tagged demands interpolated to now, as long as
+	 * following is allowed and the newest demand is not stale
+	 */
+	private void sendInterpolatedPosition() {
+		double now = demandClock();
+		if (followingAllowed() && isCurrent(interpolator, now)) {
+			sendMcsPosition(McsConfig.az(interpolator.valueAt(now, 0)), McsConfig.el(interpolator.valueAt(now, 1)),
+					pendingTrace, true);
+			pendingTrace = Optional.empty();
+		}
 	}
 
 	/**
@@ -109,11 +154,14 @@ public class McsFollowActor extends BaseFollowActor {
 	 * 
 	 * @param az
 	 * @param el
+	 * @param tracking
+	 *            true for interpolated demands, which the Control filters
 	 */
-	private void sendMcsPosition(DoubleItem az, DoubleItem el) {
-		log.debug(
-				"Inside McsFollowActor sendMcsPosition: to Actor: " + mcsControl + ": az is: " + az + ": el is: " + el);
-		mcsControl.ifPresent(actorRef -> actorRef.tell(new McsControl.GoToPosition(az, el), self()));
+	private void sendMcsPosition(DoubleItem az, DoubleItem el, Optional<DemandTrace> trace, boolean tracking) {
+		log.debug("Inside McsFollowActor sendMcsPosition: to Actor: {}: az is: {}: el is: {}", mcsControl, az, el);
+		Optional<DemandTrace> followed = trace.map(t -> t.mark(Stage.FOLLOW));
+		McsControl.GoToPosition position = new McsControl.GoToPosition(az, el, followed, tracking);
+		mcsControl.ifPresent(actorRef -> actorRef.tell(position, self()));
 	}
 
 	/**
@@ -123,7 +171,7 @@ public class McsFollowActor extends BaseFollowActor {
 	 * @param el
 	 */
 	private void sendTelemetryUpdate(DoubleItem az, DoubleItem el) {
-		log.debug("Inside McsFollowActor sendTelemetryUpdate: " + eventPublisher + ": az is: " + az + ": el is: " + el);
+		log.debug("Inside McsFollowActor sendTelemetryUpdate: {}: az is: {}: el is: {}", eventPublisher, az, el);
 		eventPublisher.ifPresent(actorRef -> actorRef.tell(new TelemetryUpdate(az, el), self()));
 	}
 
@@ -156,20 +204,58 @@ public class McsFollowActor extends BaseFollowActor {
 	interface FollowActorMessages {
 	}
 
-	public static class UpdatedEventData implements FollowActorMessages {
+	public static class UpdatedEventData implements FollowActorMessages, ConflatingMailbox.Conflatable {
 		public final DoubleItem azimuth;
 		public final DoubleItem elevation;
 		public final EventTime time;
 
+		/**
+		 * Latency trace of the TPK demand, not part of equality
+		 */
+		public final Optional<DemandTrace> trace;
+
+		/**
+		 * Target time of the demand in seconds since the epoch, NaN if the
+		 * demand is not time tagged. Not part of equality
+		 */
+		public final double demandTime;
+
 		public UpdatedEventData(DoubleItem azimuth, DoubleItem elevation, EventTime time) {
+			this(azimuth, elevation, time, Optional.empty());
+		}
+
+		public UpdatedEventData(DoubleItem azimuth, DoubleItem elevation, EventTime time, Optional<DemandTrace> trace) {
+			this(azimuth, elevation, time, Double.NaN, trace);
+		}
+
+		public UpdatedEventData(DoubleItem azimuth, DoubleItem elevation, EventTime time, double demandTime,
+				Optional<DemandTrace> trace) {
 			this.azimuth = azimuth;
 			this.elevation = elevation;
 			this.time = time;
+			this.demandTime = demandTime;
+			this.trace = trace;
+		}
+
+		/**
+		 * @return true if the demand is interpolated instead of sent as is
+		 */
+		public boolean isTimeTagged() {
+			return !Double.isNaN(demandTime);
+		}
+
+		/**
+		 * Only the newest demand waiting in the mailbox is processed
+		 */
+		@Override
+		public Object conflationKey() {
+			return UpdatedEventData.class;
 		}
 
 		@Override
 		public String toString() {
-			return "UpdatedEventData [azimuth=" + azimuth + ", elevation=" + elevation + ", time=" + time + "]";
+			return "UpdatedEventData [azimuth=" + azimuth + ", elevation=" + elevation + ", time=" + time
+					+ ", demandTime=" + demandTime + "]";
 		}
 
 		@Override
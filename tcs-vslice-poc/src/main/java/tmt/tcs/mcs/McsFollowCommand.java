@@ -16,6 +16,7 @@ import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseCommand;
+import tmt.tcs.common.ConflatingMailbox;
 import tmt.tcs.mcs.McsFollowActor.SetAzimuth;
 import tmt.tcs.mcs.McsFollowActor.SetElevation;
 import tmt.tcs.mcs.McsFollowActor.UpdatedEventData;
@@ -102,8 +103,10 @@ public class McsFollowCommand extends BaseCommand {
 			Optional<ActorRef> eventPublisher, Optional<ActorRef> telemetryPublisher,
 			Optional<ActorRef> mcsStateActor) {
 		log.debug("Inside McsFollowCommand createFollower: Creating Follower ");
-		return context().actorOf(McsFollowActor.props(assemblyContext, initialAzimuth, initialElevation,
-				Optional.of(mcsControl), eventPublisher, mcsStateActor), "follower");
+		Props props = McsFollowActor.props(assemblyContext, initialAzimuth, initialElevation,
+				Optional.of(mcsControl), eventPublisher, mcsStateActor);
+		// Only the newest demand matters to a follower, see ConflatingMailbox
+		return context().actorOf(props.withMailbox(ConflatingMailbox.mailboxId), "follower");
 	}
 
 	private ActorRef createEventSubscriber(ActorRef followActor, IEventService eventService) {
@@ -0,0 +1,119 @@
+package tmt.tcs.mcs.hcd;
+
+/**
+ * This class steps a single MCS axis towards its demanded position with a
+ * trapezoidal velocity profile. Positions are in degrees, velocities in degrees
+ * per second and the acceleration in degrees per second squared.
+ *
+ * Targets are clamped to the axis limits. Once the axis is within the in
+ * position tolerance of its target it is set exactly onto the target, so
+ * matchers comparing the reported position with the demand complete.
+ *
+ * A max velocity or acceleration of zero disables the profile and the axis
+ * jumps to its target on the next step
+ */
+public class McsAxisTrajectory {
+
+	private final double lowLimit;
+	private final double highLimit;
+	private final double maxVelocity;
+	private final double acceleration;
+	private final double inPositionTolerance;
+
+	private double position;
+	private double velocity = 0.0;
+	private double target;
+
+	public McsAxisTrajectory(double lowLimit, double highLimit, double maxVelocity, double acceleration,
+			double inPositionTolerance, double startPosition) {
+		this.lowLimit = lowLimit;
+		this.highLimit = highLimit;
+		this.maxVelocity = maxVelocity;
+		this.acceleration = acceleration;
+		this.inPositionTolerance = inPositionTolerance;
+		this.position = clamp(startPosition);
+		this.target = position;
+	}
+
+	/**
+	 * Sets a new demand, the demand is clamped to the axis limits
+	 *
+	 * @param demand
+	 * @return the target the axis moves to
+	 */
+	public double setTarget(double demand) {
+		target = clamp(demand);
+		return target;
+	}
+
+	/**
+	 * Advances the axis by one time step
+	 *
+	 * @param dtSeconds
+	 */
+	public void step(double dtSeconds) {
+		if (maxVelocity <= 0.0 || acceleration <= 0.0) {
+			arrive();
+			return;
+		}
+
+		double distance = target - position;
+		if (Math.abs(distance) <= inPositionTolerance && Math.abs(velocity) <= acceleration * dtSeconds) {
+			arrive();
+			return;
+		}
+
+		// Fastest velocity from which the axis can still stop on the target
+		// when braking in steps of dtSeconds
+		double maxChange = acceleration * dtSeconds;
+		double stopVelocity = maxChange
+				* (Math.sqrt(0.25 + 2.0 * Math.abs(distance) / (maxChange * dtSeconds)) - 0.5);
+		double desired = Math.signum(distance) * Math.min(maxVelocity, stopVelocity);
+		velocity += Math.max(-maxChange, Math.min(maxChange, desired - velocity));
+
+		double next = clamp(position + velocity * dtSeconds);
+		if (Math.signum(target - next) != Math.signum(distance)) {
+			// Would pass the target within this step
+			arrive();
+		} else {
+			position = next;
+			if (position == lowLimit || position == highLimit) {
+				velocity = 0.0;
+			}
+		}
+	}
+
+	private void arrive() {
+		position = target;
+		velocity = 0.0;
+	}
+
+	private double clamp(double value) {
+		return Math.max(lowLimit, Math.min(highLimit, value));
+	}
+
+	public boolean inPosition() {
+		return position == target && velocity == 0.0;
+	}
+
+	public double position() {
+		return position;
+	}
+
+	public double velocity() {
+		return velocity;
+	}
+
+	public double target() {
+		return target;
+	}
+
+	/**
+	 * @return the remaining distance between the target and the current
+	 *         position
+	 */
+	public double trackingError() {
+		return target - position;
+	}
+
+}
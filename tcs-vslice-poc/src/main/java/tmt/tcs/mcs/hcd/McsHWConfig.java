@@ -1,21 +1,32 @@
 package tmt.tcs.mcs.hcd;
 
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
 
+/**
+ * This class holds the simulated MCS hardware settings from the mcs-config
+ * block of mcsHcd.conf. Limits and positions are in degrees, velocities in
+ * degrees per second and the acceleration in degrees per second squared
+ */
 public class McsHWConfig {
 	String name;
-	int lowAzLimit;
-	int lowElLimit;
+	double lowAzLimit;
+	double lowElLimit;
 	int lowUser;
 	int highUser;
-	int highAzLimit;
-	int highElLimit;
-	int home;
-	int startPosition;
+	double highAzLimit;
+	double highElLimit;
+	double home;
+	double startPosition;
 	int stepDelayMS;
+	double maxAzVelocity;
+	double maxElVelocity;
+	double acceleration;
+	double inPositionTolerance;
 
-	public McsHWConfig(String name, int lowAzLimit, int lowElLimit, int lowUser, int highUser, int highAzLimit,
-			int highElLimit, int home, int startPosition, int stepDelayMS) {
+	public McsHWConfig(String name, double lowAzLimit, double lowElLimit, int lowUser, int highUser,
+			double highAzLimit, double highElLimit, double home, double startPosition, int stepDelayMS,
+			double maxAzVelocity, double maxElVelocity, double acceleration, double inPositionTolerance) {
 		this.name = name;
 		this.lowAzLimit = lowAzLimit;
 		this.lowElLimit = lowElLimit;
@@ -26,21 +37,56 @@ public class McsHWConfig {
 		this.home = home;
 		this.startPosition = startPosition;
 		this.stepDelayMS = stepDelayMS;
+		this.maxAzVelocity = maxAzVelocity;
+		this.maxElVelocity = maxElVelocity;
+		this.acceleration = acceleration;
+		this.inPositionTolerance = inPositionTolerance;
 	}
 
 	public McsHWConfig(Config config) {
 		// Main prefix for keys used below
 		String prefix = "tmt.tcs.mcs.hcd";
-		name = config.getString(prefix + ".mcs-config.axisName");
-		lowAzLimit = config.getInt(prefix + ".mcs-config.lowAzLimit");
-		lowElLimit = config.getInt(prefix + ".mcs-config.lowElLimit");
+		name = config.getString(prefix + ".mcs-config.name");
+		lowAzLimit = config.getDouble(prefix + ".mcs-config.lowAzLimit");
+		lowElLimit = config.getDouble(prefix + ".mcs-config.lowElLimit");
 		lowUser = config.getInt(prefix + ".mcs-config.lowUser");
 		highUser = config.getInt(prefix + ".mcs-config.highUser");
-		highAzLimit = config.getInt(prefix + ".mcs-config.highAzLimit");
-		highElLimit = config.getInt(prefix + ".mcs-config.highElLimit");
-		home = config.getInt(prefix + ".mcs-config.home");
-		startPosition = config.getInt(prefix + ".mcs-config.startPosition");
+		highAzLimit = config.getDouble(prefix + ".mcs-config.highAzLimit");
+		highElLimit = config.getDouble(prefix + ".mcs-config.highElLimit");
+		home = config.getDouble(prefix + ".mcs-config.home");
+		startPosition = config.getDouble(prefix + ".mcs-config.startPosition");
 		stepDelayMS = config.getInt(prefix + ".mcs-config.stepDelayMS");
+		maxAzVelocity = config.getDouble(prefix + ".mcs-config.maxAzVelocity");
+		maxElVelocity = config.getDouble(prefix + ".mcs-config.maxElVelocity");
+		acceleration = config.getDouble(prefix + ".mcs-config.acceleration");
+		inPositionTolerance = config.getDouble(prefix + ".mcs-config.inPositionTolerance");
+	}
+
+	/**
+	 * Reads the settings from a config file on the classpath, used until the
+	 * HCD gets them from the Config Service
+	 *
+	 * @param resource
+	 * @return
+	 */
+	public static McsHWConfig fromResource(String resource) {
+		return new McsHWConfig(ConfigFactory.parseResources(resource).resolve());
+	}
+
+	/**
+	 * @return an azimuth trajectory starting at the configured start position
+	 */
+	public McsAxisTrajectory azTrajectory() {
+		return new McsAxisTrajectory(lowAzLimit, highAzLimit, maxAzVelocity, acceleration, inPositionTolerance,
+				startPosition);
+	}
+
+	/**
+	 * @return an elevation trajectory starting at the configured start position
+	 */
+	public McsAxisTrajectory elTrajectory() {
+		return new McsAxisTrajectory(lowElLimit, highElLimit, maxElVelocity, acceleration, inPositionTolerance,
+				startPosition);
 	}
 
 }
@@ -18,6 +18,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import akka.actor.ActorRef;
+import akka.actor.Cancellable;
 import akka.actor.Props;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
@@ -32,8 +33,11 @@ import csw.util.config.StateVariable.CurrentState;
 import javacsw.services.cs.akka.JConfigServiceClient;
 import scala.PartialFunction;
 import scala.concurrent.duration.Duration;
+import scala.concurrent.duration.FiniteDuration;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.BaseHcd;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.DemandTrace.Stage;
 import tmt.tcs.mcs.McsConfig;
 import tmt.tcs.mcs.McsConfig.McsState;
 import tmt.tcs.mcs.hcd.McsSimulator.McsPosUpdate;
@@ -51,9 +55,15 @@ public class McsHcd extends BaseHcd {
 
 	ActorRef mcsSimulator;
 	McsPosUpdate current;
-	private static boolean publishDefaultEvent = true;
+	private boolean publishDefaultEvent = true;
+	// Trace of the last demand, sent back with the next CurrentState
+	private Optional<DemandTrace> pendingTrace = Optional.empty();
 
-	// McsHWConfig mcsHWConfig;
+	// The default CurrentState is published every rate until the first move
+	private final FiniteDuration defaultUpdateRate;
+	private Cancellable defaultUpdateTask;
+
+	McsHWConfig mcsHWConfig;
 
 	public static File mcsConfigFile = new File("mcs/hcd/mcsHcd.conf");
 	public static File resource = new File("mcsHcd.conf");
@@ -64,8 +74,10 @@ public class McsHcd extends BaseHcd {
 		log.debug("Inside McsHcd");
 
 		this.supervisor = supervisor;
+		this.defaultUpdateRate = info.rate();
 		// TODO: Giving Ask timeout exception, to be fixed
 		// this.mcsHWConfig = getMcsHWConfig().get();
+		this.mcsHWConfig = McsHWConfig.fromResource("hcd/" + resource.getName());
 		this.mcsSimulator = getSimulator();
 		this.current = new McsPosUpdate(McsState.MCS_IDLE, McsConfig.defaultAzValue, McsConfig.defaultElValue);
 
@@ -113,25 +125,42 @@ public class McsHcd extends BaseHcd {
 			sender().tell(current, self());
 		}).matchEquals(McsMessage.GetMcsDefaultUpdate, e -> {
 			log.debug("Inside McsHcd Received GetMcsDefaultUpdate: publishDefaultEvent is: " + publishDefaultEvent);
-			Thread.sleep(1000);
-			CurrentState mcsState = cs(McsConfig.currentPosPrefix, jset(mcsStateKey, Choice(current.state.toString())),
-					jset(McsConfig.azPosKey, current.azPosition), jset(McsConfig.elPosKey, current.elPosition));
-			notifySubscribers(mcsState);
+			if (defaultUpdateTask == null) {
+				defaultUpdateTask = context().system().scheduler().schedule(defaultUpdateRate, defaultUpdateRate,
+						self(), McsMessage.PublishMcsDefaultUpdate, context().dispatcher(), self());
+			}
+		}).matchEquals(McsMessage.PublishMcsDefaultUpdate, e -> {
+			notifySubscribers(currentState(current));
 			if (publishDefaultEvent) {
 				current.azPosition += McsConfig.defaultAzIncrementer;
 				current.elPosition += McsConfig.defaultElIncrementer;
-				self().tell(McsMessage.GetMcsDefaultUpdate, self());
+			} else {
+				stopDefaultUpdates();
 			}
 		}).match(McsPosUpdate.class, e -> {
 			log.debug("Inside McsHcd Received McsUpdate: " + e);
 			current = e;
-			CurrentState mcsState = cs(McsConfig.currentPosPrefix, jset(mcsStateKey, Choice(e.state.toString())),
-					jset(McsConfig.azPosKey, e.azPosition), jset(McsConfig.elPosKey, e.elPosition));
+			CurrentState mcsState = currentState(e);
+			mcsState = DemandTrace.addTo(mcsState, pendingTrace);
+			pendingTrace = Optional.empty();
 			log.debug("Inside McsHcd Sending CurrentState: " + mcsState);
 			notifySubscribers(mcsState);
 		}).matchAny(x -> log.warning("Inside McsHcd Unexpected message :unhandledPF: " + x)).build());
 	}
 
+	@Override
+	public void postStop() throws Exception {
+		stopDefaultUpdates();
+		super.postStop();
+	}
+
+	private void stopDefaultUpdates() {
+		if (defaultUpdateTask != null) {
+			defaultUpdateTask.cancel();
+			defaultUpdateTask = null;
+		}
+	}
+
 	/**
 	 * This method helps in receiving commands being sent to HCD Class and based
 	 * upon Config Key it performs command specific operation
@@ -142,6 +171,8 @@ public class McsHcd extends BaseHcd {
 
 		ConfigKey configKey = sc.configKey();
 
+		pendingTrace = DemandTrace.fromSetupConfig(sc).map(trace -> trace.mark(Stage.HCD));
+
 		if (configKey.equals(McsConfig.followCK)) {
 			log.debug("Inside McsHcd process received move command");
 			publishDefaultEvent = false;
@@ -155,13 +186,24 @@ public class McsHcd extends BaseHcd {
 		}
 	}
 
+	/**
+	 * Builds the CurrentState published for a position update of the simulator
+	 *
+	 * @param update
+	 * @return
+	 */
+	public static CurrentState currentState(McsPosUpdate update) {
+		return cs(McsConfig.currentPosPrefix, jset(mcsStateKey, Choice(update.state.toString())),
+				jset(McsConfig.azPosKey, update.azPosition), jset(McsConfig.elPosKey, update.elPosition));
+	}
+
 	/**
 	 * This helps in instantiating Simulator Class
 	 * 
 	 * @return
 	 */
 	private ActorRef getSimulator() {
-		return context().actorOf(McsSimulator.props(Optional.of(self())), "McsSimulator");
+		return context().actorOf(McsSimulator.props(Optional.of(self()), mcsHWConfig), "McsSimulator");
 	}
 
 	@SuppressWarnings("unused")
@@ -184,8 +226,17 @@ public class McsHcd extends BaseHcd {
 	}
 
 	public enum McsMessage {
+		/**
+		 * Starts publishing the default CurrentState every rate until the
+		 * first move
+		 */
 		GetMcsDefaultUpdate,
 
+		/**
+		 * Sent by the scheduler, publishes the default CurrentState once
+		 */
+		PublishMcsDefaultUpdate,
+
 		/**
 		 * Directly returns an McsPosUpdate to sender
 		 */
@@ -1,39 +1,70 @@
 package tmt.tcs.mcs.hcd;
 
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import akka.actor.AbstractActor;
 import akka.actor.ActorRef;
+import akka.actor.Cancellable;
 import akka.actor.Props;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import scala.PartialFunction;
+import scala.concurrent.duration.Duration;
+import scala.concurrent.duration.FiniteDuration;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.mcs.McsConfig.McsState;
 
 /**
  * This class simulates MCS move operation and send back current position to HCD
- * for publishing
+ * for publishing. Both axes are stepped towards the last demand every
+ * stepDelayMS, the position is reported on every step while moving and once
+ * more when the demand has been reached
  */
 public class McsSimulator extends AbstractActor {
 
 	LoggingAdapter log = Logging.getLogger(getContext().system(), this);
 
 	private final Optional<ActorRef> replyTo;
+	private final McsHWConfig hwConfig;
+	private final McsAxisTrajectory azAxis;
+	private final McsAxisTrajectory elAxis;
 	private McsState currentState = McsState.MCS_IDLE;
-	private Double currentAz;
-	private Double currentEl;
 
-	private McsSimulator(Optional<ActorRef> replyTo) {
+	private Cancellable stepTask;
+
+	// Tracking error statistics, sampled on every step while moving
+	private long trackingSamples = 0;
+	private double sumSqAzError = 0.0;
+	private double sumSqElError = 0.0;
+	private double maxAzError = 0.0;
+	private double maxElError = 0.0;
+
+	private McsSimulator(Optional<ActorRef> replyTo, McsHWConfig hwConfig) {
 		this.replyTo = replyTo;
-		this.currentAz = 0.0;
-		this.currentEl = 0.0;
+		this.hwConfig = hwConfig;
+		this.azAxis = hwConfig.azTrajectory();
+		this.elAxis = hwConfig.elTrajectory();
 
 		receive(idleReceive());
 	}
 
+	@Override
+	public void preStart() {
+		FiniteDuration stepDelay = FiniteDuration.create(hwConfig.stepDelayMS, TimeUnit.MILLISECONDS);
+		stepTask = context().system().scheduler().schedule(Duration.Zero(), stepDelay, self(),
+				SimulatorMessage.Step, context().dispatcher(), self());
+	}
+
+	@Override
+	public void postStop() {
+		if (stepTask != null) {
+			stepTask.cancel();
+		}
+	}
+
 	/**
 	 * This helps in receiving messages being send from HCD to Simulator
 	 * 
@@ -41,18 +72,52 @@ public class McsSimulator extends AbstractActor {
 	 */
 	PartialFunction<Object, BoxedUnit> idleReceive() {
 		return ReceiveBuilder.match(Move.class, e -> {
-			// Setting currentState to Moving while performing move operation
-			currentState = McsState.MCS_MOVING;
 			log.debug("Inside McsSimulator idleReceive Move received: az is: " + e.az + ": el is: " + e.el);
 
-			// TODO:: Move Operation to be performed here
+			// Setting currentState to Moving until both axes are in position
+			double az = azAxis.setTarget(e.az);
+			double el = elAxis.setTarget(e.el);
+			if (az != e.az || el != e.el) {
+				log.warning("Inside McsSimulator Move limited to az: " + az + ": el: " + el);
+			}
+			currentState = McsState.MCS_MOVING;
+		}).matchEquals(SimulatorMessage.Step, e -> {
+			if (currentState == McsState.MCS_MOVING) {
+				step();
+			}
+		}).matchEquals(SimulatorMessage.GetTrackingStats, e -> {
+			sender().tell(trackingStats(), self());
+		}).matchAny(x -> log.warning("Inside McsSimulator Unexpected message in idleReceive: " + x)).build();
+	}
 
-			currentAz = e.az;
-			currentEl = e.el;
+	/**
+	 * Advances both axes by one step and reports the new position
+	 */
+	private void step() {
+		double dtSeconds = hwConfig.stepDelayMS / 1000.0;
+		azAxis.step(dtSeconds);
+		elAxis.step(dtSeconds);
+
+		double azError = Math.abs(azAxis.trackingError());
+		double elError = Math.abs(elAxis.trackingError());
+		trackingSamples++;
+		sumSqAzError += azError * azError;
+		sumSqElError += elError * elError;
+		maxAzError = Math.max(maxAzError, azError);
+		maxElError = Math.max(maxElError, elError);
+
+		if (azAxis.inPosition() && elAxis.inPosition()) {
 			currentState = McsState.MCS_IDLE;
+		}
+		update(replyTo, getState());
+	}
 
-			update(replyTo, getState());
-		}).matchAny(x -> log.warning("Inside McsSimulator Unexpected message in idleReceive: " + x)).build();
+	private TrackingStats trackingStats() {
+		if (trackingSamples == 0) {
+			return new TrackingStats(0, 0.0, 0.0, 0.0, 0.0);
+		}
+		return new TrackingStats(trackingSamples, Math.sqrt(sumSqAzError / trackingSamples),
+				Math.sqrt(sumSqElError / trackingSamples), maxAzError, maxElError);
 	}
 
 	/**
@@ -72,16 +137,16 @@ public class McsSimulator extends AbstractActor {
 	 * @return
 	 */
 	McsPosUpdate getState() {
-		return new McsPosUpdate(currentState, currentAz, currentEl);
+		return new McsPosUpdate(currentState, azAxis.position(), elAxis.position());
 	}
 
-	public static Props props(final Optional<ActorRef> replyTo) {
+	public static Props props(final Optional<ActorRef> replyTo, final McsHWConfig hwConfig) {
 		return Props.create(new Creator<McsSimulator>() {
 			private static final long serialVersionUID = 1L;
 
 			@Override
 			public McsSimulator create() throws Exception {
-				return new McsSimulator(replyTo);
+				return new McsSimulator(replyTo, hwConfig);
 			}
 		});
 	}
@@ -114,4 +179,43 @@ public class McsSimulator extends AbstractActor {
 		}
 
 	}
+
+	public enum SimulatorMessage {
+		/**
+		 * Sent by the scheduler every stepDelayMS
+		 */
+		Step,
+
+		/**
+		 * Directly returns the TrackingStats to sender
+		 */
+		GetTrackingStats
+	}
+
+	/**
+	 * RMS and max distance in degrees between demand and position, sampled on
+	 * every step while moving
+	 */
+	public static class TrackingStats {
+		public final long samples;
+		public final double rmsAzError;
+		public final double rmsElError;
+		public final double maxAzError;
+		public final double maxElError;
+
+		public TrackingStats(long samples, double rmsAzError, double rmsElError, double maxAzError,
+				double maxElError) {
+			this.samples = samples;
+			this.rmsAzError = rmsAzError;
+			this.rmsElError = rmsElError;
+			this.maxAzError = maxAzError;
+			this.maxElError = maxElError;
+		}
+
+		@Override
+		public String toString() {
+			return "TrackingStats [samples=" + samples + ", rmsAzError=" + rmsAzError + ", rmsElError=" + rmsElError
+					+ ", maxAzError=" + maxAzError + ", maxElError=" + maxElError + "]";
+		}
+	}
 }
@@ -0,0 +1,106 @@
+package tmt.tcs.tpk;
+
+/**
+ * This class converts ECS azimuth and elevation demands generated by TPK into
+ * the base and cap angles of the enclosure. It is called from the TPK fast
+ * loop, the result of the last conversion is kept in base and cap so that no
+ * objects are allocated per tick. An instance must therefore only be used by
+ * one thread.
+ *
+ * The base rotates about the vertical axis. The cap rotates about an axis
+ * inclined by capInclination from the vertical, and the aperture is inclined
+ * by the same angle from the cap axis. At cap angle 0 the aperture points to
+ * the zenith, at 180 degrees it points 2 * capInclination below it. Then
+ *
+ * sin(el) = cos^2(ci) + sin^2(ci) * cos(cap)
+ *
+ * and the aperture azimuth trails the base by
+ *
+ * atan(sin(cap) / (cos(ci) * (1 - cos(cap))))
+ *
+ * Demands are in radians as generated by TPK, base and cap are in degrees.
+ * All trigonometric functions of the inclination are computed once
+ */
+public final class EcsCoordinateTransform {
+
+	/**
+	 * Inclination of the cap axis from the vertical, in radians
+	 */
+	public static final double capInclination = Math.toRadians(32.5);
+
+	private static final double PI2 = Math.PI * 2;
+	private static final double cosCi = Math.cos(capInclination);
+	private static final double cosCi2 = cosCi * cosCi;
+	private static final double sinCi2 = 1 - cosCi2;
+
+	/**
+	 * Base angle of the last conversion
+	 */
+	public double base;
+
+	/**
+	 * Cap angle of the last conversion
+	 */
+	public double cap;
+
+	/**
+	 * Converts eAz, eEl into base & cap coordinates, the result is stored in
+	 * base and cap. Elevations below the lowest the enclosure can reach are
+	 * converted to that lowest position
+	 *
+	 * @param ecsAz
+	 *            azimuth in radians
+	 * @param ecsEl
+	 *            elevation in radians
+	 */
+	public void toBaseCap(double ecsAz, double ecsEl) {
+		if ((ecsEl > PI2) || (ecsEl < 0))
+			ecsEl = 0;
+		if ((ecsAz > PI2) || (ecsAz < 0))
+			ecsAz = 0;
+
+		double cosCap = (Math.sin(ecsEl) - cosCi2) / sinCi2;
+		if (cosCap > 1)
+			cosCap = 1;
+		else if (cosCap < -1)
+			cosCap = -1;
+		double cap1 = Math.acos(cosCap);
+
+		// Zero at the zenith, where the aperture azimuth is undefined
+		double azShift = Math.atan2(Math.sin(cap1), cosCi * (1 - cosCap));
+
+		double base1 = ecsAz + azShift;
+		if (base1 >= PI2)
+			base1 -= PI2;
+
+		base = Math.toDegrees(base1);
+		cap = Math.toDegrees(cap1);
+	}
+
+	/**
+	 * Converts a series of demands, e.g. a precomputed trajectory, in one
+	 * call. Nothing is allocated, the output arrays may be reused between calls
+	 *
+	 * @param ecsAz
+	 *            azimuths in radians
+	 * @param ecsEl
+	 *            elevations in radians
+	 * @param baseOut
+	 *            receives the base angles in degrees
+	 * @param capOut
+	 *            receives the cap angles in degrees
+	 * @param length
+	 *            number of demands to convert, from index 0
+	 */
+	public void toBaseCap(double[] ecsAz, double[] ecsEl, double[] baseOut, double[] capOut, int length) {
+		if (length > ecsAz.length || length > ecsEl.length || length > baseOut.length || length > capOut.length) {
+			throw new IllegalArgumentException("length " + length + " exceeds an array");
+		}
+		for (int i = 0; i < length; i++) {
+			toBaseCap(ecsAz[i], ecsEl[i]);
+			baseOut[i] = base;
+			capOut[i] = cap;
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+package tmt.tcs.tpk;
+
+import java.util.Arrays;
+
+/**
+ * This is an immutable sequence of Ra, Dec offsets in arcseconds which TPK
+ * steps through, dwelling at every offset, e.g. to raster a field or to
+ * dither between exposures. Offsets are relative to the target, so a pattern
+ * applied twice visits the same positions
+ */
+public final class OffsetPattern {
+
+	public static final String grid = "grid";
+	public static final String spiral = "spiral";
+	public static final String list = "list";
+
+	private final double[] ra;
+	private final double[] dec;
+	private final double dwellSeconds;
+
+	private OffsetPattern(double[] ra, double[] dec, double dwellSeconds) {
+		if (ra.length == 0 || ra.length != dec.length) {
+			throw new IllegalArgumentException(
+					"Offset pattern needs the same non zero number of ra and dec offsets: " + ra.length + ", "
+							+ dec.length);
+		}
+		if (!(dwellSeconds > 0)) {
+			throw new IllegalArgumentException("Offset pattern dwell must be positive: " + dwellSeconds);
+		}
+		this.ra = ra;
+		this.dec = dec;
+		this.dwellSeconds = dwellSeconds;
+	}
+
+	/**
+	 * Raster of columns x rows offsets centred on the target. Rows are
+	 * traversed in alternating directions, so consecutive offsets are always
+	 * one step apart
+	 *
+	 * @param columns
+	 * @param rows
+	 * @param raStep
+	 *            arcseconds between columns
+	 * @param decStep
+	 *            arcseconds between rows
+	 * @param dwellSeconds
+	 * @return
+	 */
+	public static OffsetPattern grid(int columns, int rows, double raStep, double decStep, double dwellSeconds) {
+		if (columns < 1 || rows < 1) {
+			throw new IllegalArgumentException("Offset grid needs at least one column and row: " + columns + "x"
+					+ rows);
+		}
+		double[] ra = new double[columns * rows];
+		double[] dec = new double[columns * rows];
+		int i = 0;
+		for (int row = 0; row < rows; row++) {
+			for (int c = 0; c < columns; c++) {
+				int column = row % 2 == 0 ? c : columns - 1 - c;
+				ra[i] = (column - (columns - 1) / 2.0) * raStep;
+				dec[i] = (row - (rows - 1) / 2.0) * decStep;
+				i++;
+			}
+		}
+		return new OffsetPattern(ra, dec, dwellSeconds);
+	}
+
+	/**
+	 * Square spiral starting at the target and winding outwards, the usual
+	 * dither and acquisition search pattern
+	 *
+	 * @param points
+	 *            number of offsets including the target
+	 * @param step
+	 *            arcseconds between neighbouring offsets
+	 * @param dwellSeconds
+	 * @return
+	 */
+	public static OffsetPattern spiral(int points, double step, double dwellSeconds) {
+		if (points < 1) {
+			throw new IllegalArgumentException("Offset spiral needs at least one point: " + points);
+		}
+		double[] ra = new double[points];
+		double[] dec = new double[points];
+		int x = 0, y = 0, dx = 1, dy = 0;
+		int legLength = 1, legDone = 0, legs = 0;
+		for (int i = 0; i < points; i++) {
+			ra[i] = x * step;
+			dec[i] = y * step;
+			x += dx;
+			y += dy;
+			if (++legDone == legLength) {
+				// Turn left, the leg length grows every second turn
+				int turn = dx;
+				dx = -dy;
+				dy = turn;
+				legDone = 0;
+				if (++legs % 2 == 0) {
+					legLength++;
+				}
+			}
+		}
+		return new OffsetPattern(ra, dec, dwellSeconds);
+	}
+
+	/**
+	 * Explicit offsets, e.g. a dither sequence
+	 *
+	 * @param ra
+	 *            arcseconds
+	 * @param dec
+	 *            arcseconds
+	 * @param dwellSeconds
+	 * @return
+	 */
+	public static OffsetPattern list(double[] ra, double[] dec, double dwellSeconds) {
+		return new OffsetPattern(ra.clone(), dec.clone(), dwellSeconds);
+	}
+
+	public int size() {
+		return ra.length;
+	}
+
+	public double ra(int index) {
+		return ra[index];
+	}
+
+	public double dec(int index) {
+		return dec[index];
+	}
+
+	public double dwellSeconds() {
+		return dwellSeconds;
+	}
+
+	@Override
+	public String toString() {
+		return "OffsetPattern [ra=" + Arrays.toString(ra) + ", dec=" + Arrays.toString(dec) + ", dwellSeconds="
+				+ dwellSeconds + "]";
+	}
+
+}
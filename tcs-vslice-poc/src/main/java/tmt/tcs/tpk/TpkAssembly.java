@@ -12,12 +12,14 @@ import java.util.List;
 import java.util.Optional;
 
 import akka.actor.ActorRef;
+import akka.actor.OneForOneStrategy;
 import akka.actor.Props;
+import akka.actor.SupervisorStrategy;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
 import akka.japi.Creator;
+import akka.japi.pf.DeciderBuilder;
 import akka.japi.pf.ReceiveBuilder;
-import csw.services.ccs.SequentialExecutor;
 import csw.services.ccs.Validation;
 import csw.services.loc.LocationService.Location;
 import csw.services.loc.LocationService.ResolvedAkkaLocation;
@@ -37,7 +39,11 @@ import javacsw.services.events.IEventService;
 import javacsw.services.events.ITelemetryService;
 import javacsw.services.loc.JLocationSubscriberActor;
 import scala.PartialFunction;
+import scala.concurrent.duration.Duration;
 import scala.runtime.BoxedUnit;
+import tmt.tcs.common.LatencyTracker;
+import tmt.tcs.common.ParallelExecutor;
+import tmt.tcs.common.TcsLogger.Subsystem;
 
 /**
  * Top Level Actor for TPK Assembly
@@ -51,6 +57,15 @@ public class TpkAssembly extends JAssemblyController {
 
 	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
 
+	/**
+	 * An offset or offset pattern applies to the target of the follow config
+	 * before it, a switch to the next target to the targets queued before it
+	 */
+	private static final ParallelExecutor.Dependencies commandDependencies = ParallelExecutor.Dependencies.none
+			.after(TpkConfig.offsetPrefix, TpkConfig.followPrefix)
+			.after(TpkConfig.patternPrefix, TpkConfig.followPrefix, TpkConfig.offsetPrefix)
+			.after(TpkConfig.nextPrefix, TpkConfig.queuePrefix);
+
 	private final ActorRef supervisor;
 	private ActorRef commandHandler;
 
@@ -68,6 +83,18 @@ public class TpkAssembly extends JAssemblyController {
 		receive(initializingReceive());
 	}
 
+	/**
+	 * A failing child is resumed instead of restarted, a restarted command
+	 * handler would start a second TPK endpoint and lose its queued targets
+	 */
+	private static final SupervisorStrategy strategy = new OneForOneStrategy(-1, Duration.Inf(),
+			DeciderBuilder.match(Exception.class, e -> SupervisorStrategy.resume()).build());
+
+	@Override
+	public SupervisorStrategy supervisorStrategy() {
+		return strategy;
+	}
+
 	/**
 	 * Method for Initializing Command Handlers, Location Subscription etc at
 	 * Assembly initialization
@@ -77,11 +104,17 @@ public class TpkAssembly extends JAssemblyController {
 			ActorRef trackerSubscriber = context().actorOf(LocationSubscriberActor.props());
 			trackerSubscriber.tell(JLocationSubscriberActor.Subscribe, self());
 
+			// Demands travel from the TPK callback thread to the publisher
+			// through this preallocated ring
+			TpkDemandRing demandRing = new TpkDemandRing(TpkConfig.demandRingCapacity,
+					TpkConfig.demandRingPolicy);
+
 			// This actor handles all telemetry and system event publishing
-			ActorRef eventPublisher = context().actorOf(TpkEventPublisher.props(Optional.empty(), Optional.empty()));
+			ActorRef eventPublisher = context()
+					.actorOf(TpkEventPublisher.props(demandRing, Optional.empty(), Optional.empty()));
 
 			// Setup command handler for assembly
-			commandHandler = context().actorOf(TpkCommandHandler.props(Optional.of(eventPublisher)));
+			commandHandler = context().actorOf(TpkCommandHandler.props(demandRing, eventPublisher));
 
 			// This tracks required services
 			LocationSubscriberActor.trackConnection(IEventService.eventServiceConnection(), trackerSubscriber);
@@ -156,8 +189,20 @@ public class TpkAssembly extends JAssemblyController {
 	 * @return a partial function
 	 */
 	private PartialFunction<Object, BoxedUnit> runningReceive() {
-		return locationReceive().orElse(controllerReceive()).orElse(lifecycleReceivePF(supervisor))
-				.orElse(unhandledPF());
+		return locationReceive().orElse(latencyReceive()).orElse(controllerReceive())
+				.orElse(lifecycleReceivePF(supervisor)).orElse(unhandledPF());
+	}
+
+	/**
+	 * This answers LatencyTracker.GetLatencyReport with the TPK publishing
+	 * latencies
+	 *
+	 * @return a partial function
+	 */
+	private PartialFunction<Object, BoxedUnit> latencyReceive() {
+		return ReceiveBuilder.match(LatencyTracker.GetLatencyReport.class, t -> {
+			sender().tell(LatencyTracker.of(Subsystem.TPK).report(), self());
+		}).build();
 	}
 
 	/**
@@ -241,10 +286,12 @@ public class TpkAssembly extends JAssemblyController {
 	}
 
 	/**
-	 * This is a convenience method to create a new SequentialExecutor
+	 * This is a convenience method to create a new ParallelExecutor, new
+	 * target and offset configs wait only for the configs they depend on
 	 */
 	public ActorRef newExecutor(ActorRef commandHandler, SetupConfigArg sca, Optional<ActorRef> commandOriginator) {
-		return context().actorOf(SequentialExecutor.props(commandHandler, sca, commandOriginator));
+		return context().actorOf(
+				ParallelExecutor.props(commandHandler, sca, commandOriginator, commandDependencies));
 	}
 
 	public static Props props(Component.AssemblyInfo assemblyInfo, ActorRef supervisor) {
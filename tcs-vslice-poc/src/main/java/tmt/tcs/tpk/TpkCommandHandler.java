@@ -2,13 +2,18 @@ package tmt.tcs.tpk;
 
 import static javacsw.services.ccs.JCommandStatus.Completed;
 import static javacsw.util.config.JItems.jitem;
-import static javacsw.util.config.JItems.jset;
 import static javacsw.util.config.JItems.jvalue;
+import static javacsw.util.config.JItems.jvalues;
 import static scala.compat.java8.OptionConverters.toJava;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import akka.actor.ActorRef;
+import akka.actor.Cancellable;
 import akka.actor.Props;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
@@ -16,6 +21,7 @@ import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.ccs.CommandStatus.Invalid;
 import csw.services.ccs.SequentialExecutor.ExecuteOne;
+import csw.services.ccs.Validation.OtherIssue;
 import csw.services.ccs.Validation.UnsupportedCommandInStateIssue;
 import csw.services.loc.LocationService.Location;
 import csw.services.loc.LocationService.ResolvedAkkaLocation;
@@ -23,41 +29,80 @@ import csw.services.loc.LocationService.ResolvedTcpLocation;
 import csw.services.loc.LocationService.Unresolved;
 import csw.util.config.Configurations.ConfigKey;
 import csw.util.config.Configurations.SetupConfig;
-import csw.util.config.DoubleItem;
 import javacsw.services.events.IEventService;
 import scala.PartialFunction;
+import scala.concurrent.duration.Duration;
+import scala.concurrent.duration.FiniteDuration;
 import scala.runtime.BoxedUnit;
 import tmt.tcs.common.BaseCommandHandler;
-import tmt.tcs.ecs.EcsConfig;
-import tmt.tcs.m3.M3Config;
-import tmt.tcs.mcs.McsConfig;
-import tmt.tcs.tpk.TpkEventPublisher.EcsPosDemand;
-import tmt.tcs.tpk.TpkEventPublisher.M3PosDemand;
-import tmt.tcs.tpk.TpkEventPublisher.McsPosDemand;
+import tmt.tcs.tpk.TpkEventPublisher.PatternProgress;
 import tmt.tcs.tpk.wrapper.IDemandsCB;
 import tmt.tcs.tpk.wrapper.TpkPoc;
 
 /**
  * This is an actor class which receives commands forwarded by TCS Assembly
- * Makes call to TPK JNI Wrapper for demand generation and publish the same
- * using event publisher
+ * Makes call to TPK JNI Wrapper for demand generation and hands the demands
+ * over to the event publisher through a preallocated demand ring
+ *
+ * An offset pattern is stepped through here, in the same actor that owns the
+ * TPK endpoint: every dwell the next offset is handed to TPK and a progress
+ * event is published, without a command round trip per offset
+ *
+ * Targets can be queued ahead and are switched to with the next command, a
+ * switch only hands the queue head, checked when it was queued, to TPK
  */
 @SuppressWarnings("unused")
 public class TpkCommandHandler extends BaseCommandHandler {
 
 	private LoggingAdapter log = Logging.getLogger(getContext().system(), this);
 
-	private final Optional<ActorRef> eventPublisher;
+	private final TpkDemandRing demandRing;
+	private final ActorRef eventPublisher;
 
 	private Optional<IEventService> badEventService = Optional.empty();
 	private Optional<IEventService> eventService = badEventService;
 
 	private TpkWrapper tpkWrapper;
 
-	public TpkCommandHandler(Optional<ActorRef> eventPublisher) {
+	/**
+	 * Scheduled every dwell of a running offset pattern. Steps of a cancelled
+	 * pattern still queued in the mailbox are told apart by the pattern id
+	 */
+	private static final class PatternStep {
+		final long patternId;
+
+		PatternStep(long patternId) {
+			this.patternId = patternId;
+		}
+	}
+
+	/**
+	 * A target waiting in the queue
+	 */
+	private static final class QueuedTarget {
+		final String target;
+		final double ra;
+		final double dec;
+
+		QueuedTarget(String target, double ra, double dec) {
+			this.target = target;
+			this.ra = ra;
+			this.dec = dec;
+		}
+	}
+
+	private final Deque<QueuedTarget> targetQueue = new ArrayDeque<>();
+
+	private OffsetPattern pattern;
+	private Cancellable patternTask;
+	private long patternId = 0;
+	private int patternIndex;
+
+	public TpkCommandHandler(TpkDemandRing demandRing, ActorRef eventPublisher) {
 
 		log.debug("Inside TpkCommandHandler");
 
+		this.demandRing = demandRing;
 		this.eventPublisher = eventPublisher;
 
 		subscribeToLocationUpdates();
@@ -125,7 +170,8 @@ public class TpkCommandHandler extends BaseCommandHandler {
 	 */
 	private PartialFunction<Object, BoxedUnit> initReceive() {
 		return stateReceive()
-				.orElse(ReceiveBuilder.match(Location.class, this::handleLocations).match(ExecuteOne.class, t -> {
+				.orElse(ReceiveBuilder.match(Location.class, this::handleLocations)
+						.match(PatternStep.class, this::stepPattern).match(ExecuteOne.class, t -> {
 
 					SetupConfig sc = t.sc();
 					Optional<ActorRef> commandOriginator = toJava(t.commandOriginator());
@@ -144,6 +190,7 @@ public class TpkCommandHandler extends BaseCommandHandler {
 						log.debug("Inside TpkCommandHandler initReceive: configKey is: " + configKey);
 
 						// Call TPK Endpoint with New target coordinates
+						stopPattern();
 						tpkWrapper.newTarget(ra, dec);
 
 						commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
@@ -155,8 +202,66 @@ public class TpkCommandHandler extends BaseCommandHandler {
 						log.debug("Inside TpkCommandHandler initReceive: configKey is: " + configKey);
 
 						// Call TPK Endpoint with Offset coordinates
+						stopPattern();
 						tpkWrapper.offset(ra0, dec0);
 
+						commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+					} else if (TpkConfig.patternCK.equals(configKey)) {
+
+						OffsetPattern newPattern;
+						try {
+							newPattern = offsetPattern(sc, minDwellSeconds());
+						} catch (RuntimeException e) {
+							log.error("Inside TpkCommandHandler initReceive: invalid offset pattern: " + sc + ": " + e);
+							Invalid invalid = new Invalid(new OtherIssue("Invalid offset pattern: " + e.getMessage()));
+							commandOriginator.ifPresent(actorRef -> actorRef.tell(invalid, self()));
+							return;
+						}
+
+						// Completed once started, progress is reported by events
+						startPattern(newPattern);
+
+						commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+					} else if (TpkConfig.queueCK.equals(configKey)) {
+
+						if (!sc.exists(TpkConfig.target) || !sc.exists(TpkConfig.ra) || !sc.exists(TpkConfig.dec)) {
+							Invalid invalid = new Invalid(new OtherIssue("Queued targets need a target, ra and dec"));
+							commandOriginator.ifPresent(actorRef -> actorRef.tell(invalid, self()));
+							return;
+						}
+
+						List<String> targets = jvalues(jitem(sc, TpkConfig.target));
+						List<Double> ras = jvalues(jitem(sc, TpkConfig.ra));
+						List<Double> decs = jvalues(jitem(sc, TpkConfig.dec));
+
+						if (targets.size() != ras.size() || targets.size() != decs.size()) {
+							Invalid invalid = new Invalid(new OtherIssue("Queued targets need one ra and dec each"));
+							commandOriginator.ifPresent(actorRef -> actorRef.tell(invalid, self()));
+							return;
+						}
+
+						for (int i = 0; i < targets.size(); i++) {
+							targetQueue.addLast(new QueuedTarget(targets.get(i), ras.get(i), decs.get(i)));
+						}
+						log.info("Inside TpkCommandHandler initReceive: " + targets.size() + " targets queued, "
+								+ targetQueue.size() + " in queue");
+
+						commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
+					} else if (TpkConfig.nextCK.equals(configKey)) {
+
+						QueuedTarget next = targetQueue.pollFirst();
+						if (next == null) {
+							Invalid invalid = new Invalid(new OtherIssue("Tpk target queue is empty"));
+							commandOriginator.ifPresent(actorRef -> actorRef.tell(invalid, self()));
+							return;
+						}
+
+						// Call TPK Endpoint with the queued target coordinates
+						stopPattern();
+						tpkWrapper.newTarget(next.ra, next.dec);
+						log.info("Inside TpkCommandHandler initReceive: switched to " + next.target + ", "
+								+ targetQueue.size() + " left in queue");
+
 						commandOriginator.ifPresent(actorRef -> actorRef.tell(Completed, self()));
 					} else {
 						log.error("Inside TpkCommandHandler initReceive: Received an unknown command: " + t + " from "
@@ -174,60 +279,128 @@ public class TpkCommandHandler extends BaseCommandHandler {
 	}
 
 	/**
-	 * This helps in publishing MCS specific Az and El being generated by TPK as
-	 * Demand
+	 * Builds the offset pattern described by a TpkConfig.patternCK config
 	 * 
-	 * @param configKey
-	 * @param azItem
-	 * @param elItem
-	 * @param eventPublisher
+	 * @param sc
+	 * @param minDwell
+	 *            shortest dwell in seconds the scheduler can step at
+	 * @return
 	 */
-	public void publishMcsPosDemand(ConfigKey configKey, DoubleItem azItem, DoubleItem elItem,
-			Optional<ActorRef> eventPublisher) {
-		log.debug("Inside TpkCommandHandler publishMcsPosDemand publish demand: azItem is: " + azItem + ": elItem is: "
-				+ elItem);
-		eventPublisher.ifPresent(actorRef -> actorRef.tell(new McsPosDemand(configKey, azItem, elItem), self()));
+	private static OffsetPattern offsetPattern(SetupConfig sc, double minDwell) {
+		String type = jvalue(jitem(sc, TpkConfig.patternType));
+		double dwell = jvalue(jitem(sc, TpkConfig.patternDwell));
+		if (dwell < minDwell) {
+			throw new IllegalArgumentException("Offset pattern dwell " + dwell + " is shorter than the scheduler tick "
+					+ minDwell);
+		}
+
+		if (OffsetPattern.grid.equals(type)) {
+			// A single count or step applies to both axes
+			List<Integer> count = jvalues(jitem(sc, TpkConfig.patternCount));
+			List<Double> step = jvalues(jitem(sc, TpkConfig.patternStep));
+			return OffsetPattern.grid(count.get(0), count.get(count.size() - 1), step.get(0),
+					step.get(step.size() - 1), dwell);
+		} else if (OffsetPattern.spiral.equals(type)) {
+			int points = jvalue(jitem(sc, TpkConfig.patternCount));
+			double step = jvalue(jitem(sc, TpkConfig.patternStep));
+			return OffsetPattern.spiral(points, step, dwell);
+		} else if (OffsetPattern.list.equals(type)) {
+			List<Double> ra = jvalues(jitem(sc, TpkConfig.ra));
+			List<Double> dec = jvalues(jitem(sc, TpkConfig.dec));
+			return OffsetPattern.list(ra.stream().mapToDouble(Double::doubleValue).toArray(),
+					dec.stream().mapToDouble(Double::doubleValue).toArray(), dwell);
+		}
+		throw new IllegalArgumentException("Unknown offset pattern type: " + type);
 	}
 
 	/**
-	 * This helps in publishing ECS specific Az and El being generated by TPK as
-	 * Demand
+	 * @return the scheduler tick in seconds, dwells are rounded to it
+	 */
+	private double minDwellSeconds() {
+		return 1.0 / context().system().scheduler().maxFrequency();
+	}
+
+	/**
+	 * Replaces a running pattern, the first offset is applied right away
+	 * 
+	 * @param newPattern
+	 */
+	private void startPattern(OffsetPattern newPattern) {
+		stopPattern();
+		log.info("Inside TpkCommandHandler startPattern: " + newPattern);
+
+		pattern = newPattern;
+		patternIndex = 0;
+		FiniteDuration dwell = FiniteDuration.create(Math.round(newPattern.dwellSeconds() * 1000000),
+				TimeUnit.MICROSECONDS);
+		patternTask = context().system().scheduler().schedule(Duration.Zero(), dwell, self(),
+				new PatternStep(++patternId), context().dispatcher(), self());
+	}
+
+	/**
+	 * Cancels a running pattern, the current offset is kept
+	 */
+	private void stopPattern() {
+		if (patternTask != null) {
+			log.info("Inside TpkCommandHandler stopPattern: stopped at offset " + patternIndex + " of "
+					+ pattern.size());
+			patternTask.cancel();
+			patternTask = null;
+			pattern = null;
+		}
+	}
+
+	/**
+	 * Applies the next offset of the pattern, or ends the pattern once the
+	 * last offset has been dwelt at
 	 * 
-	 * @param configKey
-	 * @param azItem
-	 * @param elItem
-	 * @param eventPublisher
+	 * @param step
 	 */
-	public void publishEcsPosDemand(ConfigKey configKey, DoubleItem azItem, DoubleItem elItem,
-			Optional<ActorRef> eventPublisher) {
-		log.debug("Inside TpkCommandHandler publishEcsPosDemand publish demand: azItem is: " + azItem + ": elItem is: "
-				+ elItem);
-		eventPublisher.ifPresent(actorRef -> actorRef.tell(new EcsPosDemand(configKey, azItem, elItem), self()));
+	private void stepPattern(PatternStep step) {
+		if (patternTask == null || step.patternId != patternId) {
+			return;
+		}
+		if (patternIndex == pattern.size()) {
+			int last = pattern.size() - 1;
+			publishPatternProgress(pattern.size(), pattern.ra(last), pattern.dec(last));
+			log.info("Inside TpkCommandHandler stepPattern: pattern done after " + pattern.size() + " offsets");
+			patternTask.cancel();
+			patternTask = null;
+			pattern = null;
+			return;
+		}
+		double ra = pattern.ra(patternIndex);
+		double dec = pattern.dec(patternIndex);
+		tpkWrapper.offset(ra, dec);
+		publishPatternProgress(patternIndex, ra, dec);
+		patternIndex++;
 	}
 
 	/**
-	 * This helps in publishing M3 specific Rotation and Tilt being generated by
-	 * TPK as Demand
+	 * Publishes the index of the offset just applied together with its Ra,
+	 * Dec through the event publisher, an index equal to the pattern size
+	 * means the pattern is done
 	 * 
-	 * @param configKey
-	 * @param rotationItem
-	 * @param tiltItem
-	 * @param eventPublisher
+	 * @param index
+	 * @param ra
+	 * @param dec
 	 */
-	public void publishM3PosDemand(ConfigKey configKey, DoubleItem rotationItem, DoubleItem tiltItem,
-			Optional<ActorRef> eventPublisher) {
-		log.debug("Inside TpkCommandHandler publishM3PosDemand publish demand: rotationItem is: " + rotationItem
-				+ ": tiltItem is: " + tiltItem);
-		eventPublisher.ifPresent(actorRef -> actorRef.tell(new M3PosDemand(configKey, rotationItem, tiltItem), self()));
+	private void publishPatternProgress(int index, double ra, double dec) {
+		eventPublisher.tell(new PatternProgress(index, pattern.size(), ra, dec), self());
 	}
 
-	public static Props props(Optional<ActorRef> eventPublisher) {
+	@Override
+	public void postStop() {
+		stopPattern();
+	}
+
+	public static Props props(TpkDemandRing demandRing, ActorRef eventPublisher) {
 		return Props.create(new Creator<TpkCommandHandler>() {
 			private static final long serialVersionUID = 1L;
 
 			@Override
 			public TpkCommandHandler create() throws Exception {
-				return new TpkCommandHandler(eventPublisher);
+				return new TpkCommandHandler(demandRing, eventPublisher);
 			}
 		});
 	}
@@ -242,8 +415,9 @@ public class TpkCommandHandler extends BaseCommandHandler {
 
 		private TpkPoc tpkEndpoint;
 
-		private boolean publishDemands = false;
-		private ConfigKey configKey = null;
+		// Written by the actor, read by the TPK callback thread. Null until a
+		// New target or Offset command has been received
+		private volatile ConfigKey demandKey = null;
 
 		/**
 		 * Callback which is register with the C++ code and call from the fast
@@ -252,71 +426,24 @@ public class TpkCommandHandler extends BaseCommandHandler {
 		 */
 		public class DemandsCallback extends IDemandsCB {
 
-			double ci = 32.5;
-			double ciz = 90 - ci;
-			double phir = Math.PI * ci / 180;
-			double tci = Math.tan(ci);
-			double cci = Math.cos(ci);
-			double PI2 = Math.PI * 2;
+			private final EcsCoordinateTransform ecsTransform = new EcsCoordinateTransform();
 
 			public void newDemands(double mcsAz, double mcsEl, double ecsAz, double ecsEl, double m3Rotation,
 					double m3Tilt) {
 
 				// Convert eAz, eEl into base & cap coordinates
-				double azShift, base1, cap1, base2, cap2;
-				if ((ecsEl > PI2) || (ecsEl < 0))
-					ecsEl = 0;
-				if ((ecsAz > PI2) || (ecsAz < 0))
-					ecsAz = 0;
-
-				cap1 = Math.acos(Math.tan(ecsEl - ciz) / tci);
-				cap2 = PI2 - cap1;
-
-				if (ecsEl == PI2)
-					azShift = 0;
-				else
-					azShift = Math.atan(Math.sin(cap1) / cci * (1 - Math.cos(cap1)));
-
-				if ((ecsAz + azShift) > PI2)
-					base1 = (ecsAz + azShift) - PI2;
-				else
-					base1 = ecsAz + azShift;
-
-				if (ecsAz < azShift)
-					base2 = PI2 + ecsAz - azShift;
-				else
-					base2 = ecsAz - azShift;
-
-				base1 = 180 * base1 / Math.PI;
-				cap1 = 180 * cap1 / Math.PI;
+				ecsTransform.toBaseCap(ecsAz, ecsEl);
 
 				// Below condition will help in preventing TPK Default Demands
 				// from getting published and Demand Publishing will start only
-				// once New target or Offset Command is being received
-				if (publishDemands) {
-					// System.out.printf("%.2f, %.2f, %.2f, %.2f, %.2f, %.2f\n",
-					// mAz, mEl, base1, cap1, m3R, m3T);
-
-					if (TpkConfig.positionDemandCK.equals(configKey)) {
-						DoubleItem mcsAzItem = jset(McsConfig.azDemandKey, mcsAz);
-						DoubleItem mcsElItem = jset(McsConfig.elDemandKey, mcsEl);
-						DoubleItem ecsAzItem = jset(EcsConfig.azDemandKey, base1);
-						DoubleItem ecsElItem = jset(EcsConfig.elDemandKey, cap1);
-						DoubleItem m3RotationItem = jset(M3Config.rotationDemandKey, m3Rotation);
-						DoubleItem m3TiltItem = jset(M3Config.tiltDemandKey, m3Tilt);
-
-						publishMcsPosDemand(McsConfig.positionDemandCK, mcsAzItem, mcsElItem, eventPublisher);
-
-						publishEcsPosDemand(EcsConfig.positionDemandCK, ecsAzItem, ecsElItem, eventPublisher);
-
-						publishM3PosDemand(M3Config.positionDemandCK, m3RotationItem, m3TiltItem, eventPublisher);
-					} else if (TpkConfig.offsetDemandCK.equals(configKey)) {
-						DoubleItem mcsAzItem = jset(McsConfig.azDemandKey, mcsAz);
-						DoubleItem mcsElItem = jset(McsConfig.elDemandKey, mcsEl);
-
-						publishMcsPosDemand(McsConfig.offsetDemandCK, mcsAzItem, mcsElItem, eventPublisher);
-
-					}
+				// once New target or Offset Command is being received.
+				// This runs on the native TPK thread: it reads no actor state
+				// other than the volatile demandKey and only copies the
+				// demands into a ring slot, it never blocks
+				ConfigKey key = demandKey;
+				if (key != null) {
+					demandRing.offer(key, mcsAz, mcsEl, ecsTransform.base, ecsTransform.cap, m3Rotation, m3Tilt,
+							System.nanoTime());
 				}
 			}
 		}
@@ -341,9 +468,8 @@ public class TpkCommandHandler extends BaseCommandHandler {
 		 * @param dec
 		 */
 		void newTarget(double ra, double dec) {
-			publishDemands = true;
-			configKey = TpkConfig.positionDemandCK;
-			log.debug("Inside TpkCommandHandler TpkWrapper: newTarget: configKey is: " + configKey);
+			demandKey = TpkConfig.positionDemandCK;
+			log.debug("Inside TpkCommandHandler TpkWrapper: newTarget: configKey is: " + demandKey);
 			tpkEndpoint.newTarget(ra, dec);
 		}
 
@@ -354,9 +480,8 @@ public class TpkCommandHandler extends BaseCommandHandler {
 		 * @param decO
 		 */
 		void offset(double raO, double decO) {
-			publishDemands = true;
-			configKey = TpkConfig.offsetDemandCK;
-			log.debug("Inside TpkCommandHandler TpkWrapper: offset: configKey is: " + configKey);
+			demandKey = TpkConfig.offsetDemandCK;
+			log.debug("Inside TpkCommandHandler TpkWrapper: offset: configKey is: " + demandKey);
 			tpkEndpoint.offset(raO, decO);
 		}
 
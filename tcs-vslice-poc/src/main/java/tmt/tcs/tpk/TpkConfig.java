@@ -2,7 +2,10 @@ package tmt.tcs.tpk;
 
 import csw.util.config.Configurations.ConfigKey;
 import csw.util.config.DoubleKey;
+import csw.util.config.IntKey;
+import csw.util.config.LongKey;
 import csw.util.config.StringKey;
+import tmt.tcs.common.DemandFrame;
 
 /**
  * This class contains all the configurations specific to TPK Assembly
@@ -12,17 +15,57 @@ public class TpkConfig {
 	public static final String tpkPrefix = "tcs.tpk";
 	public static final String followPrefix = tpkPrefix + ".follow";
 	public static final String offsetPrefix = tpkPrefix + ".offset";
+	public static final String patternPrefix = tpkPrefix + ".pattern";
+	public static final String patternProgressPrefix = tpkPrefix + ".patternprogress";
+	public static final String queuePrefix = tpkPrefix + ".queue";
+	public static final String nextPrefix = tpkPrefix + ".next";
 	public static final String positionDemandPrefix = tpkPrefix + ".positiondemands";
 	public static final String offsetDemandPrefix = tpkPrefix + ".offsetdemands";
+	public static final String demandFramePrefix = DemandFrame.demandFramePrefix;
 
 	public static final ConfigKey followCK = new ConfigKey(followPrefix);
 	public static final ConfigKey offsetCK = new ConfigKey(offsetPrefix);
+	public static final ConfigKey patternCK = new ConfigKey(patternPrefix);
+	public static final ConfigKey patternProgressCK = new ConfigKey(patternProgressPrefix);
+	public static final ConfigKey queueCK = new ConfigKey(queuePrefix);
+	public static final ConfigKey nextCK = new ConfigKey(nextPrefix);
 	public static final ConfigKey positionDemandCK = new ConfigKey(positionDemandPrefix);
 	public static final ConfigKey offsetDemandCK = new ConfigKey(offsetDemandPrefix);
+	public static final ConfigKey demandFrameCK = DemandFrame.demandFrameCK;
 
 	public static final StringKey target = new StringKey("tcs.tpk.target");
 	public static final DoubleKey ra = new DoubleKey("tcs.tpk.ra");
 	public static final DoubleKey dec = new DoubleKey("tcs.tpk.dec");
 	public static final StringKey frame = new StringKey("tcs.tpk.frame");
 
+	// Offset pattern: OffsetPattern.grid, spiral or list. A list pattern takes
+	// its offsets from the ra and dec values
+	public static final StringKey patternType = new StringKey("tcs.tpk.pattern.type");
+	// Grid: columns and rows, spiral: number of points
+	public static final IntKey patternCount = new IntKey("tcs.tpk.pattern.count");
+	// Grid: ra and dec step, spiral: step, in arcseconds
+	public static final DoubleKey patternStep = new DoubleKey("tcs.tpk.pattern.step");
+	// Seconds spent at every offset
+	public static final DoubleKey patternDwell = new DoubleKey("tcs.tpk.pattern.dwell");
+	// Progress event: index of the current offset, equals the pattern size
+	// once the pattern is done
+	public static final IntKey patternIndex = new IntKey("tcs.tpk.pattern.index");
+	public static final IntKey patternSize = new IntKey("tcs.tpk.pattern.size");
+
+	// Sequence number of the TPK tick a demand event belongs to
+	public static final LongKey frameSeqKey = DemandFrame.frameSeqKey;
+
+	// When true one tick's MCS, ECS and M3 position demands are published as a
+	// single demand frame event instead of three separate events
+	public static final boolean publishDemandFrames = true;
+
+	// Number of preallocated demand slots between TPK callback and publisher
+	public static final int demandRingCapacity = 256;
+
+	// A tracking loop only cares about the latest demands
+	public static final TpkDemandRing.OverflowPolicy demandRingPolicy = TpkDemandRing.OverflowPolicy.OVERWRITE_OLDEST;
+
+	// Maximum demands published per drain before yielding to other messages
+	public static final int demandDrainBatch = 32;
+
 }
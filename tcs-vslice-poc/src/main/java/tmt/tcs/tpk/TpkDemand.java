@@ -0,0 +1,68 @@
+package tmt.tcs.tpk;
+
+import csw.util.config.Configurations.ConfigKey;
+import tmt.tcs.common.DemandTrace;
+
+/**
+ * This is a mutable, primitive only record of one set of demands generated by
+ * the TPK fast loop. Instances are preallocated inside TpkDemandRing and
+ * reused, so that the TPK callback thread does not allocate any objects per
+ * tick. Conversion into CSW items and events is done later by
+ * TpkEventPublisher
+ */
+public final class TpkDemand {
+
+	/**
+	 * TpkConfig.positionDemandCK or TpkConfig.offsetDemandCK
+	 */
+	public ConfigKey configKey;
+
+	public double mcsAz;
+	public double mcsEl;
+	public double ecsBase;
+	public double ecsCap;
+	public double m3Rotation;
+	public double m3Tilt;
+
+	/**
+	 * System.nanoTime() at which the demands were received from TPK
+	 */
+	public long timestamp;
+
+	public void set(ConfigKey configKey, double mcsAz, double mcsEl, double ecsBase, double ecsCap,
+			double m3Rotation, double m3Tilt, long timestamp) {
+		this.configKey = configKey;
+		this.mcsAz = mcsAz;
+		this.mcsEl = mcsEl;
+		this.ecsBase = ecsBase;
+		this.ecsCap = ecsCap;
+		this.m3Rotation = m3Rotation;
+		this.m3Tilt = m3Tilt;
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * The TPK callback does not pass the time its demands were computed for,
+	 * so demands are tagged with the time they were received from TPK, on the
+	 * clock of this JVM. Followers put the tags on their own clock, see
+	 * DemandClockOffset
+	 *
+	 * @return generation time of the demands in seconds since the epoch
+	 */
+	public double generationTime() {
+		return DemandTrace.fromNanoTime(timestamp) / 1e9;
+	}
+
+	public void copyFrom(TpkDemand other) {
+		set(other.configKey, other.mcsAz, other.mcsEl, other.ecsBase, other.ecsCap, other.m3Rotation,
+				other.m3Tilt, other.timestamp);
+	}
+
+	@Override
+	public String toString() {
+		return "TpkDemand [configKey=" + configKey + ", mcsAz=" + mcsAz + ", mcsEl=" + mcsEl + ", ecsBase=" + ecsBase
+				+ ", ecsCap=" + ecsCap + ", m3Rotation=" + m3Rotation + ", m3Tilt=" + m3Tilt + ", timestamp="
+				+ timestamp + "]";
+	}
+
+}
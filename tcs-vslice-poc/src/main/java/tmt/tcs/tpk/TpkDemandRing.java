@@ -0,0 +1,174 @@
+package tmt.tcs.tpk;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import csw.util.config.Configurations.ConfigKey;
+
+/**
+ * This is a fixed size, single producer / single consumer lock-free ring of
+ * preallocated TpkDemand records. It hands demands over from the TPK callback
+ * thread (producer) to TpkEventPublisher (consumer). Neither side allocates,
+ * locks or blocks.
+ *
+ * When the ring is full the producer either discards the new demand
+ * (DROP_NEWEST) or evicts the oldest unread demand (OVERWRITE_OLDEST). For
+ * eviction the producer advances the read position with a CAS, and the
+ * consumer only accepts a copied slot if its own CAS on the read position
+ * succeeds, so a slot overwritten while being copied is never delivered.
+ *
+ * Instead of polling on a timer the consumer can register a wakeup, which the
+ * producer runs once after the ring became non-empty. The consumer calls
+ * rearm() before it drains, a demand offered after that runs the wakeup again,
+ * so no demand is left in the ring without a pending wakeup
+ */
+public class TpkDemandRing {
+
+	public enum OverflowPolicy {
+		DROP_NEWEST, OVERWRITE_OLDEST
+	}
+
+	private final TpkDemand[] slots;
+	private final int mask;
+	private final OverflowPolicy policy;
+
+	// Next sequence to be written, only advanced by the producer
+	private final AtomicLong head = new AtomicLong();
+	// Next sequence to be read, advanced by the consumer and on eviction by
+	// the producer
+	private final AtomicLong tail = new AtomicLong();
+
+	// Counters below are only written by the producer
+	private final AtomicLong offered = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong overwritten = new AtomicLong();
+
+	// Set by the producer when it runs the wakeup, cleared by rearm()
+	private final AtomicBoolean wakeupPending = new AtomicBoolean();
+	private volatile Runnable wakeup;
+
+	public TpkDemandRing(int capacity) {
+		this(capacity, OverflowPolicy.OVERWRITE_OLDEST);
+	}
+
+	/**
+	 * @param capacity
+	 *            number of slots, rounded up to the next power of two
+	 * @param policy
+	 *            what to do with a new demand when the ring is full
+	 */
+	public TpkDemandRing(int capacity, OverflowPolicy policy) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		this.slots = new TpkDemand[size];
+		this.mask = size - 1;
+		this.policy = policy;
+		for (int i = 0; i < size; i++) {
+			slots[i] = new TpkDemand();
+		}
+	}
+
+	/**
+	 * Called from the TPK callback thread only
+	 *
+	 * @return false if the ring was full and the new demand was dropped
+	 */
+	public boolean offer(ConfigKey configKey, double mcsAz, double mcsEl, double ecsBase, double ecsCap,
+			double m3Rotation, double m3Tilt, long timestamp) {
+		offered.lazySet(offered.get() + 1);
+
+		long h = head.get();
+		long t = tail.get();
+		if (h - t >= slots.length) {
+			if (policy == OverflowPolicy.DROP_NEWEST) {
+				dropped.lazySet(dropped.get() + 1);
+				return false;
+			}
+			// If the CAS fails the consumer has just freed a slot itself
+			if (tail.compareAndSet(t, t + 1)) {
+				overwritten.lazySet(overwritten.get() + 1);
+			}
+		}
+		slots[(int) h & mask].set(configKey, mcsAz, mcsEl, ecsBase, ecsCap, m3Rotation, m3Tilt, timestamp);
+		head.lazySet(h + 1);
+
+		Runnable w = wakeup;
+		if (w != null && !wakeupPending.get() && wakeupPending.compareAndSet(false, true)) {
+			w.run();
+		}
+		return true;
+	}
+
+	/**
+	 * Registers the consumer's wakeup, it is run on the producer thread so it
+	 * must not block, e.g. tell a message to the consumer actor
+	 *
+	 * @param wakeup
+	 *            null to remove the wakeup
+	 */
+	public void setWakeup(Runnable wakeup) {
+		this.wakeup = wakeup;
+		wakeupPending.set(false);
+	}
+
+	/**
+	 * Called from the consuming actor before it drains the ring, so the next
+	 * demand offered runs the wakeup again
+	 */
+	public void rearm() {
+		wakeupPending.set(false);
+	}
+
+	/**
+	 * Called from the consuming actor only. Copies the oldest demand into the
+	 * supplied record
+	 *
+	 * @return false if the ring was empty
+	 */
+	public boolean poll(TpkDemand into) {
+		for (;;) {
+			long t = tail.get();
+			if (t >= head.get()) {
+				return false;
+			}
+			into.copyFrom(slots[(int) t & mask]);
+			if (tail.compareAndSet(t, t + 1)) {
+				return true;
+			}
+			// The producer evicted this slot while it was being copied
+		}
+	}
+
+	public int capacity() {
+		return slots.length;
+	}
+
+	public int size() {
+		return (int) Math.max(0, head.get() - tail.get());
+	}
+
+	public OverflowPolicy policy() {
+		return policy;
+	}
+
+	/**
+	 * @return number of demands handed to the ring by the producer
+	 */
+	public long offeredCount() {
+		return offered.get();
+	}
+
+	/**
+	 * @return number of new demands discarded because the ring was full
+	 */
+	public long droppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * @return number of unread demands evicted because the ring was full
+	 */
+	public long overwrittenCount() {
+		return overwritten.get();
+	}
+
+}
@@ -1,13 +1,13 @@
 package tmt.tcs.tpk;
 
 import static javacsw.util.config.JItems.jadd;
+import static javacsw.util.config.JItems.jset;
 
 import java.util.Optional;
 
 import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
 import akka.actor.Props;
-import akka.event.Logging;
-import akka.event.LoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
 import csw.services.loc.LocationService;
@@ -15,44 +15,94 @@ import csw.services.loc.LocationService.ResolvedTcpLocation;
 import csw.util.config.Configurations.ConfigKey;
 import csw.util.config.DoubleItem;
 import csw.util.config.Events.SystemEvent;
+import csw.util.config.LongItem;
 import javacsw.services.events.IEventService;
 import javacsw.services.events.ITelemetryService;
 import javacsw.services.pkg.ILocationSubscriberClient;
 import scala.PartialFunction;
 import scala.runtime.BoxedUnit;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.DemandTrace.Stage;
+import tmt.tcs.common.LatencyTracker;
+import tmt.tcs.common.LocalEventBus;
+import tmt.tcs.common.TcsLogger;
+import tmt.tcs.common.TcsLogger.Subsystem;
+import tmt.tcs.common.TcsMetrics;
+import tmt.tcs.ecs.EcsConfig;
+import tmt.tcs.m3.M3Config;
+import tmt.tcs.mcs.McsConfig;
 
 /**
  * This is an actor class that helps in publishing Demands for MCS, ECS and M3.
+ * Demands generated by TPK are drained from the shared demand ring when the
+ * ring wakes the publisher up, and only converted into SystemEvents here
  */
 public class TpkEventPublisher extends AbstractActor implements ILocationSubscriberClient {
 
-	LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+	TcsLogger log = TcsLogger.getLogger(getContext().system(), this);
 
-	public TpkEventPublisher(Optional<IEventService> eventServiceIn, Optional<ITelemetryService> telemetryServiceIn) {
+	private final LatencyTracker latency = LatencyTracker.of(Subsystem.TPK);
+	private final TcsMetrics.ComponentMetrics metrics = TcsMetrics.of(getClass().getSimpleName());
+
+	private final TpkDemandRing demandRing;
+
+	// Reused for every drained demand, the ring slots stay owned by the ring
+	private final TpkDemand drained = new TpkDemand();
+
+	// Sequence numbers of the last published position and offset demands,
+	// numbered per stream as not every subscriber receives both
+	private long positionSeq = 0;
+	private long offsetSeq = 0;
+
+	// TPK to publish latency statistics, only touched by this actor
+	private long publishedCount = 0;
+	private long totalLatencyNanos = 0;
+	private long maxLatencyNanos = 0;
+
+	public TpkEventPublisher(TpkDemandRing demandRing, Optional<IEventService> eventServiceIn,
+			Optional<ITelemetryService> telemetryServiceIn) {
 
 		log.debug("Inside TpkEventPublisher");
 
+		this.demandRing = demandRing;
+
 		subscribeToLocationUpdates();
 
-		log.debug("Inside TpkEventPublisher Event Service in: " + eventServiceIn);
-		log.debug("Inside TpkEventPublisher Telemetry Service in: " + telemetryServiceIn);
+		log.debug("Inside TpkEventPublisher Event Service in: {}", eventServiceIn);
+		log.debug("Inside TpkEventPublisher Telemetry Service in: {}", telemetryServiceIn);
 
 		receive(publishingEnabled(eventServiceIn, telemetryServiceIn));
 	}
 
+	@Override
+	public void preStart() {
+		// The TPK callback thread tells the drain when the ring becomes non
+		// empty, demands offered before are drained right away
+		ActorRef publisher = self();
+		demandRing.setWakeup(() -> publisher.tell(PublisherMessage.DrainDemands, ActorRef.noSender()));
+		self().tell(PublisherMessage.DrainDemands, self());
+	}
+
+	@Override
+	public void postStop() {
+		demandRing.setWakeup(null);
+	}
+
 	/**
 	 * This method helps in publishing events based on type being received
 	 */
 	public PartialFunction<Object, BoxedUnit> publishingEnabled(Optional<IEventService> eventService,
 			Optional<ITelemetryService> telemetryService) {
-		return ReceiveBuilder
+		return ReceiveBuilder.matchEquals(PublisherMessage.DrainDemands, t -> drainDemands(eventService))
+				.matchEquals(PublisherMessage.GetDemandStats, t -> sender().tell(demandStats(), self()))
 				.match(McsPosDemand.class, t -> publishMcsPositionDemand(eventService, t.configKey, t.azItem, t.elItem))
 				.match(EcsPosDemand.class, t -> publishEcsPositionDemand(eventService, t.configKey, t.azItem, t.elItem))
 				.match(M3PosDemand.class,
 						t -> publishM3PositionDemand(eventService, t.configKey, t.rotationItem, t.tiltItem))
+				.match(PatternProgress.class, t -> publishPatternProgress(eventService, t))
 				.match(LocationService.Location.class,
 						location -> handleLocations(location, eventService, telemetryService))
-				.matchAny(t -> log.warning("Inside TpkEventPublisher Unexpected message in publishingEnabled: " + t)).
+				.matchAny(t -> log.warning("Inside TpkEventPublisher Unexpected message in publishingEnabled: {}", t)).
 
 				build();
 	}
@@ -64,67 +114,168 @@ public class TpkEventPublisher extends AbstractActor implements ILocationSubscri
 			Optional<ITelemetryService> currentTelemetryService) {
 		if (location instanceof ResolvedTcpLocation) {
 			ResolvedTcpLocation t = (ResolvedTcpLocation) location;
-			log.debug("Inside TpkEventPublisher Received TCP Location: " + t.connection());
-			System.out.println("*********TpkEventPublisher Received TCP Location: " + t.connection());
+			log.debug("Inside TpkEventPublisher Received TCP Location: {}", t.connection());
 			// Verify that it is the event service
 			if (location.connection().equals(IEventService.eventServiceConnection())) {
-				log.debug("Inside TpkEventPublisher received connection: " + t);
+				log.debug("Inside TpkEventPublisher received connection: {}", t);
 				Optional<IEventService> newEventService = Optional
 						.of(IEventService.getEventService(t.host(), t.port(), context().system()));
-				log.debug("Inside TpkEventPublisherEvent Service at: " + newEventService);
+				log.debug("Inside TpkEventPublisherEvent Service at: {}", newEventService);
 				context().become(publishingEnabled(newEventService, currentTelemetryService));
 			}
 
 			if (location.connection().equals(ITelemetryService.telemetryServiceConnection())) {
-				log.debug("Inside TpkEventPublisher received connection: " + t);
+				log.debug("Inside TpkEventPublisher received connection: {}", t);
 				Optional<ITelemetryService> newTelemetryService = Optional
 						.of(ITelemetryService.getTelemetryService(t.host(), t.port(), context().system()));
-				log.debug("Inside TpkEventPublisher Telemetry Service at: " + newTelemetryService);
+				log.debug("Inside TpkEventPublisher Telemetry Service at: {}", newTelemetryService);
 				context().become(publishingEnabled(currentEventService, newTelemetryService));
 			}
 
 		} else if (location instanceof LocationService.Unresolved) {
-			log.debug("Unresolved: " + location.connection());
+			log.debug("Unresolved: {}", location.connection());
 			if (location.connection().equals(IEventService.eventServiceConnection()))
 				context().become(publishingEnabled(Optional.empty(), currentTelemetryService));
 			else if (location.connection().equals(ITelemetryService.telemetryServiceConnection()))
 				context().become(publishingEnabled(currentEventService, Optional.empty()));
 
 		} else {
-			log.debug("Inside TpkEventPublisher received some other location: " + location);
+			log.debug("Inside TpkEventPublisher received some other location: {}", location);
 		}
 	}
 
 	/**
-	 * This method helps publishing Position Demands for MCS using Event Service
+	 * This method publishes up to one batch of demands waiting in the demand
+	 * ring. If the ring still holds demands afterwards another drain is queued
+	 * right away, so other messages are not starved under load. The ring is
+	 * rearmed first, so a demand offered during the drain wakes it up again
 	 */
-	private void publishMcsPositionDemand(Optional<IEventService> eventService, ConfigKey configKey, DoubleItem azItem,
-			DoubleItem elItem) {
-		SystemEvent se = jadd(new SystemEvent(configKey.prefix()), azItem, elItem);
-		log.debug("Inside TpkEventPublisher publishMcsPositionDemand " + configKey + ": " + se + ": eventService is: "
-				+ eventService);
+	private void drainDemands(Optional<IEventService> eventService) {
+		demandRing.rearm();
+		int count = 0;
+		while (count < TpkConfig.demandDrainBatch && demandRing.poll(drained)) {
+			publishDemand(eventService, drained);
+			recordLatency(System.nanoTime() - drained.timestamp);
+			count++;
+		}
+		if (count == TpkConfig.demandDrainBatch && demandRing.size() > 0) {
+			self().tell(PublisherMessage.DrainDemands, self());
+		}
+	}
+
+	private void recordLatency(long latencyNanos) {
+		publishedCount++;
+		totalLatencyNanos += latencyNanos;
+		if (latencyNanos > maxLatencyNanos) {
+			maxLatencyNanos = latencyNanos;
+		}
+	}
+
+	private DemandStats demandStats() {
+		return new DemandStats(demandRing.offeredCount(), publishedCount, demandRing.droppedCount(),
+				demandRing.overwrittenCount(), publishedCount == 0 ? 0 : totalLatencyNanos / publishedCount,
+				maxLatencyNanos);
+	}
+
+	/**
+	 * This method materializes the items for one TPK demand and publishes them
+	 * to the subsystems the demand applies to. Every event of the tick carries
+	 * the same frame sequence number, so subscribers can detect lost or torn
+	 * frames. Position and offset demands are numbered separately, so offsets
+	 * published between frames do not show up as gaps. The sequence number is
+	 * also the ID of the demand trace, which starts with the TPK and PUBLISH
+	 * timestamps. Demands are tagged with their generation time, so followers
+	 * can interpolate between them
+	 */
+	private void publishDemand(Optional<IEventService> eventService, TpkDemand demand) {
+		long seq = TpkConfig.offsetDemandCK.equals(demand.configKey) ? ++offsetSeq : ++positionSeq;
+		DemandTrace trace = DemandTrace.start(seq, Stage.TPK, DemandTrace.fromNanoTime(demand.timestamp))
+				.mark(Stage.PUBLISH);
+		LongItem[] traceItems = trace.items();
+		double time = demand.generationTime();
+		if (TpkConfig.positionDemandCK.equals(demand.configKey)) {
+			if (TpkConfig.publishDemandFrames) {
+				publishEvent(eventService, demandFrameEvent(demand, traceItems), "demand frame");
+			} else {
+				publishEvent(eventService,
+						jadd(jadd(new SystemEvent(McsConfig.positionDemandPrefix),
+								jset(McsConfig.azDemandKey, demand.mcsAz), jset(McsConfig.elDemandKey, demand.mcsEl),
+								jset(McsConfig.timeDemandKey, time)), traceItems),
+						"mcs position demand");
+				publishEvent(eventService,
+						jadd(jadd(new SystemEvent(EcsConfig.positionDemandPrefix),
+								jset(EcsConfig.azDemandKey, demand.ecsBase),
+								jset(EcsConfig.elDemandKey, demand.ecsCap), jset(EcsConfig.timeDemandKey, time)),
+								traceItems),
+						"ecs position demand");
+				publishEvent(eventService,
+						jadd(jadd(new SystemEvent(M3Config.positionDemandPrefix),
+								jset(M3Config.rotationDemandKey, demand.m3Rotation),
+								jset(M3Config.tiltDemandKey, demand.m3Tilt), jset(M3Config.timeDemandKey, time)),
+								traceItems),
+						"m3 position demand");
+			}
+		} else if (TpkConfig.offsetDemandCK.equals(demand.configKey)) {
+			publishEvent(eventService,
+					jadd(jadd(new SystemEvent(McsConfig.offsetDemandPrefix), jset(McsConfig.azDemandKey, demand.mcsAz),
+							jset(McsConfig.elDemandKey, demand.mcsEl), jset(McsConfig.timeDemandKey, time)),
+							traceItems),
+					"mcs offset demand");
+		}
+		latency.record(trace);
+	}
+
+	/**
+	 * Builds the event which carries the MCS, ECS and M3 position demands of
+	 * one TPK tick, i.e. a single round trip to the event service. Each
+	 * subsystem subscriber picks its own demand keys out of the frame. All
+	 * demands are tagged with the generation time of the tick
+	 *
+	 * @param demand
+	 * @param traceItems
+	 *            frame sequence number and trace timestamps of the tick
+	 * @return
+	 */
+	public static SystemEvent demandFrameEvent(TpkDemand demand, LongItem... traceItems) {
+		double time = demand.generationTime();
+		return jadd(jadd(new SystemEvent(TpkConfig.demandFramePrefix), jset(McsConfig.azDemandKey, demand.mcsAz),
+				jset(McsConfig.elDemandKey, demand.mcsEl), jset(McsConfig.timeDemandKey, time),
+				jset(EcsConfig.azDemandKey, demand.ecsBase), jset(EcsConfig.elDemandKey, demand.ecsCap),
+				jset(EcsConfig.timeDemandKey, time), jset(M3Config.rotationDemandKey, demand.m3Rotation),
+				jset(M3Config.tiltDemandKey, demand.m3Tilt), jset(M3Config.timeDemandKey, time)), traceItems);
+	}
+
+	/**
+	 * This hands the event to subscribers in this JVM first, then publishes it
+	 * to the event service for everyone else
+	 */
+	private void publishEvent(Optional<IEventService> eventService, SystemEvent se, String description) {
+		log.debug("Inside TpkEventPublisher publishEvent {}: {}", description, se);
+		LocalEventBus.publish(se);
+		long start = System.nanoTime();
 		eventService.ifPresent(e -> e.publish(se).handle((x, ex) -> {
-			log.error(
-					"Inside TpkEventPublisher publishMcsPositionDemand : failed to publish mcs position demand: " + se,
-					ex);
+			metrics.published(System.nanoTime() - start, ex);
+			if (ex != null) {
+				log.error(ex, "Inside TpkEventPublisher publishEvent : failed to publish {}: {}", description, se);
+			}
 			return null;
 		}));
 	}
 
+	/**
+	 * This method helps publishing Position Demands for MCS using Event Service
+	 */
+	private void publishMcsPositionDemand(Optional<IEventService> eventService, ConfigKey configKey, DoubleItem azItem,
+			DoubleItem elItem) {
+		publishEvent(eventService, jadd(new SystemEvent(configKey.prefix()), azItem, elItem), "mcs position demand");
+	}
+
 	/**
 	 * This method helps publishing Position Demands for ECS using Event Service
 	 */
 	private void publishEcsPositionDemand(Optional<IEventService> eventService, ConfigKey configKey, DoubleItem azItem,
 			DoubleItem elItem) {
-		SystemEvent se = jadd(new SystemEvent(configKey.prefix()), azItem, elItem);
-		log.debug("Inside TpkEventPublisher publishEcsPositionDemand " + configKey + ": " + se + ": eventService is: "
-				+ eventService);
-		eventService.ifPresent(e -> e.publish(se).handle((x, ex) -> {
-			log.error(
-					"Inside TpkEventPublisher publishEcsPositionDemand : failed to publish ecs position demand: " + se,
-					ex);
-			return null;
-		}));
+		publishEvent(eventService, jadd(new SystemEvent(configKey.prefix()), azItem, elItem), "ecs position demand");
 	}
 
 	/**
@@ -132,27 +283,99 @@ public class TpkEventPublisher extends AbstractActor implements ILocationSubscri
 	 */
 	private void publishM3PositionDemand(Optional<IEventService> eventService, ConfigKey configKey,
 			DoubleItem rotationItem, DoubleItem tiltItem) {
-		SystemEvent se = jadd(new SystemEvent(configKey.prefix()), rotationItem, tiltItem);
-		log.debug("Inside TpkEventPublisher publishM3PositionDemand " + configKey + ": " + se + ": eventService is: "
-				+ eventService);
-		eventService.ifPresent(e -> e.publish(se).handle((x, ex) -> {
-			log.error("Inside TpkEventPublisher publishM3PositionDemand : failed to publish m3 position demand: " + se,
-					ex);
-			return null;
-		}));
+		publishEvent(eventService, jadd(new SystemEvent(configKey.prefix()), rotationItem, tiltItem),
+				"m3 position demand");
+	}
+
+	/**
+	 * This method publishes the progress of an offset pattern
+	 */
+	private void publishPatternProgress(Optional<IEventService> eventService, PatternProgress progress) {
+		publishEvent(eventService,
+				jadd(new SystemEvent(TpkConfig.patternProgressPrefix), jset(TpkConfig.patternIndex, progress.index),
+						jset(TpkConfig.patternSize, progress.size), jset(TpkConfig.ra, progress.ra),
+						jset(TpkConfig.dec, progress.dec)),
+				"pattern progress");
 	}
 
-	public static Props props(Optional<IEventService> eventService, Optional<ITelemetryService> telemetryService) {
+	public static Props props(TpkDemandRing demandRing, Optional<IEventService> eventService,
+			Optional<ITelemetryService> telemetryService) {
 		return Props.create(new Creator<TpkEventPublisher>() {
 			private static final long serialVersionUID = 1L;
 
 			@Override
 			public TpkEventPublisher create() throws Exception {
-				return new TpkEventPublisher(eventService, telemetryService);
+				return new TpkEventPublisher(demandRing, eventService, telemetryService);
 			}
 		});
 	}
 
+	public enum PublisherMessage {
+		/**
+		 * Sent by the demand ring wakeup, publishes demands waiting in the ring
+		 */
+		DrainDemands,
+
+		/**
+		 * Directly returns DemandStats to sender
+		 */
+		GetDemandStats
+	}
+
+	/**
+	 * Counters of the TPK to event service demand path. Latencies are measured
+	 * from the TPK callback to the publish call
+	 */
+	public static class DemandStats {
+		public final long offered;
+		public final long published;
+		public final long dropped;
+		public final long overwritten;
+		public final long meanLatencyNanos;
+		public final long maxLatencyNanos;
+
+		public DemandStats(long offered, long published, long dropped, long overwritten, long meanLatencyNanos,
+				long maxLatencyNanos) {
+			this.offered = offered;
+			this.published = published;
+			this.dropped = dropped;
+			this.overwritten = overwritten;
+			this.meanLatencyNanos = meanLatencyNanos;
+			this.maxLatencyNanos = maxLatencyNanos;
+		}
+
+		@Override
+		public String toString() {
+			return "DemandStats [offered=" + offered + ", published=" + published + ", dropped=" + dropped
+					+ ", overwritten=" + overwritten + ", meanLatencyNanos=" + meanLatencyNanos + ", maxLatencyNanos="
+					+ maxLatencyNanos + "]";
+		}
+	}
+
+	/**
+	 * Sent by the command handler whenever an offset pattern moved on: the
+	 * index of the offset just applied with its Ra, Dec. An index equal to the
+	 * pattern size means the pattern is done
+	 */
+	public static class PatternProgress {
+		public final int index;
+		public final int size;
+		public final double ra;
+		public final double dec;
+
+		public PatternProgress(int index, int size, double ra, double dec) {
+			this.index = index;
+			this.size = size;
+			this.ra = ra;
+			this.dec = dec;
+		}
+
+		@Override
+		public String toString() {
+			return "PatternProgress [index=" + index + ", size=" + size + ", ra=" + ra + ", dec=" + dec + "]";
+		}
+	}
+
 	/**
 	 * This is the class specific for MCS Position Demand Generation
 	 */
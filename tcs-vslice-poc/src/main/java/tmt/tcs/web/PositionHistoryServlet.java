@@ -0,0 +1,120 @@
+package tmt.tcs.web;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import tmt.tcs.common.TimeSeriesHistory;
+import tmt.tcs.common.TimeSeriesRing;
+
+/**
+ * Servlet serving the recent history of position channels as JSON, for
+ * plotting. All requested channels are returned in one response, each
+ * downsampled on the server to at most the requested number of buckets.
+ *
+ * Parameters, all optional: channels (comma separated, default all),
+ * seconds (window length, default 300), buckets (default 600, at most 5000)
+ * and to (end of the window in epoch milliseconds, default now). E.g.
+ * positionHistory?channels=mcsAzimuth,tcs.mcsAzimuth&seconds=600
+ *
+ * The response looks like {"from":...,"to":...,"channels":{"mcsAzimuth":
+ * {"t":[...],"min":[...],"max":[...],"mean":[...],"count":[...]}}}
+ */
+@WebServlet(description = "TCS Position History", urlPatterns = { "/positionHistory" })
+public class PositionHistoryServlet extends HttpServlet {
+	private static final long serialVersionUID = 1L;
+
+	public static final int defaultSeconds = 300;
+	public static final int defaultBuckets = 600;
+	public static final int maxBuckets = 5000;
+
+	public PositionHistoryServlet() {
+		super();
+	}
+
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		long to;
+		int seconds;
+		int buckets;
+		try {
+			to = longParameter(request, "to", System.currentTimeMillis());
+			seconds = (int) longParameter(request, "seconds", defaultSeconds);
+			buckets = (int) Math.min(maxBuckets, longParameter(request, "buckets", defaultBuckets));
+		} catch (NumberFormatException e) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid number: " + e.getMessage());
+			return;
+		}
+		String channels = request.getParameter("channels");
+
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-cache");
+		response.getWriter().write(toJson(
+				channels == null ? TimeSeriesHistory.channels() : Arrays.asList(channels.split(",")),
+				to - seconds * 1000L, to, buckets));
+	}
+
+	private static long longParameter(HttpServletRequest request, String name, long defaultValue) {
+		String value = request.getParameter(name);
+		return value == null ? defaultValue : Long.parseLong(value.trim());
+	}
+
+	/**
+	 * @param channels
+	 * @param fromMillis
+	 * @param toMillis
+	 * @param buckets
+	 * @return the JSON document for the window, unknown channels are left out
+	 */
+	static String toJson(Collection<String> channels, long fromMillis, long toMillis, int buckets) {
+		StringBuilder json = new StringBuilder(256);
+		json.append("{\"from\":").append(fromMillis).append(",\"to\":").append(toMillis).append(",\"channels\":{");
+		boolean first = true;
+		for (String channel : channels) {
+			TimeSeriesRing ring = TimeSeriesHistory.ring(channel.trim());
+			if (ring == null) {
+				continue;
+			}
+			TimeSeriesRing.Window window = ring.window(fromMillis, toMillis, buckets);
+			if (!first) {
+				json.append(',');
+			}
+			first = false;
+			json.append('"').append(channel.trim()).append("\":{\"t\":[");
+			for (int i = 0; i < window.size; i++) {
+				json.append(i == 0 ? "" : ",").append(window.bucketMillis[i]);
+			}
+			appendValues(json.append("],\"min\":["), window.min, window.size);
+			appendValues(json.append("],\"max\":["), window.max, window.size);
+			appendValues(json.append("],\"mean\":["), window.mean, window.size);
+			json.append("],\"count\":[");
+			for (int i = 0; i < window.size; i++) {
+				json.append(i == 0 ? "" : ",").append(window.count[i]);
+			}
+			json.append("]}");
+		}
+		return json.append("}}").toString();
+	}
+
+	private static void appendValues(StringBuilder json, double[] values, int size) {
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			double value = values[i];
+			if (Double.isNaN(value) || Double.isInfinite(value)) {
+				json.append("null");
+			} else {
+				json.append(value);
+			}
+		}
+	}
+
+}
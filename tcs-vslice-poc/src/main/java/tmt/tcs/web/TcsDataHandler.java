@@ -1,20 +1,104 @@
 package tmt.tcs.web;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import tmt.tcs.ecs.EcsConfig;
 import tmt.tcs.m3.M3Config;
 import tmt.tcs.mcs.McsConfig;
 
 /**
- * This class will be used by Event Subscriber to Set updated Position value in
- * and same will be used by JSP Class to display the same on frontend
+ * This class holds the latest positions received by the Web Event Subscriber,
+ * displayed by Data.jsp and streamed by TelemetryStreamServlet.
+ *
+ * The positions are kept in one immutable PositionSnapshot, replaced as a
+ * whole with every update. A reader gets all positions of one snapshot without
+ * locking, so e.g. MCS azimuth and elevation always come from the same event
  */
 public class TcsDataHandler {
 
-	public static Double mcsAzimuth = McsConfig.defaultAzValue;
-	public static Double mcsElevation = McsConfig.defaultElValue;
-	public static Double ecsAzimuth = EcsConfig.defaultAzValue;
-	public static Double ecsElevation = EcsConfig.defaultElValue;
-	public static Double m3Rotation = M3Config.defaultRotationValue;
-	public static Double m3Tilt = M3Config.defaultTiltValue;
+	// Channel names of the positions in the telemetry stream, also the ids of
+	// the cells showing them in Data.jsp
+	public static final String mcsAzimuthChannel = "mcsAzimuth";
+	public static final String mcsElevationChannel = "mcsElevation";
+	public static final String ecsAzimuthChannel = "ecsAzimuth";
+	public static final String ecsElevationChannel = "ecsElevation";
+	public static final String m3RotationChannel = "m3Rotation";
+	public static final String m3TiltChannel = "m3Tilt";
+
+	/**
+	 * Positions of all subsystems at one point in time. The version increases
+	 * with every update, so a reader can tell whether anything changed since
+	 * its last read
+	 */
+	public static final class PositionSnapshot {
+		public final long version;
+		public final double mcsAzimuth;
+		public final double mcsElevation;
+		public final double ecsAzimuth;
+		public final double ecsElevation;
+		public final double m3Rotation;
+		public final double m3Tilt;
+
+		public PositionSnapshot(long version, double mcsAzimuth, double mcsElevation, double ecsAzimuth,
+				double ecsElevation, double m3Rotation, double m3Tilt) {
+			this.version = version;
+			this.mcsAzimuth = mcsAzimuth;
+			this.mcsElevation = mcsElevation;
+			this.ecsAzimuth = ecsAzimuth;
+			this.ecsElevation = ecsElevation;
+			this.m3Rotation = m3Rotation;
+			this.m3Tilt = m3Tilt;
+		}
+
+		PositionSnapshot withMcs(double azimuth, double elevation) {
+			return new PositionSnapshot(version + 1, azimuth, elevation, ecsAzimuth, ecsElevation, m3Rotation,
+					m3Tilt);
+		}
+
+		PositionSnapshot withEcs(double azimuth, double elevation) {
+			return new PositionSnapshot(version + 1, mcsAzimuth, mcsElevation, azimuth, elevation, m3Rotation,
+					m3Tilt);
+		}
+
+		PositionSnapshot withM3(double rotation, double tilt) {
+			return new PositionSnapshot(version + 1, mcsAzimuth, mcsElevation, ecsAzimuth, ecsElevation, rotation,
+					tilt);
+		}
+
+		@Override
+		public String toString() {
+			return "PositionSnapshot [version=" + version + ", mcsAzimuth=" + mcsAzimuth + ", mcsElevation="
+					+ mcsElevation + ", ecsAzimuth=" + ecsAzimuth + ", ecsElevation=" + ecsElevation
+					+ ", m3Rotation=" + m3Rotation + ", m3Tilt=" + m3Tilt + "]";
+		}
+	}
+
+	private static final AtomicReference<PositionSnapshot> current = new AtomicReference<>(
+			new PositionSnapshot(0, McsConfig.defaultAzValue, McsConfig.defaultElValue, EcsConfig.defaultAzValue,
+					EcsConfig.defaultElValue, M3Config.defaultRotationValue, M3Config.defaultTiltValue));
+
+	/**
+	 * @return the latest positions
+	 */
+	public static PositionSnapshot snapshot() {
+		return current.get();
+	}
+
+	/**
+	 * @param azimuth
+	 * @param elevation
+	 * @return the snapshot holding the new MCS position
+	 */
+	public static PositionSnapshot updateMcs(double azimuth, double elevation) {
+		return current.updateAndGet(snapshot -> snapshot.withMcs(azimuth, elevation));
+	}
+
+	public static PositionSnapshot updateEcs(double azimuth, double elevation) {
+		return current.updateAndGet(snapshot -> snapshot.withEcs(azimuth, elevation));
+	}
+
+	public static PositionSnapshot updateM3(double rotation, double tilt) {
+		return current.updateAndGet(snapshot -> snapshot.withM3(rotation, tilt));
+	}
 
 }
@@ -0,0 +1,214 @@
+package tmt.tcs.web;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class pushes position changes to the browsers connected to
+ * TelemetryStreamServlet as server-sent events. Only channels which changed
+ * since the last event of a client are sent, as one compact JSON object, e.g.
+ * data: {"mcsAzimuth":1.25,"mcsElevation":30.5}
+ *
+ * Every client has its own minimum interval between events. Changes arriving
+ * faster than that are coalesced, the client gets the latest value of each
+ * channel with its next event. A client which stays quiet gets a comment line
+ * as keepalive, so proxies do not close the connection.
+ *
+ * Events are only written to a client which can take them without blocking.
+ * The changes of a slow client stay pending and are coalesced the same way,
+ * so one slow browser does not hold up the others
+ */
+public final class TelemetryStreamHub {
+
+	/**
+	 * Fastest event rate a client can ask for, in events per second
+	 */
+	public static final int maxRate = 50;
+	public static final int defaultRate = 10;
+
+	private static final long tickMillis = 10;
+	private static final long keepaliveMillis = 15000;
+
+	/**
+	 * Started and stopped by TelemetryStreamServlet
+	 */
+	public static final TelemetryStreamHub instance = new TelemetryStreamHub();
+
+	/**
+	 * Where the events of one client are written to
+	 */
+	public interface Sink {
+		/**
+		 * @return false while the client cannot take an event without
+		 *         blocking
+		 */
+		boolean isReady();
+
+		/**
+		 * @param event
+		 *            one complete server-sent event, including the empty line
+		 * @throws IOException
+		 *             if the client is gone
+		 */
+		void send(String event) throws IOException;
+
+		void close();
+	}
+
+	private static class Client {
+		final Sink sink;
+		final long minIntervalMillis;
+		// Latest changed value per channel, not yet sent
+		final Map<String, Double> pending = new ConcurrentSkipListMap<>();
+		long lastSentMillis = 0;
+
+		Client(Sink sink, long minIntervalMillis) {
+			this.sink = sink;
+			this.minIntervalMillis = minIntervalMillis;
+		}
+	}
+
+	private final Map<String, Double> latest = new ConcurrentSkipListMap<>();
+	private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+	private ScheduledExecutorService flusher;
+
+	/**
+	 * Until started, flush has to be called explicitly
+	 */
+	TelemetryStreamHub() {
+	}
+
+	/**
+	 * Starts sending events to the clients, if not already started
+	 */
+	public synchronized void start() {
+		if (flusher == null) {
+			flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "tcs-telemetry-stream");
+				thread.setDaemon(true);
+				return thread;
+			});
+			flusher.scheduleAtFixedRate(() -> flush(System.currentTimeMillis()), tickMillis, tickMillis,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Stops sending events and disconnects all clients
+	 */
+	public synchronized void stop() {
+		if (flusher != null) {
+			flusher.shutdownNow();
+			flusher = null;
+		}
+		disconnectAll();
+	}
+
+	/**
+	 * Records the current value of a channel and queues it for every client if
+	 * it changed
+	 *
+	 * @param channel
+	 * @param value
+	 */
+	public void update(String channel, double value) {
+		Double previous = latest.put(channel, value);
+		if (previous == null || previous.doubleValue() != value) {
+			for (Client client : clients) {
+				client.pending.put(channel, value);
+			}
+		}
+	}
+
+	/**
+	 * Adds a client, its first event carries the current value of every
+	 * channel
+	 *
+	 * @param sink
+	 * @param rate
+	 *            maximum events per second, limited to 1 to maxRate
+	 */
+	public void connect(Sink sink, int rate) {
+		Client client = new Client(sink, 1000 / Math.max(1, Math.min(maxRate, rate)));
+		// Added before copying, so an update in between is queued either way
+		clients.add(client);
+		client.pending.putAll(latest);
+	}
+
+	public void disconnect(Sink sink) {
+		clients.removeIf(client -> client.sink == sink);
+	}
+
+	public void disconnectAll() {
+		for (Client client : clients) {
+			clients.remove(client);
+			client.sink.close();
+		}
+	}
+
+	public int clientCount() {
+		return clients.size();
+	}
+
+	/**
+	 * Sends the pending changes of every ready client whose interval has
+	 * passed
+	 *
+	 * @param nowMillis
+	 */
+	void flush(long nowMillis) {
+		for (Client client : clients) {
+			try {
+				flush(client, nowMillis);
+			} catch (IOException | RuntimeException e) {
+				// E.g. IllegalStateException once the async context has
+				// completed, the flusher has to keep running for the others
+				clients.remove(client);
+				client.sink.close();
+			}
+		}
+	}
+
+	private static void flush(Client client, long nowMillis) throws IOException {
+		if (!client.sink.isReady()) {
+			return;
+		}
+		long sinceLast = nowMillis - client.lastSentMillis;
+		String event = null;
+		if (!client.pending.isEmpty() && sinceLast >= client.minIntervalMillis) {
+			event = "data: " + drain(client.pending) + "\n\n";
+		} else if (sinceLast >= keepaliveMillis) {
+			event = ":keepalive\n\n";
+		}
+		if (event != null) {
+			client.sink.send(event);
+			client.lastSentMillis = nowMillis;
+		}
+	}
+
+	/*
+	 * Removes the pending values as they are written, a value updated in the
+	 * meantime stays pending for the next event
+	 */
+	private static String drain(Map<String, Double> pending) {
+		StringBuilder json = new StringBuilder("{");
+		for (Map.Entry<String, Double> entry : pending.entrySet()) {
+			Double value = entry.getValue();
+			pending.remove(entry.getKey(), value);
+			if (json.length() > 1) {
+				json.append(',');
+			}
+			json.append('"').append(entry.getKey()).append("\":");
+			json.append(value.isNaN() || value.isInfinite() ? "null" : value.toString());
+		}
+		return json.append('}').toString();
+	}
+
+}
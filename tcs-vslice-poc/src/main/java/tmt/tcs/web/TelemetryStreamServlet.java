@@ -0,0 +1,136 @@
+package tmt.tcs.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Servlet streaming position changes to the browser as server-sent events, see
+ * TelemetryStreamHub. The optional maxRate parameter limits the events per
+ * second sent to the client, e.g. telemetryStream?maxRate=5
+ */
+@WebServlet(description = "TCS Telemetry Stream", urlPatterns = { "/telemetryStream" }, asyncSupported = true)
+public class TelemetryStreamServlet extends HttpServlet {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Writes events to the response of an async request with non-blocking IO,
+	 * the hub only sends while the output stream is ready
+	 */
+	private static class AsyncSink implements TelemetryStreamHub.Sink, AsyncListener, WriteListener {
+		private final AsyncContext context;
+		private final ServletOutputStream out;
+
+		AsyncSink(AsyncContext context) throws IOException {
+			this.context = context;
+			this.out = context.getResponse().getOutputStream();
+		}
+
+		@Override
+		public boolean isReady() {
+			return out.isReady();
+		}
+
+		@Override
+		public void send(String event) throws IOException {
+			out.write(event.getBytes(StandardCharsets.UTF_8));
+			if (out.isReady()) {
+				out.flush();
+			}
+		}
+
+		@Override
+		public void close() {
+			try {
+				context.complete();
+			} catch (IllegalStateException e) {
+				// Already completed by the container
+			}
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			TelemetryStreamHub.instance.disconnect(this);
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			TelemetryStreamHub.instance.disconnect(this);
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			TelemetryStreamHub.instance.disconnect(this);
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+
+		@Override
+		public void onWritePossible() {
+			// The hub sends the pending changes with its next flush
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			TelemetryStreamHub.instance.disconnect(this);
+			close();
+		}
+	}
+
+	public TelemetryStreamServlet() {
+		super();
+	}
+
+	@Override
+	public void init() throws ServletException {
+		super.init();
+		TelemetryStreamHub.instance.start();
+	}
+
+	/**
+	 * Keeps the request open and registers it with the TelemetryStreamHub
+	 */
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		int rate = TelemetryStreamHub.defaultRate;
+		String maxRate = request.getParameter("maxRate");
+		if (maxRate != null) {
+			try {
+				rate = Integer.parseInt(maxRate);
+			} catch (NumberFormatException e) {
+				response.sendError(HttpServletResponse.SC_BAD_REQUEST, "maxRate must be a number");
+				return;
+			}
+		}
+
+		response.setContentType("text/event-stream");
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-cache");
+
+		AsyncContext context = request.startAsync();
+		context.setTimeout(0);
+		AsyncSink sink = new AsyncSink(context);
+		context.addListener(sink);
+		response.getOutputStream().setWriteListener(sink);
+		TelemetryStreamHub.instance.connect(sink, rate);
+	}
+
+	@Override
+	public void destroy() {
+		TelemetryStreamHub.instance.stop();
+		super.destroy();
+	}
+
+}
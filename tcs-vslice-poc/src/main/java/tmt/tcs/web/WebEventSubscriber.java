@@ -20,9 +20,11 @@ import scala.runtime.BoxedUnit;
 import tmt.tcs.TcsConfig;
 import tmt.tcs.common.AssemblyContext;
 import tmt.tcs.common.BaseEventSubscriber;
+import tmt.tcs.common.TimeSeriesHistory;
 import tmt.tcs.ecs.EcsConfig;
 import tmt.tcs.m3.M3Config;
 import tmt.tcs.mcs.McsConfig;
+import tmt.tcs.web.TcsDataHandler.PositionSnapshot;
 
 /**
  * This Class provides Event Subscription functionality for External System.
@@ -37,6 +39,7 @@ public class WebEventSubscriber extends BaseEventSubscriber {
 	private final AssemblyContext assemblyContext;
 	private final Optional<ActorRef> eventPublisher;
 	private final EventService.EventMonitor subscribeMonitor;
+	private final TelemetryStreamHub stream = TelemetryStreamHub.instance;
 
 	private WebEventSubscriber(AssemblyContext assemblyContext, Optional<ActorRef> eventPublisher,
 			IEventService eventService) {
@@ -65,27 +68,31 @@ public class WebEventSubscriber extends BaseEventSubscriber {
 					if (TcsConfig.mcsPositionCK.equals(event.info().source())) {
 						log.debug("Inside WebEventSubscriber subscribeReceive received Mcs Current Position");
 
-						TcsDataHandler.mcsAzimuth = jvalue(jitem(event, McsConfig.azPosKey));
-						TcsDataHandler.mcsElevation = jvalue(jitem(event, McsConfig.elPosKey));
+						PositionSnapshot position = TcsDataHandler.updateMcs(jvalue(jitem(event, McsConfig.azPosKey)),
+								jvalue(jitem(event, McsConfig.elPosKey)));
+						publish(TcsDataHandler.mcsAzimuthChannel, position.mcsAzimuth);
+						publish(TcsDataHandler.mcsElevationChannel, position.mcsElevation);
 
 					} else if (TcsConfig.ecsPositionCK.equals(event.info().source())) {
 						log.debug("Inside WebEventSubscriber subscribeReceive received Ecs Current Position");
 
-						TcsDataHandler.ecsAzimuth = jvalue(jitem(event, EcsConfig.azPosKey));
-						TcsDataHandler.ecsElevation = jvalue(jitem(event, EcsConfig.elPosKey));
+						PositionSnapshot position = TcsDataHandler.updateEcs(jvalue(jitem(event, EcsConfig.azPosKey)),
+								jvalue(jitem(event, EcsConfig.elPosKey)));
+						publish(TcsDataHandler.ecsAzimuthChannel, position.ecsAzimuth);
+						publish(TcsDataHandler.ecsElevationChannel, position.ecsElevation);
 
 					} else if (TcsConfig.m3PositionCK.equals(event.info().source())) {
 						log.debug("Inside WebEventSubscriber subscribeReceive received M3 Current Position");
 
-						TcsDataHandler.m3Rotation = jvalue(jitem(event, M3Config.rotationPosKey));
-						TcsDataHandler.m3Tilt = jvalue(jitem(event, M3Config.tiltPosKey));
+						PositionSnapshot position = TcsDataHandler.updateM3(
+								jvalue(jitem(event, M3Config.rotationPosKey)),
+								jvalue(jitem(event, M3Config.tiltPosKey)));
+						publish(TcsDataHandler.m3RotationChannel, position.m3Rotation);
+						publish(TcsDataHandler.m3TiltChannel, position.m3Tilt);
 
 					}
 
-					log.debug("Inside WebEventSubscriber subscribeReceive: " + TcsDataHandler.mcsAzimuth + " : "
-							+ TcsDataHandler.mcsElevation + " : " + TcsDataHandler.ecsAzimuth + " : "
-							+ TcsDataHandler.ecsElevation + " : " + TcsDataHandler.m3Rotation + " : "
-							+ TcsDataHandler.m3Tilt);
+					log.debug("Inside WebEventSubscriber subscribeReceive: {}", TcsDataHandler.snapshot());
 
 				}).
 
@@ -93,6 +100,14 @@ public class WebEventSubscriber extends BaseEventSubscriber {
 				.build();
 	}
 
+	/**
+	 * Sends a position to the telemetry stream and records it in its history
+	 */
+	private void publish(String channel, double value) {
+		stream.update(channel, value);
+		TimeSeriesHistory.record(channel, value);
+	}
+
 	/**
 	 * This helps in subscribing to specific events based on config key
 	 * 
@@ -0,0 +1,143 @@
+package tmt.tcs.common;
+
+import static javacsw.util.config.JItems.jadd;
+import static javacsw.util.config.JItems.jset;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.japi.Creator;
+import akka.japi.pf.ReceiveBuilder;
+import akka.testkit.JavaTestKit;
+import akka.testkit.TestActorRef;
+import csw.util.config.Configurations.ConfigKey;
+import csw.util.config.DoubleKey;
+import csw.util.config.Events.SystemEvent;
+
+/**
+ * This test class checks the detection of missed and torn demand frames by
+ * the event subscribers, and the dropping of event service copies of events
+ * delivered over the LocalEventBus
+ */
+public class BaseEventSubscriberTest extends JavaTestKit {
+
+	private static ActorSystem system;
+
+	private static final DoubleKey azKey = new DoubleKey("tcs.test.az");
+	private static final DoubleKey elKey = new DoubleKey("tcs.test.el");
+
+	public BaseEventSubscriberTest() {
+		super(system);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("BaseEventSubscriberTest");
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	private static class TestSubscriber extends BaseEventSubscriber {
+		TestSubscriber() {
+			receive(ReceiveBuilder.matchAny(t -> {
+			}).build());
+		}
+	}
+
+	private static TestActorRef<TestSubscriber> newSubscriberRef() {
+		Props props = Props.create(new Creator<TestSubscriber>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public TestSubscriber create() throws Exception {
+				return new TestSubscriber();
+			}
+		});
+		return TestActorRef.create(system, props);
+	}
+
+	private static BaseEventSubscriber newSubscriber() {
+		return newSubscriberRef().underlyingActor();
+	}
+
+	private static SystemEvent frame(long seq) {
+		return jadd(new SystemEvent(DemandFrame.demandFramePrefix), jset(DemandFrame.frameSeqKey, seq),
+				jset(azKey, 1.0), jset(elKey, 2.0));
+	}
+
+	@Test
+	public void testFrameSequenceGaps() {
+		BaseEventSubscriber subscriber = newSubscriber();
+
+		assertEquals(0, subscriber.checkFrameSequence(frame(1)));
+		assertEquals(0, subscriber.checkFrameSequence(frame(2)));
+		assertEquals(2, subscriber.checkFrameSequence(frame(5)));
+		assertEquals(0, subscriber.checkFrameSequence(frame(6)));
+		assertEquals(2, subscriber.missedFrames());
+
+		// A TPK restart starts the sequence again without reporting a gap
+		assertEquals(0, subscriber.checkFrameSequence(frame(1)));
+		// Events without a sequence number are not checked
+		assertEquals(0, subscriber.checkFrameSequence(new SystemEvent(DemandFrame.demandFramePrefix)));
+		assertEquals(2, subscriber.missedFrames());
+	}
+
+	@Test
+	public void testOffsetsBetweenFrames() {
+		BaseEventSubscriber subscriber = newSubscriber();
+		String offsetPrefix = "tcs.test.offsetdemands";
+
+		assertEquals(0, subscriber.checkFrameSequence(frame(1)));
+		for (long seq = 1; seq <= 3; seq++) {
+			assertEquals(0, subscriber.checkFrameSequence(
+					jadd(new SystemEvent(offsetPrefix), jset(DemandFrame.frameSeqKey, seq))));
+		}
+		// Each demand stream is numbered separately
+		assertEquals(0, subscriber.checkFrameSequence(frame(2)));
+		assertEquals(1, subscriber.checkFrameSequence(
+				jadd(new SystemEvent(offsetPrefix), jset(DemandFrame.frameSeqKey, 5L))));
+		assertEquals(1, subscriber.missedFrames());
+	}
+
+	@Test
+	public void testTornFrames() {
+		BaseEventSubscriber subscriber = newSubscriber();
+
+		assertTrue(subscriber.checkFrameComplete(frame(1), azKey, elKey));
+
+		SystemEvent torn = jadd(new SystemEvent(DemandFrame.demandFramePrefix), jset(DemandFrame.frameSeqKey, 2L),
+				jset(azKey, 1.0));
+		assertFalse(subscriber.checkFrameComplete(torn, azKey, elKey));
+		assertEquals(1, subscriber.tornFrames());
+	}
+
+	@Test
+	public void testLocalTimeoutPerPrefix() {
+		TestActorRef<TestSubscriber> ref = newSubscriberRef();
+		SystemEvent local = new SystemEvent("tcs.test.local.a");
+		SystemEvent remote = new SystemEvent("tcs.test.local.b");
+		ref.underlyingActor().subscribeLocal(new ConfigKey("tcs.test.local.a"), new ConfigKey("tcs.test.local.b"));
+
+		ref.tell(new LocalEventBus.LocalEvent(local), ActorRef.noSender());
+		ref.tell(local, ActorRef.noSender());
+		assertEquals(1, ref.underlyingActor().remoteDuplicates());
+
+		// A prefix without local events is still taken from the event service
+		ref.tell(remote, ActorRef.noSender());
+		assertEquals(1, ref.underlyingActor().remoteDuplicates());
+
+		system.stop(ref);
+	}
+
+}
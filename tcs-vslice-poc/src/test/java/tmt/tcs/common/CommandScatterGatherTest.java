@@ -0,0 +1,119 @@
+package tmt.tcs.common;
+
+import static javacsw.services.ccs.JCommandStatus.Accepted;
+import static javacsw.services.ccs.JCommandStatus.AllCompleted;
+import static javacsw.services.ccs.JCommandStatus.Completed;
+import static javacsw.services.ccs.JCommandStatus.Incomplete;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorSystem;
+import akka.testkit.JavaTestKit;
+import akka.testkit.TestProbe;
+import csw.services.ccs.AssemblyController.Submit;
+import csw.services.ccs.CommandStatus.CommandResult;
+import csw.services.ccs.CommandStatus.CommandResultPair;
+import csw.services.ccs.CommandStatus.CommandResults;
+import csw.services.ccs.CommandStatus.Error;
+import csw.services.ccs.CommandStatus.OverallCommandStatus;
+import csw.util.config.Configurations;
+import csw.util.config.RunId;
+import csw.util.config.Configurations.SetupConfig;
+import csw.util.config.Configurations.SetupConfigArg;
+import scala.collection.JavaConverters;
+import scala.concurrent.duration.FiniteDuration;
+import tmt.tcs.common.TcsLogger.Subsystem;
+
+/**
+ * This test class checks that the CommandScatterGather replies once all
+ * assemblies completed, or with an Error when one did not complete in time
+ */
+public class CommandScatterGatherTest extends JavaTestKit {
+
+	private static ActorSystem system;
+
+	private static final FiniteDuration deadline = FiniteDuration.create(500, TimeUnit.MILLISECONDS);
+
+	public CommandScatterGatherTest() {
+		super(system);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("CommandScatterGatherTest");
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	private static SetupConfigArg sca(String prefix) {
+		return Configurations.createSetupConfigArg("scatterGatherTest", new SetupConfig(prefix));
+	}
+
+	private static CommandResult result(RunId runId, OverallCommandStatus overall) {
+		CommandResults details = new CommandResults(
+				JavaConverters.asScalaBufferConverter(new ArrayList<CommandResultPair>()).asScala().toList());
+		return new CommandResult(runId, overall, details);
+	}
+
+	/**
+	 * Replies to the Submit received by the assembly
+	 *
+	 * @return run id of the submitted command
+	 */
+	private static RunId reply(TestProbe assembly, OverallCommandStatus overall) {
+		RunId runId = assembly.expectMsgClass(Submit.class).config().info().runId();
+		assembly.reply(result(runId, overall));
+		return runId;
+	}
+
+	@Test
+	public void testAllCompleted() {
+		TestProbe mcs = new TestProbe(system);
+		TestProbe tpk = new TestProbe(system);
+		TestProbe client = new TestProbe(system);
+		system.actorOf(CommandScatterGather.props("test",
+				Arrays.asList(new CommandScatterGather.Target(Subsystem.MCS, mcs.ref(), sca("tcs.mcs.test")),
+						new CommandScatterGather.Target(Subsystem.TPK, tpk.ref(), sca("tcs.tpk.test"))),
+				deadline, client.ref()));
+
+		RunId mcsRunId = reply(mcs, Accepted);
+		reply(tpk, AllCompleted);
+		// MCS only accepted the command so far
+		client.expectNoMsg(FiniteDuration.create(100, TimeUnit.MILLISECONDS));
+		mcs.reply(result(mcsRunId, AllCompleted));
+
+		client.expectMsgEquals(Completed);
+		assertTrue(LatencyTracker.of(Subsystem.MCS).report().hops
+				.containsKey(LatencyTracker.commandPrefix + "test"));
+	}
+
+	@Test
+	public void testDeadline() {
+		TestProbe mcs = new TestProbe(system);
+		TestProbe ecs = new TestProbe(system);
+		TestProbe client = new TestProbe(system);
+		system.actorOf(CommandScatterGather.props("test",
+				Arrays.asList(new CommandScatterGather.Target(Subsystem.MCS, mcs.ref(), sca("tcs.mcs.test")),
+						new CommandScatterGather.Target(Subsystem.ECS, ecs.ref(), sca("tcs.ecs.test"))),
+				deadline, client.ref()));
+
+		reply(mcs, Incomplete);
+		ecs.expectMsgClass(Submit.class);
+
+		Error error = client.expectMsgClass(Error.class);
+		assertTrue(error.message().contains("MCS"));
+		assertTrue(error.message().contains("ECS"));
+	}
+
+}
@@ -0,0 +1,54 @@
+package tmt.tcs.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * This test class checks that demand time tags are put on the follower's
+ * clock whether the follower's clock is ahead of or behind the TPK's clock
+ */
+public class DemandClockOffsetTest {
+
+	@Test
+	public void testSkewIsRemoved() {
+		DemandInterpolator interpolator = new DemandInterpolator(1, 0.1);
+		DemandClockOffset offset = new DemandClockOffset(1000);
+		assertEquals(0.0, offset.offset(), 0.0);
+
+		// The follower's clock is 0.5 seconds ahead, demands take 10 to 30 ms
+		for (int i = 0; i < 100; i++) {
+			double tag = 100.0 + i * 0.01;
+			double received = tag + 0.5 + (i % 3 == 0 ? 0.01 : 0.03);
+			interpolator.add(offset.toLocal(tag, received), i);
+			assertTrue(interpolator.isCurrent(received + 0.01));
+		}
+		assertEquals(0.51, offset.offset(), 1e-9);
+
+		// The follower's clock is 0.5 seconds behind, tags are not in its future
+		offset = new DemandClockOffset(1000);
+		double local = offset.toLocal(100.0, 99.51);
+		assertEquals(99.51, local, 1e-9);
+	}
+
+	@Test
+	public void testOffsetFollowsClockStep() {
+		DemandClockOffset offset = new DemandClockOffset(10);
+		for (int i = 0; i < 10; i++) {
+			offset.toLocal(i, i + 0.01);
+		}
+		assertEquals(0.01, offset.offset(), 1e-9);
+
+		// After a step the old minimum is kept until the next window is full
+		for (int i = 10; i < 15; i++) {
+			offset.toLocal(i, i + 1.01);
+		}
+		assertEquals(0.01, offset.offset(), 1e-9);
+		for (int i = 15; i < 20; i++) {
+			offset.toLocal(i, i + 1.01);
+		}
+		assertEquals(1.01, offset.offset(), 1e-9);
+	}
+
+}
@@ -0,0 +1,94 @@
+package tmt.tcs.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+
+import org.junit.Test;
+
+import tmt.tcs.common.DemandFilter.Decision;
+import tmt.tcs.common.DemandFilter.Settings;
+
+/**
+ * This test class checks that the demand filter drops demands within the
+ * deadband and defers demands above the maximum rate without losing the last
+ * one, while setpoints bypass it
+ */
+public class DemandFilterTest {
+
+	private static final long ms = 1000000L;
+
+	@Test
+	public void testDeadband() {
+		DemandFilter<String> filter = new DemandFilter<>(new Settings(0.01, 0.1, 0));
+
+		assertEquals(Decision.SEND, filter.offer(1.0, 2.0, "a", 0));
+		assertEquals(Decision.SUPPRESS, filter.offer(1.005, 2.05, "b", ms));
+		// Compared with the last forwarded demand, so small steps add up
+		assertEquals(Decision.SEND, filter.offer(1.011, 2.05, "c", 2 * ms));
+		assertEquals(Decision.SEND, filter.offer(1.011, 2.2, "d", 3 * ms));
+
+		assertEquals(3, filter.forwarded());
+		assertEquals(1, filter.suppressedByDeadband());
+	}
+
+	@Test
+	public void testMaxRate() {
+		// At most one demand every 10 ms
+		DemandFilter<String> filter = new DemandFilter<>(new Settings(0, 0, 100));
+
+		assertEquals(Decision.SEND, filter.offer(1.0, 1.0, "a", 0));
+		assertEquals(Decision.DEFER, filter.offer(2.0, 2.0, "b", 2 * ms));
+		assertEquals(8 * ms, filter.deferNanos(2 * ms));
+		// Replaces b
+		assertEquals(Decision.DEFER, filter.offer(3.0, 3.0, "c", 4 * ms));
+
+		assertEquals("c", filter.takeDeferred(10 * ms));
+		assertNull(filter.takeDeferred(11 * ms));
+		assertEquals(Decision.SEND, filter.offer(4.0, 4.0, "d", 20 * ms));
+
+		assertEquals(3, filter.forwarded());
+		assertEquals(1, filter.suppressedByRate());
+	}
+
+	@Test
+	public void testBypass() {
+		DemandFilter<String> filter = new DemandFilter<>(new Settings(0.01, 0.01, 100));
+
+		assertEquals(Decision.SEND, filter.offer(1.0, 1.0, "a", 0));
+		assertEquals(Decision.DEFER, filter.offer(2.0, 2.0, "b", 2 * ms));
+		// A setpoint within the deadband and above the rate replaces b
+		filter.bypass(1.001, 1.0, 3 * ms);
+		assertNull(filter.takeDeferred(10 * ms));
+		assertEquals(Decision.SUPPRESS, filter.offer(1.002, 1.0, "c", 20 * ms));
+
+		assertEquals(2, filter.forwarded());
+		assertEquals(1, filter.suppressedByRate());
+	}
+
+	@Test
+	public void testDisabled() {
+		DemandFilter<String> filter = new DemandFilter<>(Settings.disabled);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(Decision.SEND, filter.offer(1.0, 1.0, "a", i));
+		}
+		assertEquals(10, filter.forwarded());
+	}
+
+	@Test
+	public void testLoadSettings() {
+		Settings mcs = Settings.load("mcs");
+		assertEquals(100.0, mcs.maxRate);
+		// The filters take the demands the followers send
+		for (String subsystem : new String[] { "mcs", "ecs", "m3" }) {
+			assertEquals(subsystem, BaseFollowActor.demandInterval(subsystem).toNanos(),
+					(long) (1e9 / Settings.load(subsystem).maxRate));
+			assertEquals(subsystem, BaseFollowActor.defaultMaxExtrapolation,
+					BaseFollowActor.maxExtrapolation(subsystem), 0.0);
+		}
+
+		Settings unknown = Settings.load("unknown");
+		assertEquals(0.0, unknown.maxRate);
+		assertEquals(0.0, unknown.firstDeadband);
+	}
+
+}
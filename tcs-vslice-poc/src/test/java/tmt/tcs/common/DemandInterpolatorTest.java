@@ -0,0 +1,52 @@
+package tmt.tcs.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * This test class checks that time tagged demands are interpolated between
+ * and extrapolated past the last two demands, and become stale afterwards
+ */
+public class DemandInterpolatorTest {
+
+	@Test
+	public void testInterpolateAndExtrapolate() {
+		DemandInterpolator interpolator = new DemandInterpolator(2, 0.1);
+		assertTrue(Double.isNaN(interpolator.valueAt(0.0, 0)));
+
+		interpolator.add(10.0, 1.0, 20.0);
+		// A single demand is held
+		assertEquals(1.0, interpolator.valueAt(10.5, 0), 1e-9);
+
+		interpolator.add(10.1, 2.0, 19.0);
+		assertEquals(1.5, interpolator.valueAt(10.05, 0), 1e-9);
+		assertEquals(19.5, interpolator.valueAt(10.05, 1), 1e-9);
+		assertEquals(2.5, interpolator.valueAt(10.15, 0), 1e-9);
+		// Extrapolation stops at 0.1 seconds past the newest demand
+		assertEquals(3.0, interpolator.valueAt(11.0, 0), 1e-9);
+		// Times before the previous demand are clamped to it
+		assertEquals(1.0, interpolator.valueAt(9.0, 0), 1e-9);
+	}
+
+	@Test
+	public void testStaleAndOutOfOrderDemands() {
+		DemandInterpolator interpolator = new DemandInterpolator(1, 0.1);
+		assertFalse(interpolator.isCurrent(10.0));
+
+		assertTrue(interpolator.add(10.0, 1.0));
+		assertTrue(interpolator.isCurrent(10.05));
+		assertFalse(interpolator.isCurrent(10.2));
+
+		// Not newer than the newest demand
+		assertFalse(interpolator.add(10.0, 5.0));
+		assertEquals(10.0, interpolator.latestTime(), 1e-9);
+
+		interpolator.clear();
+		assertFalse(interpolator.isCurrent(10.05));
+		assertTrue(Double.isNaN(interpolator.latestTime()));
+	}
+
+}
@@ -0,0 +1,110 @@
+package tmt.tcs.common;
+
+import static javacsw.util.config.JConfigDSL.sc;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import csw.util.config.Configurations.SetupConfig;
+import tmt.tcs.common.DemandTrace.Stage;
+import tmt.tcs.common.LatencyHistogram.Snapshot;
+import tmt.tcs.common.LatencyTracker.LatencyReport;
+import tmt.tcs.common.TcsLogger.Subsystem;
+
+/**
+ * This test class checks the latency histogram percentiles and that demand
+ * traces are recorded per hop and end to end
+ */
+public class LatencyTrackerTest {
+
+	// Not used by the demand pipeline, so no other test records into it
+	private final LatencyTracker tracker = LatencyTracker.of(Subsystem.WEB);
+
+	@Before
+	public void reset() {
+		tracker.reset();
+	}
+
+	@Test
+	public void testBucketBounds() {
+		for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 1000, 123456789, Long.MAX_VALUE }) {
+			int index = LatencyHistogram.index(value);
+			assertTrue(value <= LatencyHistogram.highestValue(index));
+			if (index > 0) {
+				assertTrue(value > LatencyHistogram.highestValue(index - 1));
+			}
+			// Within the 12.5% resolution of the buckets
+			assertTrue(LatencyHistogram.highestValue(index) - value <= value / 8);
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+		histogram.record(-5);
+
+		Snapshot snapshot = histogram.snapshot();
+		assertEquals(1001, snapshot.count);
+		assertEquals(1000000, snapshot.max);
+		assertWithin(500000, snapshot.p50);
+		assertWithin(900000, snapshot.p90);
+		assertWithin(990000, snapshot.p99);
+		assertWithin(999000, snapshot.p999);
+
+		histogram.reset();
+		assertEquals(0, histogram.snapshot().count);
+		assertEquals(0, histogram.snapshot().p99);
+	}
+
+	@Test
+	public void testTraceHops() {
+		DemandTrace trace = DemandTrace.start(42, Stage.TPK, DemandTrace.now() - 1000000).mark(Stage.PUBLISH)
+				.mark(Stage.SUBSCRIBE).mark(Stage.HCD).mark(Stage.CURRENT_STATE);
+		tracker.record(trace);
+
+		LatencyReport report = tracker.report();
+		assertEquals(Subsystem.WEB, report.subsystem);
+		assertTrue(report.hops.containsKey("TPK->PUBLISH"));
+		assertTrue(report.hops.containsKey("SUBSCRIBE->HCD"));
+		assertFalse(report.hops.containsKey("SUBSCRIBE->FOLLOW"));
+		assertEquals(1, report.hops.get(LatencyTracker.endToEnd).count);
+		assertTrue(report.hops.get(LatencyTracker.endToEnd).max >= 1000000);
+	}
+
+	@Test
+	public void testNoEndToEndWithoutCurrentState() {
+		tracker.record(DemandTrace.start(1, Stage.TPK, DemandTrace.now()).mark(Stage.PUBLISH));
+
+		LatencyReport report = tracker.report();
+		assertEquals(1, report.hops.get("TPK->PUBLISH").count);
+		assertFalse(report.hops.containsKey(LatencyTracker.endToEnd));
+	}
+
+	@Test
+	public void testTraceInSetupConfig() {
+		DemandTrace trace = DemandTrace.start(7, Stage.TPK, DemandTrace.now()).mark(Stage.FOLLOW);
+		SetupConfig scOut = DemandTrace.addMarked(sc("tcs.test.follow"), Optional.of(trace), Stage.CONTROL);
+
+		DemandTrace received = DemandTrace.fromSetupConfig(scOut).get();
+		assertEquals(7, received.traceId);
+		assertEquals(trace.timestamp(Stage.TPK), received.timestamp(Stage.TPK));
+		assertTrue(received.has(Stage.CONTROL));
+		assertFalse(received.has(Stage.PUBLISH));
+
+		assertFalse(DemandTrace.fromSetupConfig(sc("tcs.test.follow")).isPresent());
+	}
+
+	private static void assertWithin(long expected, long actual) {
+		assertTrue("expected about " + expected + " but was " + actual,
+				actual >= expected && actual <= expected + expected / 8);
+	}
+
+}
@@ -0,0 +1,74 @@
+package tmt.tcs.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorSystem;
+import akka.testkit.JavaTestKit;
+import akka.testkit.TestProbe;
+import csw.util.config.Events.SystemEvent;
+
+/**
+ * This test class checks that events published on the LocalEventBus reach
+ * only the subscribers of their prefix
+ */
+public class LocalEventBusTest extends JavaTestKit {
+
+	private static ActorSystem system;
+
+	public LocalEventBusTest() {
+		super(system);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("LocalEventBusTest");
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	@Test
+	public void testPublish() {
+		TestProbe first = new TestProbe(system);
+		TestProbe second = new TestProbe(system);
+		LocalEventBus.subscribe(first.ref(), "tcs.test.bus.a", "tcs.test.bus.b");
+		LocalEventBus.subscribe(second.ref(), "tcs.test.bus.b");
+
+		SystemEvent event = new SystemEvent("tcs.test.bus.a");
+		assertEquals(1, LocalEventBus.publish(event));
+		assertEquals(event, first.expectMsgClass(LocalEventBus.LocalEvent.class).event);
+		second.expectNoMsg();
+
+		assertEquals(2, LocalEventBus.publish(new SystemEvent("tcs.test.bus.b")));
+		first.expectMsgClass(LocalEventBus.LocalEvent.class);
+		second.expectMsgClass(LocalEventBus.LocalEvent.class);
+
+		assertEquals(0, LocalEventBus.publish(new SystemEvent("tcs.test.bus.c")));
+
+		LocalEventBus.unsubscribe(first.ref());
+		LocalEventBus.unsubscribe(second.ref());
+		assertFalse(LocalEventBus.hasSubscribers("tcs.test.bus.b"));
+	}
+
+	@Test
+	public void testSubscribeTwice() {
+		TestProbe probe = new TestProbe(system);
+		LocalEventBus.subscribe(probe.ref(), "tcs.test.bus.d");
+		LocalEventBus.subscribe(probe.ref(), "tcs.test.bus.d");
+		assertTrue(LocalEventBus.hasSubscribers("tcs.test.bus.d"));
+
+		assertEquals(1, LocalEventBus.publish(new SystemEvent("tcs.test.bus.d")));
+
+		LocalEventBus.unsubscribe(probe.ref());
+	}
+
+}
@@ -0,0 +1,124 @@
+package tmt.tcs.common;
+
+import static javacsw.services.ccs.JCommandStatus.AllCompleted;
+import static javacsw.services.ccs.JCommandStatus.Completed;
+import static javacsw.services.ccs.JCommandStatus.Incomplete;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorSystem;
+import akka.testkit.JavaTestKit;
+import akka.testkit.TestProbe;
+import csw.services.ccs.CommandStatus.CommandResult;
+import csw.services.ccs.CommandStatus.Error;
+import csw.services.ccs.SequentialExecutor.ExecuteOne;
+import csw.util.config.Configurations;
+import csw.util.config.Configurations.SetupConfig;
+import csw.util.config.Configurations.SetupConfigArg;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * This test class checks that the ParallelExecutor starts independent configs
+ * together and dependent configs after their prerequisites, and fails configs
+ * which are not answered in time
+ */
+public class ParallelExecutorTest extends JavaTestKit {
+
+	private static ActorSystem system;
+
+	private static final ParallelExecutor.Dependencies dependencies = ParallelExecutor.Dependencies.none
+			.after("tcs.test.target", "tcs.test.mcs", "tcs.test.ecs");
+
+	public ParallelExecutorTest() {
+		super(system);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("ParallelExecutorTest");
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	private static SetupConfigArg sca() {
+		return Configurations.createSetupConfigArg("parallelExecutorTest", new SetupConfig("tcs.test.mcs"),
+				new SetupConfig("tcs.test.ecs"), new SetupConfig("tcs.test.target"));
+	}
+
+	@Test
+	public void testDependencies() {
+		TestProbe commandHandler = new TestProbe(system);
+		TestProbe client = new TestProbe(system);
+		system.actorOf(
+				ParallelExecutor.props(commandHandler.ref(), sca(), Optional.of(client.ref()), dependencies));
+
+		// MCS and ECS are started together, the target waits for both
+		ExecuteOne mcs = commandHandler.expectMsgClass(ExecuteOne.class);
+		ExecuteOne ecs = commandHandler.expectMsgClass(ExecuteOne.class);
+		assertEquals("tcs.test.mcs", mcs.sc().configKey().prefix());
+		assertEquals("tcs.test.ecs", ecs.sc().configKey().prefix());
+		commandHandler.expectNoMsg();
+
+		ecs.commandOriginator().get().tell(Completed, commandHandler.ref());
+		commandHandler.expectNoMsg();
+		mcs.commandOriginator().get().tell(Completed, commandHandler.ref());
+
+		ExecuteOne target = commandHandler.expectMsgClass(ExecuteOne.class);
+		assertEquals("tcs.test.target", target.sc().configKey().prefix());
+		target.commandOriginator().get().tell(Completed, commandHandler.ref());
+
+		CommandResult result = client.expectMsgClass(CommandResult.class);
+		assertEquals(AllCompleted, result.overall());
+		assertEquals(3, result.details().getResults().size());
+	}
+
+	@Test
+	public void testFailedPrerequisite() {
+		TestProbe commandHandler = new TestProbe(system);
+		TestProbe client = new TestProbe(system);
+		system.actorOf(
+				ParallelExecutor.props(commandHandler.ref(), sca(), Optional.of(client.ref()), dependencies));
+
+		ExecuteOne mcs = commandHandler.expectMsgClass(ExecuteOne.class);
+		ExecuteOne ecs = commandHandler.expectMsgClass(ExecuteOne.class);
+		mcs.commandOriginator().get().tell(new Error("failed"), commandHandler.ref());
+		ecs.commandOriginator().get().tell(Completed, commandHandler.ref());
+
+		// The target is not started
+		CommandResult result = client.expectMsgClass(CommandResult.class);
+		assertEquals(Incomplete, result.overall());
+		assertEquals(2, result.details().getResults().size());
+		commandHandler.expectNoMsg();
+	}
+
+	@Test
+	public void testConfigTimeout() {
+		TestProbe commandHandler = new TestProbe(system);
+		TestProbe client = new TestProbe(system);
+		system.actorOf(ParallelExecutor.props(commandHandler.ref(), sca(), Optional.of(client.ref()), dependencies,
+				FiniteDuration.create(300, TimeUnit.MILLISECONDS)));
+
+		ExecuteOne mcs = commandHandler.expectMsgClass(ExecuteOne.class);
+		commandHandler.expectMsgClass(ExecuteOne.class);
+		mcs.commandOriginator().get().tell(Completed, commandHandler.ref());
+
+		// ECS never answers, its config fails and the target is not started
+		CommandResult result = client.expectMsgClass(duration("3 seconds"), CommandResult.class);
+		assertEquals(Incomplete, result.overall());
+		assertEquals(2, result.details().getResults().size());
+		assertTrue(result.details().status(1) instanceof Error);
+		commandHandler.expectNoMsg();
+	}
+
+}
@@ -0,0 +1,99 @@
+package tmt.tcs.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.ActorSystem;
+import akka.testkit.JavaTestKit;
+import tmt.tcs.common.TcsLogger.Level;
+import tmt.tcs.common.TcsLogger.Subsystem;
+
+/**
+ * This test class checks the per subsystem level switch of TcsLogger and that
+ * message arguments are not formatted when their level is disabled
+ */
+public class TcsLoggerTest {
+
+	/*
+	 * Counts how often it has been formatted into a message
+	 */
+	private static class CountingArg {
+		int formatted = 0;
+
+		@Override
+		public String toString() {
+			formatted++;
+			return "CountingArg";
+		}
+	}
+
+	private static ActorSystem system;
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("TcsLoggerTests",
+				ConfigFactory.parseString("akka.loglevel = DEBUG").withFallback(ConfigFactory.load()));
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	@After
+	public void resetLevel() {
+		Subsystem.MCS.setLevel(Level.DEBUG);
+	}
+
+	@Test
+	public void testSubsystemFromPackage() {
+		assertEquals(Subsystem.MCS, Subsystem.of(tmt.tcs.mcs.McsFollowActor.class));
+		assertEquals(Subsystem.MCS, Subsystem.of(tmt.tcs.mcs.hcd.McsHcd.class));
+		assertEquals(Subsystem.M3, Subsystem.of(tmt.tcs.m3.M3FollowActor.class));
+		assertEquals(Subsystem.TPK, Subsystem.of(tmt.tcs.tpk.TpkEventPublisher.class));
+		assertEquals(Subsystem.TCS, Subsystem.of(tmt.tcs.TcsEventSubscriber.class));
+	}
+
+	@Test
+	public void testShippedLevelsFilterDebug() {
+		TcsLogger.configure(ConfigFactory.load());
+		for (Subsystem subsystem : Subsystem.values()) {
+			assertEquals(subsystem.name(), Level.INFO, subsystem.level());
+		}
+
+		TcsLogger log = TcsLogger.getLogger(system, "TcsLoggerTest", Subsystem.MCS);
+		assertFalse(log.isDebugEnabled());
+		assertTrue(log.isInfoEnabled());
+	}
+
+	@Test
+	public void testDisabledLevelDoesNotFormatArguments() {
+		TcsLogger log = TcsLogger.getLogger(system, "TcsLoggerTest", Subsystem.MCS);
+		CountingArg arg = new CountingArg();
+
+		Subsystem.MCS.setLevel(Level.INFO);
+		assertFalse(log.isDebugEnabled());
+		assertTrue(log.isInfoEnabled());
+		log.debug("Inside TcsLoggerTest: {}", arg);
+		assertEquals(0, arg.formatted);
+
+		Subsystem.MCS.setLevel(Level.DEBUG);
+		assertTrue(log.isDebugEnabled());
+		log.debug("Inside TcsLoggerTest: {}", arg);
+		assertEquals(1, arg.formatted);
+
+		Subsystem.MCS.setLevel(Level.OFF);
+		log.error("Inside TcsLoggerTest: {}", arg);
+		assertEquals(1, arg.formatted);
+	}
+
+}
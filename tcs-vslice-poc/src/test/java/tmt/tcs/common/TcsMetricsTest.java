@@ -0,0 +1,121 @@
+package tmt.tcs.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.dispatch.Envelope;
+import akka.japi.pf.ReceiveBuilder;
+import akka.testkit.JavaTestKit;
+import csw.services.loc.LocationService.Location;
+import javacsw.services.events.IEventService;
+import javacsw.services.events.ITelemetryService;
+import scala.PartialFunction;
+import scala.runtime.BoxedUnit;
+import tmt.tcs.common.MeteredMailbox.MeteredMessageQueue;
+import tmt.tcs.common.TcsMetrics.ComponentSnapshot;
+
+/**
+ * This test class checks that the base classes record their messages and
+ * publishes in TcsMetrics, and that MeteredMailbox keeps count of its depth
+ */
+public class TcsMetricsTest extends JavaTestKit {
+
+	/*
+	 * Replies to every string, pretending to have published it. Publishing
+	 * "fail" fails
+	 */
+	public static class TestPublisher extends BaseEventPublisher {
+		public TestPublisher() {
+			receive(ReceiveBuilder.match(String.class, s -> {
+				recordPublish(System.nanoTime() - 1000, s.equals("fail") ? new RuntimeException(s) : null);
+				sender().tell(s, self());
+			}).build());
+		}
+
+		@Override
+		public PartialFunction<Object, BoxedUnit> publishingEnabled(Optional<IEventService> eventService,
+				Optional<ITelemetryService> telemetryService) {
+			return ReceiveBuilder.matchAny(t -> {
+			}).build();
+		}
+
+		@Override
+		public void handleLocations(Location location, Optional<IEventService> currentEventService,
+				Optional<ITelemetryService> currentTelemetryService) {
+		}
+	}
+
+	private static ActorSystem system;
+
+	public TcsMetricsTest() {
+		super(system);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("TcsMetricsTests");
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	@Test
+	public void testPublisherMetrics() {
+		TcsMetrics.reset();
+		ActorRef publisher = system.actorOf(Props.create(TestPublisher.class));
+
+		publisher.tell("ok", getRef());
+		expectMsgEquals("ok");
+		publisher.tell("fail", getRef());
+		expectMsgEquals("fail");
+
+		// Processing is recorded after the reply has been sent
+		new AwaitAssert(duration("3 seconds")) {
+			@Override
+			protected void check() {
+				ComponentSnapshot snapshot = TcsMetrics.snapshot().get("TestPublisher");
+				assertEquals(2, snapshot.messages);
+				assertEquals(2, snapshot.processing.get("String").count);
+				assertEquals(2, snapshot.publishLatency.count);
+				assertTrue(snapshot.publishLatency.max >= 1000);
+				assertEquals(1, snapshot.publishFailures);
+				// Sampled for every message, the publisher runs with the
+				// default mailbox
+				assertEquals(2, snapshot.mailboxDepth.count);
+			}
+		};
+
+		system.stop(publisher);
+	}
+
+	@Test
+	public void testMailboxDepth() {
+		MeteredMessageQueue queue = (MeteredMessageQueue) new MeteredMailbox(null, null)
+				.create(scala.Option.empty(), scala.Option.empty());
+
+		for (int i = 0; i < 3; i++) {
+			queue.enqueue(ActorRef.noSender(), Envelope.apply(i, ActorRef.noSender(), system));
+		}
+		assertEquals(3, queue.numberOfMessages());
+		assertEquals(0, queue.dequeue().message());
+		assertEquals(2, queue.numberOfMessages());
+		queue.dequeue();
+		queue.dequeue();
+		assertNull(queue.dequeue());
+		assertEquals(0, queue.numberOfMessages());
+	}
+
+}
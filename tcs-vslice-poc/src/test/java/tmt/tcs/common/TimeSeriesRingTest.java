@@ -0,0 +1,94 @@
+package tmt.tcs.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import tmt.tcs.common.TimeSeriesRing.Window;
+
+/**
+ * This test class checks that the history ring keeps only its newest samples,
+ * downsamples a window into min/max/mean buckets and never returns a torn
+ * sample to a reader racing the writer
+ */
+public class TimeSeriesRingTest {
+
+	@Test
+	public void testBuckets() {
+		TimeSeriesRing ring = new TimeSeriesRing(100);
+		// One sample every 10 ms, value i
+		for (int i = 0; i < 40; i++) {
+			ring.add(1000 + i * 10, i);
+		}
+
+		// 400 ms in 4 buckets of 100 ms, i.e. 10 samples each
+		Window window = ring.window(1000, 1400, 4);
+		assertEquals(4, window.size);
+		assertEquals(1100, window.bucketMillis[1]);
+		assertEquals(10.0, window.min[1]);
+		assertEquals(19.0, window.max[1]);
+		assertEquals(14.5, window.mean[1]);
+		assertEquals(10, window.count[1]);
+	}
+
+	@Test
+	public void testEmptyBucketsAreLeftOut() {
+		TimeSeriesRing ring = new TimeSeriesRing(100);
+		ring.add(1000, 1.0);
+		ring.add(1350, 2.0);
+
+		Window window = ring.window(1000, 1400, 4);
+		assertEquals(2, window.size);
+		assertEquals(1000, window.bucketMillis[0]);
+		assertEquals(1300, window.bucketMillis[1]);
+		assertEquals(2.0, window.mean[1]);
+	}
+
+	@Test
+	public void testOldestSamplesAreOverwritten() {
+		TimeSeriesRing ring = new TimeSeriesRing(10);
+		for (int i = 0; i < 25; i++) {
+			ring.add(i, i);
+		}
+
+		// Only samples 15 to 24 are left
+		Window window = ring.window(0, 100, 100);
+		assertEquals(10, window.size);
+		assertEquals(15.0, window.min[0]);
+		assertEquals(24.0, window.max[window.size - 1]);
+	}
+
+	@Test
+	public void testConcurrentWriter() throws InterruptedException {
+		TimeSeriesRing ring = new TimeSeriesRing(64);
+		AtomicBoolean running = new AtomicBoolean(true);
+		// Time and value of every sample are equal, cycling through 0 to 999
+		Thread writer = new Thread(() -> {
+			for (long i = 0; running.get(); i++) {
+				ring.add(i % 1000, i % 1000);
+			}
+		});
+		writer.start();
+		try {
+			int windows = 0;
+			long deadline = System.nanoTime() + 500000000L;
+			while (System.nanoTime() < deadline) {
+				// One bucket per millisecond, so every bucket holds one time
+				Window window = ring.window(0, 1000, 1000);
+				for (int b = 0; b < window.size; b++) {
+					assertEquals((double) window.bucketMillis[b], window.min[b]);
+					assertEquals((double) window.bucketMillis[b], window.max[b]);
+				}
+				windows++;
+			}
+			assertTrue(windows > 0);
+		} finally {
+			running.set(false);
+			writer.join();
+		}
+	}
+
+}
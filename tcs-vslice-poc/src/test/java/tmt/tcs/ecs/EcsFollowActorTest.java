@@ -208,7 +208,7 @@ public class EcsFollowActorTest extends JavaTestKit {
 				Optional.of(fakePublisher.ref()), Optional.of(fakeStateActor.ref()));
 
 		// set the state so that Follow Actor Receive Position Parameters
-		setupState(new AssemblyState(azItem(azFollowing), elItem(elFollowing), null, null));
+		setupState(followActor, new AssemblyState(azItem(azFollowing), elItem(elFollowing), null, null));
 
 		followActor.tell(new UpdatedEventData(az(0), el(0), Events.getEventTime()), self());
 
@@ -223,7 +223,7 @@ public class EcsFollowActorTest extends JavaTestKit {
 				Optional.of(fakePublisher.ref()), Optional.of(fakeStateActor.ref()));
 
 		// set the state so that Follow Actor Receive Position Parameters
-		setupState(new AssemblyState(azItem(azFollowing), elItem(elFollowing), null, null));
+		setupState(followActor, new AssemblyState(azItem(azFollowing), elItem(elFollowing), null, null));
 
 		double testEl = 10.0;
 
@@ -259,11 +259,12 @@ public class EcsFollowActorTest extends JavaTestKit {
 		cleanup(Optional.empty(), followActor);
 	}
 
-	void setupState(AssemblyState assemblyState) {
+	void setupState(ActorRef followActor, AssemblyState assemblyState) {
 		// These times are important to allow time for test actors to get and
 		// process the state updates when running tests
 		expectNoMsg(FiniteDuration.apply(200, TimeUnit.MILLISECONDS));
-		system.eventStream().publish(assemblyState);
+		// The follower only takes states from its own state actor
+		fakeStateActor.send(followActor, assemblyState);
 		// This is here to allow the destination to run and set its state
 		expectNoMsg(FiniteDuration.apply(200, TimeUnit.MILLISECONDS));
 	}
@@ -209,7 +209,7 @@ public class M3FollowActorTest extends JavaTestKit {
 				Optional.of(fakePublisher.ref()), Optional.of(fakeStateActor.ref()));
 
 		// set the state so that Follow Actor Receive Position Parameters
-		setupState(new AssemblyState(null, null, rotationItem(rotationFollowing), tiltItem(tiltFollowing)));
+		setupState(followActor, new AssemblyState(null, null, rotationItem(rotationFollowing), tiltItem(tiltFollowing)));
 
 		followActor.tell(new UpdatedEventData(rotation(0), tilt(0), Events.getEventTime()), self());
 
@@ -224,7 +224,7 @@ public class M3FollowActorTest extends JavaTestKit {
 				Optional.of(fakePublisher.ref()), Optional.of(fakeStateActor.ref()));
 
 		// set the state so that Follow Actor Receive Position Parameters
-		setupState(new AssemblyState(null, null, rotationItem(rotationFollowing), tiltItem(tiltFollowing)));
+		setupState(followActor, new AssemblyState(null, null, rotationItem(rotationFollowing), tiltItem(tiltFollowing)));
 
 		double testEl = 10.0;
 
@@ -261,11 +261,12 @@ public class M3FollowActorTest extends JavaTestKit {
 		cleanup(Optional.empty(), followActor);
 	}
 
-	void setupState(AssemblyState assemblyState) {
+	void setupState(ActorRef followActor, AssemblyState assemblyState) {
 		// These times are important to allow time for test actors to get and
 		// process the state updates when running tests
 		expectNoMsg(FiniteDuration.apply(200, TimeUnit.MILLISECONDS));
-		system.eventStream().publish(assemblyState);
+		// The follower only takes states from its own state actor
+		fakeStateActor.send(followActor, assemblyState);
 		// This is here to allow the destination to run and set its state
 		expectNoMsg(FiniteDuration.apply(200, TimeUnit.MILLISECONDS));
 	}
@@ -0,0 +1,126 @@
+package tmt.tcs.mcs;
+
+import static javacsw.services.ccs.JCommandStatus.Completed;
+import static javacsw.util.config.JConfigDSL.sc;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.japi.Creator;
+import akka.japi.pf.ReceiveBuilder;
+import akka.testkit.JavaTestKit;
+import akka.testkit.TestProbe;
+import csw.services.ccs.SequentialExecutor.ExecuteOne;
+import scala.Option;
+import scala.collection.JavaConversions;
+import scala.concurrent.duration.FiniteDuration;
+import tmt.tcs.test.common.McsTestData;
+
+/**
+ * This test class floods many MCS command handlers with commands at once. Each
+ * command needs a state transition; as long as no handler blocks a dispatcher
+ * thread while waiting for its state actor, all commands complete quickly and
+ * an unrelated actor on the same dispatcher keeps responding
+ */
+public class McsCommandHandlerStressTest extends JavaTestKit {
+
+	/*
+	 * Replies to every message, runs on the default dispatcher like the
+	 * command handlers
+	 */
+	private static class Echo extends AbstractActor {
+
+		public static Props props() {
+			return Props.create(new Creator<Echo>() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public Echo create() throws Exception {
+					return new Echo();
+				}
+			});
+		}
+
+		public Echo() {
+			receive(ReceiveBuilder.matchAny(t -> sender().tell(t, self())).build());
+		}
+	}
+
+	private static ActorSystem system;
+
+	public McsCommandHandlerStressTest() {
+		super(system);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("McsCommandHandlerStressTests");
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	@Test
+	public void testConcurrentCommandsDoNotStarveDispatcher() {
+		final int handlers = 64;
+		final int commandsPerHandler = 10;
+		final int total = handlers * commandsPerHandler;
+
+		TestProbe fakeMcsHcd = new TestProbe(system);
+		TestProbe commandOriginator = new TestProbe(system);
+		ActorRef echo = system.actorOf(Echo.props());
+
+		List<ActorRef> commandHandlers = new ArrayList<>();
+		for (int i = 0; i < handlers; i++) {
+			commandHandlers.add(system.actorOf(McsCommandHandler.props(McsTestData.mcsTestAssemblyContext,
+					Optional.of(fakeMcsHcd.ref()), Optional.empty())));
+		}
+
+		ExecuteOne init = new ExecuteOne(sc(McsConfig.initCK.prefix()), Option.apply(commandOriginator.ref()));
+
+		long start = System.nanoTime();
+		for (int i = 0; i < commandsPerHandler; i++) {
+			for (ActorRef commandHandler : commandHandlers) {
+				commandHandler.tell(init, getRef());
+			}
+		}
+
+		// The dispatcher must stay responsive while the handlers are busy
+		long pingStart = System.nanoTime();
+		echo.tell("ping", getRef());
+		expectMsgEquals(duration("1 second"), "ping");
+		long pingMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pingStart);
+
+		List<Object> replies = JavaConversions
+				.seqAsJavaList(commandOriginator.receiveN(total, FiniteDuration.create(10, TimeUnit.SECONDS)));
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertEquals(total, replies.size());
+		for (Object reply : replies) {
+			assertEquals(Completed, reply);
+		}
+		// With a blocking ask per command this would run into the 5 s ask
+		// timeout as soon as all dispatcher threads were waiting
+		assertTrue("commands took " + elapsedMillis + " ms", elapsedMillis < 5000);
+		assertTrue("ping took " + pingMillis + " ms", pingMillis < 500);
+
+		commandHandlers.forEach(system::stop);
+		system.stop(echo);
+	}
+
+}
@@ -0,0 +1,136 @@
+package tmt.tcs.mcs;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static tmt.tcs.common.AssemblyStateActor.azFollowing;
+import static tmt.tcs.common.AssemblyStateActor.azItem;
+import static tmt.tcs.common.AssemblyStateActor.elFollowing;
+import static tmt.tcs.common.AssemblyStateActor.elItem;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.japi.Creator;
+import akka.japi.pf.ReceiveBuilder;
+import akka.testkit.JavaTestKit;
+import akka.testkit.TestProbe;
+import csw.util.config.Events.EventTime;
+import tmt.tcs.common.AssemblyStateActor;
+import tmt.tcs.common.AssemblyStateActor.AssemblyState;
+import tmt.tcs.common.BaseFollowActor;
+import tmt.tcs.common.ConflatingMailbox;
+import tmt.tcs.mcs.McsControl.GoToPosition;
+import tmt.tcs.mcs.McsFollowActor.SetAzimuth;
+import tmt.tcs.mcs.McsFollowActor.UpdatedEventData;
+import tmt.tcs.test.common.McsTestData;
+
+/**
+ * This test class checks that demands queued up for a stalled follower are
+ * coalesced by the ConflatingMailbox, so only the newest one is processed,
+ * while setpoints are never replaced by a demand
+ */
+public class McsFollowMailboxTest extends JavaTestKit {
+
+	/*
+	 * Stands in for a follower whose downstream stalls: it blocks on the
+	 * first message until released and forwards every demand afterwards
+	 */
+	private static class StalledFollower extends AbstractActor {
+
+		public static Props props(ActorRef forwardTo) {
+			return Props.create(new Creator<StalledFollower>() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public StalledFollower create() throws Exception {
+					return new StalledFollower(forwardTo);
+				}
+			});
+		}
+
+		public StalledFollower(ActorRef forwardTo) {
+			receive(ReceiveBuilder.match(CountDownLatch.class, latch -> latch.await(10, TimeUnit.SECONDS))
+					.match(UpdatedEventData.class, t -> forwardTo.tell(t, self())).build());
+		}
+	}
+
+	private static ActorSystem system;
+
+	public McsFollowMailboxTest() {
+		super(system);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("McsFollowMailboxTests");
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	@Test
+	public void testOnlyNewestDemandIsProcessed() {
+		TestProbe fakeMcsControl = new TestProbe(system);
+		ActorRef follower = system.actorOf(
+				StalledFollower.props(fakeMcsControl.ref()).withMailbox(ConflatingMailbox.mailboxId));
+
+		CountDownLatch stall = new CountDownLatch(1);
+		follower.tell(stall, getRef());
+
+		int demands = 50;
+		for (int i = 0; i < demands; i++) {
+			follower.tell(new UpdatedEventData(McsConfig.az(i), McsConfig.el(i), new EventTime(Instant.now())),
+					getRef());
+		}
+		stall.countDown();
+
+		UpdatedEventData processed = fakeMcsControl.expectMsgClass(duration("3 seconds"), UpdatedEventData.class);
+		assertEquals(McsConfig.az(demands - 1), processed.azimuth);
+		fakeMcsControl.expectNoMsg(duration("500 milli"));
+
+		assertEquals(demands - 1, ConflatingMailbox.coalescedCount(follower));
+	}
+
+	@Test
+	public void testSetpointIsNotConflated() {
+		TestProbe fakeMcsControl = new TestProbe(system);
+		TestProbe fakeStateActor = new TestProbe(system);
+		ActorRef follower = system.actorOf(McsFollowActor.props(McsTestData.mcsTestAssemblyContext,
+				McsConfig.az(0.0), McsConfig.el(0.0), Optional.of(fakeMcsControl.ref()), Optional.empty(),
+				Optional.of(fakeStateActor.ref())).withMailbox(ConflatingMailbox.mailboxId));
+		fakeStateActor.expectMsgClass(AssemblyStateActor.AssemblySubscribeState.class);
+		follower.tell(new AssemblyState(azItem(azFollowing), elItem(elFollowing), null, null),
+				fakeStateActor.ref());
+
+		// A tracking demand right behind the setpoint is queued while the
+		// setpoint is handled
+		follower.tell(new SetAzimuth(McsConfig.az(10.0)), getRef());
+		follower.tell(new UpdatedEventData(McsConfig.az(20.0), McsConfig.el(0.0), new EventTime(Instant.now()),
+				BaseFollowActor.demandClock(), Optional.empty()), getRef());
+
+		GoToPosition setpoint = fakeMcsControl.expectMsgClass(duration("3 seconds"), GoToPosition.class);
+		assertEquals(McsConfig.az(10.0), setpoint.azimuth);
+		assertFalse(setpoint.tracking);
+
+		GoToPosition tracking = fakeMcsControl.expectMsgClass(duration("3 seconds"), GoToPosition.class);
+		assertEquals(McsConfig.az(20.0), tracking.azimuth);
+		assertTrue(tracking.tracking);
+
+		system.stop(follower);
+	}
+
+}
@@ -0,0 +1,127 @@
+package tmt.tcs.mcs;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.JavaTestKit;
+import akka.testkit.TestProbe;
+import scala.concurrent.duration.FiniteDuration;
+import tmt.tcs.mcs.McsConfig.McsState;
+import tmt.tcs.mcs.hcd.McsAxisTrajectory;
+import tmt.tcs.mcs.hcd.McsHWConfig;
+import tmt.tcs.mcs.hcd.McsSimulator;
+import tmt.tcs.mcs.hcd.McsSimulator.McsPosUpdate;
+import tmt.tcs.mcs.hcd.McsSimulator.SimulatorMessage;
+import tmt.tcs.mcs.hcd.McsSimulator.TrackingStats;
+
+/**
+ * This test class checks the MCS axis trajectory and that the simulator moves
+ * at a limited rate and ends exactly on the demand
+ */
+public class McsSimulatorTest extends JavaTestKit {
+
+	private static ActorSystem system;
+
+	public McsSimulatorTest() {
+		super(system);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("McsSimulatorTests");
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	@Test
+	public void testTrajectoryRespectsVelocityAndAcceleration() {
+		double dt = 0.1;
+		McsAxisTrajectory axis = new McsAxisTrajectory(-270.0, 270.0, 2.0, 1.0, 0.0001, 0.0);
+		axis.setTarget(10.0);
+
+		double lastVelocity = 0.0;
+		int steps = 0;
+		while (!axis.inPosition() && steps < 1000) {
+			axis.step(dt);
+			steps++;
+			assertTrue(Math.abs(axis.velocity()) <= 2.0 + 1e-9);
+			if (!axis.inPosition()) {
+				assertTrue(Math.abs(axis.velocity() - lastVelocity) <= 1.0 * dt + 1e-9);
+			}
+			assertTrue(axis.position() <= 10.0);
+			lastVelocity = axis.velocity();
+		}
+
+		assertEquals(10.0, axis.position());
+		assertEquals(0.0, axis.trackingError());
+		// 2 s accelerating and braking over 2 degrees each, 3 s cruising
+		// over the remaining 6 degrees
+		assertTrue("steps: " + steps, steps >= 65 && steps <= 75);
+	}
+
+	@Test
+	public void testTrajectoryClampsToLimits() {
+		McsAxisTrajectory axis = new McsAxisTrajectory(0.0, 90.0, 5.0, 10.0, 0.0001, 45.0);
+		assertEquals(90.0, axis.setTarget(120.0));
+		assertEquals(0.0, axis.setTarget(-5.0));
+
+		for (int i = 0; i < 200 && !axis.inPosition(); i++) {
+			axis.step(0.1);
+		}
+		assertEquals(0.0, axis.position());
+	}
+
+	@Test
+	public void testTrajectoryWithoutVelocityJumps() {
+		McsAxisTrajectory axis = new McsAxisTrajectory(-270.0, 270.0, 0.0, 0.0, 0.0001, 0.0);
+		axis.setTarget(20.0);
+		axis.step(0.1);
+		assertTrue(axis.inPosition());
+		assertEquals(20.0, axis.position());
+	}
+
+	@Test
+	public void testSimulatorReportsMovingUntilInPosition() {
+		TestProbe hcd = new TestProbe(system);
+		McsHWConfig hwConfig = new McsHWConfig("Mcs", -270.0, 0.0, 200, 1200, 270.0, 90.0, 0.0, 0.0, 20, 10.0, 5.0,
+				10.0, 0.0001);
+		ActorRef simulator = system.actorOf(McsSimulator.props(Optional.of(hcd.ref()), hwConfig));
+
+		simulator.tell(new McsSimulator.Move(5.0, 1.0), hcd.ref());
+
+		int moving = 0;
+		McsPosUpdate update = hcd.expectMsgClass(McsPosUpdate.class);
+		while (update.state == McsState.MCS_MOVING) {
+			moving++;
+			assertTrue(update.azPosition < 5.0);
+			update = hcd.expectMsgClass(FiniteDuration.create(1, TimeUnit.SECONDS), McsPosUpdate.class);
+		}
+
+		assertEquals(McsState.MCS_IDLE, update.state);
+		assertEquals(5.0, update.azPosition);
+		assertEquals(1.0, update.elPosition);
+		// 5 degrees at 10 deg/s2 take about 1.4 s, 70 steps of 20 ms
+		assertTrue("moving updates: " + moving, moving > 50);
+
+		simulator.tell(SimulatorMessage.GetTrackingStats, hcd.ref());
+		TrackingStats stats = hcd.expectMsgClass(TrackingStats.class);
+		assertEquals(moving + 1, stats.samples);
+		assertTrue(stats.maxAzError < 5.0 && stats.maxAzError > stats.rmsAzError);
+
+		system.stop(simulator);
+	}
+
+}
@@ -0,0 +1,197 @@
+package tmt.tcs.test.common;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * This is a small benchmark harness for the demand pipeline. Every benchmark
+ * runs a number of warmup iterations followed by measured iterations, each
+ * iteration calls the operation opsPerIteration times. The results of the
+ * operation are consumed, so the JIT can not remove the measured code.
+ *
+ * Results are appended to a CSV file (tcs.benchmark.results, by default
+ * target/benchmarks/tcs-benchmarks.csv) so they can be tracked over time. If
+ * tcs.benchmark.maxRegression is set, e.g. to 0.25, a benchmark fails when
+ * its mean is more than that fraction slower than the last recorded run
+ */
+public final class MicroBenchmark {
+
+	public static final String enabledProperty = "tcs.benchmark";
+	public static final String resultsProperty = "tcs.benchmark.results";
+	public static final String maxRegressionProperty = "tcs.benchmark.maxRegression";
+
+	/**
+	 * One call of the measured code
+	 */
+	@FunctionalInterface
+	public interface Operation {
+		Object run(int i) throws Exception;
+	}
+
+	public static class Result {
+		public final String name;
+		public final long ops;
+		public final double meanNanosPerOp;
+		public final double minNanosPerOp;
+		public final double maxNanosPerOp;
+
+		public Result(String name, long ops, double meanNanosPerOp, double minNanosPerOp, double maxNanosPerOp) {
+			this.name = name;
+			this.ops = ops;
+			this.meanNanosPerOp = meanNanosPerOp;
+			this.minNanosPerOp = minNanosPerOp;
+			this.maxNanosPerOp = maxNanosPerOp;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %.1f ns/op (min %.1f, max %.1f, %d ops)", name, meanNanosPerOp, minNanosPerOp,
+					maxNanosPerOp, ops);
+		}
+	}
+
+	private final int warmupIterations;
+	private final int iterations;
+	private final int opsPerIteration;
+
+	// Written with every result so the measured code has a visible effect
+	private Object sink;
+	private long nulls = 0;
+
+	public MicroBenchmark(int warmupIterations, int iterations, int opsPerIteration) {
+		this.warmupIterations = warmupIterations;
+		this.iterations = iterations;
+		this.opsPerIteration = opsPerIteration;
+	}
+
+	/**
+	 * @return true if benchmarks were enabled with -Dtcs.benchmark=true
+	 */
+	public static boolean enabled() {
+		return Boolean.getBoolean(enabledProperty);
+	}
+
+	/**
+	 * Measures an operation, prints and records the result
+	 *
+	 * @param name
+	 * @param operation
+	 * @return
+	 * @throws Exception
+	 */
+	public Result run(String name, Operation operation) throws Exception {
+		for (int i = 0; i < warmupIterations; i++) {
+			iteration(operation);
+		}
+
+		double total = 0.0;
+		double min = Double.MAX_VALUE;
+		double max = 0.0;
+		for (int i = 0; i < iterations; i++) {
+			double nanosPerOp = (double) iteration(operation) / opsPerIteration;
+			total += nanosPerOp;
+			min = Math.min(min, nanosPerOp);
+			max = Math.max(max, nanosPerOp);
+		}
+
+		Result result = new Result(name, (long) iterations * opsPerIteration, total / iterations, min, max);
+		System.out.println("MicroBenchmark " + result + (nulls > 0 ? " (" + nulls + " null results)" : ""));
+		record(result);
+		return result;
+	}
+
+	/**
+	 * Measures the bytes the current thread allocates per call of an
+	 * operation, after warming it up. Prints the result
+	 *
+	 * @param name
+	 * @param operation
+	 * @return bytes per operation
+	 * @throws Exception
+	 */
+	public double allocatedBytesPerOp(String name, Operation operation) throws Exception {
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		for (int i = 0; i < warmupIterations; i++) {
+			iteration(operation);
+		}
+		long before = threadMXBean.getThreadAllocatedBytes(threadId);
+		iteration(operation);
+		double bytesPerOp = (double) (threadMXBean.getThreadAllocatedBytes(threadId) - before) / opsPerIteration;
+		System.out.println(String.format("MicroBenchmark %s: %.1f bytes/op", name, bytesPerOp));
+		return bytesPerOp;
+	}
+
+	private long iteration(Operation operation) throws Exception {
+		long start = System.nanoTime();
+		for (int i = 0; i < opsPerIteration; i++) {
+			Object result = operation.run(i);
+			if (result == null) {
+				nulls++;
+			}
+			sink = result;
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * @return the last result consumed, only there to keep it alive
+	 */
+	public Object sink() {
+		return sink;
+	}
+
+	private static File resultsFile() {
+		return new File(System.getProperty(resultsProperty, "target/benchmarks/tcs-benchmarks.csv"));
+	}
+
+	/*
+	 * Compares with the previous run of the same benchmark, then appends the
+	 * result as: time,name,ops,mean,min,max
+	 */
+	private static synchronized void record(Result result) throws IOException {
+		File file = resultsFile();
+		Optional<Double> previousMean = previousMean(file, result.name);
+
+		if (file.getParentFile() != null) {
+			file.getParentFile().mkdirs();
+		}
+		try (PrintWriter out = new PrintWriter(new FileWriter(file, true))) {
+			out.printf(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f%n", Instant.now(), result.name, result.ops,
+					result.meanNanosPerOp, result.minNanosPerOp, result.maxNanosPerOp);
+		}
+
+		String maxRegression = System.getProperty(maxRegressionProperty);
+		if (maxRegression != null && previousMean.isPresent()) {
+			double limit = previousMean.get() * (1.0 + Double.parseDouble(maxRegression));
+			if (result.meanNanosPerOp > limit) {
+				throw new AssertionError(String.format("%s regressed: %.1f ns/op, previous run %.1f ns/op",
+						result.name, result.meanNanosPerOp, previousMean.get()));
+			}
+		}
+	}
+
+	private static Optional<Double> previousMean(File file, String name) throws IOException {
+		if (!file.exists()) {
+			return Optional.empty();
+		}
+		List<String> lines = Files.readAllLines(file.toPath());
+		for (int i = lines.size() - 1; i >= 0; i--) {
+			String[] fields = lines.get(i).split(",");
+			if (fields.length == 6 && fields[1].equals(name)) {
+				return Optional.of(Double.parseDouble(fields[3]));
+			}
+		}
+		return Optional.empty();
+	}
+
+}
@@ -0,0 +1,107 @@
+package tmt.tcs.tpk;
+
+import static junit.framework.TestCase.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * This test class checks the ECS base/cap conversion against a reference
+ * model of the enclosure, which points the aperture by rotating vectors
+ * instead of using the closed form of EcsCoordinateTransform
+ */
+public class EcsCoordinateTransformTest {
+
+	private static final double tolerance = 1e-9;
+
+	/**
+	 * Rotates v about the unit axis k by angle (Rodrigues' rotation formula)
+	 */
+	private static double[] rotate(double[] v, double[] k, double angle) {
+		double cos = Math.cos(angle);
+		double sin = Math.sin(angle);
+		double dot = k[0] * v[0] + k[1] * v[1] + k[2] * v[2];
+		double[] cross = { k[1] * v[2] - k[2] * v[1], k[2] * v[0] - k[0] * v[2], k[0] * v[1] - k[1] * v[0] };
+		double[] result = new double[3];
+		for (int i = 0; i < 3; i++) {
+			result[i] = v[i] * cos + cross[i] * sin + k[i] * dot * (1 - cos);
+		}
+		return result;
+	}
+
+	/**
+	 * Reference model: the aperture starts at the zenith, is rotated by the
+	 * cap about the inclined cap axis, then by the base about the vertical
+	 *
+	 * @return azimuth and elevation in radians the aperture points to
+	 */
+	private static double[] aperture(double baseDegrees, double capDegrees) {
+		double ci = EcsCoordinateTransform.capInclination;
+		double[] capAxis = { Math.sin(ci), 0, Math.cos(ci) };
+		double[] vertical = { 0, 0, 1 };
+		double[] a = rotate(vertical, capAxis, Math.toRadians(capDegrees));
+		a = rotate(a, vertical, Math.toRadians(baseDegrees));
+		double az = Math.atan2(a[1], a[0]);
+		return new double[] { az < 0 ? az + 2 * Math.PI : az, Math.asin(a[2]) };
+	}
+
+	private static double angleDifference(double a, double b) {
+		double d = Math.IEEEremainder(a - b, 2 * Math.PI);
+		return Math.abs(d);
+	}
+
+	@Test
+	public void testAgainstReferenceModel() {
+		EcsCoordinateTransform transform = new EcsCoordinateTransform();
+		double lowest = 90 - 2 * Math.toDegrees(EcsCoordinateTransform.capInclination);
+		for (double elDegrees = lowest; elDegrees < 89.9; elDegrees += 0.7) {
+			for (double azDegrees = 0; azDegrees < 360; azDegrees += 7.3) {
+				double az = Math.toRadians(azDegrees);
+				double el = Math.toRadians(elDegrees);
+				transform.toBaseCap(az, el);
+
+				double[] pointed = aperture(transform.base, transform.cap);
+				assertEquals(0.0, angleDifference(az, pointed[0]), tolerance);
+				assertEquals(el, pointed[1], tolerance);
+			}
+		}
+	}
+
+	@Test
+	public void testLimits() {
+		EcsCoordinateTransform transform = new EcsCoordinateTransform();
+
+		// Zenith
+		transform.toBaseCap(1.0, Math.PI / 2);
+		assertEquals(0.0, transform.cap, tolerance);
+		assertEquals(Math.toDegrees(1.0), transform.base, tolerance);
+
+		// Lowest elevation and below
+		transform.toBaseCap(1.0, Math.toRadians(25.0));
+		assertEquals(180.0, transform.cap, tolerance);
+		assertEquals(Math.toDegrees(1.0), transform.base, tolerance);
+		transform.toBaseCap(1.0, Math.toRadians(10.0));
+		assertEquals(180.0, transform.cap, tolerance);
+	}
+
+	@Test
+	public void testBulkMatchesSingle() {
+		EcsCoordinateTransform transform = new EcsCoordinateTransform();
+		int n = 100;
+		double[] az = new double[n];
+		double[] el = new double[n];
+		for (int i = 0; i < n; i++) {
+			az[i] = i * 0.06;
+			el[i] = 0.5 + i * 0.01;
+		}
+		double[] base = new double[n];
+		double[] cap = new double[n];
+		transform.toBaseCap(az, el, base, cap, n);
+
+		for (int i = 0; i < n; i++) {
+			transform.toBaseCap(az[i], el[i]);
+			assertEquals(transform.base, base[i]);
+			assertEquals(transform.cap, cap[i]);
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+package tmt.tcs.tpk;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.fail;
+
+import org.junit.Test;
+
+/**
+ * This test class checks the offsets generated for grid, spiral and list
+ * offset patterns
+ */
+public class OffsetPatternTest {
+
+	private static void assertOffsets(OffsetPattern pattern, double[] ra, double[] dec) {
+		assertEquals(ra.length, pattern.size());
+		for (int i = 0; i < ra.length; i++) {
+			assertEquals(ra[i], pattern.ra(i), 1e-9);
+			assertEquals(dec[i], pattern.dec(i), 1e-9);
+		}
+	}
+
+	@Test
+	public void testGridIsCentredAndAlternatesRows() {
+		OffsetPattern grid = OffsetPattern.grid(3, 2, 10.0, 5.0, 1.0);
+
+		assertOffsets(grid, new double[] { -10, 0, 10, 10, 0, -10 }, new double[] { -2.5, -2.5, -2.5, 2.5, 2.5, 2.5 });
+		assertEquals(1.0, grid.dwellSeconds());
+	}
+
+	@Test
+	public void testSpiralWindsOutwards() {
+		OffsetPattern spiral = OffsetPattern.spiral(9, 2.0, 1.0);
+
+		assertOffsets(spiral, new double[] { 0, 2, 2, 0, -2, -2, -2, 0, 2 },
+				new double[] { 0, 0, 2, 2, 2, 0, -2, -2, -2 });
+	}
+
+	@Test
+	public void testListCopiesOffsets() {
+		double[] ra = { 1.0, 2.0 };
+		double[] dec = { 3.0, 4.0 };
+		OffsetPattern list = OffsetPattern.list(ra, dec, 0.5);
+		ra[0] = 0.0;
+
+		assertOffsets(list, new double[] { 1.0, 2.0 }, new double[] { 3.0, 4.0 });
+	}
+
+	@Test
+	public void testInvalidPatterns() {
+		try {
+			OffsetPattern.list(new double[] { 1.0 }, new double[0], 1.0);
+			fail("Expected mismatched offsets to be rejected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			OffsetPattern.spiral(3, 1.0, 0.0);
+			fail("Expected a zero dwell to be rejected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+}
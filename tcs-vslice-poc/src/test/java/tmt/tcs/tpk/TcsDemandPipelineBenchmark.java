@@ -0,0 +1,192 @@
+package tmt.tcs.tpk;
+
+import static javacsw.util.config.JConfigDSL.sc;
+import static javacsw.util.config.JItems.jadd;
+import static javacsw.util.config.JItems.jset;
+import static tmt.tcs.common.AssemblyStateActor.azFollowing;
+import static tmt.tcs.common.AssemblyStateActor.azItem;
+import static tmt.tcs.common.AssemblyStateActor.elFollowing;
+import static tmt.tcs.common.AssemblyStateActor.elItem;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.JavaTestKit;
+import akka.testkit.TestProbe;
+import csw.services.ccs.HcdController.Submit;
+import csw.util.config.DoubleItem;
+import csw.util.config.Events.SystemEvent;
+import scala.concurrent.duration.FiniteDuration;
+import tmt.tcs.common.AssemblyStateActor.AssemblyState;
+import tmt.tcs.common.AssemblyStateActor.AssemblySubscribeState;
+import tmt.tcs.common.DemandCommandTemplate;
+import tmt.tcs.common.DemandFilter;
+import tmt.tcs.common.DemandTrace;
+import tmt.tcs.common.DemandTrace.Stage;
+import tmt.tcs.mcs.McsConfig;
+import tmt.tcs.mcs.McsConfig.McsState;
+import tmt.tcs.mcs.McsControl;
+import tmt.tcs.mcs.McsEventSubscriber;
+import tmt.tcs.mcs.McsFollowActor;
+import tmt.tcs.mcs.hcd.McsHcd;
+import tmt.tcs.mcs.hcd.McsSimulator.McsPosUpdate;
+import tmt.tcs.test.common.McsTestData;
+import tmt.tcs.test.common.MicroBenchmark;
+
+/**
+ * This class benchmarks the pieces of the demand pipeline which run for every
+ * TPK tick, from the ECS base/cap conversion to the SetupConfig submitted to
+ * the MCS HCD. The benchmarks are skipped unless run with
+ * -Dtcs.benchmark=true, see MicroBenchmark for recording and comparing results
+ */
+public class TcsDemandPipelineBenchmark extends JavaTestKit {
+
+	private static ActorSystem system;
+
+	private final MicroBenchmark benchmark = new MicroBenchmark(5, 10, 100000);
+
+	public TcsDemandPipelineBenchmark() {
+		super(system);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("TcsDemandPipelineBenchmark");
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	private static TpkDemand demand(int i) {
+		TpkDemand demand = new TpkDemand();
+		demand.set(TpkConfig.positionDemandCK, 1.0 + i * 1e-6, 2.0, 3.0, 4.0, 5.0, 6.0, System.nanoTime());
+		return demand;
+	}
+
+	@Test
+	public void benchmarkEcsBaseCapConversion() throws Exception {
+		Assume.assumeTrue(MicroBenchmark.enabled());
+		EcsCoordinateTransform transform = new EcsCoordinateTransform();
+
+		benchmark.run("ecsBaseCapConversion", i -> {
+			transform.toBaseCap((i & 1023) * 0.006, 1.0);
+			return transform.base + transform.cap;
+		});
+	}
+
+	/**
+	 * Converts a precomputed trajectory of 1024 demands per operation
+	 */
+	@Test
+	public void benchmarkEcsBaseCapBulkConversion() throws Exception {
+		Assume.assumeTrue(MicroBenchmark.enabled());
+		EcsCoordinateTransform transform = new EcsCoordinateTransform();
+		int n = 1024;
+		double[] az = new double[n];
+		double[] el = new double[n];
+		double[] base = new double[n];
+		double[] cap = new double[n];
+		for (int i = 0; i < n; i++) {
+			az[i] = i * 0.006;
+			el[i] = 0.5 + i * 0.001;
+		}
+
+		new MicroBenchmark(5, 10, 1000).run("ecsBaseCapBulkConversion", i -> {
+			transform.toBaseCap(az, el, base, cap, n);
+			return base[i & (n - 1)] + cap[i & (n - 1)];
+		});
+	}
+
+	@Test
+	public void benchmarkDemandFrameEvent() throws Exception {
+		Assume.assumeTrue(MicroBenchmark.enabled());
+		TpkDemand demand = demand(0);
+
+		benchmark.run("demandFrameEvent",
+				i -> TpkEventPublisher.demandFrameEvent(demand, jset(TpkConfig.frameSeqKey, (long) i)));
+	}
+
+	@Test
+	public void benchmarkMcsDemandExtraction() throws Exception {
+		Assume.assumeTrue(MicroBenchmark.enabled());
+		SystemEvent frame = TpkEventPublisher.demandFrameEvent(demand(0), jset(TpkConfig.frameSeqKey, 1L));
+
+		benchmark.run("mcsDemandExtraction", i -> McsEventSubscriber.updatedEventData(frame));
+	}
+
+	/**
+	 * Compares the follow command McsControl built per demand before the
+	 * command template, from the prefix, with the template
+	 */
+	@Test
+	public void benchmarkMcsDemandCommand() throws Exception {
+		Assume.assumeTrue(MicroBenchmark.enabled());
+		DoubleItem az = McsConfig.az(1.0);
+		DoubleItem el = McsConfig.el(2.0);
+		DemandCommandTemplate template = new DemandCommandTemplate(McsConfig.followPrefix, McsConfig.az,
+				McsConfig.el);
+		MicroBenchmark.Operation legacy = i -> new Submit(
+				DemandTrace.addMarked(jadd(sc(McsConfig.followPrefix), az, el), Optional.empty(), Stage.CONTROL));
+		MicroBenchmark.Operation templated = i -> template.submit(az, el, Optional.empty());
+
+		benchmark.run("mcsDemandCommandLegacy", legacy);
+		benchmark.allocatedBytesPerOp("mcsDemandCommandLegacy", legacy);
+		benchmark.run("mcsDemandCommandTemplate", templated);
+		benchmark.allocatedBytesPerOp("mcsDemandCommandTemplate", templated);
+	}
+
+	@Test
+	public void benchmarkMcsCurrentState() throws Exception {
+		Assume.assumeTrue(MicroBenchmark.enabled());
+
+		benchmark.run("mcsCurrentState",
+				i -> McsHcd.currentState(new McsPosUpdate(McsState.MCS_MOVING, 1.0 + i * 1e-6, 2.0)));
+	}
+
+	/**
+	 * Measures one demand from the TPK demand record to the Submit received by
+	 * the MCS HCD, without the event service round trip
+	 */
+	@Test
+	public void benchmarkDemandToMcsHcd() throws Exception {
+		Assume.assumeTrue(MicroBenchmark.enabled());
+
+		TestProbe fakeMcsHcd = new TestProbe(system);
+		TestProbe fakeStateActor = new TestProbe(system);
+		// Every demand has to reach the HCD, so the demand filter is disabled
+		ActorRef mcsControl = system.actorOf(McsControl.props(McsTestData.mcsTestAssemblyContext,
+				Optional.of(fakeMcsHcd.ref()), DemandFilter.Settings.disabled));
+		ActorRef followActor = system.actorOf(McsFollowActor.props(McsTestData.mcsTestAssemblyContext,
+				McsConfig.az(0.0), McsConfig.el(0.0), Optional.of(mcsControl), Optional.empty(),
+				Optional.of(fakeStateActor.ref())));
+
+		fakeStateActor.expectMsgClass(AssemblySubscribeState.class);
+		fakeStateActor.reply(new AssemblyState(azItem(azFollowing), elItem(elFollowing), null, null));
+
+		FiniteDuration timeout = FiniteDuration.create(1, TimeUnit.SECONDS);
+		MicroBenchmark endToEnd = new MicroBenchmark(3, 5, 2000);
+		endToEnd.run("demandToMcsHcd", i -> {
+			SystemEvent frame = TpkEventPublisher.demandFrameEvent(demand(i), jset(TpkConfig.frameSeqKey, (long) i));
+			McsFollowActor.UpdatedEventData tagged = McsEventSubscriber.updatedEventData(frame);
+			// Without the time tag, so the demand is forwarded at once instead of
+			// interpolated on the next SendDemand tick
+			followActor.tell(new McsFollowActor.UpdatedEventData(tagged.azimuth, tagged.elevation, tagged.time,
+					tagged.trace), ActorRef.noSender());
+			return fakeMcsHcd.expectMsgClass(timeout, Submit.class);
+		});
+
+		system.stop(followActor);
+		system.stop(mcsControl);
+	}
+
+}
@@ -2,6 +2,7 @@ package tmt.tcs.tpk;
 
 import static javacsw.services.ccs.JCommandStatus.Accepted;
 import static javacsw.services.ccs.JCommandStatus.AllCompleted;
+import static javacsw.services.ccs.JCommandStatus.Incomplete;
 import static javacsw.services.loc.JConnectionType.AkkaType;
 import static javacsw.services.pkg.JComponent.RegisterAndTrackServices;
 import static javacsw.services.pkg.JSupervisor.Initialized;
@@ -9,6 +10,7 @@ import static javacsw.services.pkg.JSupervisor.Running;
 import static javacsw.util.config.JItems.jadd;
 import static javacsw.util.config.JItems.jset;
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 
 import java.util.Collections;
 import java.util.Optional;
@@ -28,6 +30,7 @@ import akka.testkit.TestProbe;
 import akka.util.Timeout;
 import csw.services.ccs.AssemblyController.Submit;
 import csw.services.ccs.CommandStatus.CommandResult;
+import csw.services.ccs.CommandStatus.Invalid;
 import csw.services.loc.LocationService;
 import csw.services.pkg.Component;
 import csw.services.pkg.Component.AssemblyInfo;
@@ -155,6 +158,98 @@ public class TpkAssemblyTest extends JavaTestKit {
 		logger.debug("Inside TpkAssemblyTest test2 Offset Comman: ENDS");
 	}
 
+	/**
+	 * This test case checks that queued targets are switched to in order with
+	 * the next command
+	 */
+	@Test
+	public void test3() {
+		logger.debug("Inside TpkAssemblyTest test3 Queue and Next Commands: STARTS");
+
+		ActorRef tpkAssembly = newRunningTpkAssembly();
+
+		SetupConfig queueSc = jadd(new SetupConfig(TpkConfig.queueCK.prefix()),
+				jset(TpkConfig.target, targetValue, "testtarget2"), jset(TpkConfig.ra, raValue, ra0Value),
+				jset(TpkConfig.dec, decValue, dec0Value));
+		assertEquals(AllCompleted, submit(tpkAssembly, "tpkQueueCommand", queueSc).overall());
+
+		SetupConfig nextSc = new SetupConfig(TpkConfig.nextCK.prefix());
+		assertEquals(AllCompleted, submit(tpkAssembly, "tpkNextCommand", nextSc).overall());
+		assertEquals(AllCompleted, submit(tpkAssembly, "tpkNextCommand", nextSc).overall());
+
+		logger.debug("Inside TpkAssemblyTest test3 Queue and Next Commands: ENDS");
+	}
+
+	/**
+	 * This test case checks that the next command is rejected when no target
+	 * is queued
+	 */
+	@Test
+	public void test4() {
+		logger.debug("Inside TpkAssemblyTest test4 Next Command on empty queue: STARTS");
+
+		ActorRef tpkAssembly = newRunningTpkAssembly();
+
+		CommandResult completeMsg = submit(tpkAssembly, "tpkNextCommand",
+				new SetupConfig(TpkConfig.nextCK.prefix()));
+		assertEquals(Incomplete, completeMsg.overall());
+		assertTrue(completeMsg.details().status(0) instanceof Invalid);
+
+		logger.debug("Inside TpkAssemblyTest test4 Next Command on empty queue: ENDS");
+	}
+
+	/**
+	 * This test case checks that queue commands without one ra and dec per
+	 * target are rejected, and nothing is queued
+	 */
+	@Test
+	public void test5() {
+		logger.debug("Inside TpkAssemblyTest test5 Invalid Queue Commands: STARTS");
+
+		ActorRef tpkAssembly = newRunningTpkAssembly();
+
+		SetupConfig mismatchedSc = jadd(new SetupConfig(TpkConfig.queueCK.prefix()),
+				jset(TpkConfig.target, targetValue, "testtarget2"), jset(TpkConfig.ra, raValue),
+				jset(TpkConfig.dec, decValue));
+		CommandResult completeMsg = submit(tpkAssembly, "tpkQueueCommand", mismatchedSc);
+		assertEquals(Incomplete, completeMsg.overall());
+		assertTrue(completeMsg.details().status(0) instanceof Invalid);
+
+		SetupConfig missingSc = jadd(new SetupConfig(TpkConfig.queueCK.prefix()), jset(TpkConfig.target, targetValue));
+		completeMsg = submit(tpkAssembly, "tpkQueueCommand", missingSc);
+		assertEquals(Incomplete, completeMsg.overall());
+		assertTrue(completeMsg.details().status(0) instanceof Invalid);
+
+		completeMsg = submit(tpkAssembly, "tpkNextCommand", new SetupConfig(TpkConfig.nextCK.prefix()));
+		assertEquals(Incomplete, completeMsg.overall());
+
+		logger.debug("Inside TpkAssemblyTest test5 Invalid Queue Commands: ENDS");
+	}
+
+	/**
+	 * Submits the configs and returns the result after checking they were
+	 * accepted
+	 */
+	CommandResult submit(ActorRef tpkAssembly, String name, SetupConfig... configs) {
+		TestProbe fakeClient = new TestProbe(system);
+		fakeClient.send(tpkAssembly, new Submit(Configurations.createSetupConfigArg(name, configs)));
+
+		CommandResult acceptedMsg = fakeClient.expectMsgClass(duration("3 seconds"), CommandResult.class);
+		assertEquals(acceptedMsg.overall(), Accepted);
+
+		CommandResult completeMsg = fakeClient.expectMsgClass(duration("3 seconds"), CommandResult.class);
+		logger.debug("Inside TpkAssemblyTest submit " + name + " Command Result: " + completeMsg);
+		return completeMsg;
+	}
+
+	ActorRef newRunningTpkAssembly() {
+		TestProbe fakeSupervisor = new TestProbe(system);
+		ActorRef tpkAssembly = newTpkAssembly(fakeSupervisor.ref());
+		fakeSupervisor.expectMsg(Initialized);
+		fakeSupervisor.send(tpkAssembly, Running);
+		return tpkAssembly;
+	}
+
 	Props getTpkProps(AssemblyInfo assemblyInfo, Optional<ActorRef> supervisorIn) {
 		if (!supervisorIn.isPresent())
 			return TpkAssembly.props(assemblyInfo, new TestProbe(system).ref());
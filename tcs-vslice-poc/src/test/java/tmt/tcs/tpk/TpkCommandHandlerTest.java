@@ -0,0 +1,124 @@
+package tmt.tcs.tpk;
+
+import static javacsw.services.ccs.JCommandStatus.Completed;
+import static javacsw.util.config.JItems.jadd;
+import static javacsw.util.config.JItems.jset;
+import static junit.framework.TestCase.assertEquals;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.JavaTestKit;
+import akka.testkit.TestProbe;
+import csw.services.ccs.CommandStatus.Invalid;
+import csw.services.ccs.SequentialExecutor.ExecuteOne;
+import csw.util.config.Configurations.SetupConfig;
+import scala.Option;
+import tmt.tcs.tpk.TpkEventPublisher.PatternProgress;
+
+/**
+ * This test class checks that the TPK command handler steps through an offset
+ * pattern, and that a pattern is superseded by a new pattern and stopped by an
+ * offset
+ */
+public class TpkCommandHandlerTest extends JavaTestKit {
+
+	private static ActorSystem system;
+
+	public TpkCommandHandlerTest() {
+		super(system);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("TpkCommandHandlerTest");
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	private static SetupConfig listPattern(double dwell, Double... offsets) {
+		return jadd(new SetupConfig(TpkConfig.patternCK.prefix()), jset(TpkConfig.patternType, OffsetPattern.list),
+				jset(TpkConfig.ra, offsets), jset(TpkConfig.dec, offsets), jset(TpkConfig.patternDwell, dwell));
+	}
+
+	private static void execute(ActorRef commandHandler, SetupConfig sc, TestProbe originator) {
+		commandHandler.tell(new ExecuteOne(sc, Option.apply(originator.ref())), originator.ref());
+	}
+
+	private static void expectProgress(TestProbe publisher, int index, int size) {
+		PatternProgress progress = publisher.expectMsgClass(duration("3 seconds"), PatternProgress.class);
+		assertEquals(index, progress.index);
+		assertEquals(size, progress.size);
+	}
+
+	@Test
+	public void testPatternSteps() {
+		TestProbe publisher = new TestProbe(system);
+		TestProbe originator = new TestProbe(system);
+		ActorRef commandHandler = system.actorOf(TpkCommandHandler
+				.props(new TpkDemandRing(TpkConfig.demandRingCapacity), publisher.ref()));
+
+		execute(commandHandler, listPattern(0.05, 1.0, 2.0, 3.0), originator);
+		originator.expectMsg(Completed);
+
+		for (int i = 0; i <= 3; i++) {
+			expectProgress(publisher, i, 3);
+		}
+		publisher.expectNoMsg(duration("300 millis"));
+
+		system.stop(commandHandler);
+	}
+
+	@Test
+	public void testPatternSupersededAndStopped() {
+		TestProbe publisher = new TestProbe(system);
+		TestProbe originator = new TestProbe(system);
+		ActorRef commandHandler = system.actorOf(TpkCommandHandler
+				.props(new TpkDemandRing(TpkConfig.demandRingCapacity), publisher.ref()));
+
+		execute(commandHandler, listPattern(0.5, 1.0, 2.0, 3.0, 4.0), originator);
+		originator.expectMsg(Completed);
+		expectProgress(publisher, 0, 4);
+
+		// A new pattern replaces the running one
+		execute(commandHandler, listPattern(0.05, 5.0, 6.0), originator);
+		originator.expectMsg(Completed);
+		expectProgress(publisher, 0, 2);
+		expectProgress(publisher, 1, 2);
+		expectProgress(publisher, 2, 2);
+		publisher.expectNoMsg(duration("700 millis"));
+
+		// An offset stops the running pattern
+		execute(commandHandler, listPattern(0.5, 1.0, 2.0, 3.0), originator);
+		originator.expectMsg(Completed);
+		expectProgress(publisher, 0, 3);
+		execute(commandHandler, jadd(new SetupConfig(TpkConfig.offsetCK.prefix()), jset(TpkConfig.ra, 1.0),
+				jset(TpkConfig.dec, 1.0)), originator);
+		originator.expectMsg(Completed);
+		publisher.expectNoMsg(duration("700 millis"));
+
+		system.stop(commandHandler);
+	}
+
+	@Test
+	public void testDwellShorterThanTickIsInvalid() {
+		TestProbe publisher = new TestProbe(system);
+		TestProbe originator = new TestProbe(system);
+		ActorRef commandHandler = system.actorOf(TpkCommandHandler
+				.props(new TpkDemandRing(TpkConfig.demandRingCapacity), publisher.ref()));
+
+		execute(commandHandler, listPattern(1e-7, 1.0, 2.0), originator);
+		originator.expectMsgClass(Invalid.class);
+		publisher.expectNoMsg(duration("300 millis"));
+
+		system.stop(commandHandler);
+	}
+
+}
@@ -0,0 +1,94 @@
+package tmt.tcs.tpk;
+
+import static javacsw.util.config.JItems.jset;
+import static junit.framework.TestCase.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+import csw.util.config.DoubleItem;
+import tmt.tcs.ecs.EcsConfig;
+import tmt.tcs.m3.M3Config;
+import tmt.tcs.mcs.McsConfig;
+import tmt.tcs.tpk.TpkEventPublisher.EcsPosDemand;
+import tmt.tcs.tpk.TpkEventPublisher.M3PosDemand;
+import tmt.tcs.tpk.TpkEventPublisher.McsPosDemand;
+
+/**
+ * This is an allocation benchmark for the TPK callback thread. It compares the
+ * bytes allocated per demand tick by the previous callback path (building CSW
+ * items and publisher messages on the callback thread) with the demand ring
+ * path which only copies primitives into a preallocated slot
+ */
+public class TpkDemandAllocationTest {
+
+	private static final int warmupTicks = 200000;
+	private static final int measuredTicks = 1000000;
+
+	// Keeps the legacy path's results reachable so they are not optimized away
+	private Object sink;
+
+	private final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+
+	private long allocatedBytes() {
+		return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private void legacyTick(double value) {
+		DoubleItem mcsAzItem = jset(McsConfig.azDemandKey, value);
+		DoubleItem mcsElItem = jset(McsConfig.elDemandKey, value);
+		DoubleItem ecsAzItem = jset(EcsConfig.azDemandKey, value);
+		DoubleItem ecsElItem = jset(EcsConfig.elDemandKey, value);
+		DoubleItem m3RotationItem = jset(M3Config.rotationDemandKey, value);
+		DoubleItem m3TiltItem = jset(M3Config.tiltDemandKey, value);
+
+		sink = new McsPosDemand(McsConfig.positionDemandCK, mcsAzItem, mcsElItem);
+		sink = new EcsPosDemand(EcsConfig.positionDemandCK, ecsAzItem, ecsElItem);
+		sink = new M3PosDemand(M3Config.positionDemandCK, m3RotationItem, m3TiltItem);
+	}
+
+	private void ringTick(TpkDemandRing ring, TpkDemand drained, double value) {
+		ring.offer(TpkConfig.positionDemandCK, value, value, value, value, value, value, System.nanoTime());
+		ring.poll(drained);
+	}
+
+	private double legacyBytesPerTick() {
+		for (int i = 0; i < warmupTicks; i++) {
+			legacyTick(i);
+		}
+		long before = allocatedBytes();
+		for (int i = 0; i < measuredTicks; i++) {
+			legacyTick(i);
+		}
+		return (double) (allocatedBytes() - before) / measuredTicks;
+	}
+
+	private double ringBytesPerTick() {
+		TpkDemandRing ring = new TpkDemandRing(TpkConfig.demandRingCapacity);
+		TpkDemand drained = new TpkDemand();
+		for (int i = 0; i < warmupTicks; i++) {
+			ringTick(ring, drained, i);
+		}
+		long before = allocatedBytes();
+		for (int i = 0; i < measuredTicks; i++) {
+			ringTick(ring, drained, i);
+		}
+		return (double) (allocatedBytes() - before) / measuredTicks;
+	}
+
+	/**
+	 * The ring path should allocate (close to) nothing per tick, and clearly
+	 * less than the legacy path
+	 */
+	@Test
+	public void testRingPathDoesNotAllocatePerTick() {
+		double legacy = legacyBytesPerTick();
+		double ring = ringBytesPerTick();
+
+		assertTrue("ring path allocates " + ring + " bytes/tick", ring < 1.0);
+		assertTrue("legacy path allocates " + legacy + " bytes/tick", legacy > ring);
+	}
+
+}
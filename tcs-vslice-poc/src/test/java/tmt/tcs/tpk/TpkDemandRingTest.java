@@ -0,0 +1,123 @@
+package tmt.tcs.tpk;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import org.junit.Test;
+
+import tmt.tcs.tpk.TpkDemandRing.OverflowPolicy;
+
+/**
+ * This test class checks hand over, overflow policies and counters of the
+ * single producer / single consumer demand ring
+ */
+public class TpkDemandRingTest {
+
+	private static void offer(TpkDemandRing ring, double value) {
+		ring.offer(TpkConfig.positionDemandCK, value, value, value, value, value, value, System.nanoTime());
+	}
+
+	@Test
+	public void testDropNewestWhenFull() {
+		TpkDemandRing ring = new TpkDemandRing(4, OverflowPolicy.DROP_NEWEST);
+		TpkDemand drained = new TpkDemand();
+
+		for (int i = 0; i < 6; i++) {
+			offer(ring, i);
+		}
+
+		assertEquals(6, ring.offeredCount());
+		assertEquals(2, ring.droppedCount());
+		assertEquals(0, ring.overwrittenCount());
+
+		for (int i = 0; i < 4; i++) {
+			assertTrue(ring.poll(drained));
+			assertEquals((double) i, drained.mcsAz);
+		}
+		assertFalse(ring.poll(drained));
+	}
+
+	@Test
+	public void testOverwriteOldestWhenFull() {
+		TpkDemandRing ring = new TpkDemandRing(4, OverflowPolicy.OVERWRITE_OLDEST);
+		TpkDemand drained = new TpkDemand();
+
+		for (int i = 0; i < 6; i++) {
+			offer(ring, i);
+		}
+
+		assertEquals(0, ring.droppedCount());
+		assertEquals(2, ring.overwrittenCount());
+
+		for (int i = 2; i < 6; i++) {
+			assertTrue(ring.poll(drained));
+			assertEquals((double) i, drained.mcsAz);
+		}
+		assertFalse(ring.poll(drained));
+	}
+
+	/**
+	 * The wakeup runs once when the ring becomes non-empty and again only
+	 * after the consumer rearmed it
+	 */
+	@Test
+	public void testWakeupOncePerDrain() {
+		TpkDemandRing ring = new TpkDemandRing(8);
+		TpkDemand drained = new TpkDemand();
+		int[] wakeups = { 0 };
+		ring.setWakeup(() -> wakeups[0]++);
+
+		offer(ring, 1);
+		offer(ring, 2);
+		assertEquals(1, wakeups[0]);
+
+		ring.rearm();
+		assertTrue(ring.poll(drained));
+		assertTrue(ring.poll(drained));
+		assertFalse(ring.poll(drained));
+
+		offer(ring, 3);
+		assertEquals(2, wakeups[0]);
+
+		ring.setWakeup(null);
+		ring.rearm();
+		offer(ring, 4);
+		assertEquals(2, wakeups[0]);
+	}
+
+	/**
+	 * A producer thread and the consumer run concurrently; every delivered
+	 * demand must be intact and in order, and delivered plus evicted demands
+	 * must account for everything offered
+	 */
+	@Test
+	public void testConcurrentHandOver() throws InterruptedException {
+		final int total = 2000000;
+		TpkDemandRing ring = new TpkDemandRing(64, OverflowPolicy.OVERWRITE_OLDEST);
+		TpkDemand drained = new TpkDemand();
+
+		Thread producer = new Thread(() -> {
+			for (int i = 1; i <= total; i++) {
+				offer(ring, i);
+			}
+		});
+		producer.start();
+
+		long delivered = 0;
+		double last = 0;
+		while (producer.isAlive() || ring.size() > 0) {
+			if (ring.poll(drained)) {
+				assertTrue(drained.mcsAz > last);
+				assertEquals(drained.mcsAz, drained.m3Tilt);
+				last = drained.mcsAz;
+				delivered++;
+			}
+		}
+		producer.join();
+
+		assertEquals(total, ring.offeredCount());
+		assertEquals(total, delivered + ring.overwrittenCount());
+	}
+
+}
@@ -0,0 +1,79 @@
+package tmt.tcs.tpk;
+
+import static javacsw.util.config.JItems.jitem;
+import static javacsw.util.config.JItems.jvalue;
+import static junit.framework.TestCase.assertEquals;
+
+import java.util.Optional;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.JavaTestKit;
+import akka.testkit.TestProbe;
+import csw.util.config.Configurations.ConfigKey;
+import csw.util.config.Events.SystemEvent;
+import tmt.tcs.common.DemandFrame;
+import tmt.tcs.common.LocalEventBus;
+import tmt.tcs.mcs.McsConfig;
+
+/**
+ * This test class checks the frame sequence numbers of the demand events
+ * published by the TPK event publisher
+ */
+public class TpkEventPublisherTest extends JavaTestKit {
+
+	private static ActorSystem system;
+
+	public TpkEventPublisherTest() {
+		super(system);
+	}
+
+	@BeforeClass
+	public static void setup() {
+		system = ActorSystem.create("TpkEventPublisherTest");
+	}
+
+	@AfterClass
+	public static void teardown() {
+		JavaTestKit.shutdownActorSystem(system);
+		system = null;
+	}
+
+	private static void offer(TpkDemandRing ring, ConfigKey configKey, double value) {
+		ring.offer(configKey, value, value, value, value, value, value, System.nanoTime());
+	}
+
+	private static void expectEvent(TestProbe probe, String prefix, long seq) {
+		SystemEvent event = probe.expectMsgClass(LocalEventBus.LocalEvent.class).event;
+		assertEquals(prefix, event.info().source().prefix());
+		assertEquals(seq, (long) jvalue(jitem(event, DemandFrame.frameSeqKey)));
+	}
+
+	@Test
+	public void testOffsetsBetweenFrames() {
+		TestProbe probe = new TestProbe(system);
+		LocalEventBus.subscribe(probe.ref(), TpkConfig.demandFramePrefix, McsConfig.offsetDemandPrefix);
+
+		TpkDemandRing ring = new TpkDemandRing(TpkConfig.demandRingCapacity);
+		ActorRef publisher = system.actorOf(TpkEventPublisher.props(ring, Optional.empty(), Optional.empty()));
+
+		offer(ring, TpkConfig.positionDemandCK, 1.0);
+		offer(ring, TpkConfig.offsetDemandCK, 0.1);
+		offer(ring, TpkConfig.offsetDemandCK, 0.2);
+		offer(ring, TpkConfig.positionDemandCK, 2.0);
+
+		// Offsets do not use up frame numbers, so ECS and M3 see no gap
+		expectEvent(probe, TpkConfig.demandFramePrefix, 1);
+		expectEvent(probe, McsConfig.offsetDemandPrefix, 1);
+		expectEvent(probe, McsConfig.offsetDemandPrefix, 2);
+		expectEvent(probe, TpkConfig.demandFramePrefix, 2);
+
+		LocalEventBus.unsubscribe(probe.ref());
+		system.stop(publisher);
+	}
+
+}
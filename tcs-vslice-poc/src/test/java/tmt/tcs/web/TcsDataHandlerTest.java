@@ -0,0 +1,56 @@
+package tmt.tcs.web;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import tmt.tcs.web.TcsDataHandler.PositionSnapshot;
+
+/**
+ * This test class checks that readers of TcsDataHandler always see the
+ * positions of one update together
+ */
+public class TcsDataHandlerTest {
+
+	@Test
+	public void testUpdateKeepsOtherSubsystems() {
+		PositionSnapshot before = TcsDataHandler.snapshot();
+		PositionSnapshot after = TcsDataHandler.updateEcs(10.0, 20.0);
+
+		assertEquals(before.version + 1, after.version);
+		assertEquals(10.0, after.ecsAzimuth);
+		assertEquals(20.0, after.ecsElevation);
+		assertEquals(before.mcsAzimuth, after.mcsAzimuth);
+		assertEquals(before.m3Tilt, after.m3Tilt);
+		assertTrue(after == TcsDataHandler.snapshot());
+	}
+
+	@Test
+	public void testReadersSeeNoTornPositions() throws Exception {
+		AtomicBoolean running = new AtomicBoolean(true);
+		// Azimuth and elevation are always written as the same value
+		Thread writer = new Thread(() -> {
+			for (int i = 0; running.get(); i++) {
+				TcsDataHandler.updateMcs(i, i);
+			}
+		});
+		writer.start();
+
+		long lastVersion = -1;
+		try {
+			for (int i = 0; i < 1000000; i++) {
+				PositionSnapshot position = TcsDataHandler.snapshot();
+				assertEquals(position.mcsAzimuth, position.mcsElevation);
+				assertTrue(position.version >= lastVersion);
+				lastVersion = position.version;
+			}
+		} finally {
+			running.set(false);
+			writer.join();
+		}
+	}
+
+}
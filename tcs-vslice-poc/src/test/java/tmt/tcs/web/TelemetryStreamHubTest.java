@@ -0,0 +1,153 @@
+package tmt.tcs.web;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * This test class checks that the telemetry stream sends only changed
+ * channels, coalesces changes faster than the client rate, holds changes for
+ * clients which are not ready and drops clients which are gone
+ */
+public class TelemetryStreamHubTest {
+
+	private static class RecordingSink implements TelemetryStreamHub.Sink {
+		final List<String> events = new ArrayList<>();
+		boolean ready = true;
+		boolean failing = false;
+		boolean completed = false;
+		boolean closed = false;
+
+		@Override
+		public boolean isReady() {
+			if (completed) {
+				throw new IllegalStateException("completed");
+			}
+			return ready;
+		}
+
+		@Override
+		public void send(String event) throws IOException {
+			if (failing) {
+				throw new IOException("gone");
+			}
+			events.add(event);
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+
+	@Test
+	public void testFirstEventHasAllChannels() {
+		TelemetryStreamHub hub = new TelemetryStreamHub();
+		hub.update("mcsAzimuth", 1.5);
+		hub.update("mcsElevation", 30.0);
+
+		RecordingSink sink = new RecordingSink();
+		hub.connect(sink, 10);
+		hub.flush(1000);
+
+		assertEquals(1, sink.events.size());
+		assertEquals("data: {\"mcsAzimuth\":1.5,\"mcsElevation\":30.0}\n\n", sink.events.get(0));
+	}
+
+	@Test
+	public void testOnlyChangesAreSent() {
+		TelemetryStreamHub hub = new TelemetryStreamHub();
+		hub.update("mcsAzimuth", 1.5);
+		hub.update("mcsElevation", 30.0);
+		RecordingSink sink = new RecordingSink();
+		hub.connect(sink, 10);
+		hub.flush(1000);
+
+		hub.update("mcsAzimuth", 1.5);
+		hub.update("mcsElevation", 31.0);
+		hub.flush(1100);
+
+		assertEquals(2, sink.events.size());
+		assertEquals("data: {\"mcsElevation\":31.0}\n\n", sink.events.get(1));
+	}
+
+	@Test
+	public void testChangesAreCoalescedToClientRate() {
+		TelemetryStreamHub hub = new TelemetryStreamHub();
+		RecordingSink sink = new RecordingSink();
+		// At most one event every 200 ms
+		hub.connect(sink, 5);
+
+		hub.update("m3Tilt", 1.0);
+		hub.flush(1000);
+		hub.update("m3Tilt", 2.0);
+		hub.flush(1050);
+		hub.update("m3Tilt", 3.0);
+		hub.flush(1100);
+		assertEquals(1, sink.events.size());
+
+		hub.flush(1200);
+		assertEquals(2, sink.events.size());
+		assertEquals("data: {\"m3Tilt\":3.0}\n\n", sink.events.get(1));
+	}
+
+	@Test
+	public void testKeepaliveAndDisconnect() {
+		TelemetryStreamHub hub = new TelemetryStreamHub();
+		RecordingSink sink = new RecordingSink();
+		hub.connect(sink, 10);
+		hub.flush(20000);
+		assertEquals(":keepalive\n\n", sink.events.get(0));
+
+		sink.failing = true;
+		hub.update("ecsAzimuth", 10.0);
+		hub.flush(20200);
+		assertTrue(sink.closed);
+		assertEquals(0, hub.clientCount());
+	}
+
+	@Test
+	public void testSlowClientDoesNotHoldUpOthers() {
+		TelemetryStreamHub hub = new TelemetryStreamHub();
+		RecordingSink slow = new RecordingSink();
+		RecordingSink fast = new RecordingSink();
+		hub.connect(slow, 10);
+		hub.connect(fast, 10);
+
+		slow.ready = false;
+		hub.update("mcsAzimuth", 1.0);
+		hub.flush(1000);
+		hub.update("mcsAzimuth", 2.0);
+		hub.flush(1100);
+		assertEquals(0, slow.events.size());
+		assertEquals(2, fast.events.size());
+
+		// Once ready the slow client gets the latest value only
+		slow.ready = true;
+		hub.flush(1200);
+		assertEquals(1, slow.events.size());
+		assertEquals("data: {\"mcsAzimuth\":2.0}\n\n", slow.events.get(0));
+	}
+
+	@Test
+	public void testCompletedClientIsDropped() {
+		TelemetryStreamHub hub = new TelemetryStreamHub();
+		RecordingSink completed = new RecordingSink();
+		RecordingSink other = new RecordingSink();
+		hub.connect(completed, 10);
+		hub.connect(other, 10);
+
+		completed.completed = true;
+		hub.update("mcsAzimuth", 1.0);
+		hub.flush(1000);
+		assertTrue(completed.closed);
+		assertEquals(1, hub.clientCount());
+		assertEquals(1, other.events.size());
+	}
+
+}